@@ -0,0 +1,113 @@
+package tech.sohaib_tarek.commandservice.client;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import tech.sohaib_tarek.commandservice.dto.ProductResponse;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects product lookups from concurrent requests into batched {@link ProductClient#getProductsByIds} calls.
+ * <p>
+ * The first key of a batch opens a short window; the batch is sent when the window closes or
+ * as soon as it holds the maximum number of keys, whichever comes first. Every caller gets a
+ * future completed with its own product, or with null when product-service does not know it.
+ * Batch sizes are recorded in the product.lookup.batch.size distribution.
+ */
+@Component
+public class ProductBatchDispatcher {
+
+    private final ProductClient productClient;
+    private final ScheduledExecutorService timer;
+    private final ExecutorService executor;
+    private final DistributionSummary batchSizes;
+
+    @Value("${product.lookup.batching.window-micros:2000}")
+    private long windowMicros;
+
+    @Value("${product.lookup.batching.max-batch-size:100}")
+    private int maxBatchSize;
+
+    private final Object lock = new Object();
+    private Map<Long, CompletableFuture<ProductResponse>> batch = new LinkedHashMap<>();
+    private ScheduledFuture<?> windowClose;
+
+    public ProductBatchDispatcher(ProductClient productClient,
+                                  @Qualifier("productBatchTimer") ScheduledExecutorService timer,
+                                  @Qualifier("productLookupExecutor") ExecutorService executor,
+                                  MeterRegistry meterRegistry) {
+        this.productClient = productClient;
+        this.timer = timer;
+        this.executor = executor;
+        this.batchSizes = DistributionSummary.builder("product.lookup.batch.size")
+                .description("Product IDs per batched product-service lookup")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    public CompletableFuture<ProductResponse> load(Long productId) {
+        Map<Long, CompletableFuture<ProductResponse>> full = null;
+        CompletableFuture<ProductResponse> future;
+        synchronized (lock) {
+            future = batch.computeIfAbsent(productId, id -> new CompletableFuture<>());
+            if (batch.size() >= maxBatchSize) {
+                full = takeBatch();
+            } else if (windowClose == null) {
+                windowClose = timer.schedule(this::closeWindow, windowMicros, TimeUnit.MICROSECONDS);
+            }
+        }
+        if (full != null) {
+            dispatch(full);
+        }
+        return future;
+    }
+
+    private void closeWindow() {
+        Map<Long, CompletableFuture<ProductResponse>> ready;
+        synchronized (lock) {
+            ready = takeBatch();
+        }
+        dispatch(ready);
+    }
+
+    // Caller holds the lock
+    private Map<Long, CompletableFuture<ProductResponse>> takeBatch() {
+        Map<Long, CompletableFuture<ProductResponse>> taken = batch;
+        batch = new LinkedHashMap<>();
+        if (windowClose != null) {
+            windowClose.cancel(false);
+            windowClose = null;
+        }
+        return taken;
+    }
+
+    private void dispatch(Map<Long, CompletableFuture<ProductResponse>> ready) {
+        if (ready.isEmpty()) {
+            return;
+        }
+        batchSizes.record(ready.size());
+        // The timer thread only hands batches over; the blocking call runs on a virtual thread
+        executor.execute(() -> {
+            try {
+                Map<Long, ProductResponse> products = new HashMap<>();
+                for (ProductResponse product : productClient.getProductsByIds(new ArrayList<>(ready.keySet()))) {
+                    products.put(product.getProductId(), product);
+                }
+                ready.forEach((productId, future) -> future.complete(products.get(productId)));
+            } catch (RuntimeException e) {
+                ready.values().forEach(future -> future.completeExceptionally(e));
+            }
+        });
+    }
+}
@@ -1,18 +1,34 @@
 package tech.sohaib_tarek.commandservice.client;
 
+import tech.sohaib_tarek.commandservice.dto.CartReservationResponse;
+import tech.sohaib_tarek.commandservice.dto.ProductChangeFeedResponse;
+import tech.sohaib_tarek.commandservice.dto.ProductPageResponse;
 import tech.sohaib_tarek.commandservice.dto.ProductResponse;
+import tech.sohaib_tarek.commandservice.dto.StockOperationRequest;
+import tech.sohaib_tarek.commandservice.dto.StockOperationResult;
+import tech.sohaib_tarek.commandservice.dto.StockReservationRequest;
+import tech.sohaib_tarek.commandservice.dto.StockReservationResponse;
 import tech.sohaib_tarek.commandservice.dto.StockUpdateRequest;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 
-@FeignClient(name = "product-service", path = "/api/products")
+@FeignClient(name = "product-service", path = "/api/products", fallbackFactory = ProductClientFallbackFactory.class)
 public interface ProductClient {
 
     @GetMapping("/{productId}")
     ProductResponse getProductById(@PathVariable("productId") Long productId);
 
+    @GetMapping("/page")
+    ProductPageResponse getProductsPage(@RequestParam(value = "cursor", required = false) String cursor, @RequestParam("size") Integer size);
+
+    @GetMapping("/changes")
+    ProductChangeFeedResponse getChanges(@RequestParam("since") Long since, @RequestParam("limit") Integer limit);
+
+    @PostMapping("/batch")
+    List<ProductResponse> getProductsByIds(@RequestBody List<Long> productIds);
+
     @GetMapping("/{productId}/check-stock")
     Boolean checkStock(@PathVariable("productId") Long productId, @RequestParam("quantity") Integer quantity);
 
@@ -21,5 +37,20 @@ public interface ProductClient {
 
     @PostMapping("/restore-stock")
     void restoreStock(@RequestBody List<StockUpdateRequest> stockUpdates);
+
+    @PostMapping("/stock-operations")
+    List<StockOperationResult> applyStockOperations(@RequestBody List<StockOperationRequest> operations);
+
+    @PostMapping("/reservations")
+    StockReservationResponse reserveStock(@RequestBody StockReservationRequest request);
+
+    @PostMapping("/reservations/cart")
+    CartReservationResponse reserveCart(@RequestBody StockReservationRequest request);
+
+    @PostMapping("/reservations/{reservationId}/confirm")
+    StockReservationResponse confirmReservation(@PathVariable("reservationId") String reservationId);
+
+    @PostMapping("/reservations/{reservationId}/release")
+    StockReservationResponse releaseReservation(@PathVariable("reservationId") String reservationId);
 }
 
@@ -0,0 +1,159 @@
+package tech.sohaib_tarek.commandservice.client;
+
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.openfeign.FallbackFactory;
+import org.springframework.stereotype.Component;
+import tech.sohaib_tarek.commandservice.dto.CartReservationResponse;
+import tech.sohaib_tarek.commandservice.dto.ProductChangeFeedResponse;
+import tech.sohaib_tarek.commandservice.dto.ProductPageResponse;
+import tech.sohaib_tarek.commandservice.dto.ProductResponse;
+import tech.sohaib_tarek.commandservice.dto.StockOperationRequest;
+import tech.sohaib_tarek.commandservice.dto.StockOperationResult;
+import tech.sohaib_tarek.commandservice.dto.StockReservationRequest;
+import tech.sohaib_tarek.commandservice.dto.StockReservationResponse;
+import tech.sohaib_tarek.commandservice.dto.StockUpdateRequest;
+import tech.sohaib_tarek.commandservice.exception.ProductServiceUnavailableException;
+
+import java.util.List;
+
+/**
+ * Invoked when a {@link ProductClient} call fails or is not attempted at all.
+ * <p>
+ * Calls rejected by an open circuit breaker or a full bulkhead are counted and turned into
+ * {@link ProductServiceUnavailableException}; product reads may instead be answered from the
+ * last known responses in {@link ProductResponseCache}. Any other failure is rethrown unchanged,
+ * so error handling for a product-service that did answer stays as it was.
+ */
+@Component
+public class ProductClientFallbackFactory implements FallbackFactory<ProductClient> {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductClientFallbackFactory.class);
+
+    private final ProductResponseCache productResponseCache;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${product.client.stale-fallback-enabled:true}")
+    private boolean staleFallbackEnabled;
+
+    public ProductClientFallbackFactory(ProductResponseCache productResponseCache, MeterRegistry meterRegistry) {
+        this.productResponseCache = productResponseCache;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public ProductClient create(Throwable cause) {
+        return new ProductClient() {
+
+            @Override
+            public ProductResponse getProductById(Long productId) {
+                if (staleAllowed(cause)) {
+                    ProductResponse product = productResponseCache.get(productId);
+                    if (product != null) {
+                        return stale("getProductById", product);
+                    }
+                }
+                throw failure("getProductById", cause);
+            }
+
+            @Override
+            public List<ProductResponse> getProductsByIds(List<Long> productIds) {
+                if (staleAllowed(cause)) {
+                    List<ProductResponse> products = productResponseCache.getAll(productIds);
+                    if (products != null) {
+                        return stale("getProductsByIds", products);
+                    }
+                }
+                throw failure("getProductsByIds", cause);
+            }
+
+            @Override
+            public ProductPageResponse getProductsPage(String cursor, Integer size) {
+                throw failure("getProductsPage", cause);
+            }
+
+            @Override
+            public ProductChangeFeedResponse getChanges(Long since, Integer limit) {
+                throw failure("getChanges", cause);
+            }
+
+            @Override
+            public Boolean checkStock(Long productId, Integer quantity) {
+                throw failure("checkStock", cause);
+            }
+
+            @Override
+            public void reduceStock(List<StockUpdateRequest> stockUpdates) {
+                throw failure("reduceStock", cause);
+            }
+
+            @Override
+            public void restoreStock(List<StockUpdateRequest> stockUpdates) {
+                throw failure("restoreStock", cause);
+            }
+
+            @Override
+            public List<StockOperationResult> applyStockOperations(List<StockOperationRequest> operations) {
+                throw failure("applyStockOperations", cause);
+            }
+
+            @Override
+            public StockReservationResponse reserveStock(StockReservationRequest request) {
+                throw failure("reserveStock", cause);
+            }
+
+            @Override
+            public CartReservationResponse reserveCart(StockReservationRequest request) {
+                throw failure("reserveCart", cause);
+            }
+
+            @Override
+            public StockReservationResponse confirmReservation(String reservationId) {
+                throw failure("confirmReservation", cause);
+            }
+
+            @Override
+            public StockReservationResponse releaseReservation(String reservationId) {
+                throw failure("releaseReservation", cause);
+            }
+        };
+    }
+
+    // Stale data is only served while product-service is being shielded, never to hide its answers
+    private boolean staleAllowed(Throwable cause) {
+        return staleFallbackEnabled && rejectionReason(cause) != null;
+    }
+
+    private <T> T stale(String method, T response) {
+        meterRegistry.counter("product.client.stale.responses", "method", method).increment();
+        log.warn("Serving last known product data for {} while product-service calls are rejected", method);
+        return response;
+    }
+
+    private RuntimeException failure(String method, Throwable cause) {
+        String reason = rejectionReason(cause);
+        if (reason != null) {
+            meterRegistry.counter("product.client.rejected", "method", method, "reason", reason).increment();
+            return new ProductServiceUnavailableException(
+                    "Product service is unavailable (" + reason + "), please retry later", cause);
+        }
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        return new ProductServiceUnavailableException("Product service call failed: " + cause.getMessage(), cause);
+    }
+
+    private String rejectionReason(Throwable cause) {
+        if (cause instanceof CallNotPermittedException) {
+            return "circuit_open";
+        }
+        if (cause instanceof BulkheadFullException) {
+            return "bulkhead_full";
+        }
+        return null;
+    }
+}
@@ -0,0 +1,163 @@
+package tech.sohaib_tarek.commandservice.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import tech.sohaib_tarek.commandservice.dto.ProductResponse;
+import tech.sohaib_tarek.commandservice.exception.ProductServiceUnavailableException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Product reads through {@link ProductClient} with single-flight coalescing.
+ * <p>
+ * Concurrent lookups of the same product ID share one in-flight call: the first caller fetches
+ * it, the others wait for and reuse its answer. A batch lookup only fetches the IDs nobody else
+ * is already fetching. Answers may additionally be kept for a few hundred milliseconds to absorb
+ * bursts, which is short enough not to serve meaningfully stale prices or stock. With batching
+ * enabled, the IDs fetched by concurrent requests are sent together by {@link ProductBatchDispatcher}.
+ * <p>
+ * The product.lookup.requests counter is tagged with outcome=fetched, joined or recent;
+ * (joined + recent) / total is the share of lookups that never reached product-service.
+ * <p>
+ * Its caller is the order validation pre-check, for the products the catalog replica does not
+ * know or shows short of stock, and for every product while the replica is not ready.
+ */
+@Component
+public class ProductLookup {
+
+    private final ProductClient productClient;
+    private final ProductBatchDispatcher batchDispatcher;
+    private final Map<Long, CompletableFuture<ProductResponse>> inFlight = new ConcurrentHashMap<>();
+    private final Cache<Long, ProductResponse> recent;
+
+    private final Counter fetched;
+    private final Counter joined;
+    private final Counter recentHits;
+
+    @Value("${product.lookup.batching.enabled:true}")
+    private boolean batchingEnabled;
+
+    public ProductLookup(ProductClient productClient,
+                         ProductBatchDispatcher batchDispatcher,
+                         MeterRegistry meterRegistry,
+                         @Value("${product.lookup.recent-ttl-ms:200}") long recentTtlMs,
+                         @Value("${product.lookup.recent-maximum-size:10000}") long recentMaximumSize) {
+        this.productClient = productClient;
+        this.batchDispatcher = batchDispatcher;
+        // A zero TTL leaves only in-flight sharing
+        this.recent = recentTtlMs > 0
+                ? Caffeine.newBuilder()
+                        .maximumSize(recentMaximumSize)
+                        .expireAfterWrite(Duration.ofMillis(recentTtlMs))
+                        .build()
+                : null;
+        this.fetched = meterRegistry.counter("product.lookup.requests", "outcome", "fetched");
+        this.joined = meterRegistry.counter("product.lookup.requests", "outcome", "joined");
+        this.recentHits = meterRegistry.counter("product.lookup.requests", "outcome", "recent");
+    }
+
+    /**
+     * Returns the existing products among the given IDs, in request order; missing products are
+     * left out, as with {@link ProductClient#getProductsByIds(List)}.
+     */
+    public List<ProductResponse> getProducts(List<Long> productIds) {
+        Map<Long, CompletableFuture<ProductResponse>> pending = new LinkedHashMap<>();
+        Map<Long, CompletableFuture<ProductResponse>> claimed = new LinkedHashMap<>();
+        for (Long productId : new LinkedHashSet<>(productIds)) {
+            claim(productId, pending, claimed);
+        }
+        load(claimed);
+
+        List<ProductResponse> products = new ArrayList<>(pending.size());
+        for (CompletableFuture<ProductResponse> future : pending.values()) {
+            ProductResponse product = await(future);
+            if (product != null) {
+                products.add(product);
+            }
+        }
+        return products;
+    }
+
+    private void claim(Long productId,
+                       Map<Long, CompletableFuture<ProductResponse>> pending,
+                       Map<Long, CompletableFuture<ProductResponse>> claimed) {
+        ProductResponse known = recent != null ? recent.getIfPresent(productId) : null;
+        if (known != null) {
+            recentHits.increment();
+            pending.put(productId, CompletableFuture.completedFuture(known));
+            return;
+        }
+        CompletableFuture<ProductResponse> own = new CompletableFuture<>();
+        CompletableFuture<ProductResponse> existing = inFlight.putIfAbsent(productId, own);
+        if (existing != null) {
+            joined.increment();
+            pending.put(productId, existing);
+        } else {
+            fetched.increment();
+            pending.put(productId, own);
+            claimed.put(productId, own);
+        }
+    }
+
+    private void load(Map<Long, CompletableFuture<ProductResponse>> claimed) {
+        if (claimed.isEmpty()) {
+            return;
+        }
+        if (batchingEnabled) {
+            claimed.forEach((productId, future) -> batchDispatcher.load(productId)
+                    .whenComplete((product, error) -> settle(productId, future, product, error)));
+            return;
+        }
+        Map<Long, ProductResponse> products = new HashMap<>();
+        try {
+            for (ProductResponse product : productClient.getProductsByIds(new ArrayList<>(claimed.keySet()))) {
+                products.put(product.getProductId(), product);
+            }
+        } catch (RuntimeException e) {
+            claimed.forEach((productId, future) -> settle(productId, future, null, e));
+            throw e;
+        }
+        claimed.forEach((productId, future) -> settle(productId, future, products.get(productId), null));
+    }
+
+    private void settle(Long productId, CompletableFuture<ProductResponse> future,
+                        ProductResponse product, Throwable error) {
+        if (error != null) {
+            future.completeExceptionally(error);
+        } else {
+            if (product != null && recent != null) {
+                recent.put(productId, product);
+            }
+            future.complete(product);
+        }
+        // Waiters already hold the future; later callers must start a fresh call
+        inFlight.remove(productId, future);
+    }
+
+    private ProductResponse await(CompletableFuture<ProductResponse> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ProductServiceUnavailableException("Interrupted while waiting for a product lookup", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new ProductServiceUnavailableException("Product lookup failed", e.getCause());
+        }
+    }
+}
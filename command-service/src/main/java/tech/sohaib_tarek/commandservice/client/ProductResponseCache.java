@@ -0,0 +1,65 @@
+package tech.sohaib_tarek.commandservice.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import tech.sohaib_tarek.commandservice.dto.ProductResponse;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Last known answer of product-service for every product read through {@link ProductClient}.
+ * Only used as a stale fallback while calls to product-service are being rejected.
+ */
+@Component
+public class ProductResponseCache {
+
+    private final Cache<Long, ProductResponse> products;
+
+    public ProductResponseCache(@Value("${product.client.stale-cache.maximum-size:10000}") long maximumSize,
+                                @Value("${product.client.stale-cache.ttl-seconds:600}") long ttlSeconds) {
+        this.products = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    /**
+     * Records the products contained in a decoded product-service response, if any.
+     */
+    public void remember(Object response) {
+        if (response instanceof ProductResponse product) {
+            products.put(product.getProductId(), product);
+        } else if (response instanceof Collection<?> elements) {
+            for (Object element : elements) {
+                if (element instanceof ProductResponse product) {
+                    products.put(product.getProductId(), product);
+                }
+            }
+        }
+    }
+
+    public ProductResponse get(Long productId) {
+        return products.getIfPresent(productId);
+    }
+
+    /**
+     * Returns the products only when every one of them is known, since a partial answer would
+     * look like missing products to the caller.
+     */
+    public List<ProductResponse> getAll(List<Long> productIds) {
+        List<ProductResponse> found = new ArrayList<>(productIds.size());
+        for (Long productId : productIds) {
+            ProductResponse product = products.getIfPresent(productId);
+            if (product == null) {
+                return null;
+            }
+            found.add(product);
+        }
+        return found;
+    }
+}
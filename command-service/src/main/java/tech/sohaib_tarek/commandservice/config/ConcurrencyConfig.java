@@ -0,0 +1,66 @@
+package tech.sohaib_tarek.commandservice.config;
+
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Executors for blocking remote calls made while handling a request.
+ * Virtual threads keep fan-out cheap without sizing a platform thread pool.
+ */
+@Configuration
+public class ConcurrencyConfig {
+
+  @Bean(destroyMethod = "shutdown")
+  public ExecutorService productLookupExecutor() {
+    return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("product-lookup-", 0).factory());
+  }
+
+  /**
+   * Closes the collection windows of batched product lookups; the lookups themselves run on
+   * productLookupExecutor.
+   */
+  @Bean(destroyMethod = "shutdown")
+  public ScheduledExecutorService productBatchTimer() {
+    return Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("product-batch-timer").daemon().factory());
+  }
+
+  /**
+   * Workers of the asynchronous order intake. The bounded queue is the backpressure point:
+   * once it is full, submissions are rejected instead of piling up.
+   */
+  @Bean
+  public ThreadPoolTaskExecutor commandIntakeExecutor(
+      @Value("${command.intake.workers:8}") int workers,
+      @Value("${command.intake.queue-capacity:500}") int queueCapacity) {
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(workers);
+    executor.setMaxPoolSize(workers);
+    executor.setQueueCapacity(queueCapacity);
+    executor.setThreadNamePrefix("command-intake-");
+    executor.setTaskDecorator(task -> {
+      Map<String, String> context = MDC.getCopyOfContextMap();
+      return () -> {
+        if (context != null) {
+          MDC.setContextMap(context);
+        }
+        try {
+          task.run();
+        } finally {
+          MDC.clear();
+        }
+      };
+    });
+    // Queued orders were already acknowledged with 202, so let them finish on shutdown
+    executor.setWaitForTasksToCompleteOnShutdown(true);
+    executor.setAwaitTerminationSeconds(30);
+    return executor;
+  }
+}
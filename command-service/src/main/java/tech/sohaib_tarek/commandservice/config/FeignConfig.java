@@ -2,15 +2,20 @@ package tech.sohaib_tarek.commandservice.config;
 
 import feign.RequestInterceptor;
 import feign.RequestTemplate;
+import feign.ResponseInterceptor;
+import org.slf4j.MDC;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import tech.sohaib_tarek.commandservice.client.ProductResponseCache;
 
 /**
  * Feign Client Configuration
  * 
  * Configures request interceptors to add gateway authentication header
- * for secure inter-service communication.
+ * for secure inter-service communication and to forward the calling user,
+ * and remembers decoded product responses for the stale fallback of
+ * ProductClient.
  */
 @Configuration
 public class FeignConfig {
@@ -22,4 +27,24 @@ public class FeignConfig {
   public RequestInterceptor gatewaySecretInterceptor() {
     return template -> template.header("X-Gateway-Secret", gatewaySecret);
   }
+
+  // product-service keeps the user's own catalog reads on its primary right after their reservation
+  @Bean
+  public RequestInterceptor userIdInterceptor() {
+    return template -> {
+      String userId = MDC.get("userId");
+      if (userId != null && !"anonymous".equals(userId)) {
+        template.header("X-User-Id", userId);
+      }
+    };
+  }
+
+  @Bean
+  public ResponseInterceptor productResponseCachingInterceptor(ProductResponseCache productResponseCache) {
+    return (context, chain) -> {
+      Object response = chain.next(context);
+      productResponseCache.remember(response);
+      return response;
+    };
+  }
 }
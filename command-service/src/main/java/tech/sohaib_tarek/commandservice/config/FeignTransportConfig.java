@@ -0,0 +1,52 @@
+package tech.sohaib_tarek.commandservice.config;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.impl.classic.DefaultConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.io.HttpClientConnectionManager;
+import org.apache.hc.core5.util.TimeValue;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.openfeign.clientconfig.HttpClient5FeignConfiguration.HttpClientBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Tuning and metrics for the pooled Apache HttpClient 5 transport used by the Feign clients.
+ * Pool sizes come from spring.cloud.openfeign.httpclient.*, per-service instance limits are
+ * applied by {@link tech.sohaib_tarek.commandservice.scheduler.FeignRouteLimitRefresher}.
+ */
+@Configuration
+public class FeignTransportConfig {
+
+  /**
+   * Keeps idle connections for at most the configured time, so the client drops them before the
+   * server's own keep-alive timeout closes them under an in-flight request.
+   */
+  @Bean
+  public HttpClientBuilderCustomizer feignKeepAliveCustomizer(
+      @Value("${feign.transport.keep-alive-ms:15000}") long keepAliveMs,
+      @Value("${feign.transport.idle-eviction-ms:30000}") long idleEvictionMs) {
+    TimeValue maxKeepAlive = TimeValue.ofMilliseconds(keepAliveMs);
+    return builder -> builder
+        .setKeepAliveStrategy((response, context) -> {
+          TimeValue offered = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+          return offered.toMilliseconds() < keepAliveMs ? offered : maxKeepAlive;
+        })
+        .evictIdleConnections(TimeValue.ofMilliseconds(idleEvictionMs));
+  }
+
+  /**
+   * Publishes leased, available (idle) and pending connection gauges of the Feign pool
+   * (httpcomponents.httpclient.pool.*). Nothing is bound when the JDK HTTP/2 client is used instead.
+   */
+  @Bean
+  public MeterBinder feignConnectionPoolMetrics(ObjectProvider<HttpClientConnectionManager> connectionManager) {
+    return registry -> {
+      if (connectionManager.getIfAvailable() instanceof PoolingHttpClientConnectionManager pool) {
+        new PoolingHttpClientConnectionManagerMetricsBinder(pool, "feign").bindTo(registry);
+      }
+    };
+  }
+}
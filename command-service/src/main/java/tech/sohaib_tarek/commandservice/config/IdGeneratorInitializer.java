@@ -0,0 +1,66 @@
+package tech.sohaib_tarek.commandservice.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves the pooled ID generators of commands and command_items past the IDs that already exist.
+ *
+ * Rows created while the tables used AUTO_INCREMENT keep their IDs; this only raises next_val in
+ * id_generators, never lowers it, so it is safe to run on every start and from several instances.
+ * It runs while the context is refreshing, before the web server accepts requests.
+ */
+@Component
+public class IdGeneratorInitializer implements InitializingBean {
+
+  private static final Logger log = LoggerFactory.getLogger(IdGeneratorInitializer.class);
+
+  // Must match the allocationSize of the @TableGenerator mappings
+  private static final long ALLOCATION_SIZE = 50;
+
+  private final JdbcTemplate jdbcTemplate;
+
+  // Injected only so the schema (including id_generators) exists before this runs
+  public IdGeneratorInitializer(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  @Override
+  public void afterPropertiesSet() {
+    raiseFloor("commands", "SELECT COALESCE(MAX(command_id), 0) FROM commands");
+    raiseFloor("command_items", "SELECT COALESCE(MAX(id), 0) FROM command_items");
+  }
+
+  private void raiseFloor(String sequenceName, String maxIdQuery) {
+    Long maxId = jdbcTemplate.queryForObject(maxIdQuery, Long.class);
+    // The pooled optimizer hands out (next_val - ALLOCATION_SIZE, next_val], so keep a full block of headroom
+    long floor = (maxId == null ? 0 : maxId) + ALLOCATION_SIZE + 1;
+
+    int updated = jdbcTemplate.update(
+        "UPDATE id_generators SET next_val = ? WHERE sequence_name = ? AND next_val < ?",
+        floor, sequenceName, floor);
+    if (updated == 0) {
+      Integer rows = jdbcTemplate.queryForObject(
+          "SELECT COUNT(*) FROM id_generators WHERE sequence_name = ?", Integer.class, sequenceName);
+      if (rows == null || rows == 0) {
+        try {
+          jdbcTemplate.update("INSERT INTO id_generators (sequence_name, next_val) VALUES (?, ?)",
+              sequenceName, floor);
+        } catch (DuplicateKeyException e) {
+          // Another instance inserted it first; make sure it is high enough
+          jdbcTemplate.update(
+              "UPDATE id_generators SET next_val = ? WHERE sequence_name = ? AND next_val < ?",
+              floor, sequenceName, floor);
+        }
+      } else {
+        return;
+      }
+    }
+    log.info("ID generator '{}' starts above existing ID {}", sequenceName, maxId);
+  }
+}
@@ -1,17 +1,26 @@
 package tech.sohaib_tarek.commandservice.controller;
 
 import jakarta.validation.Valid;
+import tech.sohaib_tarek.commandservice.dto.BulkStatusUpdateRequest;
+import tech.sohaib_tarek.commandservice.dto.BulkStatusUpdateResponse;
+import tech.sohaib_tarek.commandservice.dto.CommandIntakeResponse;
+import tech.sohaib_tarek.commandservice.dto.CommandPageResponse;
 import tech.sohaib_tarek.commandservice.dto.CommandRequest;
 import tech.sohaib_tarek.commandservice.dto.CommandResponse;
 import tech.sohaib_tarek.commandservice.dto.CommandStatusUpdateRequest;
 import tech.sohaib_tarek.commandservice.enums.CommandStatus;
+import tech.sohaib_tarek.commandservice.service.CommandIntakeService;
 import tech.sohaib_tarek.commandservice.service.CommandService;
+import tech.sohaib_tarek.commandservice.service.IdempotencyStore;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -21,19 +30,64 @@ public class CommandController {
   private static final Logger log = LoggerFactory.getLogger(CommandController.class);
 
   private final CommandService commandService;
+  private final CommandIntakeService commandIntakeService;
+  private final IdempotencyStore idempotencyStore;
 
-  public CommandController(CommandService commandService) {
+  public CommandController(CommandService commandService, CommandIntakeService commandIntakeService,
+                           IdempotencyStore idempotencyStore) {
     this.commandService = commandService;
+    this.commandIntakeService = commandIntakeService;
+    this.idempotencyStore = idempotencyStore;
   }
 
+  /**
+   * Create an order - A retry carrying the same Idempotency-Key gets the original response
+   * instead of placing a second order
+   */
   @PostMapping
   public ResponseEntity<CommandResponse> createCommand(
       @Valid @RequestBody CommandRequest request,
       @RequestHeader("X-User-Id") String userId,
-      @RequestHeader("X-User-Name") String username) {
+      @RequestHeader("X-User-Name") String username,
+      @RequestHeader(value = IdempotencyStore.KEY_HEADER, required = false) String idempotencyKey) {
     log.info("Received request to create command with {} items for user: {}", request.getItems().size(), username);
-    CommandResponse response = commandService.createCommand(request, userId, username);
-    return new ResponseEntity<>(response, HttpStatus.CREATED);
+    // Keys are scoped per user so two clients cannot collide on the same key
+    return idempotencyStore.execute("create-command:" + userId, idempotencyKey, request, CommandResponse.class,
+        () -> new ResponseEntity<>(commandService.createCommand(request, userId, username), HttpStatus.CREATED));
+  }
+
+  /**
+   * Asynchronous order creation - Answers 202 with a tracking ID as soon as the order is queued,
+   * or 429 when the intake queue is full. Poll GET /intake/{trackingId} for the outcome.
+   */
+  @PostMapping("/intake")
+  public ResponseEntity<CommandIntakeResponse> submitCommand(
+      @Valid @RequestBody CommandRequest request,
+      @RequestHeader("X-User-Id") String userId,
+      @RequestHeader("X-User-Name") String username) {
+    log.info("Received request to queue command with {} items for user: {}", request.getItems().size(), username);
+    CommandIntakeResponse response = commandIntakeService.submit(request, userId, username);
+    return ResponseEntity.accepted()
+        .location(URI.create("/api/commands/intake/" + response.getTrackingId()))
+        .body(response);
+  }
+
+  @GetMapping("/intake/{trackingId}")
+  public ResponseEntity<CommandIntakeResponse> getIntake(
+      @PathVariable String trackingId,
+      @RequestHeader("X-User-Id") String userId,
+      @RequestHeader(value = "X-User-Roles", required = false) String roles) {
+    log.info("Received request to get queued command {} by user: {}", trackingId, userId);
+    boolean isAdmin = roles != null && roles.contains("ADMIN");
+
+    CommandIntakeResponse response = commandIntakeService.getIntake(trackingId);
+
+    // Users can only track their own orders unless they have ADMIN role
+    if (!isAdmin && !response.getUserId().equals(userId)) {
+      return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+    }
+
+    return ResponseEntity.ok(response);
   }
 
   @GetMapping("/{commandId}")
@@ -83,6 +137,28 @@ public class CommandController {
     return ResponseEntity.ok(response);
   }
 
+  /**
+   * Paginated order listing ordered by (date, commandId) - Pass the returned nextCursor to fetch the following page.
+   * Admins page through every order, clients only through their own.
+   */
+  @GetMapping("/page")
+  public ResponseEntity<CommandPageResponse> getCommandsPage(
+      @RequestParam(required = false) CommandStatus status,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false) Integer size,
+      @RequestParam(defaultValue = "desc") String direction,
+      @RequestHeader("X-User-Id") String userId,
+      @RequestHeader(value = "X-User-Roles", required = false) String roles) {
+    log.info("Received request to get commands page with status filter: {} by user: {}", status, userId);
+
+    boolean isAdmin = roles != null && roles.contains("ADMIN");
+    CommandPageResponse response = commandService.getCommandsPage(
+        isAdmin ? null : userId, status, from, to, cursor, size, direction);
+    return ResponseEntity.ok(response);
+  }
+
   @PutMapping("/{commandId}")
   public ResponseEntity<CommandResponse> updateCommand(
       @PathVariable Long commandId,
@@ -112,6 +188,19 @@ public class CommandController {
     return ResponseEntity.ok(response);
   }
 
+  /**
+   * Bulk status transition for warehouse waves - Same rules as the single-order endpoint,
+   * applied with set-based updates; every ID gets its own outcome
+   */
+  @PatchMapping("/status")
+  public ResponseEntity<BulkStatusUpdateResponse> updateCommandStatuses(
+      @Valid @RequestBody BulkStatusUpdateRequest request) {
+    // Only admin can update status (enforced by gateway)
+    log.info("Received request to update {} commands to status {}", request.getCommandIds().size(), request.getStatus());
+    BulkStatusUpdateResponse response = commandService.updateCommandStatuses(request.getCommandIds(), request.getStatus());
+    return ResponseEntity.ok(response);
+  }
+
   @PostMapping("/{commandId}/cancel")
   public ResponseEntity<Void> cancelCommand(
       @PathVariable Long commandId,
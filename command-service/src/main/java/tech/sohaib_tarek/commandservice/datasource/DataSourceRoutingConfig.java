@@ -0,0 +1,137 @@
+package tech.sohaib_tarek.commandservice.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Replaces the single connection pool with a primary pool plus one pool per configured MySQL
+ * replica, so that @Transactional(readOnly = true) work is served by the replicas.
+ * Only active with datasource.routing.enabled=true; the primary keeps the spring.datasource.*
+ * and spring.datasource.hikari.* settings.
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource.routing.enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+
+  /**
+   * One entry of datasource.routing.replicas; the credentials default to the primary's.
+   */
+  public static class Replica {
+    private String name;
+    private String url;
+    private String username;
+    private String password;
+    private int maximumPoolSize = 10;
+
+    public String getName() {
+      return name;
+    }
+
+    public void setName(String name) {
+      this.name = name;
+    }
+
+    public String getUrl() {
+      return url;
+    }
+
+    public void setUrl(String url) {
+      this.url = url;
+    }
+
+    public String getUsername() {
+      return username;
+    }
+
+    public void setUsername(String username) {
+      this.username = username;
+    }
+
+    public String getPassword() {
+      return password;
+    }
+
+    public void setPassword(String password) {
+      this.password = password;
+    }
+
+    public int getMaximumPoolSize() {
+      return maximumPoolSize;
+    }
+
+    public void setMaximumPoolSize(int maximumPoolSize) {
+      this.maximumPoolSize = maximumPoolSize;
+    }
+  }
+
+  @Bean
+  public ReadYourWritesTracker readYourWritesTracker(
+      @Value("${datasource.routing.read-your-writes-ms:5000}") long windowMs,
+      @Value("${datasource.routing.read-your-writes-maximum-size:100000}") long maximumSize) {
+    return new ReadYourWritesTracker(Duration.ofMillis(windowMs), maximumSize);
+  }
+
+  @Bean
+  public ReplicaLagMonitor replicaLagMonitor(Environment environment, DataSourceProperties properties,
+                                             MeterRegistry meterRegistry,
+                                             @Value("${datasource.routing.max-lag-seconds:5}") long maxLagSeconds) {
+    List<Replica> replicas = Binder.get(environment)
+        .bind("datasource.routing.replicas", Bindable.listOf(Replica.class))
+        .orElse(List.of());
+    Map<String, HikariDataSource> pools = new LinkedHashMap<>();
+    for (int i = 0; i < replicas.size(); i++) {
+      Replica replica = replicas.get(i);
+      String name = replica.getName() != null ? replica.getName() : "replica-" + i;
+      HikariDataSource pool = new HikariDataSource();
+      pool.setPoolName(name);
+      pool.setJdbcUrl(replica.getUrl());
+      pool.setUsername(replica.getUsername() != null ? replica.getUsername() : properties.determineUsername());
+      pool.setPassword(replica.getPassword() != null ? replica.getPassword() : properties.determinePassword());
+      pool.setDriverClassName(properties.determineDriverClassName());
+      pool.setMaximumPoolSize(replica.getMaximumPoolSize());
+      pool.setReadOnly(true);
+      pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+      pools.put(name, pool);
+    }
+    return new ReplicaLagMonitor(pools, maxLagSeconds, meterRegistry);
+  }
+
+  @Bean
+  public ReadWriteRoutingDataSource routingDataSource(Environment environment, DataSourceProperties properties,
+                                                      ReplicaLagMonitor replicaLagMonitor,
+                                                      ReadYourWritesTracker readYourWritesTracker,
+                                                      MeterRegistry meterRegistry) {
+    HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+    primary.setPoolName(ReadWriteRoutingDataSource.PRIMARY);
+    primary.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+    return new ReadWriteRoutingDataSource(primary, replicaLagMonitor, readYourWritesTracker, meterRegistry);
+  }
+
+  /**
+   * Connections are only fetched from the routing data source on first use, once the
+   * transaction's read-only flag has been set.
+   */
+  @Bean
+  @Primary
+  public DataSource dataSource(ReadWriteRoutingDataSource routingDataSource) {
+    return new LazyConnectionDataSourceProxy(routingDataSource);
+  }
+}
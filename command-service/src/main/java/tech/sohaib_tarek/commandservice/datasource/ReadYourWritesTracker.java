@@ -0,0 +1,46 @@
+package tech.sohaib_tarek.commandservice.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.MDC;
+
+import java.time.Duration;
+
+/**
+ * Remembers the users who committed a write in the last few seconds, so that their own reads go
+ * to the primary until the replicas have caught up with it. Users are identified by the userId
+ * the access logging filter puts in the MDC (X-User-Id from the gateway); anonymous requests are
+ * not tracked. A zero window turns the guarantee off.
+ */
+public class ReadYourWritesTracker {
+
+  private static final String ANONYMOUS = "anonymous";
+
+  private final Cache<String, Boolean> recentWriters;
+
+  public ReadYourWritesTracker(Duration window, long maximumSize) {
+    this.recentWriters = window.isZero()
+        ? null
+        : Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(window)
+            .build();
+  }
+
+  public void recordWrite() {
+    String userId = currentUser();
+    if (recentWriters != null && userId != null) {
+      recentWriters.put(userId, Boolean.TRUE);
+    }
+  }
+
+  public boolean isRecentWriter() {
+    String userId = currentUser();
+    return recentWriters != null && userId != null && recentWriters.getIfPresent(userId) != null;
+  }
+
+  private static String currentUser() {
+    String userId = MDC.get("userId");
+    return userId == null || ANONYMOUS.equals(userId) ? null : userId;
+  }
+}
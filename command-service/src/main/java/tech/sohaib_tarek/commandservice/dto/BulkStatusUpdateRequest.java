@@ -0,0 +1,65 @@
+package tech.sohaib_tarek.commandservice.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import tech.sohaib_tarek.commandservice.enums.CommandStatus;
+
+import java.util.List;
+
+public class BulkStatusUpdateRequest {
+
+    @NotEmpty(message = "At least one command ID is required")
+    @Size(max = 10000, message = "At most 10000 command IDs per request")
+    private List<@NotNull Long> commandIds;
+
+    @NotNull(message = "Status is required")
+    private CommandStatus status;
+
+    public BulkStatusUpdateRequest() {
+    }
+
+    public BulkStatusUpdateRequest(List<Long> commandIds, CommandStatus status) {
+        this.commandIds = commandIds;
+        this.status = status;
+    }
+
+    public List<Long> getCommandIds() {
+        return commandIds;
+    }
+
+    public void setCommandIds(List<Long> commandIds) {
+        this.commandIds = commandIds;
+    }
+
+    public CommandStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(CommandStatus status) {
+        this.status = status;
+    }
+
+    public static BulkStatusUpdateRequestBuilder builder() {
+        return new BulkStatusUpdateRequestBuilder();
+    }
+
+    public static class BulkStatusUpdateRequestBuilder {
+        private List<Long> commandIds;
+        private CommandStatus status;
+
+        public BulkStatusUpdateRequestBuilder commandIds(List<Long> commandIds) {
+            this.commandIds = commandIds;
+            return this;
+        }
+
+        public BulkStatusUpdateRequestBuilder status(CommandStatus status) {
+            this.status = status;
+            return this;
+        }
+
+        public BulkStatusUpdateRequest build() {
+            return new BulkStatusUpdateRequest(commandIds, status);
+        }
+    }
+}
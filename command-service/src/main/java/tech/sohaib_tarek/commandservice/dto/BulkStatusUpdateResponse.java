@@ -0,0 +1,45 @@
+package tech.sohaib_tarek.commandservice.dto;
+
+import tech.sohaib_tarek.commandservice.enums.CommandStatus;
+
+import java.util.List;
+
+public class BulkStatusUpdateResponse {
+
+    private CommandStatus status;
+    private int updated;
+    private List<StatusUpdateResult> results;
+
+    public BulkStatusUpdateResponse() {
+    }
+
+    public BulkStatusUpdateResponse(CommandStatus status, int updated, List<StatusUpdateResult> results) {
+        this.status = status;
+        this.updated = updated;
+        this.results = results;
+    }
+
+    public CommandStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(CommandStatus status) {
+        this.status = status;
+    }
+
+    public int getUpdated() {
+        return updated;
+    }
+
+    public void setUpdated(int updated) {
+        this.updated = updated;
+    }
+
+    public List<StatusUpdateResult> getResults() {
+        return results;
+    }
+
+    public void setResults(List<StatusUpdateResult> results) {
+        this.results = results;
+    }
+}
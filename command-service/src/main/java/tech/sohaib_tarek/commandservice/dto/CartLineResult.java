@@ -0,0 +1,74 @@
+package tech.sohaib_tarek.commandservice.dto;
+
+import java.math.BigDecimal;
+
+public class CartLineResult {
+
+    private Long productId;
+    private String name;
+    private Integer quantity;
+    private BigDecimal unitPrice;
+    private Integer availableStock;
+    private String status;
+
+    public CartLineResult() {
+    }
+
+    public CartLineResult(Long productId, String name, Integer quantity, BigDecimal unitPrice,
+                          Integer availableStock, String status) {
+        this.productId = productId;
+        this.name = name;
+        this.quantity = quantity;
+        this.unitPrice = unitPrice;
+        this.availableStock = availableStock;
+        this.status = status;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    public BigDecimal getUnitPrice() {
+        return unitPrice;
+    }
+
+    public void setUnitPrice(BigDecimal unitPrice) {
+        this.unitPrice = unitPrice;
+    }
+
+    public Integer getAvailableStock() {
+        return availableStock;
+    }
+
+    public void setAvailableStock(Integer availableStock) {
+        this.availableStock = availableStock;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+}
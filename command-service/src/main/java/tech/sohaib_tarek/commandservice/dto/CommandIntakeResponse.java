@@ -0,0 +1,88 @@
+package tech.sohaib_tarek.commandservice.dto;
+
+import tech.sohaib_tarek.commandservice.enums.IntakeStatus;
+
+import java.time.LocalDateTime;
+
+public class CommandIntakeResponse {
+
+    private String trackingId;
+    private String userId;
+    private IntakeStatus status;
+    // Set once the order is COMPLETED
+    private Long commandId;
+    // Set when the order FAILED
+    private String error;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    public CommandIntakeResponse() {
+    }
+
+    public CommandIntakeResponse(String trackingId, String userId, IntakeStatus status, Long commandId, String error,
+                                 LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.trackingId = trackingId;
+        this.userId = userId;
+        this.status = status;
+        this.commandId = commandId;
+        this.error = error;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    public String getTrackingId() {
+        return trackingId;
+    }
+
+    public void setTrackingId(String trackingId) {
+        this.trackingId = trackingId;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public IntakeStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(IntakeStatus status) {
+        this.status = status;
+    }
+
+    public Long getCommandId() {
+        return commandId;
+    }
+
+    public void setCommandId(Long commandId) {
+        this.commandId = commandId;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,72 @@
+package tech.sohaib_tarek.commandservice.dto;
+
+import java.util.List;
+
+public class CommandPageResponse {
+
+    private List<CommandResponse> items;
+    private String nextCursor;
+    private boolean hasNext;
+
+    public CommandPageResponse() {
+    }
+
+    public CommandPageResponse(List<CommandResponse> items, String nextCursor, boolean hasNext) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.hasNext = hasNext;
+    }
+
+    public List<CommandResponse> getItems() {
+        return items;
+    }
+
+    public void setItems(List<CommandResponse> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public void setHasNext(boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+
+    public static CommandPageResponseBuilder builder() {
+        return new CommandPageResponseBuilder();
+    }
+
+    public static class CommandPageResponseBuilder {
+        private List<CommandResponse> items;
+        private String nextCursor;
+        private boolean hasNext;
+
+        public CommandPageResponseBuilder items(List<CommandResponse> items) {
+            this.items = items;
+            return this;
+        }
+
+        public CommandPageResponseBuilder nextCursor(String nextCursor) {
+            this.nextCursor = nextCursor;
+            return this;
+        }
+
+        public CommandPageResponseBuilder hasNext(boolean hasNext) {
+            this.hasNext = hasNext;
+            return this;
+        }
+
+        public CommandPageResponse build() {
+            return new CommandPageResponse(items, nextCursor, hasNext);
+        }
+    }
+}
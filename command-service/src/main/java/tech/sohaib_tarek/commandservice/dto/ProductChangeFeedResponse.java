@@ -0,0 +1,107 @@
+package tech.sohaib_tarek.commandservice.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class ProductChangeFeedResponse {
+
+    private List<ProductChangeResponse> changes;
+    private Long latestVersion;
+    private boolean hasMore;
+    // The requested version has already been pruned; the reader must start over from a snapshot
+    private boolean resetRequired;
+    private LocalDateTime serverTime;
+
+    public ProductChangeFeedResponse() {
+    }
+
+    public ProductChangeFeedResponse(List<ProductChangeResponse> changes, Long latestVersion, boolean hasMore,
+                                     boolean resetRequired, LocalDateTime serverTime) {
+        this.changes = changes;
+        this.latestVersion = latestVersion;
+        this.hasMore = hasMore;
+        this.resetRequired = resetRequired;
+        this.serverTime = serverTime;
+    }
+
+    public List<ProductChangeResponse> getChanges() {
+        return changes;
+    }
+
+    public void setChanges(List<ProductChangeResponse> changes) {
+        this.changes = changes;
+    }
+
+    public Long getLatestVersion() {
+        return latestVersion;
+    }
+
+    public void setLatestVersion(Long latestVersion) {
+        this.latestVersion = latestVersion;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+
+    public boolean isResetRequired() {
+        return resetRequired;
+    }
+
+    public void setResetRequired(boolean resetRequired) {
+        this.resetRequired = resetRequired;
+    }
+
+    public LocalDateTime getServerTime() {
+        return serverTime;
+    }
+
+    public void setServerTime(LocalDateTime serverTime) {
+        this.serverTime = serverTime;
+    }
+
+    public static ProductChangeFeedResponseBuilder builder() {
+        return new ProductChangeFeedResponseBuilder();
+    }
+
+    public static class ProductChangeFeedResponseBuilder {
+        private List<ProductChangeResponse> changes;
+        private Long latestVersion;
+        private boolean hasMore;
+        private boolean resetRequired;
+        private LocalDateTime serverTime;
+
+        public ProductChangeFeedResponseBuilder changes(List<ProductChangeResponse> changes) {
+            this.changes = changes;
+            return this;
+        }
+
+        public ProductChangeFeedResponseBuilder latestVersion(Long latestVersion) {
+            this.latestVersion = latestVersion;
+            return this;
+        }
+
+        public ProductChangeFeedResponseBuilder hasMore(boolean hasMore) {
+            this.hasMore = hasMore;
+            return this;
+        }
+
+        public ProductChangeFeedResponseBuilder resetRequired(boolean resetRequired) {
+            this.resetRequired = resetRequired;
+            return this;
+        }
+
+        public ProductChangeFeedResponseBuilder serverTime(LocalDateTime serverTime) {
+            this.serverTime = serverTime;
+            return this;
+        }
+
+        public ProductChangeFeedResponse build() {
+            return new ProductChangeFeedResponse(changes, latestVersion, hasMore, resetRequired, serverTime);
+        }
+    }
+}
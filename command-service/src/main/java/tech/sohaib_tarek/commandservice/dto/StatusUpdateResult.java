@@ -0,0 +1,44 @@
+package tech.sohaib_tarek.commandservice.dto;
+
+import tech.sohaib_tarek.commandservice.enums.CommandStatus;
+import tech.sohaib_tarek.commandservice.enums.StatusUpdateOutcome;
+
+public class StatusUpdateResult {
+
+    private Long commandId;
+    private StatusUpdateOutcome outcome;
+    private CommandStatus previousStatus;
+
+    public StatusUpdateResult() {
+    }
+
+    public StatusUpdateResult(Long commandId, StatusUpdateOutcome outcome, CommandStatus previousStatus) {
+        this.commandId = commandId;
+        this.outcome = outcome;
+        this.previousStatus = previousStatus;
+    }
+
+    public Long getCommandId() {
+        return commandId;
+    }
+
+    public void setCommandId(Long commandId) {
+        this.commandId = commandId;
+    }
+
+    public StatusUpdateOutcome getOutcome() {
+        return outcome;
+    }
+
+    public void setOutcome(StatusUpdateOutcome outcome) {
+        this.outcome = outcome;
+    }
+
+    public CommandStatus getPreviousStatus() {
+        return previousStatus;
+    }
+
+    public void setPreviousStatus(CommandStatus previousStatus) {
+        this.previousStatus = previousStatus;
+    }
+}
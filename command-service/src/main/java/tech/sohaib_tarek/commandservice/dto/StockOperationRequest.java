@@ -0,0 +1,107 @@
+package tech.sohaib_tarek.commandservice.dto;
+
+import tech.sohaib_tarek.commandservice.enums.StockOperationType;
+
+import java.util.List;
+
+public class StockOperationRequest {
+
+    private String operationId;
+    private StockOperationType type;
+    private String reservationId;
+    private List<String> reservationIds;
+    private List<StockUpdateRequest> items;
+
+    public StockOperationRequest() {
+    }
+
+    public StockOperationRequest(String operationId, StockOperationType type, String reservationId,
+                                 List<String> reservationIds, List<StockUpdateRequest> items) {
+        this.operationId = operationId;
+        this.type = type;
+        this.reservationId = reservationId;
+        this.reservationIds = reservationIds;
+        this.items = items;
+    }
+
+    public String getOperationId() {
+        return operationId;
+    }
+
+    public void setOperationId(String operationId) {
+        this.operationId = operationId;
+    }
+
+    public StockOperationType getType() {
+        return type;
+    }
+
+    public void setType(StockOperationType type) {
+        this.type = type;
+    }
+
+    public String getReservationId() {
+        return reservationId;
+    }
+
+    public void setReservationId(String reservationId) {
+        this.reservationId = reservationId;
+    }
+
+    public List<String> getReservationIds() {
+        return reservationIds;
+    }
+
+    public void setReservationIds(List<String> reservationIds) {
+        this.reservationIds = reservationIds;
+    }
+
+    public List<StockUpdateRequest> getItems() {
+        return items;
+    }
+
+    public void setItems(List<StockUpdateRequest> items) {
+        this.items = items;
+    }
+
+    public static StockOperationRequestBuilder builder() {
+        return new StockOperationRequestBuilder();
+    }
+
+    public static class StockOperationRequestBuilder {
+        private String operationId;
+        private StockOperationType type;
+        private String reservationId;
+        private List<String> reservationIds;
+        private List<StockUpdateRequest> items;
+
+        public StockOperationRequestBuilder operationId(String operationId) {
+            this.operationId = operationId;
+            return this;
+        }
+
+        public StockOperationRequestBuilder type(StockOperationType type) {
+            this.type = type;
+            return this;
+        }
+
+        public StockOperationRequestBuilder reservationId(String reservationId) {
+            this.reservationId = reservationId;
+            return this;
+        }
+
+        public StockOperationRequestBuilder reservationIds(List<String> reservationIds) {
+            this.reservationIds = reservationIds;
+            return this;
+        }
+
+        public StockOperationRequestBuilder items(List<StockUpdateRequest> items) {
+            this.items = items;
+            return this;
+        }
+
+        public StockOperationRequest build() {
+            return new StockOperationRequest(operationId, type, reservationId, reservationIds, items);
+        }
+    }
+}
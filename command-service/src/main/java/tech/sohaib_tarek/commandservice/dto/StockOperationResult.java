@@ -0,0 +1,42 @@
+package tech.sohaib_tarek.commandservice.dto;
+
+public class StockOperationResult {
+
+    private String operationId;
+    // APPLIED, DUPLICATE or REJECTED
+    private String status;
+    private String message;
+
+    public StockOperationResult() {
+    }
+
+    public StockOperationResult(String operationId, String status, String message) {
+        this.operationId = operationId;
+        this.status = status;
+        this.message = message;
+    }
+
+    public String getOperationId() {
+        return operationId;
+    }
+
+    public void setOperationId(String operationId) {
+        this.operationId = operationId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
@@ -0,0 +1,62 @@
+package tech.sohaib_tarek.commandservice.dto;
+
+import java.util.List;
+
+public class StockReservationRequest {
+
+    private List<StockUpdateRequest> items;
+
+    // Items the order already holds; when set, only the per-product difference is reserved or returned
+    private List<StockUpdateRequest> previousItems;
+
+    public StockReservationRequest() {
+    }
+
+    public StockReservationRequest(List<StockUpdateRequest> items) {
+        this.items = items;
+    }
+
+    public StockReservationRequest(List<StockUpdateRequest> items, List<StockUpdateRequest> previousItems) {
+        this.items = items;
+        this.previousItems = previousItems;
+    }
+
+    public List<StockUpdateRequest> getItems() {
+        return items;
+    }
+
+    public void setItems(List<StockUpdateRequest> items) {
+        this.items = items;
+    }
+
+    public List<StockUpdateRequest> getPreviousItems() {
+        return previousItems;
+    }
+
+    public void setPreviousItems(List<StockUpdateRequest> previousItems) {
+        this.previousItems = previousItems;
+    }
+
+    public static StockReservationRequestBuilder builder() {
+        return new StockReservationRequestBuilder();
+    }
+
+    public static class StockReservationRequestBuilder {
+        private List<StockUpdateRequest> items;
+        private List<StockUpdateRequest> previousItems;
+
+        public StockReservationRequestBuilder items(List<StockUpdateRequest> items) {
+            this.items = items;
+            return this;
+        }
+
+        public StockReservationRequestBuilder previousItems(List<StockUpdateRequest> previousItems) {
+            this.previousItems = previousItems;
+            return this;
+        }
+
+        public StockReservationRequest build() {
+            return new StockReservationRequest(items, previousItems);
+        }
+    }
+}
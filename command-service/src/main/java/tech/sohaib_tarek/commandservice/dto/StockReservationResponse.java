@@ -0,0 +1,55 @@
+package tech.sohaib_tarek.commandservice.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class StockReservationResponse {
+
+    private String reservationId;
+    private String status;
+    private LocalDateTime expiresAt;
+    private List<StockUpdateRequest> items;
+
+    public StockReservationResponse() {
+    }
+
+    public StockReservationResponse(String reservationId, String status, LocalDateTime expiresAt,
+                                    List<StockUpdateRequest> items) {
+        this.reservationId = reservationId;
+        this.status = status;
+        this.expiresAt = expiresAt;
+        this.items = items;
+    }
+
+    public String getReservationId() {
+        return reservationId;
+    }
+
+    public void setReservationId(String reservationId) {
+        this.reservationId = reservationId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    public List<StockUpdateRequest> getItems() {
+        return items;
+    }
+
+    public void setItems(List<StockUpdateRequest> items) {
+        this.items = items;
+    }
+}
@@ -10,11 +10,21 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "commands")
+@Table(name = "commands", indexes = {
+        // Keyset pages of one client's orders, optionally filtered by status
+        @Index(name = "idx_command_user_status_date", columnList = "user_id, status, date"),
+        // Admin pages, with and without a status filter
+        @Index(name = "idx_command_status_date", columnList = "status, date, command_id"),
+        @Index(name = "idx_command_date", columnList = "date, command_id")
+})
 public class Command {
 
+    // Pooled hi/lo IDs: no key read-back per insert, so command and item inserts can be JDBC-batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "command_id_generator")
+    @TableGenerator(name = "command_id_generator", table = "id_generators",
+            pkColumnName = "sequence_name", valueColumnName = "next_val", pkColumnValue = "commands",
+            allocationSize = 50)
     private Long commandId;
 
     @Column(nullable = false)
@@ -33,10 +43,18 @@ public class Command {
     @Column(nullable = false)
     private String username;
 
-    @OneToMany(mappedBy = "command", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
+    // Lazy by default; list queries fetch items with an entity graph or in batches (default_batch_fetch_size)
+    @OneToMany(mappedBy = "command", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     @JsonManagedReference
     private List<CommandItem> items = new ArrayList<>();
 
+    // Every stock reservation taken for this order, in creation order; cancelling releases them by ID
+    @ElementCollection(fetch = FetchType.LAZY)
+    @CollectionTable(name = "command_reservations", joinColumns = @JoinColumn(name = "command_id"))
+    @OrderColumn(name = "position")
+    @Column(name = "reservation_id", length = 36, nullable = false)
+    private List<String> reservationIds = new ArrayList<>();
+
     public Command() {
     }
 
@@ -70,6 +88,10 @@ public class Command {
         item.setCommand(null);
     }
 
+    public void addReservation(String reservationId) {
+        reservationIds.add(reservationId);
+    }
+
     public Long getCommandId() {
         return commandId;
     }
@@ -110,6 +132,10 @@ public class Command {
         this.items = items;
     }
 
+    public List<String> getReservationIds() {
+        return reservationIds;
+    }
+
     public String getUserId() {
         return userId;
     }
@@ -0,0 +1,95 @@
+package tech.sohaib_tarek.commandservice.entity;
+
+import jakarta.persistence.*;
+import tech.sohaib_tarek.commandservice.enums.IntakeStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Tracking record of an order submitted through the asynchronous intake. Stored in the
+ * database so the outcome can be read from any instance, not only the one running the worker.
+ */
+@Entity
+@Table(name = "command_intakes", indexes = {
+        // Lets the cleanup job find finished records without scanning the table
+        @Index(name = "idx_command_intake_updated_at", columnList = "updated_at")
+})
+public class CommandIntake {
+
+    @Id
+    @Column(length = 36)
+    private String trackingId;
+
+    @Column(nullable = false)
+    private String userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private IntakeStatus status;
+
+    private Long commandId;
+
+    @Column(length = 500)
+    private String error;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public CommandIntake() {
+    }
+
+    public CommandIntake(String trackingId, String userId, IntakeStatus status, LocalDateTime createdAt) {
+        this.trackingId = trackingId;
+        this.userId = userId;
+        this.status = status;
+        this.createdAt = createdAt;
+        this.updatedAt = createdAt;
+    }
+
+    public String getTrackingId() {
+        return trackingId;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public IntakeStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(IntakeStatus status) {
+        this.status = status;
+    }
+
+    public Long getCommandId() {
+        return commandId;
+    }
+
+    public void setCommandId(Long commandId) {
+        this.commandId = commandId;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
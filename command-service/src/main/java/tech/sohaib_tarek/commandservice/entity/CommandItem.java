@@ -10,7 +10,10 @@ import java.math.BigDecimal;
 public class CommandItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "command_item_id_generator")
+    @TableGenerator(name = "command_item_id_generator", table = "id_generators",
+            pkColumnName = "sequence_name", valueColumnName = "next_val", pkColumnValue = "command_items",
+            allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -0,0 +1,102 @@
+package tech.sohaib_tarek.commandservice.entity;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+import tech.sohaib_tarek.commandservice.enums.IdempotencyStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Outcome of a request sent with an Idempotency-Key. A repeat of the same key within the TTL
+ * gets the stored response instead of running the operation again.
+ */
+@Entity
+@Table(name = "idempotency_records", indexes = {
+        // Lets the cleanup job find expired keys without scanning the table
+        @Index(name = "idx_idempotency_expires_at", columnList = "expires_at")
+})
+public class IdempotencyRecord implements Persistable<String> {
+
+    // Operation scope and client key, e.g. "reduce-stock:3f1c..."
+    @Id
+    @Column(length = 200)
+    private String recordId;
+
+    // SHA-256 of the request body; a key reused for a different request is rejected
+    @Column(nullable = false, length = 64)
+    private String requestHash;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private IdempotencyStatus status;
+
+    private Integer responseStatus;
+
+    @Column(columnDefinition = "TEXT")
+    private String responseBody;
+
+    @Column(nullable = false)
+    private LocalDateTime lockedAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    // Always inserted, never merged: a concurrent claim of the same key must fail on the primary key
+    @Transient
+    private boolean isNew = true;
+
+    public IdempotencyRecord() {
+    }
+
+    public IdempotencyRecord(String recordId, String requestHash, LocalDateTime lockedAt, LocalDateTime expiresAt) {
+        this.recordId = recordId;
+        this.requestHash = requestHash;
+        this.status = IdempotencyStatus.IN_PROGRESS;
+        this.lockedAt = lockedAt;
+        this.expiresAt = expiresAt;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    @Override
+    public String getId() {
+        return recordId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    public String getRecordId() {
+        return recordId;
+    }
+
+    public String getRequestHash() {
+        return requestHash;
+    }
+
+    public IdempotencyStatus getStatus() {
+        return status;
+    }
+
+    public Integer getResponseStatus() {
+        return responseStatus;
+    }
+
+    public String getResponseBody() {
+        return responseBody;
+    }
+
+    public LocalDateTime getLockedAt() {
+        return lockedAt;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+}
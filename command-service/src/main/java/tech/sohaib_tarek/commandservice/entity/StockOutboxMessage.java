@@ -0,0 +1,136 @@
+package tech.sohaib_tarek.commandservice.entity;
+
+import jakarta.persistence.*;
+import tech.sohaib_tarek.commandservice.enums.OutboxStatus;
+import tech.sohaib_tarek.commandservice.enums.StockOperationType;
+
+import java.time.LocalDateTime;
+
+/**
+ * A stock side effect of an order change, written in the same transaction as the order and
+ * delivered to product-service afterwards by the outbox relay. Delivered messages are deleted.
+ */
+@Entity
+@Table(name = "stock_outbox", indexes = {
+        // The relay only ever looks for due PENDING messages
+        @Index(name = "idx_stock_outbox_status_next_attempt", columnList = "status, next_attempt_at"),
+        // Finds the earlier undelivered messages of the same order
+        @Index(name = "idx_stock_outbox_command", columnList = "command_id, status")
+})
+public class StockOutboxMessage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Idempotency key on product-service; stays the same across redeliveries
+    @Column(nullable = false, unique = true, length = 36)
+    private String operationId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private StockOperationType type;
+
+    // The order this message belongs to; its messages are delivered one at a time in ID order
+    @Column(name = "command_id")
+    private Long commandId;
+
+    @Column(length = 36)
+    private String reservationId;
+
+    // RESTORE_STOCK items as a JSON array of StockUpdateRequest
+    @Column(columnDefinition = "TEXT")
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private OutboxStatus status;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(length = 500)
+    private String lastError;
+
+    public StockOutboxMessage() {
+    }
+
+    public StockOutboxMessage(String operationId, StockOperationType type, Long commandId, String reservationId,
+                              String payload, LocalDateTime createdAt) {
+        this.operationId = operationId;
+        this.type = type;
+        this.commandId = commandId;
+        this.reservationId = reservationId;
+        this.payload = payload;
+        this.status = OutboxStatus.PENDING;
+        this.attempts = 0;
+        this.nextAttemptAt = createdAt;
+        this.createdAt = createdAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getOperationId() {
+        return operationId;
+    }
+
+    public StockOperationType getType() {
+        return type;
+    }
+
+    public Long getCommandId() {
+        return commandId;
+    }
+
+    public String getReservationId() {
+        return reservationId;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public OutboxStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(OutboxStatus status) {
+        this.status = status;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public LocalDateTime getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public void setNextAttemptAt(LocalDateTime nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+}
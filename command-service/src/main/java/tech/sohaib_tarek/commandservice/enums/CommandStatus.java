@@ -6,5 +6,26 @@ public enum CommandStatus {
   PROCESSING,
   SHIPPED,
   DELIVERED,
-  CANCELLED
+  CANCELLED,
+  // The order's stock reservation could not be confirmed, so it holds no stock; it can only be cancelled
+  FAILED;
+
+  public boolean isFinal() {
+    return this == DELIVERED || this == CANCELLED;
+  }
+
+  /**
+   * Order workflow: PENDING -> CONFIRMED -> PROCESSING -> SHIPPED -> DELIVERED,
+   * with cancellation allowed while PENDING, CONFIRMED or FAILED.
+   */
+  public boolean canTransitionTo(CommandStatus next) {
+    return switch (this) {
+      case PENDING -> next == CONFIRMED || next == CANCELLED;
+      case CONFIRMED -> next == PROCESSING || next == CANCELLED;
+      case PROCESSING -> next == SHIPPED;
+      case SHIPPED -> next == DELIVERED;
+      case FAILED -> next == CANCELLED;
+      case DELIVERED, CANCELLED -> false;
+    };
+  }
 }
@@ -0,0 +1,6 @@
+package tech.sohaib_tarek.commandservice.enums;
+
+public enum IdempotencyStatus {
+  IN_PROGRESS,
+  COMPLETED
+}
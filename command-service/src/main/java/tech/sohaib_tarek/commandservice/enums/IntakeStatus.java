@@ -0,0 +1,8 @@
+package tech.sohaib_tarek.commandservice.enums;
+
+public enum IntakeStatus {
+  QUEUED,
+  PROCESSING,
+  COMPLETED,
+  FAILED
+}
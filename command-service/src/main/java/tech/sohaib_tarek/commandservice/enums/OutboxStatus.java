@@ -0,0 +1,7 @@
+package tech.sohaib_tarek.commandservice.enums;
+
+public enum OutboxStatus {
+  PENDING,
+  // Rejected by product-service or out of retries; needs an operator
+  FAILED
+}
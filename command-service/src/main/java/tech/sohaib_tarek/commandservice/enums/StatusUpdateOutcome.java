@@ -0,0 +1,11 @@
+package tech.sohaib_tarek.commandservice.enums;
+
+public enum StatusUpdateOutcome {
+  UPDATED,
+  // Already in the target status, e.g. when a wave is retried
+  UNCHANGED,
+  NOT_FOUND,
+  INVALID_TRANSITION,
+  // The status changed between validation and update; retry the ID on its own
+  CONFLICT
+}
@@ -5,6 +5,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -96,6 +97,122 @@ public class GlobalExceptionHandler {
     return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
   }
 
+  @ExceptionHandler(InvalidPageRequestException.class)
+  public ResponseEntity<ErrorResponse> handleInvalidPageRequestException(
+      InvalidPageRequestException ex, HttpServletRequest request) {
+    log.error("APPLICATION_ERROR | type=InvalidPageRequest | path={} | message={} | context=[{}]",
+        request.getRequestURI(), ex.getMessage(), getUserContext(request));
+    errorLog.error("InvalidPageRequestException: {} | {}", ex.getMessage(), getUserContext(request));
+    ErrorResponse errorResponse = ErrorResponse.builder()
+        .timestamp(LocalDateTime.now())
+        .status(HttpStatus.BAD_REQUEST.value())
+        .error("Bad Request")
+        .message(ex.getMessage())
+        .path(request.getRequestURI())
+        .build();
+    return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+  }
+
+  @ExceptionHandler(IdempotencyKeyInUseException.class)
+  public ResponseEntity<ErrorResponse> handleIdempotencyKeyInUseException(
+      IdempotencyKeyInUseException ex, HttpServletRequest request) {
+    log.error("APPLICATION_ERROR | type=IdempotencyKeyInUse | path={} | message={} | context=[{}]",
+        request.getRequestURI(), ex.getMessage(), getUserContext(request));
+    errorLog.error("IdempotencyKeyInUseException: {} | {}", ex.getMessage(), getUserContext(request));
+    ErrorResponse errorResponse = ErrorResponse.builder()
+        .timestamp(LocalDateTime.now())
+        .status(HttpStatus.CONFLICT.value())
+        .error("Conflict")
+        .message(ex.getMessage())
+        .path(request.getRequestURI())
+        .build();
+    return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+  }
+
+  @ExceptionHandler(IdempotencyKeyReusedException.class)
+  public ResponseEntity<ErrorResponse> handleIdempotencyKeyReusedException(
+      IdempotencyKeyReusedException ex, HttpServletRequest request) {
+    log.error("APPLICATION_ERROR | type=IdempotencyKeyReused | path={} | message={} | context=[{}]",
+        request.getRequestURI(), ex.getMessage(), getUserContext(request));
+    errorLog.error("IdempotencyKeyReusedException: {} | {}", ex.getMessage(), getUserContext(request));
+    ErrorResponse errorResponse = ErrorResponse.builder()
+        .timestamp(LocalDateTime.now())
+        .status(HttpStatus.UNPROCESSABLE_ENTITY.value())
+        .error("Unprocessable Entity")
+        .message(ex.getMessage())
+        .path(request.getRequestURI())
+        .build();
+    return new ResponseEntity<>(errorResponse, HttpStatus.UNPROCESSABLE_ENTITY);
+  }
+
+  @ExceptionHandler(IntakeNotFoundException.class)
+  public ResponseEntity<ErrorResponse> handleIntakeNotFoundException(
+      IntakeNotFoundException ex, HttpServletRequest request) {
+    log.error("APPLICATION_ERROR | type=IntakeNotFound | path={} | message={} | context=[{}]",
+        request.getRequestURI(), ex.getMessage(), getUserContext(request));
+    errorLog.error("IntakeNotFoundException: {} | {}", ex.getMessage(), getUserContext(request));
+    ErrorResponse errorResponse = ErrorResponse.builder()
+        .timestamp(LocalDateTime.now())
+        .status(HttpStatus.NOT_FOUND.value())
+        .error("Not Found")
+        .message(ex.getMessage())
+        .path(request.getRequestURI())
+        .build();
+    return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
+  }
+
+  @ExceptionHandler(IntakeQueueFullException.class)
+  public ResponseEntity<ErrorResponse> handleIntakeQueueFullException(
+      IntakeQueueFullException ex, HttpServletRequest request) {
+    log.error("APPLICATION_ERROR | type=IntakeQueueFull | path={} | message={} | context=[{}]",
+        request.getRequestURI(), ex.getMessage(), getUserContext(request));
+    errorLog.error("IntakeQueueFullException: {} | {}", ex.getMessage(), getUserContext(request));
+    ErrorResponse errorResponse = ErrorResponse.builder()
+        .timestamp(LocalDateTime.now())
+        .status(HttpStatus.TOO_MANY_REQUESTS.value())
+        .error("Too Many Requests")
+        .message(ex.getMessage())
+        .path(request.getRequestURI())
+        .build();
+    return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+        .header(HttpHeaders.RETRY_AFTER, "1")
+        .body(errorResponse);
+  }
+
+  @ExceptionHandler(ProductValidationTimeoutException.class)
+  public ResponseEntity<ErrorResponse> handleProductValidationTimeoutException(
+      ProductValidationTimeoutException ex, HttpServletRequest request) {
+    log.error("APPLICATION_ERROR | type=ProductValidationTimeout | path={} | message={} | context=[{}]",
+        request.getRequestURI(), ex.getMessage(), getUserContext(request));
+    errorLog.error("ProductValidationTimeoutException: {} | {}", ex.getMessage(), getUserContext(request));
+    ErrorResponse errorResponse = ErrorResponse.builder()
+        .timestamp(LocalDateTime.now())
+        .status(HttpStatus.GATEWAY_TIMEOUT.value())
+        .error("Gateway Timeout")
+        .message(ex.getMessage())
+        .path(request.getRequestURI())
+        .build();
+    return new ResponseEntity<>(errorResponse, HttpStatus.GATEWAY_TIMEOUT);
+  }
+
+  @ExceptionHandler(ProductServiceUnavailableException.class)
+  public ResponseEntity<ErrorResponse> handleProductServiceUnavailableException(
+      ProductServiceUnavailableException ex, HttpServletRequest request) {
+    log.error("APPLICATION_ERROR | type=ProductServiceUnavailable | path={} | message={} | context=[{}]",
+        request.getRequestURI(), ex.getMessage(), getUserContext(request));
+    errorLog.error("ProductServiceUnavailableException: {} | {}", ex.getMessage(), getUserContext(request));
+    ErrorResponse errorResponse = ErrorResponse.builder()
+        .timestamp(LocalDateTime.now())
+        .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+        .error("Service Unavailable")
+        .message(ex.getMessage())
+        .path(request.getRequestURI())
+        .build();
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+        .header(HttpHeaders.RETRY_AFTER, "5")
+        .body(errorResponse);
+  }
+
   @ExceptionHandler(FeignException.class)
   public ResponseEntity<ErrorResponse> handleFeignException(
       FeignException ex, HttpServletRequest request) {
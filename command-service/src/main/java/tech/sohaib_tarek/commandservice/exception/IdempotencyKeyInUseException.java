@@ -0,0 +1,8 @@
+package tech.sohaib_tarek.commandservice.exception;
+
+public class IdempotencyKeyInUseException extends RuntimeException {
+
+    public IdempotencyKeyInUseException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package tech.sohaib_tarek.commandservice.exception;
+
+public class IdempotencyKeyReusedException extends RuntimeException {
+
+    public IdempotencyKeyReusedException(String message) {
+        super(message);
+    }
+}
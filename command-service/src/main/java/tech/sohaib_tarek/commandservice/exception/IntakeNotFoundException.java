@@ -0,0 +1,8 @@
+package tech.sohaib_tarek.commandservice.exception;
+
+public class IntakeNotFoundException extends RuntimeException {
+
+    public IntakeNotFoundException(String message) {
+        super(message);
+    }
+}
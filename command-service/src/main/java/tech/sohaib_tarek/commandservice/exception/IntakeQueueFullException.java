@@ -0,0 +1,8 @@
+package tech.sohaib_tarek.commandservice.exception;
+
+public class IntakeQueueFullException extends RuntimeException {
+
+    public IntakeQueueFullException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package tech.sohaib_tarek.commandservice.exception;
+
+public class InvalidPageRequestException extends RuntimeException {
+
+    public InvalidPageRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package tech.sohaib_tarek.commandservice.exception;
+
+public class ProductValidationTimeoutException extends RuntimeException {
+
+    public ProductValidationTimeoutException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,163 @@
+package tech.sohaib_tarek.commandservice.replica;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import tech.sohaib_tarek.commandservice.client.ProductClient;
+import tech.sohaib_tarek.commandservice.dto.ProductChangeFeedResponse;
+import tech.sohaib_tarek.commandservice.dto.ProductChangeResponse;
+import tech.sohaib_tarek.commandservice.dto.ProductPageResponse;
+import tech.sohaib_tarek.commandservice.dto.ProductResponse;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Local read-only copy of the product catalog (name, price, approximate stock).
+ * <p>
+ * It starts from a full snapshot taken through the paginated product listing and then tails
+ * product-service's change feed. Feed entries carry the product's current state, so applying one
+ * twice is harmless: the snapshot starts a little before the feed's latest version, and a gap in
+ * the versions (a write not yet committed, or rolled back) holds the cursor until the gap is
+ * filled or older than the gap timeout, so the next poll reads past it again.
+ * <p>
+ * Only reads that tolerate slightly stale data use it; reservations stay on product-service.
+ */
+@Component
+public class ProductCatalogReplica {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductCatalogReplica.class);
+
+    private final ProductClient productClient;
+
+    // Only the validation pre-check reads the replica, so by default it runs exactly when the pre-check does
+    @Value("${product.replica.enabled:${product.validation.pre-check-enabled:true}}")
+    private boolean enabled;
+
+    @Value("${product.replica.page-size:500}")
+    private int pageSize;
+
+    @Value("${product.replica.gap-timeout-ms:5000}")
+    private long gapTimeoutMs;
+
+    @Value("${product.replica.bootstrap-overlap:1000}")
+    private long bootstrapOverlap;
+
+    @Value("${product.replica.max-staleness-ms:10000}")
+    private long maxStalenessMs;
+
+    private volatile Map<Long, ProductResponse> products = new ConcurrentHashMap<>();
+    private volatile boolean bootstrapped;
+    private volatile long version;
+    private volatile long lastSyncedAt;
+
+    public ProductCatalogReplica(ProductClient productClient, MeterRegistry meterRegistry) {
+        this.productClient = productClient;
+        Gauge.builder("product.replica.size", this, replica -> replica.products.size())
+                .description("Products held by the local catalog replica")
+                .register(meterRegistry);
+        Gauge.builder("product.replica.version", this, replica -> replica.version)
+                .description("Last product change feed version applied without gaps")
+                .register(meterRegistry);
+        Gauge.builder("product.replica.lag.ms", this,
+                        replica -> replica.lastSyncedAt == 0 ? -1 : System.currentTimeMillis() - replica.lastSyncedAt)
+                .description("Time since the replica last caught up with the change feed")
+                .register(meterRegistry);
+    }
+
+    /**
+     * True once a snapshot was loaded and the feed was read recently enough to be trusted.
+     */
+    public boolean isReady() {
+        return enabled && bootstrapped && System.currentTimeMillis() - lastSyncedAt <= maxStalenessMs;
+    }
+
+    /**
+     * Returns the local copy of the product, or null when it is unknown here.
+     */
+    public ProductResponse get(Long productId) {
+        return products.get(productId);
+    }
+
+    @Scheduled(fixedDelayString = "${product.replica.poll-interval-ms:1000}")
+    public void sync() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            if (!bootstrapped) {
+                bootstrap();
+            }
+            tail();
+            lastSyncedAt = System.currentTimeMillis();
+        } catch (RuntimeException e) {
+            // Not ready once the staleness limit passes; callers then go to product-service
+            log.warn("Product catalog replica sync failed at version {}: {}", version, e.getMessage());
+        }
+    }
+
+    private void bootstrap() {
+        ProductChangeFeedResponse head = productClient.getChanges(0L, 1);
+        long latest = head.getLatestVersion() == null ? 0 : head.getLatestVersion();
+
+        Map<Long, ProductResponse> snapshot = new ConcurrentHashMap<>();
+        String cursor = null;
+        ProductPageResponse page;
+        do {
+            page = productClient.getProductsPage(cursor, pageSize);
+            for (ProductResponse product : page.getItems()) {
+                snapshot.put(product.getProductId(), product);
+            }
+            cursor = page.getNextCursor();
+        } while (page.isHasNext());
+
+        // Writes below the latest version may commit after the snapshot read; replaying them is harmless
+        products = snapshot;
+        version = Math.max(0, latest - bootstrapOverlap);
+        bootstrapped = true;
+        log.info("Product catalog replica loaded {} products, tailing changes from version {}", snapshot.size(), version);
+    }
+
+    private void tail() {
+        while (true) {
+            ProductChangeFeedResponse feed = productClient.getChanges(version, pageSize);
+            if (feed.isResetRequired()) {
+                log.warn("Product change feed was pruned past version {}, reloading the snapshot", version);
+                bootstrap();
+                continue;
+            }
+
+            long cursor = version;
+            boolean blocked = false;
+            LocalDateTime settledBefore = feed.getServerTime().minusNanos(gapTimeoutMs * 1_000_000);
+            for (ProductChangeResponse change : feed.getChanges()) {
+                apply(change);
+                if (!blocked) {
+                    if (change.getVersion() == cursor + 1 || change.getChangedAt().isBefore(settledBefore)) {
+                        cursor = change.getVersion();
+                    } else {
+                        blocked = true;
+                    }
+                }
+            }
+            version = cursor;
+
+            if (!feed.isHasMore() || blocked) {
+                return;
+            }
+        }
+    }
+
+    private void apply(ProductChangeResponse change) {
+        if (change.getProduct() == null) {
+            products.remove(change.getProductId());
+        } else {
+            products.put(change.getProductId(), change.getProduct());
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package tech.sohaib_tarek.commandservice.repository;
+
+import tech.sohaib_tarek.commandservice.entity.CommandIntake;
+import tech.sohaib_tarek.commandservice.enums.IntakeStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+@Repository
+public interface CommandIntakeRepository extends JpaRepository<CommandIntake, String> {
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE CommandIntake i SET i.status = :status, i.updatedAt = :now " +
+            "WHERE i.trackingId = :trackingId AND i.status = :expected")
+    int updateStatus(@Param("trackingId") String trackingId,
+                     @Param("expected") IntakeStatus expected,
+                     @Param("status") IntakeStatus status,
+                     @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE CommandIntake i SET i.status = :status, i.commandId = :commandId, i.error = :error, " +
+            "i.updatedAt = :now WHERE i.trackingId = :trackingId")
+    int complete(@Param("trackingId") String trackingId,
+                 @Param("status") IntakeStatus status,
+                 @Param("commandId") Long commandId,
+                 @Param("error") String error,
+                 @Param("now") LocalDateTime now);
+
+    /**
+     * Fails unfinished records that have not moved since the cutoff: their task was lost with the
+     * instance that queued or ran it, since queued orders only live in that instance's memory.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE CommandIntake i SET i.status = :failed, i.error = :error, i.updatedAt = :now " +
+            "WHERE i.updatedAt < :cutoff AND i.status IN :statuses")
+    int failStaleBefore(@Param("cutoff") LocalDateTime cutoff,
+                        @Param("statuses") Collection<IntakeStatus> statuses,
+                        @Param("failed") IntakeStatus failed,
+                        @Param("error") String error,
+                        @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM CommandIntake i WHERE i.updatedAt < :cutoff AND i.status IN :statuses")
+    int deleteFinishedBefore(@Param("cutoff") LocalDateTime cutoff,
+                             @Param("statuses") Collection<IntakeStatus> statuses);
+}
@@ -2,23 +2,72 @@ package tech.sohaib_tarek.commandservice.repository;
 
 import tech.sohaib_tarek.commandservice.entity.Command;
 import tech.sohaib_tarek.commandservice.enums.CommandStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface CommandRepository extends JpaRepository<Command, Long> {
+public interface CommandRepository extends JpaRepository<Command, Long>, JpaSpecificationExecutor<Command> {
 
+    // List queries load the commands and their items in a single joined select
+
+    @Override
+    @EntityGraph(attributePaths = "items")
+    List<Command> findAll();
+
+    @EntityGraph(attributePaths = "items")
     List<Command> findByStatus(CommandStatus status);
 
+    @EntityGraph(attributePaths = "items")
     List<Command> findByDateBetween(LocalDateTime startDate, LocalDateTime endDate);
 
+    @EntityGraph(attributePaths = "items")
     List<Command> findByUserId(String userId);
 
+    @EntityGraph(attributePaths = "items")
     List<Command> findByUserIdAndStatus(String userId, CommandStatus status);
 
+    @EntityGraph(attributePaths = "items")
+    Optional<Command> findWithItemsByCommandId(Long commandId);
+
+    /**
+     * Locks the order row until the end of the transaction, so edits and cancellations of one
+     * order are applied one after the other.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Command c WHERE c.commandId = :commandId")
+    Optional<Command> findByIdForUpdate(@Param("commandId") Long commandId);
+
     boolean existsByCommandIdAndUserId(Long commandId, String userId);
+
+    @Query("SELECT c.commandId AS commandId, c.status AS status FROM Command c WHERE c.commandId IN :commandIds")
+    List<CommandStatusView> findStatusesByCommandIdIn(@Param("commandIds") Collection<Long> commandIds);
+
+    /**
+     * Set-based status change guarded by the expected current status, so rows changed concurrently are skipped.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Command c SET c.status = :target WHERE c.commandId IN :commandIds AND c.status = :expected")
+    int updateStatus(@Param("commandIds") Collection<Long> commandIds,
+                     @Param("expected") CommandStatus expected,
+                     @Param("target") CommandStatus target);
+
+    interface CommandStatusView {
+
+        Long getCommandId();
+
+        CommandStatus getStatus();
+    }
 }
 
@@ -0,0 +1,43 @@
+package tech.sohaib_tarek.commandservice.repository;
+
+import jakarta.persistence.criteria.Predicate;
+import tech.sohaib_tarek.commandservice.entity.Command;
+import tech.sohaib_tarek.commandservice.enums.CommandStatus;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Optional filters for order listings. A null argument means "no filter".
+ */
+public final class CommandSpecifications {
+
+    private CommandSpecifications() {
+    }
+
+    /**
+     * @param from inclusive lower bound on the order date
+     * @param to   exclusive upper bound on the order date
+     */
+    public static Specification<Command> matching(String userId, CommandStatus status,
+                                                  LocalDateTime from, LocalDateTime to) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (userId != null) {
+                predicates.add(cb.equal(root.get("userId"), userId));
+            }
+            if (status != null) {
+                predicates.add(cb.equal(root.get("status"), status));
+            }
+            if (from != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("date"), from));
+            }
+            if (to != null) {
+                predicates.add(cb.lessThan(root.get("date"), to));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+}
@@ -0,0 +1,36 @@
+package tech.sohaib_tarek.commandservice.repository;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import tech.sohaib_tarek.commandservice.entity.StockOutboxMessage;
+import tech.sohaib_tarek.commandservice.enums.OutboxStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface StockOutboxRepository extends JpaRepository<StockOutboxMessage, Long> {
+
+    /**
+     * Locks due messages with SKIP LOCKED (lock timeout -2), so several relay instances
+     * never pick up the same message. Only the oldest undelivered message of an order is due:
+     * a later one waits until the earlier is delivered or has failed, so a retry backoff can
+     * never let a release overtake the confirmation it undoes.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT m FROM StockOutboxMessage m WHERE m.status = :status AND m.nextAttemptAt <= :now "
+            + "AND NOT EXISTS (SELECT e.id FROM StockOutboxMessage e "
+            + "WHERE e.commandId = m.commandId AND e.status = :status AND e.id < m.id) "
+            + "ORDER BY m.id")
+    List<StockOutboxMessage> findDueForUpdate(@Param("status") OutboxStatus status,
+                                              @Param("now") LocalDateTime now,
+                                              Pageable pageable);
+}
@@ -0,0 +1,62 @@
+package tech.sohaib_tarek.commandservice.scheduler;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import tech.sohaib_tarek.commandservice.enums.IntakeStatus;
+import tech.sohaib_tarek.commandservice.repository.CommandIntakeRepository;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+
+/**
+ * Drops tracking records of finished asynchronous orders once clients had time to read them,
+ * and fails records left QUEUED or PROCESSING by an instance that stopped before finishing them.
+ */
+@Component
+public class CommandIntakeCleanupJob {
+
+  private static final Logger log = LoggerFactory.getLogger(CommandIntakeCleanupJob.class);
+
+  private final CommandIntakeRepository intakeRepository;
+
+  private static final String ABANDONED_ERROR =
+      "Order processing was interrupted; check your orders before submitting it again";
+
+  @Value("${command.intake.retention-hours:24}")
+  private long retentionHours;
+
+  @Value("${command.intake.stale-after-minutes:10}")
+  private long staleAfterMinutes;
+
+  public CommandIntakeCleanupJob(CommandIntakeRepository intakeRepository) {
+    this.intakeRepository = intakeRepository;
+  }
+
+  @Scheduled(fixedDelayString = "${command.intake.cleanup-interval-ms:3600000}")
+  public void deleteFinishedIntakes() {
+    int deleted = intakeRepository.deleteFinishedBefore(LocalDateTime.now().minusHours(retentionHours),
+        EnumSet.of(IntakeStatus.COMPLETED, IntakeStatus.FAILED));
+    if (deleted > 0) {
+      log.info("Deleted {} finished order intake records", deleted);
+    }
+  }
+
+  /**
+   * Queued orders are only held in the memory of the instance that accepted them, so after a
+   * restart nothing will ever pick them up again. Live records are updated well within the
+   * timeout; one that has not moved is reported as failed instead of staying pending forever.
+   * An order whose worker died after saving it still exists, hence the wording of the error.
+   */
+  @Scheduled(fixedDelayString = "${command.intake.stale-check-interval-ms:60000}")
+  public void failAbandonedIntakes() {
+    LocalDateTime now = LocalDateTime.now();
+    int failed = intakeRepository.failStaleBefore(now.minusMinutes(staleAfterMinutes),
+        EnumSet.of(IntakeStatus.QUEUED, IntakeStatus.PROCESSING), IntakeStatus.FAILED, ABANDONED_ERROR, now);
+    if (failed > 0) {
+      log.warn("Marked {} abandoned order intake records FAILED", failed);
+    }
+  }
+}
@@ -0,0 +1,62 @@
+package tech.sohaib_tarek.commandservice.scheduler;
+
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.io.HttpClientConnectionManager;
+import org.apache.hc.core5.http.HttpHost;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Applies per-service connection limits to the Feign connection pool.
+ * <p>
+ * The pool is keyed by route (host and port), and with Eureka the routes of a service are only
+ * known at runtime, so the instances of every configured service are looked up periodically and
+ * each one gets the limit of feign.transport.max-connections-per-instance.&lt;service-id&gt;.
+ * Services without an entry keep spring.cloud.openfeign.httpclient.max-connections-per-route.
+ */
+@Component
+public class FeignRouteLimitRefresher {
+
+  private static final Logger log = LoggerFactory.getLogger(FeignRouteLimitRefresher.class);
+
+  private final ObjectProvider<HttpClientConnectionManager> connectionManager;
+  private final DiscoveryClient discoveryClient;
+  private final Map<String, Integer> limits;
+
+  public FeignRouteLimitRefresher(ObjectProvider<HttpClientConnectionManager> connectionManager,
+                                  DiscoveryClient discoveryClient,
+                                  Environment environment) {
+    this.connectionManager = connectionManager;
+    this.discoveryClient = discoveryClient;
+    this.limits = Binder.get(environment)
+        .bind("feign.transport.max-connections-per-instance", Bindable.mapOf(String.class, Integer.class))
+        .orElse(Map.of());
+  }
+
+  @Scheduled(fixedDelayString = "${feign.transport.route-refresh-interval-ms:30000}")
+  public void applyRouteLimits() {
+    if (limits.isEmpty() || !(connectionManager.getIfAvailable() instanceof PoolingHttpClientConnectionManager pool)) {
+      return;
+    }
+    limits.forEach((serviceId, max) -> {
+      for (ServiceInstance instance : discoveryClient.getInstances(serviceId)) {
+        HttpRoute route = new HttpRoute(new HttpHost(instance.getScheme(), instance.getHost(), instance.getPort()));
+        if (pool.getMaxPerRoute(route) != max) {
+          pool.setMaxPerRoute(route, max);
+          log.debug("Set Feign connection limit {} for {} instance {}", max, serviceId, route);
+        }
+      }
+    });
+  }
+}
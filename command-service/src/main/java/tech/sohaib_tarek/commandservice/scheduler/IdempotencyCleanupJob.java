@@ -0,0 +1,30 @@
+package tech.sohaib_tarek.commandservice.scheduler;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import tech.sohaib_tarek.commandservice.service.IdempotencyStore;
+
+/**
+ * Deletes idempotency records whose TTL has passed.
+ */
+@Component
+public class IdempotencyCleanupJob {
+
+  private static final Logger log = LoggerFactory.getLogger(IdempotencyCleanupJob.class);
+
+  private final IdempotencyStore idempotencyStore;
+
+  public IdempotencyCleanupJob(IdempotencyStore idempotencyStore) {
+    this.idempotencyStore = idempotencyStore;
+  }
+
+  @Scheduled(fixedDelayString = "${idempotency.cleanup-interval-ms:3600000}")
+  public void deleteExpiredRecords() {
+    int deleted = idempotencyStore.deleteExpired();
+    if (deleted > 0) {
+      log.info("Deleted {} expired idempotency records", deleted);
+    }
+  }
+}
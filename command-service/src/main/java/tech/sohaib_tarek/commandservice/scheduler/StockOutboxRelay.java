@@ -0,0 +1,86 @@
+package tech.sohaib_tarek.commandservice.scheduler;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import tech.sohaib_tarek.commandservice.client.ProductClient;
+import tech.sohaib_tarek.commandservice.dto.StockOperationRequest;
+import tech.sohaib_tarek.commandservice.dto.StockOperationResult;
+import tech.sohaib_tarek.commandservice.entity.StockOutboxMessage;
+import tech.sohaib_tarek.commandservice.service.StockOutbox;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Delivers queued stock operations to product-service in batches. Operations are idempotent
+ * per operation ID on the product side, so a batch that times out is simply sent again.
+ * A pass stops at the first failed call and leaves the rest to the backoff schedule.
+ * A rejected operation is not retried; a rejected confirmation fails its order.
+ */
+@Component
+public class StockOutboxRelay {
+
+  private static final Logger log = LoggerFactory.getLogger(StockOutboxRelay.class);
+  private static final String REJECTED = "REJECTED";
+
+  private final StockOutbox stockOutbox;
+  private final ProductClient productClient;
+
+  @Value("${stock.outbox.batch-size:50}")
+  private int batchSize;
+
+  public StockOutboxRelay(StockOutbox stockOutbox, ProductClient productClient) {
+    this.stockOutbox = stockOutbox;
+    this.productClient = productClient;
+  }
+
+  @Scheduled(fixedDelayString = "${stock.outbox.relay-interval-ms:1000}")
+  public void relay() {
+    List<StockOutboxMessage> batch;
+    do {
+      batch = stockOutbox.claimDue(batchSize);
+    } while (!batch.isEmpty() && deliver(batch) && batch.size() == batchSize);
+  }
+
+  private boolean deliver(List<StockOutboxMessage> batch) {
+    List<Long> messageIds = batch.stream().map(StockOutboxMessage::getId).collect(Collectors.toList());
+    List<StockOperationResult> results;
+    try {
+      List<StockOperationRequest> operations = batch.stream()
+          .map(stockOutbox::toRequest)
+          .collect(Collectors.toList());
+      results = productClient.applyStockOperations(operations);
+    } catch (Exception e) {
+      log.warn("Failed to deliver {} stock operations, will retry: {}", batch.size(), e.getMessage());
+      stockOutbox.scheduleRetry(messageIds, e.getMessage());
+      return false;
+    }
+
+    Map<String, StockOperationResult> resultsByOperation = results.stream()
+        .collect(Collectors.toMap(StockOperationResult::getOperationId, Function.identity(), (a, b) -> a));
+    List<Long> delivered = new ArrayList<>();
+    List<Long> missing = new ArrayList<>();
+    for (StockOutboxMessage message : batch) {
+      StockOperationResult result = resultsByOperation.get(message.getOperationId());
+      if (result == null) {
+        missing.add(message.getId());
+      } else if (REJECTED.equals(result.getStatus())) {
+        stockOutbox.markFailed(message.getId(), result.getMessage());
+      } else {
+        delivered.add(message.getId());
+      }
+    }
+    stockOutbox.markDelivered(delivered);
+    if (!missing.isEmpty()) {
+      stockOutbox.scheduleRetry(missing, "No result returned for operation");
+    }
+    log.debug("Delivered {} of {} stock operations", delivered.size(), batch.size());
+    return true;
+  }
+}
@@ -0,0 +1,11 @@
+package tech.sohaib_tarek.commandservice.service;
+
+import tech.sohaib_tarek.commandservice.dto.CommandIntakeResponse;
+import tech.sohaib_tarek.commandservice.dto.CommandRequest;
+
+public interface CommandIntakeService {
+
+    CommandIntakeResponse submit(CommandRequest request, String userId, String username);
+
+    CommandIntakeResponse getIntake(String trackingId);
+}
@@ -1,9 +1,12 @@
 package tech.sohaib_tarek.commandservice.service;
 
+import tech.sohaib_tarek.commandservice.dto.BulkStatusUpdateResponse;
+import tech.sohaib_tarek.commandservice.dto.CommandPageResponse;
 import tech.sohaib_tarek.commandservice.dto.CommandRequest;
 import tech.sohaib_tarek.commandservice.dto.CommandResponse;
 import tech.sohaib_tarek.commandservice.enums.CommandStatus;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface CommandService {
@@ -20,10 +23,22 @@ public interface CommandService {
 
     List<CommandResponse> getCommandsByUserIdAndStatus(String userId, CommandStatus status);
 
+    /**
+     * Keyset page of orders ordered by (date, commandId). A null userId lists every user's orders.
+     */
+    CommandPageResponse getCommandsPage(String userId, CommandStatus status, LocalDateTime from, LocalDateTime to,
+                                        String cursor, Integer size, String direction);
+
     CommandResponse updateCommand(Long commandId, CommandRequest request);
 
     CommandResponse updateCommandStatus(Long commandId, CommandStatus status);
 
+    /**
+     * Moves many orders to one status with the same transition rules as updateCommandStatus,
+     * committing chunk by chunk. Returns one result per distinct ID, in request order.
+     */
+    BulkStatusUpdateResponse updateCommandStatuses(List<Long> commandIds, CommandStatus status);
+
     void deleteCommand(Long commandId);
 
     void cancelCommand(Long commandId, String userId, boolean isAdmin);
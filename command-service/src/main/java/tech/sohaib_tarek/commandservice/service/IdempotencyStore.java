@@ -0,0 +1,215 @@
+package tech.sohaib_tarek.commandservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import tech.sohaib_tarek.commandservice.entity.IdempotencyRecord;
+import tech.sohaib_tarek.commandservice.enums.IdempotencyStatus;
+import tech.sohaib_tarek.commandservice.exception.IdempotencyKeyInUseException;
+import tech.sohaib_tarek.commandservice.exception.IdempotencyKeyReusedException;
+import tech.sohaib_tarek.commandservice.repository.IdempotencyRecordRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.function.Supplier;
+
+/**
+ * Runs requests carrying an Idempotency-Key at most once per key and TTL.
+ * <p>
+ * The key is claimed by inserting an IN_PROGRESS record in its own transaction; the operation
+ * and the stored response then commit together, so a retry either replays the response or finds
+ * no record and runs the operation itself. Completed responses are also kept in a bounded
+ * in-memory cache so that quick retries do not hit the database.
+ */
+@Component
+public class IdempotencyStore {
+
+  public static final String KEY_HEADER = "Idempotency-Key";
+  public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+  // Longer client keys are stored by their hash to fit the record ID column
+  private static final int MAX_RAW_KEY_LENGTH = 100;
+
+  private static final Logger log = LoggerFactory.getLogger(IdempotencyStore.class);
+
+  private final IdempotencyRecordRepository repository;
+  private final ObjectMapper objectMapper;
+  private final TransactionTemplate transactionTemplate;
+  private final TransactionTemplate separateTransactionTemplate;
+  private final Cache<String, StoredResponse> recentResponses;
+
+  @Value("${idempotency.ttl-hours:24}")
+  private long ttlHours;
+
+  @Value("${idempotency.in-progress-timeout-seconds:60}")
+  private long inProgressTimeoutSeconds;
+
+  public IdempotencyStore(IdempotencyRecordRepository repository, ObjectMapper objectMapper,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${idempotency.cache.maximum-size:10000}") long cacheMaximumSize,
+                          @Value("${idempotency.cache.ttl-seconds:600}") long cacheTtlSeconds) {
+    this.repository = repository;
+    this.objectMapper = objectMapper;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.separateTransactionTemplate = new TransactionTemplate(transactionManager);
+    this.separateTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    this.recentResponses = Caffeine.newBuilder()
+        .maximumSize(cacheMaximumSize)
+        .expireAfterWrite(Duration.ofSeconds(cacheTtlSeconds))
+        .build();
+  }
+
+  /**
+   * Runs the operation once for the given scope and key, or replays the response stored for it.
+   * Without a key the operation simply runs. A failed operation releases the key so the client
+   * can retry it.
+   *
+   * @throws IdempotencyKeyReusedException if the key was used for a different request body
+   * @throws IdempotencyKeyInUseException  if the same request is still being processed
+   */
+  public <T> ResponseEntity<T> execute(String scope, String key, Object request, Class<T> responseType,
+                                       Supplier<ResponseEntity<T>> operation) {
+    if (key == null || key.isBlank()) {
+      return operation.get();
+    }
+
+    String recordId = scope + ":" + (key.length() > MAX_RAW_KEY_LENGTH ? sha256(key) : key);
+    String requestHash = sha256(toJson(request));
+
+    StoredResponse recent = recentResponses.getIfPresent(recordId);
+    if (recent != null) {
+      return replay(recordId, recent, requestHash, responseType);
+    }
+
+    StoredResponse completed = claim(recordId, requestHash, true);
+    if (completed != null) {
+      recentResponses.put(recordId, completed);
+      return replay(recordId, completed, requestHash, responseType);
+    }
+
+    ResponseEntity<T> response;
+    try {
+      response = transactionTemplate.execute(status -> {
+        ResponseEntity<T> result = operation.get();
+        repository.complete(recordId, result.getStatusCode().value(),
+            result.hasBody() ? toJson(result.getBody()) : null);
+        return result;
+      });
+    } catch (RuntimeException e) {
+      separateTransactionTemplate.executeWithoutResult(status -> repository.deleteById(recordId));
+      throw e;
+    }
+
+    recentResponses.put(recordId, new StoredResponse(requestHash, response.getStatusCode().value(),
+        response.hasBody() ? toJson(response.getBody()) : null));
+    return response;
+  }
+
+  public int deleteExpired() {
+    return separateTransactionTemplate.execute(status -> repository.deleteExpired(LocalDateTime.now()));
+  }
+
+  /**
+   * Claims the key for this request. Returns null once claimed, or the stored response when
+   * the same request already completed.
+   */
+  private StoredResponse claim(String recordId, String requestHash, boolean retryIfReleased) {
+    LocalDateTime now = LocalDateTime.now();
+    LocalDateTime expiresAt = now.plusHours(ttlHours);
+    try {
+      separateTransactionTemplate.executeWithoutResult(status ->
+          repository.saveAndFlush(new IdempotencyRecord(recordId, requestHash, now, expiresAt)));
+      return null;
+    } catch (DataIntegrityViolationException e) {
+      // Key already recorded; decide below from its state
+    }
+
+    IdempotencyRecord existing = separateTransactionTemplate.execute(status ->
+        repository.findById(recordId).orElse(null));
+    if (existing == null) {
+      // Released by a failed attempt in the meantime
+      if (retryIfReleased) {
+        return claim(recordId, requestHash, false);
+      }
+      throw new IdempotencyKeyInUseException("Request with this Idempotency-Key is still being processed");
+    }
+    boolean expired = existing.getExpiresAt().isBefore(now);
+    if (!expired && !existing.getRequestHash().equals(requestHash)) {
+      throw new IdempotencyKeyReusedException("Idempotency-Key was already used for a different request");
+    }
+    if (!expired && existing.getStatus() == IdempotencyStatus.COMPLETED) {
+      return new StoredResponse(existing.getRequestHash(), existing.getResponseStatus(),
+          existing.getResponseBody());
+    }
+
+    LocalDateTime staleBefore = now.minusSeconds(inProgressTimeoutSeconds);
+    Integer reclaimed = separateTransactionTemplate.execute(status ->
+        repository.reclaim(recordId, requestHash, now, staleBefore, expiresAt));
+    if (reclaimed == null || reclaimed == 0) {
+      throw new IdempotencyKeyInUseException("Request with this Idempotency-Key is still being processed");
+    }
+    log.warn("Reclaimed idempotency key {} ({})", recordId, expired ? "expired" : "abandoned");
+    return null;
+  }
+
+  private <T> ResponseEntity<T> replay(String recordId, StoredResponse stored, String requestHash,
+                                       Class<T> responseType) {
+    if (!stored.requestHash.equals(requestHash)) {
+      throw new IdempotencyKeyReusedException("Idempotency-Key was already used for a different request");
+    }
+    log.info("Replaying stored response for idempotency key {}", recordId);
+    T body = null;
+    if (stored.body != null) {
+      try {
+        body = objectMapper.readValue(stored.body, responseType);
+      } catch (JsonProcessingException e) {
+        throw new IllegalStateException("Stored response for " + recordId + " is not readable", e);
+      }
+    }
+    return ResponseEntity.status(stored.status).header(REPLAYED_HEADER, "true").body(body);
+  }
+
+  private String toJson(Object value) {
+    try {
+      return objectMapper.writeValueAsString(value);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Failed to serialize " + value.getClass().getSimpleName(), e);
+    }
+  }
+
+  private static String sha256(String value) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+
+  private static final class StoredResponse {
+
+    private final String requestHash;
+    private final int status;
+    private final String body;
+
+    private StoredResponse(String requestHash, int status, String body) {
+      this.requestHash = requestHash;
+      this.status = status;
+      this.body = body;
+    }
+  }
+}
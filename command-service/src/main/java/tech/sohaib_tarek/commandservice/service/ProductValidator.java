@@ -0,0 +1,159 @@
+package tech.sohaib_tarek.commandservice.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import tech.sohaib_tarek.commandservice.client.ProductLookup;
+import tech.sohaib_tarek.commandservice.dto.CommandItemRequest;
+import tech.sohaib_tarek.commandservice.dto.ProductResponse;
+import tech.sohaib_tarek.commandservice.exception.InsufficientStockException;
+import tech.sohaib_tarek.commandservice.exception.ProductNotFoundException;
+import tech.sohaib_tarek.commandservice.exception.ProductValidationTimeoutException;
+import tech.sohaib_tarek.commandservice.replica.ProductCatalogReplica;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Validates the products of a cart against product-service.
+ *
+ * The distinct product IDs are split into chunks that are fetched in parallel on virtual
+ * threads, at most maxConcurrency at a time per order. The first chunk that finds a missing
+ * product or a short stock cancels the others, and the whole stage is bounded by a deadline,
+ * so order latency tracks the slowest single lookup instead of the sum of all of them.
+ * Lookups go through {@link ProductLookup}, so concurrent orders for the same products share calls.
+ * While the local {@link ProductCatalogReplica} is up to date, products it shows with enough
+ * stock pass in memory and only the others are fetched: the replica's stock may lag, so it can
+ * let a cart through to the reservation but never turns one away on its own.
+ */
+@Component
+public class ProductValidator {
+
+  private static final Logger log = LoggerFactory.getLogger(ProductValidator.class);
+
+  private final ProductLookup productLookup;
+  private final ProductCatalogReplica catalogReplica;
+  private final ExecutorService executor;
+
+  @Value("${product.validation.chunk-size:25}")
+  private int chunkSize;
+
+  @Value("${product.validation.max-concurrency:4}")
+  private int maxConcurrency;
+
+  @Value("${product.validation.timeout-ms:3000}")
+  private long timeoutMs;
+
+  public ProductValidator(ProductLookup productLookup, ProductCatalogReplica catalogReplica,
+                          @Qualifier("productLookupExecutor") ExecutorService executor) {
+    this.productLookup = productLookup;
+    this.catalogReplica = catalogReplica;
+    this.executor = executor;
+  }
+
+  /**
+   * Returns every product referenced by the items, keyed by ID.
+   *
+   * @throws ProductNotFoundException           if a product does not exist
+   * @throws InsufficientStockException         if a product cannot cover the total requested quantity
+   * @throws ProductValidationTimeoutException  if product-service does not answer before the deadline
+   */
+  public Map<Long, ProductResponse> validate(List<CommandItemRequest> items) {
+    // Lines for the same product are checked against their combined quantity
+    Map<Long, Integer> requested = new LinkedHashMap<>();
+    for (CommandItemRequest item : items) {
+      requested.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+    }
+
+    Map<Long, ProductResponse> products = new HashMap<>();
+    List<Long> remoteIds = new ArrayList<>();
+    boolean replicaReady = catalogReplica.isReady();
+    for (Long productId : requested.keySet()) {
+      ProductResponse local = replicaReady ? catalogReplica.get(productId) : null;
+      if (local != null && local.getStock() >= requested.get(productId)) {
+        products.put(productId, local);
+      } else {
+        remoteIds.add(productId);
+      }
+    }
+    List<List<Long>> chunks = partition(remoteIds);
+
+    Semaphore permits = new Semaphore(maxConcurrency);
+    Map<String, String> mdcContext = MDC.getCopyOfContextMap();
+    CompletionService<Map<Long, ProductResponse>> completionService = new ExecutorCompletionService<>(executor);
+    List<Future<Map<Long, ProductResponse>>> futures = new ArrayList<>(chunks.size());
+    for (List<Long> chunk : chunks) {
+      futures.add(completionService.submit(() -> {
+        if (mdcContext != null) {
+          MDC.setContextMap(mdcContext);
+        }
+        permits.acquire();
+        try {
+          return validateChunk(chunk, requested);
+        } finally {
+          permits.release();
+          MDC.clear();
+        }
+      }));
+    }
+
+    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+    try {
+      for (int i = 0; i < futures.size(); i++) {
+        Future<Map<Long, ProductResponse>> completed =
+            completionService.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        if (completed == null) {
+          throw new ProductValidationTimeoutException(
+              "Product validation did not complete within " + timeoutMs + " ms");
+        }
+        products.putAll(completed.get());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ProductValidationTimeoutException("Product validation was interrupted");
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw new IllegalStateException("Product validation failed", e.getCause());
+    } finally {
+      // Fail fast: anything still running is no longer needed
+      futures.forEach(future -> future.cancel(true));
+    }
+
+    log.debug("Validated {} products in {} chunks", products.size(), chunks.size());
+    return products;
+  }
+
+  private Map<Long, ProductResponse> validateChunk(List<Long> productIds, Map<Long, Integer> requested) {
+    Map<Long, ProductResponse> products = new HashMap<>();
+    for (ProductResponse product : productLookup.getProducts(productIds)) {
+      products.put(product.getProductId(), product);
+    }
+
+    for (Long productId : productIds) {
+      check(productId, products.get(productId), requested);
+    }
+    return products;
+  }
+
+  private void check(Long productId, ProductResponse product, Map<Long, Integer> requested) {
+    if (product == null) {
+      throw new ProductNotFoundException("Product not found with ID: " + productId);
+    }
+    if (product.getStock() < requested.get(productId)) {
+      throw new InsufficientStockException("Insufficient stock for product: " + product.getName());
+    }
+  }
+
+  private List<List<Long>> partition(List<Long> productIds) {
+    List<List<Long>> chunks = new ArrayList<>();
+    for (int start = 0; start < productIds.size(); start += chunkSize) {
+      chunks.add(productIds.subList(start, Math.min(start + chunkSize, productIds.size())));
+    }
+    return chunks;
+  }
+}
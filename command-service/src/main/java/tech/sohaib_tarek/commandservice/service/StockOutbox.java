@@ -0,0 +1,217 @@
+package tech.sohaib_tarek.commandservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import tech.sohaib_tarek.commandservice.dto.StockOperationRequest;
+import tech.sohaib_tarek.commandservice.dto.StockUpdateRequest;
+import tech.sohaib_tarek.commandservice.entity.StockOutboxMessage;
+import tech.sohaib_tarek.commandservice.enums.CommandStatus;
+import tech.sohaib_tarek.commandservice.enums.OutboxStatus;
+import tech.sohaib_tarek.commandservice.enums.StockOperationType;
+import tech.sohaib_tarek.commandservice.repository.CommandRepository;
+import tech.sohaib_tarek.commandservice.repository.StockOutboxRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Transactional outbox for the stock side effects of order changes.
+ *
+ * Enqueueing joins the caller's transaction, so a message exists exactly when the order change
+ * it belongs to was committed. The relay claims due messages under a lease, delivers them to
+ * product-service outside of any transaction, then deletes them or schedules a retry with
+ * exponential backoff. Messages of one order are delivered one at a time in the order they were
+ * queued. When a reservation confirm is rejected or given up on, the order is moved to FAILED:
+ * it holds no stock it can rely on and can only be cancelled.
+ */
+@Component
+public class StockOutbox {
+
+  private static final Logger log = LoggerFactory.getLogger(StockOutbox.class);
+  private static final TypeReference<List<StockUpdateRequest>> ITEMS_TYPE = new TypeReference<>() {
+  };
+  private static final TypeReference<List<String>> RESERVATION_IDS_TYPE = new TypeReference<>() {
+  };
+
+  private final StockOutboxRepository outboxRepository;
+  private final CommandRepository commandRepository;
+  private final ObjectMapper objectMapper;
+
+  @Value("${stock.outbox.lease-ms:30000}")
+  private long leaseMs;
+
+  @Value("${stock.outbox.max-attempts:10}")
+  private int maxAttempts;
+
+  @Value("${stock.outbox.retry-base-delay-ms:1000}")
+  private long retryBaseDelayMs;
+
+  @Value("${stock.outbox.retry-max-delay-ms:60000}")
+  private long retryMaxDelayMs;
+
+  public StockOutbox(StockOutboxRepository outboxRepository, CommandRepository commandRepository,
+      ObjectMapper objectMapper) {
+    this.outboxRepository = outboxRepository;
+    this.commandRepository = commandRepository;
+    this.objectMapper = objectMapper;
+  }
+
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void enqueueConfirmation(Long commandId, String reservationId) {
+    enqueue(StockOperationType.CONFIRM_RESERVATION, commandId, reservationId, null);
+  }
+
+  /**
+   * Hands back exactly what an order's reservations still hold on product-service, whether they
+   * were confirmed, never confirmed or already expired. All of them go in one operation, so the
+   * stock an edit gave back is netted out instead of being taken again on its own.
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void enqueueRelease(Long commandId, List<String> reservationIds) {
+    if (reservationIds.isEmpty()) {
+      return;
+    }
+    enqueue(StockOperationType.RELEASE_RESERVATIONS, commandId, null, toJson(reservationIds));
+  }
+
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void enqueueRestore(Long commandId, List<StockUpdateRequest> items) {
+    if (items.isEmpty()) {
+      return;
+    }
+    enqueue(StockOperationType.RESTORE_STOCK, commandId, null, toJson(items));
+  }
+
+  private String toJson(List<?> payload) {
+    try {
+      return objectMapper.writeValueAsString(payload);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Cannot serialize stock operation payload", e);
+    }
+  }
+
+  private void enqueue(StockOperationType type, Long commandId, String reservationId, String payload) {
+    StockOutboxMessage message = outboxRepository.save(new StockOutboxMessage(
+        UUID.randomUUID().toString(), type, commandId, reservationId, payload, LocalDateTime.now()));
+    log.debug("Queued stock operation {} ({}) for command {}", message.getOperationId(), type, commandId);
+  }
+
+  /**
+   * Claims up to limit due messages by pushing their next attempt past the lease, so they are
+   * not picked up again while this delivery is in flight.
+   */
+  @Transactional
+  public List<StockOutboxMessage> claimDue(int limit) {
+    LocalDateTime now = LocalDateTime.now();
+    List<StockOutboxMessage> messages = outboxRepository.findDueForUpdate(
+        OutboxStatus.PENDING, now, PageRequest.of(0, limit));
+    LocalDateTime leaseEnd = now.plusNanos(leaseMs * 1_000_000);
+    for (StockOutboxMessage message : messages) {
+      message.setNextAttemptAt(leaseEnd);
+      message.setAttempts(message.getAttempts() + 1);
+    }
+    return messages;
+  }
+
+  public StockOperationRequest toRequest(StockOutboxMessage message) {
+    List<String> reservationIds = null;
+    List<StockUpdateRequest> items = null;
+    if (message.getPayload() != null) {
+      try {
+        if (message.getType() == StockOperationType.RELEASE_RESERVATIONS) {
+          reservationIds = objectMapper.readValue(message.getPayload(), RESERVATION_IDS_TYPE);
+        } else {
+          items = objectMapper.readValue(message.getPayload(), ITEMS_TYPE);
+        }
+      } catch (JsonProcessingException e) {
+        throw new IllegalStateException("Corrupt payload in outbox message " + message.getId(), e);
+      }
+    }
+    return StockOperationRequest.builder()
+        .operationId(message.getOperationId())
+        .type(message.getType())
+        .reservationId(message.getReservationId())
+        .reservationIds(reservationIds)
+        .items(items)
+        .build();
+  }
+
+  @Transactional
+  public void markDelivered(Collection<Long> messageIds) {
+    if (!messageIds.isEmpty()) {
+      outboxRepository.deleteAllByIdInBatch(messageIds);
+    }
+  }
+
+  @Transactional
+  public void markFailed(Long messageId, String reason) {
+    outboxRepository.findById(messageId).ifPresent(message -> {
+      message.setStatus(OutboxStatus.FAILED);
+      message.setLastError(truncate(reason));
+      log.error("Stock operation {} ({}) failed permanently: {}",
+          message.getOperationId(), message.getType(), reason);
+      failCommands(failedConfirmations(List.of(message)));
+    });
+  }
+
+  @Transactional
+  public void scheduleRetry(Collection<Long> messageIds, String reason) {
+    LocalDateTime now = LocalDateTime.now();
+    List<StockOutboxMessage> givenUp = new ArrayList<>();
+    for (StockOutboxMessage message : outboxRepository.findAllById(messageIds)) {
+      message.setLastError(truncate(reason));
+      if (message.getAttempts() >= maxAttempts) {
+        message.setStatus(OutboxStatus.FAILED);
+        givenUp.add(message);
+        log.error("Stock operation {} ({}) gave up after {} attempts: {}",
+            message.getOperationId(), message.getType(), message.getAttempts(), reason);
+        continue;
+      }
+      long delayMs = Math.min(retryBaseDelayMs << Math.min(message.getAttempts() - 1, 20), retryMaxDelayMs);
+      message.setNextAttemptAt(now.plusNanos(delayMs * 1_000_000));
+    }
+    failCommands(failedConfirmations(givenUp));
+  }
+
+  private List<Long> failedConfirmations(List<StockOutboxMessage> messages) {
+    return messages.stream()
+        .filter(message -> message.getType() == StockOperationType.CONFIRM_RESERVATION)
+        .map(StockOutboxMessage::getCommandId)
+        .filter(Objects::nonNull)
+        .distinct()
+        .toList();
+  }
+
+  /**
+   * Moves orders whose reservation could not be confirmed to FAILED. Orders that already moved
+   * on (shipped, cancelled) are left alone; cancelling a FAILED order releases its reservations.
+   */
+  private void failCommands(List<Long> commandIds) {
+    if (commandIds.isEmpty()) {
+      return;
+    }
+    int failed = commandRepository.updateStatus(commandIds, CommandStatus.PENDING, CommandStatus.FAILED)
+        + commandRepository.updateStatus(commandIds, CommandStatus.CONFIRMED, CommandStatus.FAILED);
+    log.warn("Marked {} of {} commands FAILED after their stock confirmation failed: {}",
+        failed, commandIds.size(), commandIds);
+  }
+
+  private String truncate(String reason) {
+    if (reason == null || reason.length() <= 500) {
+      return reason;
+    }
+    return reason.substring(0, 500);
+  }
+}
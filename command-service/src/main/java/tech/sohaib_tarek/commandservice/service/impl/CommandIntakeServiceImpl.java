@@ -0,0 +1,94 @@
+package tech.sohaib_tarek.commandservice.service.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import tech.sohaib_tarek.commandservice.dto.CommandIntakeResponse;
+import tech.sohaib_tarek.commandservice.dto.CommandRequest;
+import tech.sohaib_tarek.commandservice.dto.CommandResponse;
+import tech.sohaib_tarek.commandservice.entity.CommandIntake;
+import tech.sohaib_tarek.commandservice.enums.IntakeStatus;
+import tech.sohaib_tarek.commandservice.exception.IntakeNotFoundException;
+import tech.sohaib_tarek.commandservice.exception.IntakeQueueFullException;
+import tech.sohaib_tarek.commandservice.repository.CommandIntakeRepository;
+import tech.sohaib_tarek.commandservice.service.CommandIntakeService;
+import tech.sohaib_tarek.commandservice.service.CommandService;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Asynchronous order intake. The request thread only records a QUEUED tracking entry and hands
+ * the order to the bounded intake executor; a worker then runs the regular createCommand flow
+ * and records COMPLETED with the command ID, or FAILED with the reason.
+ */
+@Service
+public class CommandIntakeServiceImpl implements CommandIntakeService {
+
+  private static final Logger log = LoggerFactory.getLogger(CommandIntakeServiceImpl.class);
+
+  private final CommandIntakeRepository intakeRepository;
+  private final CommandService commandService;
+  private final ThreadPoolTaskExecutor intakeExecutor;
+
+  public CommandIntakeServiceImpl(CommandIntakeRepository intakeRepository, CommandService commandService,
+      @Qualifier("commandIntakeExecutor") ThreadPoolTaskExecutor intakeExecutor) {
+    this.intakeRepository = intakeRepository;
+    this.commandService = commandService;
+    this.intakeExecutor = intakeExecutor;
+  }
+
+  @Override
+  public CommandIntakeResponse submit(CommandRequest request, String userId, String username) {
+    // Saved (and committed) before the task is queued, so the worker always finds it
+    CommandIntake intake = intakeRepository.save(new CommandIntake(
+        UUID.randomUUID().toString(), userId, IntakeStatus.QUEUED, LocalDateTime.now()));
+    String trackingId = intake.getTrackingId();
+
+    try {
+      intakeExecutor.execute(() -> process(trackingId, request, userId, username));
+    } catch (TaskRejectedException e) {
+      intakeRepository.deleteById(trackingId);
+      log.warn("Order intake queue is full, rejecting order from user: {}", username);
+      throw new IntakeQueueFullException("Order intake is at capacity, please retry shortly");
+    }
+
+    log.info("Order from user: {} queued with tracking ID: {}", username, trackingId);
+    return mapToResponse(intake);
+  }
+
+  private void process(String trackingId, CommandRequest request, String userId, String username) {
+    // A record that waited so long it was already reported as abandoned must not turn into an order now
+    if (intakeRepository.updateStatus(trackingId, IntakeStatus.QUEUED, IntakeStatus.PROCESSING,
+        LocalDateTime.now()) == 0) {
+      log.warn("Queued order {} is no longer QUEUED, skipping it", trackingId);
+      return;
+    }
+    try {
+      CommandResponse command = commandService.createCommand(request, userId, username);
+      intakeRepository.complete(trackingId, IntakeStatus.COMPLETED, command.getCommandId(), null,
+          LocalDateTime.now());
+      log.info("Queued order {} completed as command {}", trackingId, command.getCommandId());
+    } catch (Exception e) {
+      String error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+      intakeRepository.complete(trackingId, IntakeStatus.FAILED, null,
+          error.length() > 500 ? error.substring(0, 500) : error, LocalDateTime.now());
+      log.warn("Queued order {} failed: {}", trackingId, error);
+    }
+  }
+
+  @Override
+  public CommandIntakeResponse getIntake(String trackingId) {
+    return intakeRepository.findById(trackingId)
+        .map(this::mapToResponse)
+        .orElseThrow(() -> new IntakeNotFoundException("No queued order with tracking ID: " + trackingId));
+  }
+
+  private CommandIntakeResponse mapToResponse(CommandIntake intake) {
+    return new CommandIntakeResponse(intake.getTrackingId(), intake.getUserId(), intake.getStatus(),
+        intake.getCommandId(), intake.getError(), intake.getCreatedAt(), intake.getUpdatedAt());
+  }
+}
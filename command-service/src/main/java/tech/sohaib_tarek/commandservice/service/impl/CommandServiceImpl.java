@@ -1,26 +1,45 @@
 package tech.sohaib_tarek.commandservice.service.impl;
 
-import feign.FeignException;
 import tech.sohaib_tarek.commandservice.client.ProductClient;
 import tech.sohaib_tarek.commandservice.dto.*;
 import tech.sohaib_tarek.commandservice.entity.Command;
 import tech.sohaib_tarek.commandservice.entity.CommandItem;
 import tech.sohaib_tarek.commandservice.enums.CommandStatus;
+import tech.sohaib_tarek.commandservice.enums.StatusUpdateOutcome;
 import tech.sohaib_tarek.commandservice.exception.CommandNotFoundException;
 import tech.sohaib_tarek.commandservice.exception.InsufficientStockException;
 import tech.sohaib_tarek.commandservice.exception.InvalidCommandStatusException;
+import tech.sohaib_tarek.commandservice.exception.InvalidPageRequestException;
 import tech.sohaib_tarek.commandservice.exception.ProductNotFoundException;
 import tech.sohaib_tarek.commandservice.repository.CommandRepository;
+import tech.sohaib_tarek.commandservice.repository.CommandSpecifications;
 import tech.sohaib_tarek.commandservice.service.CommandService;
+import tech.sohaib_tarek.commandservice.service.ProductValidator;
+import tech.sohaib_tarek.commandservice.service.StockOutbox;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -29,87 +48,78 @@ public class CommandServiceImpl implements CommandService {
 
   private static final Logger log = LoggerFactory.getLogger(CommandServiceImpl.class);
 
+  private static final String CART_LINE_NOT_FOUND = "NOT_FOUND";
+  private static final String CART_LINE_INSUFFICIENT_STOCK = "INSUFFICIENT_STOCK";
+
   private final CommandRepository commandRepository;
   private final ProductClient productClient;
+  private final ProductValidator productValidator;
+  private final StockOutbox stockOutbox;
+  private final TransactionTemplate transactionTemplate;
+
+  @Value("${product.validation.pre-check-enabled:true}")
+  private boolean preValidationEnabled;
+
+  @Value("${command.pagination.default-size:20}")
+  private int defaultPageSize;
+
+  @Value("${command.pagination.max-size:100}")
+  private int maxPageSize;
 
-  public CommandServiceImpl(CommandRepository commandRepository, ProductClient productClient) {
+  @Value("${command.bulk-status.chunk-size:500}")
+  private int bulkStatusChunkSize;
+
+  public CommandServiceImpl(CommandRepository commandRepository, ProductClient productClient,
+      ProductValidator productValidator, StockOutbox stockOutbox, PlatformTransactionManager transactionManager) {
     this.commandRepository = commandRepository;
     this.productClient = productClient;
+    this.productValidator = productValidator;
+    this.stockOutbox = stockOutbox;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
   }
 
   @Override
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
   public CommandResponse createCommand(CommandRequest request, String userId, String username) {
     log.info("Creating new command with {} items for user: {}", request.getItems().size(), username);
 
-    // Validate products and check stock availability
-    List<StockUpdateRequest> stockUpdates = new ArrayList<>();
-    BigDecimal totalPrice = BigDecimal.ZERO;
-    List<CommandItem> commandItems = new ArrayList<>();
-
-    for (CommandItemRequest itemRequest : request.getItems()) {
-      ProductResponse product;
-      try {
-        product = productClient.getProductById(itemRequest.getProductId());
-      } catch (FeignException.NotFound e) {
-        throw new ProductNotFoundException("Product not found with ID: " + itemRequest.getProductId());
-      }
+    preValidate(request.getItems());
 
-      // Check stock availability
-      Boolean hasStock = productClient.checkStock(itemRequest.getProductId(), itemRequest.getQuantity());
-      if (!hasStock) {
-        throw new InsufficientStockException("Insufficient stock for product: " + product.getName());
-      }
+    // Validate, price and reserve the whole cart in one call, before any connection is taken
+    CartReservationResponse cart = reserveCart(request.getItems());
 
-      // Calculate item price
-      BigDecimal itemPrice = product.getPrice();
-      BigDecimal itemTotal = itemPrice.multiply(BigDecimal.valueOf(itemRequest.getQuantity()));
-      totalPrice = totalPrice.add(itemTotal);
-
-      // Create command item
-      CommandItem commandItem = CommandItem.builder()
-          .productId(itemRequest.getProductId())
-          .quantity(itemRequest.getQuantity())
-          .price(itemPrice)
-          .build();
-      commandItems.add(commandItem);
-
-      // Prepare stock update
-      stockUpdates.add(StockUpdateRequest.builder()
-          .productId(itemRequest.getProductId())
-          .quantity(itemRequest.getQuantity())
-          .build());
-    }
-
-    // Create command with user info
+    // Create command with user info and the authoritative prices returned by product-service
     Command command = Command.builder()
         .date(LocalDateTime.now())
         .status(CommandStatus.PENDING)
-        .totalPrice(totalPrice)
+        .totalPrice(cart.getTotalPrice())
         .userId(userId)
         .username(username)
         .items(new ArrayList<>())
         .build();
 
     // Add items to command
-    for (CommandItem item : commandItems) {
+    for (CommandItem item : toCommandItems(cart)) {
       command.addItem(item);
     }
 
-    // Reduce stock
-    productClient.reduceStock(stockUpdates);
-
-    // Save command
-    Command savedCommand = commandRepository.save(command);
-    log.info("Command created with ID: {} for user: {}", savedCommand.getCommandId(), username);
+    // Save command; the reservation is confirmed by the outbox relay once this commits
+    command.addReservation(cart.getReservationId());
+    CommandResponse response = saveWithReservation(cart.getReservationId(), () -> {
+      Command savedCommand = commandRepository.save(command);
+      stockOutbox.enqueueConfirmation(savedCommand.getCommandId(), cart.getReservationId());
+      return mapToResponse(savedCommand);
+    });
+    log.info("Command created with ID: {} for user: {}", response.getCommandId(), username);
 
-    return mapToResponse(savedCommand);
+    return response;
   }
 
   @Override
   @Transactional(readOnly = true)
   public CommandResponse getCommandById(Long commandId) {
     log.info("Fetching command with ID: {}", commandId);
-    Command command = commandRepository.findById(commandId)
+    Command command = commandRepository.findWithItemsByCommandId(commandId)
         .orElseThrow(() -> new CommandNotFoundException("Command not found with ID: " + commandId));
     return mapToResponse(command);
   }
@@ -133,88 +143,60 @@ public class CommandServiceImpl implements CommandService {
   }
 
   @Override
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
   public CommandResponse updateCommand(Long commandId, CommandRequest request) {
     log.info("Updating command with ID: {}", commandId);
-    Command command = commandRepository.findById(commandId)
+    Command current = commandRepository.findWithItemsByCommandId(commandId)
         .orElseThrow(() -> new CommandNotFoundException("Command not found with ID: " + commandId));
 
     // Only allow update if command is in PENDING status
-    if (command.getStatus() != CommandStatus.PENDING) {
-      throw new InvalidCommandStatusException("Cannot update command with status: " + command.getStatus());
+    if (current.getStatus() != CommandStatus.PENDING) {
+      throw new InvalidCommandStatusException("Cannot update command with status: " + current.getStatus());
     }
 
-    // Restore old stock
-    List<StockUpdateRequest> restoreStock = command.getItems().stream()
-        .map(item -> StockUpdateRequest.builder()
-            .productId(item.getProductId())
-            .quantity(item.getQuantity())
-            .build())
-        .collect(Collectors.toList());
-    productClient.restoreStock(restoreStock);
-
-    // Clear old items
-    command.getItems().clear();
+    preValidate(request.getItems());
 
-    // Validate new products and check stock availability
-    List<StockUpdateRequest> stockUpdates = new ArrayList<>();
-    BigDecimal totalPrice = BigDecimal.ZERO;
+    // Validate and price the new items, and reserve only the per-product difference to the old ones;
+    // quantities given up go back to stock when the reservation is confirmed after commit
+    List<StockUpdateRequest> previousItems = toStockUpdates(current.getItems());
+    CartReservationResponse cart = reserveCart(request.getItems(), previousItems);
 
-    for (CommandItemRequest itemRequest : request.getItems()) {
-      ProductResponse product;
-      try {
-        product = productClient.getProductById(itemRequest.getProductId());
-      } catch (FeignException.NotFound e) {
-        throw new ProductNotFoundException("Product not found with ID: " + itemRequest.getProductId());
+    // Save updated command; the reservation is confirmed by the outbox relay once this commits
+    CommandResponse response = saveWithReservation(cart.getReservationId(), () -> {
+      Command command = commandRepository.findByIdForUpdate(commandId)
+          .orElseThrow(() -> new CommandNotFoundException("Command not found with ID: " + commandId));
+      // The order may have moved on while product-service was reserving
+      if (command.getStatus() != CommandStatus.PENDING) {
+        throw new InvalidCommandStatusException("Cannot update command with status: " + command.getStatus());
       }
-
-      // Check stock availability
-      Boolean hasStock = productClient.checkStock(itemRequest.getProductId(), itemRequest.getQuantity());
-      if (!hasStock) {
-        throw new InsufficientStockException("Insufficient stock for product: " + product.getName());
+      // The reserved difference is only right against the items it was computed from
+      if (!quantities(toStockUpdates(command.getItems())).equals(quantities(previousItems))) {
+        throw new InvalidCommandStatusException("Command " + commandId + " was changed concurrently, retry the update");
       }
-
-      // Calculate item price
-      BigDecimal itemPrice = product.getPrice();
-      BigDecimal itemTotal = itemPrice.multiply(BigDecimal.valueOf(itemRequest.getQuantity()));
-      totalPrice = totalPrice.add(itemTotal);
-
-      // Create command item
-      CommandItem commandItem = CommandItem.builder()
-          .productId(itemRequest.getProductId())
-          .quantity(itemRequest.getQuantity())
-          .price(itemPrice)
-          .build();
-
-      // Prepare stock update
-      stockUpdates.add(StockUpdateRequest.builder()
-          .productId(itemRequest.getProductId())
-          .quantity(itemRequest.getQuantity())
-          .build());
-
-      command.addItem(commandItem);
-    }
-
-    // Reduce stock for new items
-    productClient.reduceStock(stockUpdates);
-
-    command.setTotalPrice(totalPrice);
-
-    // Save updated command
-    Command updatedCommand = commandRepository.save(command);
+      mergeItems(command, toCommandItems(cart));
+      command.setTotalPrice(cart.getTotalPrice());
+      command.addReservation(cart.getReservationId());
+      Command updatedCommand = commandRepository.save(command);
+      stockOutbox.enqueueConfirmation(commandId, cart.getReservationId());
+      return mapToResponse(updatedCommand);
+    });
     log.info("Command updated successfully: {}", commandId);
 
-    return mapToResponse(updatedCommand);
+    return response;
   }
 
   @Override
   public CommandResponse updateCommandStatus(Long commandId, CommandStatus status) {
     log.info("Updating command {} status to {}", commandId, status);
-    Command command = commandRepository.findById(commandId)
+    Command command = commandRepository.findByIdForUpdate(commandId)
         .orElseThrow(() -> new CommandNotFoundException("Command not found with ID: " + commandId));
 
     // Validate status transition
     validateStatusTransition(command.getStatus(), status);
 
+    if (status == CommandStatus.CANCELLED) {
+      queueStockRelease(command);
+    }
     command.setStatus(status);
     Command updatedCommand = commandRepository.save(command);
     log.info("Command status updated successfully: {} -> {}", commandId, status);
@@ -222,6 +204,87 @@ public class CommandServiceImpl implements CommandService {
     return mapToResponse(updatedCommand);
   }
 
+  @Override
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
+  public BulkStatusUpdateResponse updateCommandStatuses(List<Long> commandIds, CommandStatus status) {
+    List<Long> distinctIds = new ArrayList<>(new LinkedHashSet<>(commandIds));
+    log.info("Updating status of {} commands to {}", distinctIds.size(), status);
+
+    // One short transaction per chunk: a large wave never holds row locks on all of its orders at once
+    Map<Long, StatusUpdateResult> results = new HashMap<>();
+    for (int from = 0; from < distinctIds.size(); from += bulkStatusChunkSize) {
+      List<Long> chunk = distinctIds.subList(from, Math.min(from + bulkStatusChunkSize, distinctIds.size()));
+      transactionTemplate.executeWithoutResult(tx -> updateStatusChunk(chunk, status, results));
+    }
+
+    List<StatusUpdateResult> orderedResults = distinctIds.stream()
+        .map(results::get)
+        .collect(Collectors.toList());
+    int updated = (int) orderedResults.stream()
+        .filter(result -> result.getOutcome() == StatusUpdateOutcome.UPDATED)
+        .count();
+    log.info("Bulk status update to {} finished: {} of {} commands updated", status, updated, distinctIds.size());
+    return new BulkStatusUpdateResponse(status, updated, orderedResults);
+  }
+
+  private void updateStatusChunk(List<Long> commandIds, CommandStatus target, Map<Long, StatusUpdateResult> results) {
+    Map<Long, CommandStatus> currentStatuses = commandRepository.findStatusesByCommandIdIn(commandIds).stream()
+        .collect(Collectors.toMap(CommandRepository.CommandStatusView::getCommandId,
+            CommandRepository.CommandStatusView::getStatus));
+
+    // Same rules as the single-order endpoint, then one UPDATE per current status
+    Map<CommandStatus, List<Long>> idsByCurrentStatus = new EnumMap<>(CommandStatus.class);
+    for (Long commandId : commandIds) {
+      CommandStatus current = currentStatuses.get(commandId);
+      if (current == null) {
+        results.put(commandId, new StatusUpdateResult(commandId, StatusUpdateOutcome.NOT_FOUND, null));
+      } else if (current == target) {
+        results.put(commandId, new StatusUpdateResult(commandId, StatusUpdateOutcome.UNCHANGED, current));
+      } else if (!current.canTransitionTo(target)) {
+        results.put(commandId, new StatusUpdateResult(commandId, StatusUpdateOutcome.INVALID_TRANSITION, current));
+      } else {
+        idsByCurrentStatus.computeIfAbsent(current, status -> new ArrayList<>()).add(commandId);
+      }
+    }
+
+    if (target == CommandStatus.CANCELLED) {
+      cancelChunk(idsByCurrentStatus, results);
+      return;
+    }
+    idsByCurrentStatus.forEach((expected, ids) -> {
+      int updated = commandRepository.updateStatus(ids, expected, target);
+      Map<Long, CommandStatus> statusesAfter = updated == ids.size()
+          ? null
+          : commandRepository.findStatusesByCommandIdIn(ids).stream()
+              .collect(Collectors.toMap(CommandRepository.CommandStatusView::getCommandId,
+                  CommandRepository.CommandStatusView::getStatus));
+      for (Long commandId : ids) {
+        boolean applied = statusesAfter == null || statusesAfter.get(commandId) == target;
+        results.put(commandId, new StatusUpdateResult(commandId,
+            applied ? StatusUpdateOutcome.UPDATED : StatusUpdateOutcome.CONFLICT, expected));
+      }
+    });
+  }
+
+  /**
+   * Cancelling gives the orders' stock back, so unlike other targets it cannot be a bare status
+   * UPDATE: each order is locked and its release queued, exactly as a single cancellation does.
+   */
+  private void cancelChunk(Map<CommandStatus, List<Long>> idsByCurrentStatus, Map<Long, StatusUpdateResult> results) {
+    idsByCurrentStatus.forEach((expected, ids) -> {
+      for (Long commandId : ids) {
+        Command command = commandRepository.findByIdForUpdate(commandId).orElse(null);
+        if (command == null || command.getStatus() != expected) {
+          results.put(commandId, new StatusUpdateResult(commandId, StatusUpdateOutcome.CONFLICT, expected));
+          continue;
+        }
+        queueStockRelease(command);
+        command.setStatus(CommandStatus.CANCELLED);
+        results.put(commandId, new StatusUpdateResult(commandId, StatusUpdateOutcome.UPDATED, expected));
+      }
+    });
+  }
+
   @Override
   public void deleteCommand(Long commandId) {
     log.info("Deleting command with ID: {}", commandId);
@@ -241,7 +304,8 @@ public class CommandServiceImpl implements CommandService {
   @Override
   public void cancelCommand(Long commandId, String userId, boolean isAdmin) {
     log.info("Cancelling command with ID: {} by user: {} (isAdmin: {})", commandId, userId, isAdmin);
-    Command command = commandRepository.findById(commandId)
+    // Locked so that an edit cannot add a reservation after they have been queued for release
+    Command command = commandRepository.findByIdForUpdate(commandId)
         .orElseThrow(() -> new CommandNotFoundException("Command not found with ID: " + commandId));
 
     // Check if user is owner or admin
@@ -249,59 +313,170 @@ public class CommandServiceImpl implements CommandService {
       throw new InvalidCommandStatusException("You don't have permission to cancel this order");
     }
 
-    // Only allow cancellation if command is PENDING or CONFIRMED
-    if (command.getStatus() != CommandStatus.PENDING && command.getStatus() != CommandStatus.CONFIRMED) {
+    // Only allow cancellation if command is PENDING, CONFIRMED or FAILED
+    if (!command.getStatus().canTransitionTo(CommandStatus.CANCELLED)) {
       throw new InvalidCommandStatusException("Cannot cancel command with status: " + command.getStatus());
     }
 
-    // Restore stock
-    List<StockUpdateRequest> restoreStock = command.getItems().stream()
+    queueStockRelease(command);
+    command.setStatus(CommandStatus.CANCELLED);
+    commandRepository.save(command);
+    log.info("Command cancelled successfully: {}", commandId);
+  }
+
+  /**
+   * Queues the stock of an order being cancelled for release, in the same transaction as the
+   * status change. Releasing the reservations by ID gives back only what product-service actually
+   * holds for them, so a confirmation that was rejected never turns into stock handed back twice.
+   */
+  private void queueStockRelease(Command command) {
+    if (command.getReservationIds().isEmpty()) {
+      // Orders placed before their reservations were recorded
+      stockOutbox.enqueueRestore(command.getCommandId(), toStockUpdates(command.getItems()));
+    }
+    stockOutbox.enqueueRelease(command.getCommandId(), command.getReservationIds());
+  }
+
+  /**
+   * Read-only pre-check, on by default. The cart reservation is authoritative on its own; this
+   * lets obviously invalid carts fail before any stock row is locked, and costs no remote call
+   * while the local catalog replica knows every product with enough stock.
+   */
+  private void preValidate(List<CommandItemRequest> items) {
+    if (preValidationEnabled) {
+      productValidator.validate(items);
+    }
+  }
+
+  /**
+   * Validates, prices and reserves the items on product-service in a single call. Runs outside
+   * any transaction, so no pooled connection waits on the remote call.
+   */
+  private CartReservationResponse reserveCart(List<CommandItemRequest> items) {
+    return reserveCart(items, null);
+  }
+
+  private CartReservationResponse reserveCart(List<CommandItemRequest> items, List<StockUpdateRequest> previousItems) {
+    List<StockUpdateRequest> stockUpdates = items.stream()
+        .map(item -> StockUpdateRequest.builder()
+            .productId(item.getProductId())
+            .quantity(item.getQuantity())
+            .build())
+        .collect(Collectors.toList());
+
+    CartReservationResponse cart = productClient.reserveCart(
+        StockReservationRequest.builder().items(stockUpdates).previousItems(previousItems).build());
+    if (!cart.isReserved()) {
+      throw cartRejection(cart);
+    }
+    return cart;
+  }
+
+  /**
+   * Writes the order that takes over a reservation in one short transaction. The reservation was
+   * made before the transaction started, so if the write fails it is released here and the stock
+   * goes back at once.
+   */
+  private CommandResponse saveWithReservation(String reservationId, Supplier<CommandResponse> write) {
+    try {
+      return transactionTemplate.execute(tx -> write.get());
+    } catch (RuntimeException e) {
+      releaseReservation(reservationId);
+      throw e;
+    }
+  }
+
+  private void releaseReservation(String reservationId) {
+    try {
+      productClient.releaseReservation(reservationId);
+      log.info("Released stock reservation {} after the order could not be saved", reservationId);
+    } catch (Exception e) {
+      // An unconfirmed reservation still expires on product-service
+      log.error("Failed to release stock reservation {}: {}", reservationId, e.getMessage());
+    }
+  }
+
+  private RuntimeException cartRejection(CartReservationResponse cart) {
+    List<String> shortLines = new ArrayList<>();
+    for (CartLineResult line : cart.getLines()) {
+      if (CART_LINE_NOT_FOUND.equals(line.getStatus())) {
+        return new ProductNotFoundException("Product not found with ID: " + line.getProductId());
+      }
+      if (CART_LINE_INSUFFICIENT_STOCK.equals(line.getStatus())) {
+        shortLines.add(line.getName());
+      }
+    }
+    return new InsufficientStockException("Insufficient stock for product: " + String.join(", ", shortLines));
+  }
+
+  private List<StockUpdateRequest> toStockUpdates(List<CommandItem> items) {
+    return items.stream()
         .map(item -> StockUpdateRequest.builder()
             .productId(item.getProductId())
             .quantity(item.getQuantity())
             .build())
         .collect(Collectors.toList());
+  }
 
-    productClient.restoreStock(restoreStock);
+  private Map<Long, Integer> quantities(List<StockUpdateRequest> items) {
+    return items.stream()
+        .collect(Collectors.toMap(StockUpdateRequest::getProductId, StockUpdateRequest::getQuantity, Integer::sum));
+  }
 
-    command.setStatus(CommandStatus.CANCELLED);
-    commandRepository.save(command);
-    log.info("Command cancelled successfully: {}", commandId);
+  /**
+   * Replaces the command's items while reusing the rows of products that are still ordered,
+   * so an edit only updates, inserts or deletes the item rows that actually changed.
+   */
+  private void mergeItems(Command command, List<CommandItem> newItems) {
+    Map<Long, List<CommandItem>> existingByProduct = new HashMap<>();
+    for (CommandItem item : command.getItems()) {
+      existingByProduct.computeIfAbsent(item.getProductId(), productId -> new ArrayList<>()).add(item);
+    }
+
+    List<CommandItem> added = new ArrayList<>();
+    for (CommandItem newItem : newItems) {
+      List<CommandItem> candidates = existingByProduct.get(newItem.getProductId());
+      if (candidates == null || candidates.isEmpty()) {
+        added.add(newItem);
+        continue;
+      }
+      // Dirty checking skips rows whose values did not change, so unchanged lines are not written
+      CommandItem existing = candidates.remove(0);
+      existing.setQuantity(newItem.getQuantity());
+      if (existing.getPrice().compareTo(newItem.getPrice()) != 0) {
+        // Compared by value: the stored price may come back with a different scale
+        existing.setPrice(newItem.getPrice());
+      }
+    }
+
+    for (List<CommandItem> removed : existingByProduct.values()) {
+      for (CommandItem item : removed) {
+        command.removeItem(item);
+      }
+    }
+    for (CommandItem item : added) {
+      command.addItem(item);
+    }
+  }
+
+  private List<CommandItem> toCommandItems(CartReservationResponse cart) {
+    return cart.getLines().stream()
+        .map(line -> CommandItem.builder()
+            .productId(line.getProductId())
+            .quantity(line.getQuantity())
+            .price(line.getUnitPrice())
+            .build())
+        .collect(Collectors.toList());
   }
 
   private void validateStatusTransition(CommandStatus currentStatus, CommandStatus newStatus) {
-    // Define valid status transitions
-    switch (currentStatus) {
-      case PENDING:
-        if (newStatus != CommandStatus.CONFIRMED && newStatus != CommandStatus.CANCELLED) {
-          throw new InvalidCommandStatusException(
-              "Invalid status transition from " + currentStatus + " to " + newStatus);
-        }
-        break;
-      case CONFIRMED:
-        if (newStatus != CommandStatus.PROCESSING && newStatus != CommandStatus.CANCELLED) {
-          throw new InvalidCommandStatusException(
-              "Invalid status transition from " + currentStatus + " to " + newStatus);
-        }
-        break;
-      case PROCESSING:
-        if (newStatus != CommandStatus.SHIPPED) {
-          throw new InvalidCommandStatusException(
-              "Invalid status transition from " + currentStatus + " to " + newStatus);
-        }
-        break;
-      case SHIPPED:
-        if (newStatus != CommandStatus.DELIVERED) {
-          throw new InvalidCommandStatusException(
-              "Invalid status transition from " + currentStatus + " to " + newStatus);
-        }
-        break;
-      case DELIVERED:
-      case CANCELLED:
-        throw new InvalidCommandStatusException(
-            "Cannot change status from " + currentStatus);
-      default:
-        throw new InvalidCommandStatusException("Unknown status: " + currentStatus);
+    if (currentStatus.isFinal()) {
+      throw new InvalidCommandStatusException(
+          "Cannot change status from " + currentStatus);
+    }
+    if (!currentStatus.canTransitionTo(newStatus)) {
+      throw new InvalidCommandStatusException(
+          "Invalid status transition from " + currentStatus + " to " + newStatus);
     }
   }
 
@@ -343,6 +518,62 @@ public class CommandServiceImpl implements CommandService {
         .collect(Collectors.toList());
   }
 
+  @Override
+  @Transactional(readOnly = true)
+  public CommandPageResponse getCommandsPage(String userId, CommandStatus status, LocalDateTime from,
+      LocalDateTime to, String cursor, Integer size, String direction) {
+    Sort.Direction sortDirection = Sort.Direction.fromOptionalString(direction)
+        .orElseThrow(() -> new InvalidPageRequestException(
+            "Unsupported sort direction: " + direction + ". Allowed values: asc, desc"));
+    if (from != null && to != null && !from.isBefore(to)) {
+      throw new InvalidPageRequestException("'from' must be before 'to'");
+    }
+    int pageSize = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+    log.info("Fetching commands page (user: {}, status: {}, from: {}, to: {}, size: {})",
+        userId != null ? userId : "all", status, from, to, pageSize);
+
+    Sort order = Sort.by(sortDirection, "date").and(Sort.by(sortDirection, "commandId"));
+    ScrollPosition position = cursor == null || cursor.isBlank()
+        ? ScrollPosition.keyset()
+        : decodeCursor(cursor, sortDirection);
+
+    Window<Command> window = commandRepository.findBy(
+        CommandSpecifications.matching(userId, status, from, to),
+        query -> query.sortBy(order).limit(pageSize).scroll(position));
+    List<Command> commands = window.getContent();
+    String nextCursor = window.hasNext() && !commands.isEmpty()
+        ? encodeCursor(commands.get(commands.size() - 1), sortDirection)
+        : null;
+
+    return CommandPageResponse.builder()
+        .items(commands.stream().map(this::mapToResponse).collect(Collectors.toList()))
+        .nextCursor(nextCursor)
+        .hasNext(nextCursor != null)
+        .build();
+  }
+
+  private String encodeCursor(Command last, Sort.Direction direction) {
+    String raw = direction.name() + "|" + last.getDate() + "|" + last.getCommandId();
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private ScrollPosition decodeCursor(String cursor, Sort.Direction direction) {
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      String[] parts = raw.split("\\|", 3);
+      if (parts.length != 3 || !parts[0].equals(direction.name())) {
+        throw new InvalidPageRequestException("Cursor does not match the requested sort order");
+      }
+
+      Map<String, Object> keys = new LinkedHashMap<>();
+      keys.put("date", LocalDateTime.parse(parts[1]));
+      keys.put("commandId", Long.valueOf(parts[2]));
+      return ScrollPosition.forward(keys);
+    } catch (IllegalArgumentException | DateTimeParseException e) {
+      throw new InvalidPageRequestException("Invalid cursor: " + cursor);
+    }
+  }
+
   @Override
   @Transactional(readOnly = true)
   public boolean isCommandOwner(Long commandId, String userId) {
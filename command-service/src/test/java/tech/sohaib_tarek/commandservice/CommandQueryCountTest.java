@@ -0,0 +1,194 @@
+package tech.sohaib_tarek.commandservice;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tech.sohaib_tarek.commandservice.entity.Command;
+import tech.sohaib_tarek.commandservice.entity.CommandItem;
+import tech.sohaib_tarek.commandservice.enums.CommandStatus;
+import tech.sohaib_tarek.commandservice.repository.CommandRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Guards against N+1 selects on the order read endpoints: the number of SQL statements
+ * per request must not grow with the number of orders returned. Saving an order must
+ * likewise not cost one insert per item.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:querycount;MODE=MySQL;DB_CLOSE_DELAY=-1",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.show-sql=false",
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "tech.sohaib_tarek.commandservice.CommandQueryCountTest$StatementCounter",
+    "eureka.client.enabled=false",
+    "stock.outbox.relay-interval-ms=3600000",
+    "product.replica.enabled=false"
+})
+@AutoConfigureMockMvc
+class CommandQueryCountTest {
+
+  private static final int ORDERS = 60;
+  private static final int ITEMS_PER_ORDER = 3;
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private CommandRepository commandRepository;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @Value("${gateway.secret}")
+  private String gatewaySecret;
+
+  private Long firstCommandId;
+
+  @BeforeEach
+  void createOrders() {
+    commandRepository.deleteAll();
+    LocalDateTime start = LocalDateTime.now().minusDays(1);
+    for (int i = 0; i < ORDERS; i++) {
+      Command command = Command.builder()
+          .date(start.plusMinutes(i))
+          .status(i % 2 == 0 ? CommandStatus.PENDING : CommandStatus.CONFIRMED)
+          .totalPrice(BigDecimal.TEN)
+          .userId(i % 3 == 0 ? "client-1" : "client-2")
+          .username("client")
+          .items(new ArrayList<>())
+          .build();
+      for (int j = 0; j < ITEMS_PER_ORDER; j++) {
+        command.addItem(CommandItem.builder()
+            .productId((long) j + 1)
+            .quantity(1)
+            .price(BigDecimal.ONE)
+            .build());
+      }
+      Command saved = commandRepository.save(command);
+      if (i == 0) {
+        firstCommandId = saved.getCommandId();
+      }
+    }
+  }
+
+  @Test
+  void adminListingUsesOneStatement() throws Exception {
+    assertStatements(1, "admin list", asAdmin(get("/api/commands")));
+    assertStatements(1, "admin list by status", asAdmin(get("/api/commands").param("status", "PENDING")));
+  }
+
+  @Test
+  void clientListingUsesOneStatement() throws Exception {
+    assertStatements(1, "client list", asClient(get("/api/commands")));
+    assertStatements(1, "client list by status", asClient(get("/api/commands").param("status", "CONFIRMED")));
+  }
+
+  @Test
+  void pageLoadsItemsInOneBatch() throws Exception {
+    assertStatements(2, "admin page", asAdmin(get("/api/commands/page").param("size", "50")));
+    assertStatements(2, "client page", asClient(get("/api/commands/page").param("size", "50")));
+  }
+
+  @Test
+  void singleOrderUsesOneStatement() throws Exception {
+    assertStatements(1, "single order", asAdmin(get("/api/commands/" + firstCommandId)));
+  }
+
+  @Test
+  void largeOrderIsSavedWithBatchedInserts() {
+    Command command = Command.builder()
+        .status(CommandStatus.PENDING)
+        .totalPrice(BigDecimal.TEN)
+        .userId("client-1")
+        .username("client")
+        .items(new ArrayList<>())
+        .build();
+    for (int j = 0; j < 20; j++) {
+      command.addItem(CommandItem.builder()
+          .productId((long) j + 1)
+          .quantity(1)
+          .price(BigDecimal.ONE)
+          .build());
+    }
+    command.addReservation("reservation-1");
+
+    StatementCounter.reset();
+    new TransactionTemplate(transactionManager).executeWithoutResult(tx -> commandRepository.save(command));
+
+    assertEquals(1, StatementCounter.count("insert into commands "), "command inserts");
+    assertEquals(1, StatementCounter.count("insert into command_items "), "prepared item inserts for 20 items");
+    assertEquals(1, StatementCounter.count("insert into command_reservations "), "reservation inserts");
+    assertEquals(20, commandRepository.findWithItemsByCommandId(command.getCommandId()).orElseThrow()
+        .getItems().size());
+  }
+
+  private void assertStatements(int expected, String endpoint, MockHttpServletRequestBuilder request)
+      throws Exception {
+    StatementCounter.reset();
+    mockMvc.perform(request)
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$..items[0].productId").exists());
+    assertEquals(expected, StatementCounter.count(), "SQL statements for " + endpoint);
+  }
+
+  private MockHttpServletRequestBuilder asAdmin(MockHttpServletRequestBuilder request) {
+    return request.header("X-Gateway-Secret", gatewaySecret)
+        .header("X-User-Id", "admin")
+        .header("X-User-Roles", "ADMIN");
+  }
+
+  private MockHttpServletRequestBuilder asClient(MockHttpServletRequestBuilder request) {
+    return request.header("X-Gateway-Secret", gatewaySecret)
+        .header("X-User-Id", "client-1")
+        .header("X-User-Roles", "CLIENT");
+  }
+
+  /**
+   * Counts the statements Hibernate prepares on the calling thread, so background jobs don't skew the numbers.
+   * A JDBC batch is prepared once however many rows it carries.
+   */
+  public static class StatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<List<String>> STATEMENTS = ThreadLocal.withInitial(ArrayList::new);
+
+    static void reset() {
+      STATEMENTS.get().clear();
+    }
+
+    static int count() {
+      return STATEMENTS.get().size();
+    }
+
+    static int count(String prefix) {
+      return (int) STATEMENTS.get().stream()
+          .filter(sql -> sql.toLowerCase(Locale.ROOT).startsWith(prefix))
+          .count();
+    }
+
+    @Override
+    public String inspect(String sql) {
+      STATEMENTS.get().add(sql);
+      return sql;
+    }
+  }
+}
@@ -0,0 +1,182 @@
+package tech.sohaib_tarek.commandservice;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tech.sohaib_tarek.commandservice.client.ProductClient;
+import tech.sohaib_tarek.commandservice.dto.BulkStatusUpdateResponse;
+import tech.sohaib_tarek.commandservice.dto.CartLineResult;
+import tech.sohaib_tarek.commandservice.dto.CartReservationResponse;
+import tech.sohaib_tarek.commandservice.dto.CommandItemRequest;
+import tech.sohaib_tarek.commandservice.dto.CommandRequest;
+import tech.sohaib_tarek.commandservice.dto.CommandResponse;
+import tech.sohaib_tarek.commandservice.dto.StockOperationRequest;
+import tech.sohaib_tarek.commandservice.entity.Command;
+import tech.sohaib_tarek.commandservice.enums.CommandStatus;
+import tech.sohaib_tarek.commandservice.enums.StockOperationType;
+import tech.sohaib_tarek.commandservice.exception.InvalidCommandStatusException;
+import tech.sohaib_tarek.commandservice.repository.CommandRepository;
+import tech.sohaib_tarek.commandservice.repository.StockOutboxRepository;
+import tech.sohaib_tarek.commandservice.service.CommandService;
+import tech.sohaib_tarek.commandservice.service.StockOutbox;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The cart is reserved on product-service before the order's transaction starts, so no pooled
+ * connection waits on the remote call, and a reservation whose order could not be saved is
+ * released straight away. A cancellation, single or in bulk, queues all of the order's
+ * reservations as one release.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:commandreservation;MODE=MySQL;DB_CLOSE_DELAY=-1",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.show-sql=false",
+    "eureka.client.enabled=false",
+    "stock.outbox.relay-interval-ms=3600000",
+    "product.replica.enabled=false",
+    "product.validation.pre-check-enabled=false"
+})
+class CommandReservationTest {
+
+  private static final Long PRODUCT = 7L;
+
+  @MockitoBean
+  private ProductClient productClient;
+
+  @Autowired
+  private CommandService commandService;
+
+  @Autowired
+  private CommandRepository commandRepository;
+
+  @Autowired
+  private StockOutboxRepository outboxRepository;
+
+  @Autowired
+  private StockOutbox stockOutbox;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @BeforeEach
+  void clearTables() {
+    outboxRepository.deleteAll();
+    commandRepository.deleteAll();
+  }
+
+  @Test
+  void cartIsReservedOutsideTheTransaction() {
+    when(productClient.reserveCart(any())).thenAnswer(invocation -> {
+      assertFalse(TransactionSynchronizationManager.isActualTransactionActive());
+      return cart("reservation-1", 2);
+    });
+
+    CommandResponse response = commandService.createCommand(request(2), "client-1", "client");
+
+    assertEquals(CommandStatus.PENDING, response.getStatus());
+    assertEquals(1, outboxRepository.count());
+    verify(productClient, never()).releaseReservation(any());
+  }
+
+  @Test
+  void reservationIsReleasedWhenTheOrderMovedOnMeanwhile() {
+    when(productClient.reserveCart(any())).thenReturn(cart("reservation-1", 2));
+    Long commandId = commandService.createCommand(request(2), "client-1", "client").getCommandId();
+
+    when(productClient.reserveCart(any())).thenAnswer(invocation -> {
+      Command command = commandRepository.findById(commandId).orElseThrow();
+      command.setStatus(CommandStatus.CONFIRMED);
+      commandRepository.save(command);
+      return cart("reservation-2", 3);
+    });
+
+    assertThrows(InvalidCommandStatusException.class, () -> commandService.updateCommand(commandId, request(3)));
+
+    verify(productClient).releaseReservation("reservation-2");
+    assertEquals(1, outboxRepository.count());
+    assertEquals(2, commandRepository.findWithItemsByCommandId(commandId).orElseThrow().getItems().get(0).getQuantity());
+  }
+
+  @Test
+  void editReservedAgainstItemsChangedMeanwhileIsReleased() {
+    when(productClient.reserveCart(any())).thenReturn(cart("reservation-1", 2));
+    Long commandId = commandService.createCommand(request(2), "client-1", "client").getCommandId();
+
+    when(productClient.reserveCart(any())).thenAnswer(invocation -> {
+      // Another edit of the same order commits while this one is reserving
+      new TransactionTemplate(transactionManager).executeWithoutResult(tx ->
+          commandRepository.findWithItemsByCommandId(commandId).orElseThrow().getItems().get(0).setQuantity(4));
+      return cart("reservation-2", 3);
+    });
+
+    assertThrows(InvalidCommandStatusException.class, () -> commandService.updateCommand(commandId, request(3)));
+
+    verify(productClient).releaseReservation("reservation-2");
+    assertEquals(4, commandRepository.findWithItemsByCommandId(commandId).orElseThrow().getItems().get(0).getQuantity());
+  }
+
+  @Test
+  void cancelReleasesAllReservationsOfTheOrderInOneOperation() {
+    when(productClient.reserveCart(any())).thenReturn(cart("reservation-1", 2));
+    Long commandId = commandService.createCommand(request(2), "client-1", "client").getCommandId();
+    when(productClient.reserveCart(any())).thenReturn(cart("reservation-2", 3));
+    commandService.updateCommand(commandId, request(3));
+
+    commandService.cancelCommand(commandId, "client-1", false);
+
+    List<StockOperationRequest> releases = outboxRepository.findAll().stream()
+        .map(stockOutbox::toRequest)
+        .filter(operation -> operation.getType() == StockOperationType.RELEASE_RESERVATIONS)
+        .toList();
+    assertEquals(1, releases.size());
+    assertEquals(List.of("reservation-1", "reservation-2"), releases.get(0).getReservationIds());
+  }
+
+  @Test
+  void bulkCancelQueuesTheReleaseOfEveryOrder() {
+    when(productClient.reserveCart(any())).thenReturn(cart("reservation-1", 2));
+    Long first = commandService.createCommand(request(2), "client-1", "client").getCommandId();
+    when(productClient.reserveCart(any())).thenReturn(cart("reservation-2", 1));
+    Long second = commandService.createCommand(request(1), "client-2", "client").getCommandId();
+
+    BulkStatusUpdateResponse response = commandService.updateCommandStatuses(List.of(first, second),
+        CommandStatus.CANCELLED);
+
+    assertEquals(2, response.getUpdated());
+    assertEquals(CommandStatus.CANCELLED, commandRepository.findById(first).orElseThrow().getStatus());
+    List<List<String>> released = outboxRepository.findAll().stream()
+        .map(stockOutbox::toRequest)
+        .filter(operation -> operation.getType() == StockOperationType.RELEASE_RESERVATIONS)
+        .map(StockOperationRequest::getReservationIds)
+        .toList();
+    assertEquals(List.of(List.of("reservation-1"), List.of("reservation-2")), released);
+  }
+
+  private static CommandRequest request(int quantity) {
+    return new CommandRequest(List.of(new CommandItemRequest(PRODUCT, quantity)));
+  }
+
+  private static CartReservationResponse cart(String reservationId, int quantity) {
+    CartLineResult line = new CartLineResult(PRODUCT, "product", quantity, BigDecimal.TEN, 100, "OK");
+    return new CartReservationResponse(true, reservationId, LocalDateTime.now().plusMinutes(15),
+        BigDecimal.TEN.multiply(BigDecimal.valueOf(quantity)), List.of(line));
+  }
+}
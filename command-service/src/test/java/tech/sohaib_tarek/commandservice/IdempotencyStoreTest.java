@@ -0,0 +1,203 @@
+package tech.sohaib_tarek.commandservice;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import tech.sohaib_tarek.commandservice.client.ProductClient;
+import tech.sohaib_tarek.commandservice.controller.CommandController;
+import tech.sohaib_tarek.commandservice.dto.CartLineResult;
+import tech.sohaib_tarek.commandservice.dto.CartReservationResponse;
+import tech.sohaib_tarek.commandservice.dto.CommandItemRequest;
+import tech.sohaib_tarek.commandservice.dto.CommandRequest;
+import tech.sohaib_tarek.commandservice.dto.CommandResponse;
+import tech.sohaib_tarek.commandservice.enums.IdempotencyStatus;
+import tech.sohaib_tarek.commandservice.exception.IdempotencyKeyInUseException;
+import tech.sohaib_tarek.commandservice.exception.IdempotencyKeyReusedException;
+import tech.sohaib_tarek.commandservice.repository.IdempotencyRecordRepository;
+import tech.sohaib_tarek.commandservice.service.IdempotencyStore;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * A key runs its operation once: repeats get the stored response, a repeat that arrives while the
+ * first request is still running is turned away, and a key is never reused for another body.
+ * Order keys are scoped per user: a retried order reserves its cart once, while another user's
+ * order under the same key is placed on its own.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:idempotency;MODE=MySQL;DB_CLOSE_DELAY=-1",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.show-sql=false",
+    "eureka.client.enabled=false",
+    "stock.outbox.relay-interval-ms=3600000",
+    "product.replica.enabled=false",
+    "product.validation.pre-check-enabled=false"
+})
+class IdempotencyStoreTest {
+
+  private static final String SCOPE = "test";
+  private static final Map<String, Object> REQUEST = Map.of("productId", 1, "quantity", 2);
+  private static final Long PRODUCT = 7L;
+
+  @MockitoBean
+  private ProductClient productClient;
+
+  @Autowired
+  private CommandController commandController;
+
+  @Autowired
+  private IdempotencyStore idempotencyStore;
+
+  @Autowired
+  private IdempotencyRecordRepository recordRepository;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  private final AtomicInteger runs = new AtomicInteger();
+
+  @BeforeEach
+  void clearRecords() {
+    recordRepository.deleteAll();
+  }
+
+  @Test
+  void repeatReplaysTheStoredResponse() {
+    ResponseEntity<String> first = idempotencyStore.execute(SCOPE, "key-1", REQUEST, String.class, this::create);
+    ResponseEntity<String> repeat = idempotencyStore.execute(SCOPE, "key-1", REQUEST, String.class, this::create);
+
+    assertEquals(1, runs.get());
+    assertNull(first.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER));
+    assertEquals("true", repeat.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER));
+    assertEquals(201, repeat.getStatusCode().value());
+    assertEquals(first.getBody(), repeat.getBody());
+    assertEquals(IdempotencyStatus.COMPLETED, recordRepository.findById(SCOPE + ":key-1").orElseThrow().getStatus());
+  }
+
+  @Test
+  void repeatOnAnotherInstanceReplaysFromTheDatabase() {
+    ResponseEntity<String> first = idempotencyStore.execute(SCOPE, "key-1", REQUEST, String.class, this::create);
+
+    ResponseEntity<String> repeat = otherInstance().execute(SCOPE, "key-1", REQUEST, String.class, this::create);
+
+    assertEquals(1, runs.get());
+    assertEquals("true", repeat.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER));
+    assertEquals(first.getBody(), repeat.getBody());
+  }
+
+  @Test
+  void repeatWhileTheFirstIsStillRunningIsRejected() {
+    ResponseEntity<String> first = idempotencyStore.execute(SCOPE, "key-1", REQUEST, String.class, () -> {
+      assertThrows(IdempotencyKeyInUseException.class, () ->
+          otherInstance().execute(SCOPE, "key-1", REQUEST, String.class, this::create));
+      return create();
+    });
+
+    assertEquals(1, runs.get());
+    assertEquals(201, first.getStatusCode().value());
+  }
+
+  @Test
+  void keyReusedForADifferentBodyIsRejected() {
+    idempotencyStore.execute(SCOPE, "key-1", REQUEST, String.class, this::create);
+    Map<String, Object> otherRequest = Map.of("productId", 1, "quantity", 3);
+
+    assertThrows(IdempotencyKeyReusedException.class, () ->
+        idempotencyStore.execute(SCOPE, "key-1", otherRequest, String.class, this::create));
+    assertThrows(IdempotencyKeyReusedException.class, () ->
+        otherInstance().execute(SCOPE, "key-1", otherRequest, String.class, this::create));
+    assertEquals(1, runs.get());
+  }
+
+  @Test
+  void failedOperationReleasesTheKey() {
+    assertThrows(IllegalStateException.class, () ->
+        idempotencyStore.execute(SCOPE, "key-1", REQUEST, String.class, () -> {
+          throw new IllegalStateException("product-service unavailable");
+        }));
+    assertTrue(recordRepository.findById(SCOPE + ":key-1").isEmpty());
+
+    idempotencyStore.execute(SCOPE, "key-1", REQUEST, String.class, this::create);
+    assertEquals(1, runs.get());
+  }
+
+  @Test
+  void requestWithoutKeyAlwaysRuns() {
+    idempotencyStore.execute(SCOPE, null, REQUEST, String.class, this::create);
+    idempotencyStore.execute(SCOPE, " ", REQUEST, String.class, this::create);
+
+    assertEquals(2, runs.get());
+    assertEquals(0, recordRepository.count());
+  }
+
+  @Test
+  void retriedOrderReservesItsCartOnce() {
+    when(productClient.reserveCart(any())).thenReturn(cart());
+
+    ResponseEntity<CommandResponse> first = commandController.createCommand(order(), "client-1", "client", "key-1");
+    ResponseEntity<CommandResponse> retry = commandController.createCommand(order(), "client-1", "client", "key-1");
+
+    assertEquals(first.getBody().getCommandId(), retry.getBody().getCommandId());
+    assertEquals("true", retry.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER));
+    verify(productClient, times(1)).reserveCart(any());
+  }
+
+  @Test
+  void sameKeyFromAnotherUserPlacesItsOwnOrder() {
+    when(productClient.reserveCart(any())).thenReturn(cart());
+
+    ResponseEntity<CommandResponse> first = commandController.createCommand(order(), "client-1", "client", "key-1");
+    ResponseEntity<CommandResponse> other = commandController.createCommand(order(), "client-2", "client", "key-1");
+
+    assertNotEquals(first.getBody().getCommandId(), other.getBody().getCommandId());
+    assertNull(other.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER));
+    verify(productClient, times(2)).reserveCart(any());
+  }
+
+  private static CommandRequest order() {
+    return new CommandRequest(List.of(new CommandItemRequest(PRODUCT, 2)));
+  }
+
+  private static CartReservationResponse cart() {
+    CartLineResult line = new CartLineResult(PRODUCT, "product", 2, BigDecimal.TEN, 100, "OK");
+    return new CartReservationResponse(true, "reservation-" + System.nanoTime(), LocalDateTime.now().plusMinutes(15),
+        BigDecimal.valueOf(20), List.of(line));
+  }
+
+  private ResponseEntity<String> create() {
+    return ResponseEntity.status(201).body("created-" + runs.incrementAndGet());
+  }
+
+  // Same database, empty response cache: behaves like the store of a second instance
+  private IdempotencyStore otherInstance() {
+    IdempotencyStore store = new IdempotencyStore(recordRepository, objectMapper, transactionManager, 100, 600);
+    ReflectionTestUtils.setField(store, "ttlHours", 24L);
+    ReflectionTestUtils.setField(store, "inProgressTimeoutSeconds", 60L);
+    return store;
+  }
+}
@@ -0,0 +1,139 @@
+package tech.sohaib_tarek.commandservice;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+import tech.sohaib_tarek.commandservice.datasource.ReadWriteRoutingDataSource;
+import tech.sohaib_tarek.commandservice.datasource.ReadYourWritesTracker;
+import tech.sohaib_tarek.commandservice.datasource.ReplicaLagMonitor;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Routing of read-only and read-write transactions, wired the way DataSourceRoutingConfig does it,
+ * with one H2 database standing in for the primary and another for a replica.
+ */
+class ReadWriteRoutingDataSourceTest {
+
+  private static final String REPLICA = "replica-0";
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  private HikariDataSource primary;
+  private HikariDataSource replica;
+  private ReadWriteRoutingDataSource routingDataSource;
+  private JdbcTemplate jdbcTemplate;
+  private TransactionTemplate readWrite;
+  private TransactionTemplate readOnly;
+  private boolean replicaCurrent;
+
+  @BeforeEach
+  void createDataSources() {
+    primary = database("routing-primary", ReadWriteRoutingDataSource.PRIMARY);
+    replica = database("routing-replica", REPLICA);
+    Map<String, HikariDataSource> replicas = new LinkedHashMap<>();
+    replicas.put(REPLICA, replica);
+    replicaCurrent = true;
+    // H2 has no replication status, so the test decides whether the replica is current
+    ReplicaLagMonitor lagMonitor = new ReplicaLagMonitor(replicas, 5, meterRegistry) {
+      @Override
+      public String nextReplica() {
+        return replicaCurrent ? REPLICA : null;
+      }
+    };
+
+    routingDataSource = new ReadWriteRoutingDataSource(primary, lagMonitor,
+        new ReadYourWritesTracker(Duration.ofSeconds(30), 100), meterRegistry);
+    routingDataSource.afterPropertiesSet();
+    LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+    jdbcTemplate = new JdbcTemplate(dataSource);
+    DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+    readWrite = new TransactionTemplate(transactionManager);
+    readOnly = new TransactionTemplate(transactionManager);
+    readOnly.setReadOnly(true);
+  }
+
+  @AfterEach
+  void closeDataSources() {
+    MDC.clear();
+    primary.close();
+    replica.close();
+  }
+
+  @Test
+  void readOnlyTransactionReadsFromTheReplica() {
+    MDC.put("userId", "client-1");
+
+    assertEquals(REPLICA, readOnly.execute(status -> servedBy()));
+    assertEquals(ReadWriteRoutingDataSource.PRIMARY, readWrite.execute(status -> servedBy()));
+    assertEquals(1.0, connections(REPLICA, "read"));
+  }
+
+  @Test
+  void userReadsFromThePrimaryRightAfterTheirOwnWrite() {
+    MDC.put("userId", "client-1");
+    readWrite.executeWithoutResult(status -> jdbcTemplate.update("UPDATE pool SET writes = writes + 1"));
+
+    assertEquals(ReadWriteRoutingDataSource.PRIMARY, readOnly.execute(status -> servedBy()));
+    assertEquals(1.0, connections(ReadWriteRoutingDataSource.PRIMARY, "read-your-writes"));
+
+    MDC.put("userId", "client-2");
+    assertEquals(REPLICA, readOnly.execute(status -> servedBy()));
+  }
+
+  @Test
+  void rolledBackWriteDoesNotPinTheUserToThePrimary() {
+    MDC.put("userId", "client-1");
+    readWrite.executeWithoutResult(status -> {
+      jdbcTemplate.update("UPDATE pool SET writes = writes + 1");
+      status.setRollbackOnly();
+    });
+
+    assertEquals(REPLICA, readOnly.execute(status -> servedBy()));
+  }
+
+  @Test
+  void anonymousWritesAreNotTracked() {
+    MDC.put("userId", "anonymous");
+    readWrite.executeWithoutResult(status -> jdbcTemplate.update("UPDATE pool SET writes = writes + 1"));
+
+    assertEquals(REPLICA, readOnly.execute(status -> servedBy()));
+  }
+
+  @Test
+  void readOnlyTransactionFallsBackToThePrimaryWithoutACurrentReplica() {
+    replicaCurrent = false;
+
+    assertEquals(ReadWriteRoutingDataSource.PRIMARY, readOnly.execute(status -> servedBy()));
+    assertEquals(1.0, connections(ReadWriteRoutingDataSource.PRIMARY, "fallback"));
+  }
+
+  private String servedBy() {
+    return jdbcTemplate.queryForObject("SELECT name FROM pool", String.class);
+  }
+
+  private double connections(String pool, String reason) {
+    return meterRegistry.counter("datasource.routing.connections", "pool", pool, "reason", reason).count();
+  }
+
+  private static HikariDataSource database(String database, String name) {
+    HikariDataSource dataSource = new HikariDataSource();
+    dataSource.setJdbcUrl("jdbc:h2:mem:" + database + ";MODE=MySQL");
+    dataSource.setMaximumPoolSize(2);
+    JdbcTemplate setup = new JdbcTemplate(dataSource);
+    setup.execute("CREATE TABLE pool (name VARCHAR(20), writes INT)");
+    setup.update("INSERT INTO pool (name, writes) VALUES (?, 0)", name);
+    return dataSource;
+  }
+}
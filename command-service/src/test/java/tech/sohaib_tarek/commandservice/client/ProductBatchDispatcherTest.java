@@ -0,0 +1,99 @@
+package tech.sohaib_tarek.commandservice.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import tech.sohaib_tarek.commandservice.dto.ProductResponse;
+import tech.sohaib_tarek.commandservice.exception.ProductServiceUnavailableException;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Lookups arriving within one window go to product-service as a single batched call, a full
+ * batch does not wait for its window, and every caller gets its own product or the call's error.
+ */
+class ProductBatchDispatcherTest {
+
+  private final ProductClient productClient = mock(ProductClient.class);
+  private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor();
+  private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  private ProductBatchDispatcher dispatcher;
+
+  @BeforeEach
+  void createDispatcher() {
+    dispatcher = new ProductBatchDispatcher(productClient, timer, executor, meterRegistry);
+    ReflectionTestUtils.setField(dispatcher, "windowMicros", 50_000L);
+    ReflectionTestUtils.setField(dispatcher, "maxBatchSize", 3);
+    when(productClient.getProductsByIds(any())).thenAnswer(invocation -> invocation.<List<Long>>getArgument(0)
+        .stream()
+        .filter(productId -> productId != 404L)
+        .map(productId -> new ProductResponse(productId, "product", null, BigDecimal.TEN, 5))
+        .toList());
+  }
+
+  @AfterEach
+  void stopExecutors() {
+    timer.shutdownNow();
+    executor.shutdownNow();
+  }
+
+  @Test
+  void lookupsWithinTheWindowAreSentAsOneBatch() {
+    CompletableFuture<ProductResponse> known = dispatcher.load(1L);
+    CompletableFuture<ProductResponse> unknown = dispatcher.load(404L);
+
+    assertEquals(1L, join(known).getProductId());
+    assertNull(join(unknown));
+    verify(productClient).getProductsByIds(List.of(1L, 404L));
+    assertEquals(1, meterRegistry.get("product.lookup.batch.size").summary().count());
+  }
+
+  @Test
+  void fullBatchIsSentWithoutWaitingForTheWindow() {
+    ReflectionTestUtils.setField(dispatcher, "windowMicros", TimeUnit.MINUTES.toMicros(1));
+
+    List<CompletableFuture<ProductResponse>> futures = List.of(dispatcher.load(1L), dispatcher.load(2L),
+        dispatcher.load(3L));
+
+    assertEquals(List.of(1L, 2L, 3L), futures.stream().map(this::join).map(ProductResponse::getProductId).toList());
+    verify(productClient).getProductsByIds(List.of(1L, 2L, 3L));
+  }
+
+  @Test
+  void failedCallFailsEveryLookupOfTheBatch() {
+    when(productClient.getProductsByIds(any()))
+        .thenThrow(new ProductServiceUnavailableException("product-service is down", null));
+
+    CompletableFuture<ProductResponse> first = dispatcher.load(1L);
+    CompletableFuture<ProductResponse> second = dispatcher.load(2L);
+
+    for (CompletableFuture<ProductResponse> future : List.of(first, second)) {
+      CompletionException e = assertThrows(CompletionException.class, () -> join(future));
+      assertInstanceOf(ProductServiceUnavailableException.class, e.getCause());
+    }
+  }
+
+  private ProductResponse join(CompletableFuture<ProductResponse> future) {
+    return future.orTimeout(5, TimeUnit.SECONDS).join();
+  }
+}
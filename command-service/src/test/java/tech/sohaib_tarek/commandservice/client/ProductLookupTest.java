@@ -0,0 +1,102 @@
+package tech.sohaib_tarek.commandservice.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import tech.sohaib_tarek.commandservice.dto.ProductResponse;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Concurrent lookups of a product share one product-service call, the recent window answers a
+ * repeated lookup without one, and with batching on the calls go through the dispatcher.
+ */
+class ProductLookupTest {
+
+  private final ProductClient productClient = mock(ProductClient.class);
+  private final ProductBatchDispatcher batchDispatcher = mock(ProductBatchDispatcher.class);
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  @Test
+  void concurrentLookupsOfAProductShareOneCall() throws Exception {
+    ProductLookup lookup = lookup(0, false);
+    CountDownLatch fetching = new CountDownLatch(1);
+    CountDownLatch answer = new CountDownLatch(1);
+    when(productClient.getProductsByIds(List.of(1L))).thenAnswer(invocation -> {
+      fetching.countDown();
+      assertTrue(answer.await(5, TimeUnit.SECONDS));
+      return List.of(product(1L));
+    });
+    when(productClient.getProductsByIds(List.of(2L))).thenReturn(List.of(product(2L)));
+
+    CompletableFuture<List<ProductResponse>> first = CompletableFuture.supplyAsync(() -> lookup.getProducts(List.of(1L)));
+    assertTrue(fetching.await(5, TimeUnit.SECONDS));
+    CompletableFuture<List<ProductResponse>> second =
+        CompletableFuture.supplyAsync(() -> lookup.getProducts(List.of(1L, 2L)));
+    while (count("joined") == 0) {
+      Thread.onSpinWait();
+    }
+    answer.countDown();
+
+    assertEquals(List.of(1L), ids(first.get(5, TimeUnit.SECONDS)));
+    assertEquals(List.of(1L, 2L), ids(second.get(5, TimeUnit.SECONDS)));
+    assertEquals(2, count("fetched"));
+    assertEquals(1, count("joined"));
+  }
+
+  @Test
+  void recentWindowAnswersARepeatedLookup() {
+    ProductLookup lookup = lookup(60_000, false);
+    when(productClient.getProductsByIds(List.of(1L))).thenReturn(List.of(product(1L)));
+
+    lookup.getProducts(List.of(1L));
+    List<ProductResponse> again = lookup.getProducts(List.of(1L));
+
+    assertEquals(List.of(1L), ids(again));
+    verify(productClient).getProductsByIds(List.of(1L));
+    assertEquals(1, count("recent"));
+  }
+
+  @Test
+  void batchingHandsTheLookupsToTheDispatcher() {
+    ProductLookup lookup = lookup(0, true);
+    when(batchDispatcher.load(anyLong())).thenReturn(CompletableFuture.completedFuture(null));
+    when(batchDispatcher.load(1L)).thenReturn(CompletableFuture.completedFuture(product(1L)));
+
+    List<ProductResponse> products = lookup.getProducts(List.of(1L, 404L));
+
+    assertEquals(List.of(1L), ids(products));
+    verify(productClient, never()).getProductsByIds(any());
+  }
+
+  private ProductLookup lookup(long recentTtlMs, boolean batchingEnabled) {
+    ProductLookup lookup = new ProductLookup(productClient, batchDispatcher, meterRegistry, recentTtlMs, 100);
+    ReflectionTestUtils.setField(lookup, "batchingEnabled", batchingEnabled);
+    return lookup;
+  }
+
+  private double count(String outcome) {
+    return meterRegistry.get("product.lookup.requests").tag("outcome", outcome).counter().count();
+  }
+
+  private static ProductResponse product(Long productId) {
+    return new ProductResponse(productId, "product", null, BigDecimal.TEN, 5);
+  }
+
+  private static List<Long> ids(List<ProductResponse> products) {
+    return products.stream().map(ProductResponse::getProductId).toList();
+  }
+}
@@ -0,0 +1,48 @@
+package tech.sohaib_tarek.commandservice.config;
+
+import feign.RequestTemplate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Calls to product-service carry the user the order is placed for, which is what product-service
+ * keys its read-your-writes routing on; calls made for no user carry none.
+ */
+class FeignConfigTest {
+
+  private final FeignConfig feignConfig = new FeignConfig();
+
+  @AfterEach
+  void clearContext() {
+    MDC.clear();
+  }
+
+  @Test
+  void callingUserIsForwarded() {
+    MDC.put("userId", "client-1");
+    RequestTemplate template = new RequestTemplate();
+
+    feignConfig.userIdInterceptor().apply(template);
+
+    assertEquals(List.of("client-1"), List.copyOf(template.headers().get("X-User-Id")));
+  }
+
+  @Test
+  void callsForNoUserCarryNone() {
+    RequestTemplate scheduled = new RequestTemplate();
+    feignConfig.userIdInterceptor().apply(scheduled);
+
+    MDC.put("userId", "anonymous");
+    RequestTemplate anonymous = new RequestTemplate();
+    feignConfig.userIdInterceptor().apply(anonymous);
+
+    assertNull(scheduled.headers().get("X-User-Id"));
+    assertNull(anonymous.headers().get("X-User-Id"));
+  }
+}
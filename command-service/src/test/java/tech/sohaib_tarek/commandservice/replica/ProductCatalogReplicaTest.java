@@ -0,0 +1,130 @@
+package tech.sohaib_tarek.commandservice.replica;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import tech.sohaib_tarek.commandservice.client.ProductClient;
+import tech.sohaib_tarek.commandservice.dto.ProductChangeFeedResponse;
+import tech.sohaib_tarek.commandservice.dto.ProductChangeResponse;
+import tech.sohaib_tarek.commandservice.dto.ProductPageResponse;
+import tech.sohaib_tarek.commandservice.dto.ProductResponse;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The replica loads a paged snapshot, then tails the change feed from a little before the
+ * snapshot's version; a gap in the versions holds the cursor until it is older than the gap
+ * timeout, and a replica that stopped syncing is no longer trusted.
+ */
+class ProductCatalogReplicaTest {
+
+  private static final int PAGE_SIZE = 2;
+
+  private final ProductClient productClient = mock(ProductClient.class);
+
+  private ProductCatalogReplica replica;
+
+  @BeforeEach
+  void createReplica() {
+    replica = new ProductCatalogReplica(productClient, new SimpleMeterRegistry());
+    ReflectionTestUtils.setField(replica, "enabled", true);
+    ReflectionTestUtils.setField(replica, "pageSize", PAGE_SIZE);
+    ReflectionTestUtils.setField(replica, "gapTimeoutMs", 5_000L);
+    ReflectionTestUtils.setField(replica, "bootstrapOverlap", 2L);
+    ReflectionTestUtils.setField(replica, "maxStalenessMs", 10_000L);
+  }
+
+  @Test
+  void snapshotIsLoadedAndTheFeedAppliedOnTop() {
+    when(productClient.getChanges(0L, 1)).thenReturn(feed(10L, false));
+    when(productClient.getProductsPage(null, PAGE_SIZE)).thenReturn(new ProductPageResponse(
+        List.of(product(1L, 5), product(2L, 5)), "next", true));
+    when(productClient.getProductsPage("next", PAGE_SIZE)).thenReturn(new ProductPageResponse(
+        List.of(product(3L, 5)), null, false));
+    LocalDateTime now = LocalDateTime.now();
+    when(productClient.getChanges(8L, PAGE_SIZE)).thenReturn(feed(10L, false,
+        change(9L, 1L, now, product(1L, 3)),
+        change(10L, 2L, now, null)));
+
+    replica.sync();
+
+    assertTrue(replica.isReady());
+    assertEquals(3, replica.get(1L).getStock());
+    assertNull(replica.get(2L));
+    assertEquals(5, replica.get(3L).getStock());
+    assertEquals(10L, ReflectionTestUtils.getField(replica, "version"));
+  }
+
+  @Test
+  void gapHoldsTheCursorUntilItIsOlderThanTheGapTimeout() {
+    when(productClient.getChanges(0L, 1)).thenReturn(feed(0L, false));
+    when(productClient.getProductsPage(null, PAGE_SIZE)).thenReturn(new ProductPageResponse(List.of(), null, false));
+    LocalDateTime now = LocalDateTime.now();
+    when(productClient.getChanges(0L, PAGE_SIZE)).thenReturn(feed(3L, false,
+        change(1L, 1L, now, product(1L, 5)),
+        change(3L, 3L, now, product(3L, 5))));
+
+    replica.sync();
+
+    // Version 2 may still commit, so the next poll reads past 1 again; what was read is applied anyway
+    assertEquals(1L, ReflectionTestUtils.getField(replica, "version"));
+    assertEquals(5, replica.get(3L).getStock());
+
+    when(productClient.getChanges(1L, PAGE_SIZE)).thenReturn(feed(3L, false,
+        change(3L, 3L, now.minusSeconds(10), product(3L, 4))));
+    replica.sync();
+
+    assertEquals(3L, ReflectionTestUtils.getField(replica, "version"));
+    assertEquals(4, replica.get(3L).getStock());
+  }
+
+  @Test
+  void replicaThatStoppedSyncingIsNotReady() {
+    when(productClient.getChanges(0L, 1)).thenReturn(feed(0L, false));
+    when(productClient.getProductsPage(null, PAGE_SIZE)).thenReturn(new ProductPageResponse(List.of(), null, false));
+    when(productClient.getChanges(0L, PAGE_SIZE)).thenReturn(feed(0L, false));
+    replica.sync();
+    assertTrue(replica.isReady());
+
+    ReflectionTestUtils.setField(replica, "lastSyncedAt", System.currentTimeMillis() - 60_000);
+
+    assertFalse(replica.isReady());
+  }
+
+  @Test
+  void disabledReplicaNeverCallsProductService() {
+    ReflectionTestUtils.setField(replica, "enabled", false);
+
+    replica.sync();
+
+    assertFalse(replica.isReady());
+    verify(productClient, never()).getChanges(any(), anyInt());
+  }
+
+  private static ProductChangeFeedResponse feed(Long latestVersion, boolean hasMore, ProductChangeResponse... changes) {
+    return new ProductChangeFeedResponse(List.of(changes), latestVersion, hasMore, false, LocalDateTime.now());
+  }
+
+  private static ProductChangeResponse change(Long version, Long productId, LocalDateTime changedAt,
+      ProductResponse product) {
+    return new ProductChangeResponse(version, productId, changedAt, product);
+  }
+
+  private static ProductResponse product(Long productId, int stock) {
+    return new ProductResponse(productId, "product", null, BigDecimal.TEN, stock);
+  }
+}
@@ -0,0 +1,98 @@
+package tech.sohaib_tarek.commandservice.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import tech.sohaib_tarek.commandservice.client.ProductLookup;
+import tech.sohaib_tarek.commandservice.dto.CommandItemRequest;
+import tech.sohaib_tarek.commandservice.dto.ProductResponse;
+import tech.sohaib_tarek.commandservice.exception.InsufficientStockException;
+import tech.sohaib_tarek.commandservice.exception.ProductNotFoundException;
+import tech.sohaib_tarek.commandservice.replica.ProductCatalogReplica;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The order pre-check reads the catalog replica first: a product it shows with enough stock
+ * passes without a call to product-service, while a short or unknown one is looked up live
+ * before the cart is turned away.
+ */
+class ProductValidatorTest {
+
+  private final ProductLookup productLookup = mock(ProductLookup.class);
+  private final ProductCatalogReplica catalogReplica = mock(ProductCatalogReplica.class);
+  private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+  private ProductValidator validator;
+
+  @BeforeEach
+  void createValidator() {
+    validator = new ProductValidator(productLookup, catalogReplica, executor);
+    ReflectionTestUtils.setField(validator, "chunkSize", 25);
+    ReflectionTestUtils.setField(validator, "maxConcurrency", 4);
+    ReflectionTestUtils.setField(validator, "timeoutMs", 3000L);
+    when(catalogReplica.isReady()).thenReturn(true);
+  }
+
+  @AfterEach
+  void stopExecutor() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  void productsTheReplicaCanCoverNeedNoRemoteCall() {
+    when(catalogReplica.get(1L)).thenReturn(product(1L, 5));
+
+    assertEquals(5, validator.validate(List.of(item(1L, 2), item(1L, 3))).get(1L).getStock());
+    verify(productLookup, never()).getProducts(any());
+  }
+
+  @Test
+  void shortStockInTheReplicaIsConfirmedLive() {
+    when(catalogReplica.get(1L)).thenReturn(product(1L, 1));
+    when(productLookup.getProducts(List.of(1L))).thenReturn(List.of(product(1L, 4)));
+
+    assertEquals(4, validator.validate(List.of(item(1L, 3))).get(1L).getStock());
+
+    when(productLookup.getProducts(List.of(1L))).thenReturn(List.of(product(1L, 2)));
+    assertThrows(InsufficientStockException.class, () -> validator.validate(List.of(item(1L, 3))));
+  }
+
+  @Test
+  void productsUnknownToTheReplicaAreLookedUp() {
+    when(productLookup.getProducts(List.of(2L))).thenReturn(List.of());
+
+    assertThrows(ProductNotFoundException.class, () -> validator.validate(List.of(item(2L, 1))));
+  }
+
+  @Test
+  void everyProductIsLookedUpWhileTheReplicaIsNotReady() {
+    when(catalogReplica.isReady()).thenReturn(false);
+    when(productLookup.getProducts(List.of(1L))).thenReturn(List.of(product(1L, 5)));
+
+    validator.validate(List.of(item(1L, 1)));
+
+    verify(catalogReplica, never()).get(any());
+    verify(productLookup).getProducts(List.of(1L));
+  }
+
+  private static CommandItemRequest item(Long productId, int quantity) {
+    return new CommandItemRequest(productId, quantity);
+  }
+
+  private static ProductResponse product(Long productId, int stock) {
+    return new ProductResponse(productId, "product", null, BigDecimal.TEN, stock);
+  }
+}
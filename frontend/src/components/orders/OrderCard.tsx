@@ -40,6 +40,8 @@ const getValidNextStatuses = (currentStatus: CommandStatus): CommandStatus[] =>
       return ['DELIVERED']; // No transitions allowed
     case 'CANCELLED':
       return ['CANCELLED']; // No transitions allowed
+    case 'FAILED':
+      return ['FAILED', 'CANCELLED']; // Stock could not be confirmed; can only be cancelled
     default:
       return [currentStatus];
   }
@@ -158,7 +160,7 @@ export function OrderCard({
               )}
 
               <div className="flex gap-2 ml-auto">
-                {onCancel && (order.status === 'PENDING' || order.status === 'CONFIRMED') && (
+                {onCancel && (order.status === 'PENDING' || order.status === 'CONFIRMED' || order.status === 'FAILED') && (
                   <Button
                     variant="outline"
                     size="sm"
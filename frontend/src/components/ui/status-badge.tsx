@@ -32,6 +32,10 @@ const statusConfig: Record<CommandStatus, { label: string; className: string }>
     label: 'Cancelled',
     className: 'bg-destructive/10 text-destructive border-destructive/20',
   },
+  FAILED: {
+    label: 'Stock unavailable',
+    className: 'bg-destructive/10 text-destructive border-destructive/20',
+  },
 };
 
 export function StatusBadge({ status, className }: StatusBadgeProps) {
@@ -52,7 +52,8 @@ export type CommandStatus =
   | "PROCESSING"
   | "SHIPPED"
   | "DELIVERED"
-  | "CANCELLED";
+  | "CANCELLED"
+  | "FAILED";
 
 export interface CommandResponse {
   commandId: number;
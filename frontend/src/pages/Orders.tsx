@@ -29,6 +29,7 @@ const statusOptions: (CommandStatus | 'ALL')[] = [
   'SHIPPED',
   'DELIVERED',
   'CANCELLED',
+  'FAILED',
 ];
 
 const sortOptions = [
@@ -29,7 +29,7 @@ public class CorsConfig {
     corsConfig.setAllowCredentials(true);
     
     // Expose headers
-    corsConfig.setExposedHeaders(Arrays.asList("Authorization", "X-Trace-Id"));
+    corsConfig.setExposedHeaders(Arrays.asList("Authorization", "X-Trace-Id", "Idempotent-Replayed"));
     
     // Cache preflight response for 1 hour
     corsConfig.setMaxAge(3600L);
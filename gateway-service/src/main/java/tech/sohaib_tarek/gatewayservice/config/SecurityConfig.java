@@ -31,8 +31,16 @@ public class SecurityConfig {
         .cors(ServerHttpSecurity.CorsSpec::disable)
         .csrf(ServerHttpSecurity.CsrfSpec::disable)
         .authorizeExchange(exchanges -> exchanges
-            // Public endpoints - anyone can access
             .pathMatchers(HttpMethod.OPTIONS, "/**").permitAll()
+
+            // Product reads that are not public - must come before the public GET /api/products/**
+            // Catalog change feed: command-service replicas call product-service directly
+            .pathMatchers(HttpMethod.GET, "/api/products/changes").hasRole("ADMIN")
+            // Stock history and the movement journal are back-office data
+            .pathMatchers(HttpMethod.GET, "/api/products/*/stock-as-of", "/api/products/*/stock-movements")
+                .hasRole("ADMIN")
+
+            // Public endpoints - anyone can access
             .pathMatchers(HttpMethod.GET, "/api/products").permitAll()
             .pathMatchers(HttpMethod.GET, "/api/products/**").permitAll()
             .pathMatchers("/api/auth/**").permitAll()
@@ -50,6 +58,7 @@ public class SecurityConfig {
             // Command/Order endpoints
             .pathMatchers(HttpMethod.GET, "/api/commands/**").authenticated()
             .pathMatchers(HttpMethod.POST, "/api/commands").hasRole("CLIENT")
+            .pathMatchers(HttpMethod.POST, "/api/commands/intake").hasRole("CLIENT")
             .pathMatchers(HttpMethod.POST, "/api/commands/*/cancel").hasAnyRole("ADMIN", "CLIENT")
             .pathMatchers(HttpMethod.PUT, "/api/commands/**").hasAnyRole("ADMIN", "CLIENT")
             .pathMatchers(HttpMethod.PATCH, "/api/commands/**").hasRole("ADMIN")
@@ -0,0 +1,42 @@
+package tech.sohaib_tarek.productservice.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * In-process product catalog cache.
+ *
+ * Entries are bounded by size and TTL; stats are recorded so Actuator exposes
+ * hit/miss/eviction counts under the cache.* metrics.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String PRODUCT_CACHE = "products";
+
+    @Value("${product.cache.maximum-size:10000}")
+    private long maximumSize;
+
+    @Value("${product.cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(PRODUCT_CACHE);
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats());
+        // Unknown product IDs are never cached; they keep going to the database
+        cacheManager.setAllowNullValues(false);
+        return cacheManager;
+    }
+}
@@ -1,16 +1,33 @@
 package tech.sohaib_tarek.productservice.controller;
 
 import jakarta.validation.Valid;
+import tech.sohaib_tarek.productservice.dto.CartReservationResponse;
+import tech.sohaib_tarek.productservice.dto.ProductChangeFeedResponse;
+import tech.sohaib_tarek.productservice.dto.ProductPageResponse;
 import tech.sohaib_tarek.productservice.dto.ProductRequest;
 import tech.sohaib_tarek.productservice.dto.ProductResponse;
+import tech.sohaib_tarek.productservice.dto.StockAsOfResponse;
+import tech.sohaib_tarek.productservice.dto.StockMovementResponse;
+import tech.sohaib_tarek.productservice.dto.StockReservationRequest;
+import tech.sohaib_tarek.productservice.dto.StockOperationRequest;
+import tech.sohaib_tarek.productservice.dto.StockOperationResult;
+import tech.sohaib_tarek.productservice.dto.StockReservationResponse;
 import tech.sohaib_tarek.productservice.dto.StockUpdateRequest;
+import tech.sohaib_tarek.productservice.enums.StockMovementReason;
+import tech.sohaib_tarek.productservice.service.IdempotencyStore;
+import tech.sohaib_tarek.productservice.service.ProductChangeService;
 import tech.sohaib_tarek.productservice.service.ProductService;
+import tech.sohaib_tarek.productservice.service.StockJournalService;
+import tech.sohaib_tarek.productservice.service.StockOperationService;
+import tech.sohaib_tarek.productservice.service.StockReservationService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -20,9 +37,21 @@ public class ProductController {
     private static final Logger log = LoggerFactory.getLogger(ProductController.class);
 
     private final ProductService productService;
+    private final StockReservationService reservationService;
+    private final StockOperationService stockOperationService;
+    private final IdempotencyStore idempotencyStore;
+    private final ProductChangeService productChangeService;
+    private final StockJournalService stockJournalService;
 
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService, StockReservationService reservationService,
+                             StockOperationService stockOperationService, IdempotencyStore idempotencyStore,
+                             ProductChangeService productChangeService, StockJournalService stockJournalService) {
         this.productService = productService;
+        this.reservationService = reservationService;
+        this.stockOperationService = stockOperationService;
+        this.idempotencyStore = idempotencyStore;
+        this.productChangeService = productChangeService;
+        this.stockJournalService = stockJournalService;
     }
 
     @PostMapping
@@ -46,6 +75,53 @@ public class ProductController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Paginated product listing - Pass the returned nextCursor to fetch the following page
+     */
+    @GetMapping("/page")
+    public ResponseEntity<ProductPageResponse> getProductsPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "id") String sort,
+            @RequestParam(defaultValue = "asc") String direction) {
+        log.info("Received request to get products page (sort: {} {}, size: {})", sort, direction, size);
+        ProductPageResponse response = productService.getProductsPage(cursor, size, sort, direction);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<List<ProductResponse>> searchProducts(
+            @RequestParam("q") String query,
+            @RequestParam(required = false) Integer limit) {
+        log.info("Received request to search products: {}", query);
+        List<ProductResponse> response = productService.searchProducts(query, limit);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Product change feed - Changes after the given version, oldest first, with the current product state
+     * Used by Command Service to keep its local catalog replica up to date
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<ProductChangeFeedResponse> getChanges(
+            @RequestParam(defaultValue = "0") Long since,
+            @RequestParam(required = false) Integer limit) {
+        log.debug("Received request to get product changes since version {}", since);
+        ProductChangeFeedResponse response = productChangeService.getChangesSince(since, limit);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Fetch several products in one call - Used by Command Service to validate a whole cart
+     * Unknown IDs are simply absent from the result; more than product.batch.max-size IDs is a 400
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<ProductResponse>> getProductsByIds(@RequestBody List<Long> productIds) {
+        log.info("Received request to get {} products by ID", productIds.size());
+        List<ProductResponse> response = productService.getProductsByIds(productIds);
+        return ResponseEntity.ok(response);
+    }
+
     @PutMapping("/{productId}")
     public ResponseEntity<ProductResponse> updateProduct(
             @PathVariable Long productId,
@@ -62,6 +138,19 @@ public class ProductController {
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * Stock striping for hot products - Spreads the stock over N bucket rows (0 moves it back into the product row)
+     * so concurrent checkouts of the same product stop queueing on one row lock
+     */
+    @PutMapping("/{productId}/stock-striping")
+    public ResponseEntity<ProductResponse> configureStockStriping(
+            @PathVariable Long productId,
+            @RequestParam int buckets) {
+        log.info("Received request to stripe stock of product ID: {} over {} buckets", productId, buckets);
+        ProductResponse response = productService.configureStockStriping(productId, buckets);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/{productId}/check-stock")
     public ResponseEntity<Boolean> checkStock(
             @PathVariable Long productId,
@@ -71,22 +160,101 @@ public class ProductController {
         return ResponseEntity.ok(available);
     }
 
+    /**
+     * Stock of a product at a point in time (now by default), from the latest stock snapshot
+     * before it plus the movements after the snapshot
+     */
+    @GetMapping("/{productId}/stock-as-of")
+    public ResponseEntity<StockAsOfResponse> getStockAsOf(
+            @PathVariable Long productId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        log.info("Received request for stock of product ID: {} as of {}", productId, at);
+        StockAsOfResponse response = stockJournalService.getStockAsOf(productId, at);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/{productId}/stock-movements")
+    public ResponseEntity<List<StockMovementResponse>> getStockMovements(
+            @PathVariable Long productId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Integer limit) {
+        log.info("Received request for stock movements of product ID: {} in ({}, {}]", productId, from, to);
+        List<StockMovementResponse> response = stockJournalService.getMovements(productId, from, to, limit);
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Reduce product stock - Called by Command Service when orders are placed
      * Transactional operation to ensure data consistency across order creation
      */
     @PostMapping("/reduce-stock")
-    public ResponseEntity<Void> reduceStock(@Valid @RequestBody List<StockUpdateRequest> stockUpdates) {
+    public ResponseEntity<Void> reduceStock(
+            @RequestHeader(value = IdempotencyStore.KEY_HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody List<StockUpdateRequest> stockUpdates) {
         log.info("Received request to reduce stock for {} products", stockUpdates.size());
-        productService.reduceStock(stockUpdates);
-        return ResponseEntity.ok().build();
+        return idempotencyStore.execute("reduce-stock", idempotencyKey, stockUpdates, Void.class, () -> {
+            productService.reduceStock(stockUpdates, StockMovementReason.DIRECT_REDUCTION, idempotencyKey);
+            return ResponseEntity.ok().build();
+        });
     }
 
     @PostMapping("/restore-stock")
-    public ResponseEntity<Void> restoreStock(@Valid @RequestBody List<StockUpdateRequest> stockUpdates) {
+    public ResponseEntity<Void> restoreStock(
+            @RequestHeader(value = IdempotencyStore.KEY_HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody List<StockUpdateRequest> stockUpdates) {
         log.info("Received request to restore stock for {} products", stockUpdates.size());
-        productService.restoreStock(stockUpdates);
-        return ResponseEntity.ok().build();
+        return idempotencyStore.execute("restore-stock", idempotencyKey, stockUpdates, Void.class, () -> {
+            productService.restoreStock(stockUpdates, StockMovementReason.DIRECT_RESTORE, idempotencyKey);
+            return ResponseEntity.ok().build();
+        });
+    }
+
+    /**
+     * Apply stock operations relayed from Command Service's outbox - Idempotent per operationId,
+     * each operation commits on its own and gets its own result
+     */
+    @PostMapping("/stock-operations")
+    public ResponseEntity<List<StockOperationResult>> applyStockOperations(
+            @Valid @RequestBody List<StockOperationRequest> operations) {
+        log.info("Received {} relayed stock operations", operations.size());
+        List<StockOperationResult> response = stockOperationService.apply(operations);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Two-phase stock reservation - Stock is held until the order is confirmed,
+     * released explicitly, or the reservation expires
+     */
+    @PostMapping("/reservations")
+    public ResponseEntity<StockReservationResponse> reserveStock(@Valid @RequestBody StockReservationRequest request) {
+        log.info("Received request to reserve stock for {} products", request.getItems().size());
+        StockReservationResponse response = reservationService.reserve(request);
+        return new ResponseEntity<>(response, HttpStatus.CREATED);
+    }
+
+    /**
+     * Validate, price and reserve a whole cart in one transaction - Returns authoritative unit prices
+     * and a per-line result; nothing is held unless every line can be served
+     */
+    @PostMapping("/reservations/cart")
+    public ResponseEntity<CartReservationResponse> reserveCart(@Valid @RequestBody StockReservationRequest request) {
+        log.info("Received request to price and reserve cart with {} lines", request.getItems().size());
+        CartReservationResponse response = reservationService.reserveCart(request);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/reservations/{reservationId}/confirm")
+    public ResponseEntity<StockReservationResponse> confirmReservation(@PathVariable String reservationId) {
+        log.info("Received request to confirm reservation: {}", reservationId);
+        StockReservationResponse response = reservationService.confirm(reservationId);
+        return ResponseEntity.ok(response);
     }
-}
 
+    @PostMapping("/reservations/{reservationId}/release")
+    public ResponseEntity<StockReservationResponse> releaseReservation(@PathVariable String reservationId) {
+        log.info("Received request to release reservation: {}", reservationId);
+        StockReservationResponse response = reservationService.release(reservationId);
+        return ResponseEntity.ok(response);
+    }
+}
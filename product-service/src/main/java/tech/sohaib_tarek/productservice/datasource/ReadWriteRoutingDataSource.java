@@ -0,0 +1,75 @@
+package tech.sohaib_tarek.productservice.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Sends the connections of read-only transactions to a replica and everything else to the
+ * primary.
+ * <p>
+ * A read goes to the primary instead when its user wrote within the read-your-writes window, or
+ * when no replica is current enough. The routing decision is made when a connection is first
+ * used, which is why this data source sits behind a LazyConnectionDataSourceProxy: by then the
+ * transaction's read-only flag is known.
+ * <p>
+ * The datasource.routing.connections counter is tagged with the chosen pool and the reason
+ * (write, read, read-your-writes, fallback); pool usage itself is in hikaricp.connections.*.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    public static final String PRIMARY = "primary";
+
+    private final HikariDataSource primary;
+    private final ReplicaLagMonitor lagMonitor;
+    private final ReadYourWritesTracker readYourWrites;
+    private final MeterRegistry meterRegistry;
+
+    public ReadWriteRoutingDataSource(HikariDataSource primary, ReplicaLagMonitor lagMonitor,
+                                      ReadYourWritesTracker readYourWrites, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.lagMonitor = lagMonitor;
+        this.readYourWrites = readYourWrites;
+        this.meterRegistry = meterRegistry;
+        Map<Object, Object> targets = new HashMap<>(lagMonitor.getPools());
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                // The window starts once the write is visible on the primary
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        readYourWrites.recordWrite();
+                    }
+                });
+            }
+            return route(PRIMARY, "write");
+        }
+        if (readYourWrites.isRecentWriter()) {
+            return route(PRIMARY, "read-your-writes");
+        }
+        String replica = lagMonitor.nextReplica();
+        return replica != null ? route(replica, "read") : route(PRIMARY, "fallback");
+    }
+
+    @Override
+    public void close() {
+        primary.close();
+    }
+
+    private String route(String pool, String reason) {
+        meterRegistry.counter("datasource.routing.connections", "pool", pool, "reason", reason).increment();
+        return pool;
+    }
+}
@@ -0,0 +1,53 @@
+package tech.sohaib_tarek.productservice.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.MDC;
+
+import java.time.Duration;
+
+/**
+ * Remembers the users who committed a write in the last few seconds, so that their own reads go
+ * to the primary until the replicas have caught up with it. Users are identified by the userId
+ * the access logging filter puts in the MDC (X-User-Id from the gateway); anonymous requests are
+ * not tracked. A zero window turns the guarantee off.
+ * <p>
+ * In this service most writes come from command-service, which forwards the X-User-Id of the
+ * customer it is calling for, so a customer's catalog reads right after their order's
+ * reservation come from the primary. The stock operations the outbox relay sends from a
+ * scheduler thread carry no user and are not tracked: a confirmation or release may show on the
+ * replicas up to max-lag-seconds late. Reservations themselves always run in read-write
+ * transactions on the primary, so they are never decided on replica data.
+ */
+public class ReadYourWritesTracker {
+
+    private static final String ANONYMOUS = "anonymous";
+
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReadYourWritesTracker(Duration window, long maximumSize) {
+        this.recentWriters = window.isZero()
+                ? null
+                : Caffeine.newBuilder()
+                        .maximumSize(maximumSize)
+                        .expireAfterWrite(window)
+                        .build();
+    }
+
+    public void recordWrite() {
+        String userId = currentUser();
+        if (recentWriters != null && userId != null) {
+            recentWriters.put(userId, Boolean.TRUE);
+        }
+    }
+
+    public boolean isRecentWriter() {
+        String userId = currentUser();
+        return recentWriters != null && userId != null && recentWriters.getIfPresent(userId) != null;
+    }
+
+    private static String currentUser() {
+        String userId = MDC.get("userId");
+        return userId == null || ANONYMOUS.equals(userId) ? null : userId;
+    }
+}
@@ -0,0 +1,116 @@
+package tech.sohaib_tarek.productservice.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Owns the replica pools and keeps track of how far each replica is behind the primary.
+ * <p>
+ * Every check reads the replication status of each replica. A replica is offered to read-only
+ * transactions while its lag is at most max-lag-seconds; replicas that are too far behind, do not
+ * replicate or cannot be reached are skipped until a later check finds them current again.
+ * Until the first check completes no replica is offered, so reads start on the primary.
+ */
+public class ReplicaLagMonitor implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private final Map<String, HikariDataSource> pools;
+    private final Map<String, JdbcTemplate> probes = new LinkedHashMap<>();
+    // Seconds behind the primary, NaN while unknown, unreachable or not replicating
+    private final Map<String, Double> lagSeconds = new ConcurrentHashMap<>();
+    private final long maxLagSeconds;
+    private final AtomicInteger next = new AtomicInteger();
+
+    private volatile List<String> available = List.of();
+
+    public ReplicaLagMonitor(Map<String, HikariDataSource> pools, long maxLagSeconds, MeterRegistry meterRegistry) {
+        this.pools = pools;
+        this.maxLagSeconds = maxLagSeconds;
+        pools.forEach((name, pool) -> {
+            probes.put(name, new JdbcTemplate(pool));
+            lagSeconds.put(name, Double.NaN);
+            Gauge.builder("datasource.replica.lag.seconds", lagSeconds, lags -> lags.get(name))
+                    .description("Replication lag of the replica, NaN when unknown")
+                    .tag("pool", name)
+                    .register(meterRegistry);
+        });
+    }
+
+    public Map<String, HikariDataSource> getPools() {
+        return pools;
+    }
+
+    /**
+     * Next replica current enough to serve a read, round-robin; null when there is none.
+     */
+    public String nextReplica() {
+        List<String> current = available;
+        if (current.isEmpty()) {
+            return null;
+        }
+        return current.get(Math.floorMod(next.getAndIncrement(), current.size()));
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.routing.lag-check-interval-ms:1000}")
+    public void checkLag() {
+        List<String> current = new ArrayList<>();
+        probes.forEach((name, probe) -> {
+            double lag;
+            try {
+                lag = measure(probe);
+            } catch (DataAccessException e) {
+                lag = Double.NaN;
+                log.warn("Replica {} is unreachable: {}", name, e.getMessage());
+            }
+            lagSeconds.put(name, lag);
+            if (!Double.isNaN(lag) && lag <= maxLagSeconds) {
+                current.add(name);
+            }
+        });
+        if (!current.equals(available)) {
+            log.info("Replicas serving reads: {}", current);
+        }
+        available = List.copyOf(current);
+    }
+
+    @Override
+    public void close() {
+        pools.values().forEach(HikariDataSource::close);
+    }
+
+    private double measure(JdbcTemplate probe) {
+        try {
+            return readLag(probe, "SHOW REPLICA STATUS", "Seconds_Behind_Source");
+        } catch (DataAccessException e) {
+            // Servers before MySQL 8.0.22 only know the old statement
+            return readLag(probe, "SHOW SLAVE STATUS", "Seconds_Behind_Master");
+        }
+    }
+
+    private double readLag(JdbcTemplate probe, String sql, String column) {
+        Double lag = probe.query(sql, rs -> {
+            if (!rs.next()) {
+                // No replication status at all, e.g. a proxy in front of the replicas: taken as current
+                return 0.0;
+            }
+            long seconds = rs.getLong(column);
+            // NULL means the replication threads are not running
+            return rs.wasNull() ? Double.NaN : (double) seconds;
+        });
+        return lag == null ? Double.NaN : lag;
+    }
+}
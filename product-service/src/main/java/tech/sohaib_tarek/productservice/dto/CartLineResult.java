@@ -0,0 +1,123 @@
+package tech.sohaib_tarek.productservice.dto;
+
+import tech.sohaib_tarek.productservice.enums.CartLineStatus;
+
+import java.math.BigDecimal;
+
+public class CartLineResult {
+
+    private Long productId;
+    private String name;
+    private Integer quantity;
+    private BigDecimal unitPrice;
+    private Integer availableStock;
+    private CartLineStatus status;
+
+    public CartLineResult() {
+    }
+
+    public CartLineResult(Long productId, String name, Integer quantity, BigDecimal unitPrice,
+                          Integer availableStock, CartLineStatus status) {
+        this.productId = productId;
+        this.name = name;
+        this.quantity = quantity;
+        this.unitPrice = unitPrice;
+        this.availableStock = availableStock;
+        this.status = status;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    public BigDecimal getUnitPrice() {
+        return unitPrice;
+    }
+
+    public void setUnitPrice(BigDecimal unitPrice) {
+        this.unitPrice = unitPrice;
+    }
+
+    public Integer getAvailableStock() {
+        return availableStock;
+    }
+
+    public void setAvailableStock(Integer availableStock) {
+        this.availableStock = availableStock;
+    }
+
+    public CartLineStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(CartLineStatus status) {
+        this.status = status;
+    }
+
+    public static CartLineResultBuilder builder() {
+        return new CartLineResultBuilder();
+    }
+
+    public static class CartLineResultBuilder {
+        private Long productId;
+        private String name;
+        private Integer quantity;
+        private BigDecimal unitPrice;
+        private Integer availableStock;
+        private CartLineStatus status;
+
+        public CartLineResultBuilder productId(Long productId) {
+            this.productId = productId;
+            return this;
+        }
+
+        public CartLineResultBuilder name(String name) {
+            this.name = name;
+            return this;
+        }
+
+        public CartLineResultBuilder quantity(Integer quantity) {
+            this.quantity = quantity;
+            return this;
+        }
+
+        public CartLineResultBuilder unitPrice(BigDecimal unitPrice) {
+            this.unitPrice = unitPrice;
+            return this;
+        }
+
+        public CartLineResultBuilder availableStock(Integer availableStock) {
+            this.availableStock = availableStock;
+            return this;
+        }
+
+        public CartLineResultBuilder status(CartLineStatus status) {
+            this.status = status;
+            return this;
+        }
+
+        public CartLineResult build() {
+            return new CartLineResult(productId, name, quantity, unitPrice, availableStock, status);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package tech.sohaib_tarek.productservice.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class CartReservationResponse {
+
+    private boolean reserved;
+    private String reservationId;
+    private LocalDateTime expiresAt;
+    private BigDecimal totalPrice;
+    private List<CartLineResult> lines;
+
+    public CartReservationResponse() {
+    }
+
+    public CartReservationResponse(boolean reserved, String reservationId, LocalDateTime expiresAt,
+                                   BigDecimal totalPrice, List<CartLineResult> lines) {
+        this.reserved = reserved;
+        this.reservationId = reservationId;
+        this.expiresAt = expiresAt;
+        this.totalPrice = totalPrice;
+        this.lines = lines;
+    }
+
+    public boolean isReserved() {
+        return reserved;
+    }
+
+    public void setReserved(boolean reserved) {
+        this.reserved = reserved;
+    }
+
+    public String getReservationId() {
+        return reservationId;
+    }
+
+    public void setReservationId(String reservationId) {
+        this.reservationId = reservationId;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    public BigDecimal getTotalPrice() {
+        return totalPrice;
+    }
+
+    public void setTotalPrice(BigDecimal totalPrice) {
+        this.totalPrice = totalPrice;
+    }
+
+    public List<CartLineResult> getLines() {
+        return lines;
+    }
+
+    public void setLines(List<CartLineResult> lines) {
+        this.lines = lines;
+    }
+
+    public static CartReservationResponseBuilder builder() {
+        return new CartReservationResponseBuilder();
+    }
+
+    public static class CartReservationResponseBuilder {
+        private boolean reserved;
+        private String reservationId;
+        private LocalDateTime expiresAt;
+        private BigDecimal totalPrice;
+        private List<CartLineResult> lines;
+
+        public CartReservationResponseBuilder reserved(boolean reserved) {
+            this.reserved = reserved;
+            return this;
+        }
+
+        public CartReservationResponseBuilder reservationId(String reservationId) {
+            this.reservationId = reservationId;
+            return this;
+        }
+
+        public CartReservationResponseBuilder expiresAt(LocalDateTime expiresAt) {
+            this.expiresAt = expiresAt;
+            return this;
+        }
+
+        public CartReservationResponseBuilder totalPrice(BigDecimal totalPrice) {
+            this.totalPrice = totalPrice;
+            return this;
+        }
+
+        public CartReservationResponseBuilder lines(List<CartLineResult> lines) {
+            this.lines = lines;
+            return this;
+        }
+
+        public CartReservationResponse build() {
+            return new CartReservationResponse(reserved, reservationId, expiresAt, totalPrice, lines);
+        }
+    }
+}
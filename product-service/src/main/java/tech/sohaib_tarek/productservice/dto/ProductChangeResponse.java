@@ -0,0 +1,89 @@
+package tech.sohaib_tarek.productservice.dto;
+
+import java.time.LocalDateTime;
+
+public class ProductChangeResponse {
+
+    private Long version;
+    private Long productId;
+    private LocalDateTime changedAt;
+    // Current state of the product, null once it has been deleted
+    private ProductResponse product;
+
+    public ProductChangeResponse() {
+    }
+
+    public ProductChangeResponse(Long version, Long productId, LocalDateTime changedAt, ProductResponse product) {
+        this.version = version;
+        this.productId = productId;
+        this.changedAt = changedAt;
+        this.product = product;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+
+    public void setChangedAt(LocalDateTime changedAt) {
+        this.changedAt = changedAt;
+    }
+
+    public ProductResponse getProduct() {
+        return product;
+    }
+
+    public void setProduct(ProductResponse product) {
+        this.product = product;
+    }
+
+    public static ProductChangeResponseBuilder builder() {
+        return new ProductChangeResponseBuilder();
+    }
+
+    public static class ProductChangeResponseBuilder {
+        private Long version;
+        private Long productId;
+        private LocalDateTime changedAt;
+        private ProductResponse product;
+
+        public ProductChangeResponseBuilder version(Long version) {
+            this.version = version;
+            return this;
+        }
+
+        public ProductChangeResponseBuilder productId(Long productId) {
+            this.productId = productId;
+            return this;
+        }
+
+        public ProductChangeResponseBuilder changedAt(LocalDateTime changedAt) {
+            this.changedAt = changedAt;
+            return this;
+        }
+
+        public ProductChangeResponseBuilder product(ProductResponse product) {
+            this.product = product;
+            return this;
+        }
+
+        public ProductChangeResponse build() {
+            return new ProductChangeResponse(version, productId, changedAt, product);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package tech.sohaib_tarek.productservice.dto;
+
+import java.util.List;
+
+public class ProductPageResponse {
+
+    private List<ProductResponse> items;
+    private String nextCursor;
+    private boolean hasNext;
+
+    public ProductPageResponse() {
+    }
+
+    public ProductPageResponse(List<ProductResponse> items, String nextCursor, boolean hasNext) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.hasNext = hasNext;
+    }
+
+    public List<ProductResponse> getItems() {
+        return items;
+    }
+
+    public void setItems(List<ProductResponse> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public void setHasNext(boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+
+    public static ProductPageResponseBuilder builder() {
+        return new ProductPageResponseBuilder();
+    }
+
+    public static class ProductPageResponseBuilder {
+        private List<ProductResponse> items;
+        private String nextCursor;
+        private boolean hasNext;
+
+        public ProductPageResponseBuilder items(List<ProductResponse> items) {
+            this.items = items;
+            return this;
+        }
+
+        public ProductPageResponseBuilder nextCursor(String nextCursor) {
+            this.nextCursor = nextCursor;
+            return this;
+        }
+
+        public ProductPageResponseBuilder hasNext(boolean hasNext) {
+            this.hasNext = hasNext;
+            return this;
+        }
+
+        public ProductPageResponse build() {
+            return new ProductPageResponse(items, nextCursor, hasNext);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package tech.sohaib_tarek.productservice.dto;
+
+import java.time.LocalDateTime;
+
+public class StockAsOfResponse {
+
+    private Long productId;
+    private LocalDateTime at;
+    private Integer stock;
+    // Snapshot the answer started from, null when it was replayed from the first movement
+    private LocalDateTime snapshotAt;
+    private Long movementsReplayed;
+
+    public StockAsOfResponse() {
+    }
+
+    public StockAsOfResponse(Long productId, LocalDateTime at, Integer stock, LocalDateTime snapshotAt, Long movementsReplayed) {
+        this.productId = productId;
+        this.at = at;
+        this.stock = stock;
+        this.snapshotAt = snapshotAt;
+        this.movementsReplayed = movementsReplayed;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public LocalDateTime getAt() {
+        return at;
+    }
+
+    public void setAt(LocalDateTime at) {
+        this.at = at;
+    }
+
+    public Integer getStock() {
+        return stock;
+    }
+
+    public void setStock(Integer stock) {
+        this.stock = stock;
+    }
+
+    public LocalDateTime getSnapshotAt() {
+        return snapshotAt;
+    }
+
+    public void setSnapshotAt(LocalDateTime snapshotAt) {
+        this.snapshotAt = snapshotAt;
+    }
+
+    public Long getMovementsReplayed() {
+        return movementsReplayed;
+    }
+
+    public void setMovementsReplayed(Long movementsReplayed) {
+        this.movementsReplayed = movementsReplayed;
+    }
+
+    public static StockAsOfResponseBuilder builder() {
+        return new StockAsOfResponseBuilder();
+    }
+
+    public static class StockAsOfResponseBuilder {
+        private Long productId;
+        private LocalDateTime at;
+        private Integer stock;
+        private LocalDateTime snapshotAt;
+        private Long movementsReplayed;
+
+        public StockAsOfResponseBuilder productId(Long productId) {
+            this.productId = productId;
+            return this;
+        }
+
+        public StockAsOfResponseBuilder at(LocalDateTime at) {
+            this.at = at;
+            return this;
+        }
+
+        public StockAsOfResponseBuilder stock(Integer stock) {
+            this.stock = stock;
+            return this;
+        }
+
+        public StockAsOfResponseBuilder snapshotAt(LocalDateTime snapshotAt) {
+            this.snapshotAt = snapshotAt;
+            return this;
+        }
+
+        public StockAsOfResponseBuilder movementsReplayed(Long movementsReplayed) {
+            this.movementsReplayed = movementsReplayed;
+            return this;
+        }
+
+        public StockAsOfResponse build() {
+            return new StockAsOfResponse(productId, at, stock, snapshotAt, movementsReplayed);
+        }
+    }
+}
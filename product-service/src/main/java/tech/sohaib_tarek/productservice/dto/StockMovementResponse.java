@@ -0,0 +1,122 @@
+package tech.sohaib_tarek.productservice.dto;
+
+import tech.sohaib_tarek.productservice.enums.StockMovementReason;
+
+import java.time.LocalDateTime;
+
+public class StockMovementResponse {
+
+    private Long id;
+    private Long productId;
+    private Integer delta;
+    private StockMovementReason reason;
+    private String orderRef;
+    private LocalDateTime createdAt;
+
+    public StockMovementResponse() {
+    }
+
+    public StockMovementResponse(Long id, Long productId, Integer delta, StockMovementReason reason, String orderRef, LocalDateTime createdAt) {
+        this.id = id;
+        this.productId = productId;
+        this.delta = delta;
+        this.reason = reason;
+        this.orderRef = orderRef;
+        this.createdAt = createdAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public Integer getDelta() {
+        return delta;
+    }
+
+    public void setDelta(Integer delta) {
+        this.delta = delta;
+    }
+
+    public StockMovementReason getReason() {
+        return reason;
+    }
+
+    public void setReason(StockMovementReason reason) {
+        this.reason = reason;
+    }
+
+    public String getOrderRef() {
+        return orderRef;
+    }
+
+    public void setOrderRef(String orderRef) {
+        this.orderRef = orderRef;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public static StockMovementResponseBuilder builder() {
+        return new StockMovementResponseBuilder();
+    }
+
+    public static class StockMovementResponseBuilder {
+        private Long id;
+        private Long productId;
+        private Integer delta;
+        private StockMovementReason reason;
+        private String orderRef;
+        private LocalDateTime createdAt;
+
+        public StockMovementResponseBuilder id(Long id) {
+            this.id = id;
+            return this;
+        }
+
+        public StockMovementResponseBuilder productId(Long productId) {
+            this.productId = productId;
+            return this;
+        }
+
+        public StockMovementResponseBuilder delta(Integer delta) {
+            this.delta = delta;
+            return this;
+        }
+
+        public StockMovementResponseBuilder reason(StockMovementReason reason) {
+            this.reason = reason;
+            return this;
+        }
+
+        public StockMovementResponseBuilder orderRef(String orderRef) {
+            this.orderRef = orderRef;
+            return this;
+        }
+
+        public StockMovementResponseBuilder createdAt(LocalDateTime createdAt) {
+            this.createdAt = createdAt;
+            return this;
+        }
+
+        public StockMovementResponse build() {
+            return new StockMovementResponse(id, productId, delta, reason, orderRef, createdAt);
+        }
+    }
+}
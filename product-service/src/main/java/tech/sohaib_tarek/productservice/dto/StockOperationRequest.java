@@ -0,0 +1,82 @@
+package tech.sohaib_tarek.productservice.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import tech.sohaib_tarek.productservice.enums.StockOperationType;
+
+import java.util.List;
+
+/**
+ * One stock side effect relayed from the order outbox. RESTORE_STOCK carries items,
+ * RELEASE_RESERVATIONS the reservationIds of one order, the other reservation operations a
+ * reservationId.
+ */
+public class StockOperationRequest {
+
+    @NotBlank(message = "Operation ID is required")
+    @Size(max = 36, message = "Operation ID must be at most 36 characters")
+    private String operationId;
+
+    @NotNull(message = "Operation type is required")
+    private StockOperationType type;
+
+    private String reservationId;
+
+    private List<String> reservationIds;
+
+    @Valid
+    private List<StockUpdateRequest> items;
+
+    public StockOperationRequest() {
+    }
+
+    public StockOperationRequest(String operationId, StockOperationType type, String reservationId,
+                                 List<StockUpdateRequest> items) {
+        this.operationId = operationId;
+        this.type = type;
+        this.reservationId = reservationId;
+        this.items = items;
+    }
+
+    public String getOperationId() {
+        return operationId;
+    }
+
+    public void setOperationId(String operationId) {
+        this.operationId = operationId;
+    }
+
+    public StockOperationType getType() {
+        return type;
+    }
+
+    public void setType(StockOperationType type) {
+        this.type = type;
+    }
+
+    public String getReservationId() {
+        return reservationId;
+    }
+
+    public void setReservationId(String reservationId) {
+        this.reservationId = reservationId;
+    }
+
+    public List<String> getReservationIds() {
+        return reservationIds;
+    }
+
+    public void setReservationIds(List<String> reservationIds) {
+        this.reservationIds = reservationIds;
+    }
+
+    public List<StockUpdateRequest> getItems() {
+        return items;
+    }
+
+    public void setItems(List<StockUpdateRequest> items) {
+        this.items = items;
+    }
+}
@@ -0,0 +1,72 @@
+package tech.sohaib_tarek.productservice.dto;
+
+import tech.sohaib_tarek.productservice.enums.StockOperationStatus;
+
+public class StockOperationResult {
+
+    private String operationId;
+    private StockOperationStatus status;
+    private String message;
+
+    public StockOperationResult() {
+    }
+
+    public StockOperationResult(String operationId, StockOperationStatus status, String message) {
+        this.operationId = operationId;
+        this.status = status;
+        this.message = message;
+    }
+
+    public String getOperationId() {
+        return operationId;
+    }
+
+    public void setOperationId(String operationId) {
+        this.operationId = operationId;
+    }
+
+    public StockOperationStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(StockOperationStatus status) {
+        this.status = status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public static StockOperationResultBuilder builder() {
+        return new StockOperationResultBuilder();
+    }
+
+    public static class StockOperationResultBuilder {
+        private String operationId;
+        private StockOperationStatus status;
+        private String message;
+
+        public StockOperationResultBuilder operationId(String operationId) {
+            this.operationId = operationId;
+            return this;
+        }
+
+        public StockOperationResultBuilder status(StockOperationStatus status) {
+            this.status = status;
+            return this;
+        }
+
+        public StockOperationResultBuilder message(String message) {
+            this.message = message;
+            return this;
+        }
+
+        public StockOperationResult build() {
+            return new StockOperationResult(operationId, status, message);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package tech.sohaib_tarek.productservice.dto;
+
+import tech.sohaib_tarek.productservice.enums.ReservationStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class StockReservationResponse {
+
+    private String reservationId;
+    private ReservationStatus status;
+    private LocalDateTime expiresAt;
+    private List<StockUpdateRequest> items;
+
+    public StockReservationResponse() {
+    }
+
+    public StockReservationResponse(String reservationId, ReservationStatus status, LocalDateTime expiresAt,
+                                    List<StockUpdateRequest> items) {
+        this.reservationId = reservationId;
+        this.status = status;
+        this.expiresAt = expiresAt;
+        this.items = items;
+    }
+
+    public String getReservationId() {
+        return reservationId;
+    }
+
+    public void setReservationId(String reservationId) {
+        this.reservationId = reservationId;
+    }
+
+    public ReservationStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(ReservationStatus status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    public List<StockUpdateRequest> getItems() {
+        return items;
+    }
+
+    public void setItems(List<StockUpdateRequest> items) {
+        this.items = items;
+    }
+
+    public static StockReservationResponseBuilder builder() {
+        return new StockReservationResponseBuilder();
+    }
+
+    public static class StockReservationResponseBuilder {
+        private String reservationId;
+        private ReservationStatus status;
+        private LocalDateTime expiresAt;
+        private List<StockUpdateRequest> items;
+
+        public StockReservationResponseBuilder reservationId(String reservationId) {
+            this.reservationId = reservationId;
+            return this;
+        }
+
+        public StockReservationResponseBuilder status(ReservationStatus status) {
+            this.status = status;
+            return this;
+        }
+
+        public StockReservationResponseBuilder expiresAt(LocalDateTime expiresAt) {
+            this.expiresAt = expiresAt;
+            return this;
+        }
+
+        public StockReservationResponseBuilder items(List<StockUpdateRequest> items) {
+            this.items = items;
+            return this;
+        }
+
+        public StockReservationResponse build() {
+            return new StockReservationResponse(reservationId, status, expiresAt, items);
+        }
+    }
+}
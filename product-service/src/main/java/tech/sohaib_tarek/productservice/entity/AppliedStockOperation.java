@@ -0,0 +1,59 @@
+package tech.sohaib_tarek.productservice.entity;
+
+import jakarta.persistence.*;
+import tech.sohaib_tarek.productservice.enums.StockOperationType;
+
+import java.time.LocalDateTime;
+
+/**
+ * Marker for a stock operation delivered by another service. It is written in the same
+ * transaction as the stock change, so a redelivered operation ID is recognised and skipped.
+ */
+@Entity
+@Table(name = "applied_stock_operations")
+public class AppliedStockOperation {
+
+    @Id
+    @Column(length = 36)
+    private String operationId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private StockOperationType type;
+
+    @Column(nullable = false)
+    private LocalDateTime appliedAt;
+
+    public AppliedStockOperation() {
+    }
+
+    public AppliedStockOperation(String operationId, StockOperationType type, LocalDateTime appliedAt) {
+        this.operationId = operationId;
+        this.type = type;
+        this.appliedAt = appliedAt;
+    }
+
+    public String getOperationId() {
+        return operationId;
+    }
+
+    public void setOperationId(String operationId) {
+        this.operationId = operationId;
+    }
+
+    public StockOperationType getType() {
+        return type;
+    }
+
+    public void setType(StockOperationType type) {
+        this.type = type;
+    }
+
+    public LocalDateTime getAppliedAt() {
+        return appliedAt;
+    }
+
+    public void setAppliedAt(LocalDateTime appliedAt) {
+        this.appliedAt = appliedAt;
+    }
+}
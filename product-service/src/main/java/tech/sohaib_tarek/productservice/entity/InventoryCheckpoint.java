@@ -0,0 +1,56 @@
+package tech.sohaib_tarek.productservice.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * Last journal sequence number of an inventory partition whose effects are in the products
+ * table. It is written in the same transaction as the stock it covers, so on restart only the
+ * journal records after it are replayed, together with the still open changes that start at
+ * replayFrom.
+ */
+@Entity
+@Table(name = "inventory_checkpoints")
+public class InventoryCheckpoint {
+
+    @Id
+    private Integer partitionNo;
+
+    @Column(nullable = false)
+    private Long seq;
+
+    @Column(nullable = false)
+    private Long replayFrom;
+
+    public InventoryCheckpoint() {
+    }
+
+    public InventoryCheckpoint(Integer partitionNo, Long seq, Long replayFrom) {
+        this.partitionNo = partitionNo;
+        this.seq = seq;
+        this.replayFrom = replayFrom;
+    }
+
+    public Integer getPartitionNo() {
+        return partitionNo;
+    }
+
+    public void setPartitionNo(Integer partitionNo) {
+        this.partitionNo = partitionNo;
+    }
+
+    public Long getSeq() {
+        return seq;
+    }
+
+    public void setSeq(Long seq) {
+        this.seq = seq;
+    }
+
+    public Long getReplayFrom() {
+        return replayFrom;
+    }
+
+    public void setReplayFrom(Long replayFrom) {
+        this.replayFrom = replayFrom;
+    }
+}
@@ -1,11 +1,16 @@
 package tech.sohaib_tarek.productservice.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Formula;
 
 import java.math.BigDecimal;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        // Keyset pagination seeks on (sort key, product_id) instead of scanning with OFFSET
+        @Index(name = "idx_product_price_id", columnList = "price, product_id"),
+        @Index(name = "idx_product_name_id", columnList = "name, product_id")
+})
 public class Product {
 
     @Id
@@ -24,6 +29,15 @@ public class Product {
     @Column(nullable = false)
     private Integer stock;
 
+    // Number of product_stock_buckets rows holding the stock of a hot product; 0 when it is kept in this row
+    @Column(nullable = false, columnDefinition = "int not null default 0")
+    private int stockBuckets;
+
+    // Sum of the bucket rows, read with the product; only meaningful while stockBuckets > 0
+    @Formula("(CASE WHEN stock_buckets > 0 THEN (SELECT COALESCE(SUM(b.stock), 0) "
+            + "FROM product_stock_buckets b WHERE b.product_id = product_id) ELSE 0 END)")
+    private Integer bucketStock;
+
     public Product() {
     }
 
@@ -75,6 +89,33 @@ public class Product {
         this.stock = stock;
     }
 
+    public int getStockBuckets() {
+        return stockBuckets;
+    }
+
+    public void setStockBuckets(int stockBuckets) {
+        this.stockBuckets = stockBuckets;
+    }
+
+    public Integer getBucketStock() {
+        return bucketStock;
+    }
+
+    public void setBucketStock(Integer bucketStock) {
+        this.bucketStock = bucketStock;
+    }
+
+    public boolean isStockStriped() {
+        return stockBuckets > 0;
+    }
+
+    /**
+     * Stock that can be sold: the row's own stock, or the sum of its buckets for a striped product.
+     */
+    public Integer getAvailableStock() {
+        return isStockStriped() ? bucketStock : stock;
+    }
+
     public static ProductBuilder builder() {
         return new ProductBuilder();
     }
@@ -0,0 +1,62 @@
+package tech.sohaib_tarek.productservice.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One entry of the product change feed. It only says which product changed; readers of the
+ * feed get the product's current state, so replaying an entry twice is harmless.
+ * <p>
+ * Versions come from AUTO_INCREMENT and are allocated at insert time: a reader can briefly see
+ * a version before a lower one has committed, and versions of rolled-back writes are never used.
+ */
+@Entity
+@Table(name = "product_changes", indexes = {
+        @Index(name = "idx_product_change_changed_at", columnList = "changed_at")
+})
+public class ProductChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long version;
+
+    @Column(nullable = false)
+    private Long productId;
+
+    @Column(nullable = false)
+    private LocalDateTime changedAt;
+
+    public ProductChange() {
+    }
+
+    public ProductChange(Long version, Long productId, LocalDateTime changedAt) {
+        this.version = version;
+        this.productId = productId;
+        this.changedAt = changedAt;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+
+    public void setChangedAt(LocalDateTime changedAt) {
+        this.changedAt = changedAt;
+    }
+}
@@ -0,0 +1,39 @@
+package tech.sohaib_tarek.productservice.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+@Embeddable
+public class ReservationItem {
+
+    @Column(nullable = false)
+    private Long productId;
+
+    // Negative for stock an order edit gives up; it goes back when the reservation is confirmed
+    @Column(nullable = false)
+    private Integer quantity;
+
+    public ReservationItem() {
+    }
+
+    public ReservationItem(Long productId, Integer quantity) {
+        this.productId = productId;
+        this.quantity = quantity;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+}
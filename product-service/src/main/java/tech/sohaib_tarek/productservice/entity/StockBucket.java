@@ -0,0 +1,88 @@
+package tech.sohaib_tarek.productservice.entity;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * One slice of a striped product's stock. Buyers of a hot product update different bucket rows,
+ * so they no longer queue on the single row lock of the product.
+ */
+@Entity
+@Table(name = "product_stock_buckets")
+@IdClass(StockBucket.Key.class)
+public class StockBucket {
+
+    @Id
+    private Long productId;
+
+    @Id
+    private Integer bucketNo;
+
+    @Column(nullable = false)
+    private Integer stock;
+
+    public StockBucket() {
+    }
+
+    public StockBucket(Long productId, Integer bucketNo, Integer stock) {
+        this.productId = productId;
+        this.bucketNo = bucketNo;
+        this.stock = stock;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public Integer getBucketNo() {
+        return bucketNo;
+    }
+
+    public void setBucketNo(Integer bucketNo) {
+        this.bucketNo = bucketNo;
+    }
+
+    public Integer getStock() {
+        return stock;
+    }
+
+    public void setStock(Integer stock) {
+        this.stock = stock;
+    }
+
+    public static class Key implements Serializable {
+
+        private Long productId;
+        private Integer bucketNo;
+
+        public Key() {
+        }
+
+        public Key(Long productId, Integer bucketNo) {
+            this.productId = productId;
+            this.bucketNo = bucketNo;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key key)) {
+                return false;
+            }
+            return Objects.equals(productId, key.productId) && Objects.equals(bucketNo, key.bucketNo);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(productId, bucketNo);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package tech.sohaib_tarek.productservice.entity;
+
+import jakarta.persistence.*;
+import tech.sohaib_tarek.productservice.enums.StockMovementReason;
+
+import java.time.LocalDateTime;
+
+/**
+ * One change of a product's stock, appended in the transaction that made it and never updated.
+ * The stock of a product at any time is its latest {@link StockSnapshot} before that time plus
+ * the deltas after the snapshot.
+ */
+@Entity
+@Table(name = "stock_movements", indexes = {
+        @Index(name = "idx_stock_movement_product_created", columnList = "product_id, created_at"),
+        @Index(name = "idx_stock_movement_created_at", columnList = "created_at"),
+        @Index(name = "idx_stock_movement_inventory_token", columnList = "inventory_token")
+})
+public class StockMovement {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long productId;
+
+    @Column(nullable = false)
+    private Integer delta;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private StockMovementReason reason;
+
+    // Reservation, stock operation or idempotency key behind the change, if any
+    @Column(length = 100)
+    private String orderRef;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    // Inventory engine change the movement belongs to; replay looks it up to settle open changes
+    private Long inventoryToken;
+
+    public StockMovement() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public Integer getDelta() {
+        return delta;
+    }
+
+    public void setDelta(Integer delta) {
+        this.delta = delta;
+    }
+
+    public StockMovementReason getReason() {
+        return reason;
+    }
+
+    public void setReason(StockMovementReason reason) {
+        this.reason = reason;
+    }
+
+    public String getOrderRef() {
+        return orderRef;
+    }
+
+    public void setOrderRef(String orderRef) {
+        this.orderRef = orderRef;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Long getInventoryToken() {
+        return inventoryToken;
+    }
+
+    public void setInventoryToken(Long inventoryToken) {
+        this.inventoryToken = inventoryToken;
+    }
+}
@@ -0,0 +1,131 @@
+package tech.sohaib_tarek.productservice.entity;
+
+import jakarta.persistence.*;
+import tech.sohaib_tarek.productservice.enums.ReservationStatus;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stock held for a pending order. The stock is already deducted from the products;
+ * confirming keeps it deducted, releasing or expiring gives it back.
+ */
+@Entity
+@Table(name = "stock_reservations", indexes = {
+        // Lets the expiry job seek straight to overdue holds instead of scanning the table
+        @Index(name = "idx_reservation_status_expires_at", columnList = "status, expires_at")
+})
+public class StockReservation {
+
+    @Id
+    @Column(length = 36)
+    private String reservationId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ReservationStatus status;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "stock_reservation_items", joinColumns = @JoinColumn(name = "reservation_id"))
+    private List<ReservationItem> items = new ArrayList<>();
+
+    public StockReservation() {
+    }
+
+    public StockReservation(String reservationId, ReservationStatus status, LocalDateTime createdAt,
+                            LocalDateTime expiresAt, List<ReservationItem> items) {
+        this.reservationId = reservationId;
+        this.status = status;
+        this.createdAt = createdAt;
+        this.expiresAt = expiresAt;
+        this.items = items != null ? items : new ArrayList<>();
+    }
+
+    public String getReservationId() {
+        return reservationId;
+    }
+
+    public void setReservationId(String reservationId) {
+        this.reservationId = reservationId;
+    }
+
+    public ReservationStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(ReservationStatus status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    public List<ReservationItem> getItems() {
+        return items;
+    }
+
+    public void setItems(List<ReservationItem> items) {
+        this.items = items;
+    }
+
+    public static StockReservationBuilder builder() {
+        return new StockReservationBuilder();
+    }
+
+    public static class StockReservationBuilder {
+        private String reservationId;
+        private ReservationStatus status;
+        private LocalDateTime createdAt;
+        private LocalDateTime expiresAt;
+        private List<ReservationItem> items = new ArrayList<>();
+
+        public StockReservationBuilder reservationId(String reservationId) {
+            this.reservationId = reservationId;
+            return this;
+        }
+
+        public StockReservationBuilder status(ReservationStatus status) {
+            this.status = status;
+            return this;
+        }
+
+        public StockReservationBuilder createdAt(LocalDateTime createdAt) {
+            this.createdAt = createdAt;
+            return this;
+        }
+
+        public StockReservationBuilder expiresAt(LocalDateTime expiresAt) {
+            this.expiresAt = expiresAt;
+            return this;
+        }
+
+        public StockReservationBuilder items(List<ReservationItem> items) {
+            this.items = items;
+            return this;
+        }
+
+        public StockReservation build() {
+            return new StockReservation(reservationId, status, createdAt, expiresAt, items);
+        }
+    }
+}
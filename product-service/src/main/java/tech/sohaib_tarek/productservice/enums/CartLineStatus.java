@@ -0,0 +1,9 @@
+package tech.sohaib_tarek.productservice.enums;
+
+public enum CartLineStatus {
+    RESERVED,
+    // The line could have been served, but another line of the cart failed so nothing was held
+    AVAILABLE,
+    NOT_FOUND,
+    INSUFFICIENT_STOCK
+}
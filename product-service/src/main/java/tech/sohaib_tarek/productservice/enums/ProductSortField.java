@@ -0,0 +1,30 @@
+package tech.sohaib_tarek.productservice.enums;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Sort keys supported by the paginated product listing.
+ * Every key is paired with productId as a tie-breaker so the keyset is unique.
+ */
+public enum ProductSortField {
+    ID("productId"),
+    PRICE("price"),
+    NAME("name");
+
+    private final String property;
+
+    ProductSortField(String property) {
+        this.property = property;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public static Optional<ProductSortField> fromParam(String value) {
+        return Arrays.stream(values())
+                .filter(field -> field.name().equalsIgnoreCase(value))
+                .findFirst();
+    }
+}
@@ -0,0 +1,8 @@
+package tech.sohaib_tarek.productservice.enums;
+
+public enum ReservationStatus {
+    RESERVED,
+    CONFIRMED,
+    RELEASED,
+    EXPIRED
+}
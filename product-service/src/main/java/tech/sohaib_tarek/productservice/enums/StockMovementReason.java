@@ -0,0 +1,14 @@
+package tech.sohaib_tarek.productservice.enums;
+
+public enum StockMovementReason {
+    INITIAL_STOCK,
+    MANUAL_ADJUSTMENT,
+    PRODUCT_DELETED,
+    DIRECT_REDUCTION,
+    DIRECT_RESTORE,
+    RESERVATION_HOLD,
+    RESERVATION_RETURN,
+    RESERVATION_RELEASE,
+    RESERVATION_EXPIRY,
+    ORDER_RESTORE
+}
@@ -0,0 +1,9 @@
+package tech.sohaib_tarek.productservice.enums;
+
+public enum StockOperationStatus {
+    APPLIED,
+    // The operation ID was already applied; nothing was changed this time
+    DUPLICATE,
+    // The operation can never succeed as sent (unknown product or reservation, invalid state)
+    REJECTED
+}
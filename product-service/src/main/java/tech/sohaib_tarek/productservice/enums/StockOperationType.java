@@ -0,0 +1,8 @@
+package tech.sohaib_tarek.productservice.enums;
+
+public enum StockOperationType {
+    RESTORE_STOCK,
+    CONFIRM_RESERVATION,
+    RELEASE_RESERVATION,
+    RELEASE_RESERVATIONS
+}
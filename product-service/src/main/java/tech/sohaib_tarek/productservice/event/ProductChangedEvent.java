@@ -0,0 +1,46 @@
+package tech.sohaib_tarek.productservice.event;
+
+/**
+ * Published by ProductServiceImpl whenever a product is created, updated or deleted.
+ * Listeners that keep derived state (search index, ...) react to it after commit.
+ */
+public class ProductChangedEvent {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    private final Type type;
+    private final Long productId;
+    private final String name;
+    private final String description;
+
+    public ProductChangedEvent(Type type, Long productId, String name, String description) {
+        this.type = type;
+        this.productId = productId;
+        this.name = name;
+        this.description = description;
+    }
+
+    public static ProductChangedEvent deleted(Long productId) {
+        return new ProductChangedEvent(Type.DELETED, productId, null, null);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
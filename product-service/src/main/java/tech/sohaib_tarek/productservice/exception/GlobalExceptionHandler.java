@@ -63,6 +63,134 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(ReservationNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleReservationNotFoundException(
+            ReservationNotFoundException ex, HttpServletRequest request) {
+        log.error("APPLICATION_ERROR | type=ReservationNotFound | path={} | message={} | context=[{}]",
+                request.getRequestURI(), ex.getMessage(), getUserContext(request));
+        errorLog.error("ReservationNotFoundException: {} | {}", ex.getMessage(), getUserContext(request));
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.NOT_FOUND.value())
+                .error("Not Found")
+                .message(ex.getMessage())
+                .path(request.getRequestURI())
+                .build();
+        return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
+    }
+
+    @ExceptionHandler(InvalidReservationStateException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidReservationStateException(
+            InvalidReservationStateException ex, HttpServletRequest request) {
+        log.error("APPLICATION_ERROR | type=InvalidReservationState | path={} | message={} | context=[{}]",
+                request.getRequestURI(), ex.getMessage(), getUserContext(request));
+        errorLog.error("InvalidReservationStateException: {} | {}", ex.getMessage(), getUserContext(request));
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.CONFLICT.value())
+                .error("Conflict")
+                .message(ex.getMessage())
+                .path(request.getRequestURI())
+                .build();
+        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(InvalidPageRequestException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidPageRequestException(
+            InvalidPageRequestException ex, HttpServletRequest request) {
+        log.error("APPLICATION_ERROR | type=InvalidPageRequest | path={} | message={} | context=[{}]",
+                request.getRequestURI(), ex.getMessage(), getUserContext(request));
+        errorLog.error("InvalidPageRequestException: {} | {}", ex.getMessage(), getUserContext(request));
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.BAD_REQUEST.value())
+                .error("Bad Request")
+                .message(ex.getMessage())
+                .path(request.getRequestURI())
+                .build();
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(InvalidBatchRequestException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidBatchRequestException(
+            InvalidBatchRequestException ex, HttpServletRequest request) {
+        log.error("APPLICATION_ERROR | type=InvalidBatchRequest | path={} | message={} | context=[{}]",
+                request.getRequestURI(), ex.getMessage(), getUserContext(request));
+        errorLog.error("InvalidBatchRequestException: {} | {}", ex.getMessage(), getUserContext(request));
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.BAD_REQUEST.value())
+                .error("Bad Request")
+                .message(ex.getMessage())
+                .path(request.getRequestURI())
+                .build();
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(InvalidStockStripingException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidStockStripingException(
+            InvalidStockStripingException ex, HttpServletRequest request) {
+        log.error("APPLICATION_ERROR | type=InvalidStockStriping | path={} | message={} | context=[{}]",
+                request.getRequestURI(), ex.getMessage(), getUserContext(request));
+        errorLog.error("InvalidStockStripingException: {} | {}", ex.getMessage(), getUserContext(request));
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.BAD_REQUEST.value())
+                .error("Bad Request")
+                .message(ex.getMessage())
+                .path(request.getRequestURI())
+                .build();
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(InventoryUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handleInventoryUnavailableException(
+            InventoryUnavailableException ex, HttpServletRequest request) {
+        log.error("APPLICATION_ERROR | type=InventoryUnavailable | path={} | message={} | context=[{}]",
+                request.getRequestURI(), ex.getMessage(), getUserContext(request));
+        errorLog.error("InventoryUnavailableException: {} | {}", ex.getMessage(), getUserContext(request));
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .error("Service Unavailable")
+                .message(ex.getMessage())
+                .path(request.getRequestURI())
+                .build();
+        return new ResponseEntity<>(errorResponse, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @ExceptionHandler(IdempotencyKeyInUseException.class)
+    public ResponseEntity<ErrorResponse> handleIdempotencyKeyInUseException(
+            IdempotencyKeyInUseException ex, HttpServletRequest request) {
+        log.error("APPLICATION_ERROR | type=IdempotencyKeyInUse | path={} | message={} | context=[{}]",
+                request.getRequestURI(), ex.getMessage(), getUserContext(request));
+        errorLog.error("IdempotencyKeyInUseException: {} | {}", ex.getMessage(), getUserContext(request));
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.CONFLICT.value())
+                .error("Conflict")
+                .message(ex.getMessage())
+                .path(request.getRequestURI())
+                .build();
+        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    public ResponseEntity<ErrorResponse> handleIdempotencyKeyReusedException(
+            IdempotencyKeyReusedException ex, HttpServletRequest request) {
+        log.error("APPLICATION_ERROR | type=IdempotencyKeyReused | path={} | message={} | context=[{}]",
+                request.getRequestURI(), ex.getMessage(), getUserContext(request));
+        errorLog.error("IdempotencyKeyReusedException: {} | {}", ex.getMessage(), getUserContext(request));
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.UNPROCESSABLE_ENTITY.value())
+                .error("Unprocessable Entity")
+                .message(ex.getMessage())
+                .path(request.getRequestURI())
+                .build();
+        return new ResponseEntity<>(errorResponse, HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponse> handleValidationException(
             MethodArgumentNotValidException ex, HttpServletRequest request) {
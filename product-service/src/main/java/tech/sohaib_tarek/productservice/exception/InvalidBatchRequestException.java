@@ -0,0 +1,8 @@
+package tech.sohaib_tarek.productservice.exception;
+
+public class InvalidBatchRequestException extends RuntimeException {
+
+    public InvalidBatchRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package tech.sohaib_tarek.productservice.exception;
+
+public class InvalidReservationStateException extends RuntimeException {
+
+    public InvalidReservationStateException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package tech.sohaib_tarek.productservice.exception;
+
+public class InvalidStockStripingException extends RuntimeException {
+
+    public InvalidStockStripingException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package tech.sohaib_tarek.productservice.exception;
+
+public class InventoryUnavailableException extends RuntimeException {
+
+    public InventoryUnavailableException(String message) {
+        super(message);
+    }
+}
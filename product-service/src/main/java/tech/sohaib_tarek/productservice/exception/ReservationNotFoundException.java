@@ -0,0 +1,8 @@
+package tech.sohaib_tarek.productservice.exception;
+
+public class ReservationNotFoundException extends RuntimeException {
+
+    public ReservationNotFoundException(String message) {
+        super(message);
+    }
+}
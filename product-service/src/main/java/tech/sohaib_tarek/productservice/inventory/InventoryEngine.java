@@ -0,0 +1,481 @@
+package tech.sohaib_tarek.productservice.inventory;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tech.sohaib_tarek.productservice.dto.StockUpdateRequest;
+import tech.sohaib_tarek.productservice.entity.InventoryCheckpoint;
+import tech.sohaib_tarek.productservice.exception.InventoryUnavailableException;
+import tech.sohaib_tarek.productservice.repository.InventoryCheckpointRepository;
+import tech.sohaib_tarek.productservice.repository.ProductRepository;
+import tech.sohaib_tarek.productservice.repository.StockMovementRepository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+/**
+ * Optional in-memory owner of all product stock (product.inventory.engine.enabled).
+ * <p>
+ * Products are hashed to partitions, each one a single writer thread with its own stock map and
+ * journal (see {@link InventoryPartition}), so stock decisions never wait on MySQL or a row lock
+ * and are durable once the journal batch holding them is synced. The products table is written
+ * behind by {@link #flush()} together with a per-partition checkpoint. On start the stock is
+ * loaded from the table, the journal records after each checkpoint are replayed on top of it,
+ * and the result is written back before the first command is accepted.
+ * <p>
+ * Stock changes made inside a database transaction are tentative until it completes: each one
+ * gets a token ({@link #newToken}) that is journaled with it and stored on its stock movements,
+ * and {@link #complete} commits or aborts it afterwards. Decrements are held back at once,
+ * increments only count once committed. Should the service die in between, replay keeps exactly
+ * the open changes whose token made it into the movements table.
+ * <p>
+ * The engine assumes it is the only writer of stock: enable it on a single product-service
+ * instance, and only with no striped products (striping is refused while it runs).
+ */
+@Component
+public class InventoryEngine implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(InventoryEngine.class);
+
+    private final ProductRepository productRepository;
+    private final InventoryCheckpointRepository checkpointRepository;
+    private final StockMovementRepository movementRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Path journalDirectory;
+
+    @Value("${product.inventory.engine.enabled:false}")
+    private boolean enabled;
+
+    @Value("${product.inventory.engine.partitions:4}")
+    private int partitionCount;
+
+    @Value("${product.inventory.engine.queue-capacity:8192}")
+    private int queueCapacity;
+
+    @Value("${product.inventory.engine.max-batch:512}")
+    private int maxBatch;
+
+    @Value("${product.inventory.engine.timeout-ms:2000}")
+    private long timeoutMs;
+
+    @Value("${product.inventory.engine.journal-segment-bytes:67108864}")
+    private long journalSegmentBytes;
+
+    private InventoryPartition[] partitions = new InventoryPartition[0];
+    private long[] flushedSeq = new long[0];
+    private volatile boolean running;
+
+    public InventoryEngine(ProductRepository productRepository,
+                           InventoryCheckpointRepository checkpointRepository,
+                           StockMovementRepository movementRepository,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry,
+                           @Value("${product.inventory.engine.journal-dir:data/inventory-journal}") String journalDirectory) {
+        this.productRepository = productRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.movementRepository = movementRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.journalDirectory = Path.of(journalDirectory);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Token of a new change for the calling transaction; 0 is never returned, it marks records
+     * that belong to no change.
+     */
+    public long newToken() {
+        long token;
+        do {
+            token = ThreadLocalRandom.current().nextLong();
+        } while (token == 0);
+        return token;
+    }
+
+    /**
+     * Takes each line's quantity if the product has enough left; lines of unknown products or
+     * without enough stock are returned, the others are applied as part of the change.
+     */
+    public List<StockUpdateRequest> reduce(long token, List<StockUpdateRequest> stockUpdates) {
+        int[] results = dispatch(token, stockUpdates, 1, InventoryPartition::reduce);
+        List<StockUpdateRequest> rejected = new ArrayList<>();
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] != InventoryPartition.APPLIED) {
+                rejected.add(stockUpdates.get(i));
+            }
+        }
+        return rejected;
+    }
+
+    /**
+     * Adds each line's quantity back as part of the change, to be taken again only once it has
+     * committed; returns the lines of unknown products, which are skipped.
+     */
+    public List<StockUpdateRequest> restore(long token, List<StockUpdateRequest> stockUpdates) {
+        int[] results = dispatch(token, stockUpdates, 1, InventoryPartition::adjust);
+        List<StockUpdateRequest> unknown = new ArrayList<>();
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] == InventoryPartition.UNKNOWN) {
+                unknown.add(stockUpdates.get(i));
+            }
+        }
+        return unknown;
+    }
+
+    /**
+     * Sets a product's stock as part of the change. Returns the delta applied, measured against
+     * the stock of that moment so that it matches whatever orders took in the meantime, or null
+     * if the engine does not know the product.
+     */
+    public Integer setStock(long token, Long productId, int stock) {
+        return await(partitionOf(productId).assign(token, productId, stock));
+    }
+
+    /**
+     * Commits or aborts a change once its transaction has completed. productIds are the products
+     * it may have touched; the outcome is journaled in their partitions without waiting.
+     */
+    public void complete(long token, Collection<Long> productIds, boolean committed) {
+        Set<Integer> partitionNos = new HashSet<>();
+        for (Long productId : productIds) {
+            partitionNos.add(indexOf(productId));
+        }
+        settle(token, partitionNos, committed);
+    }
+
+    /**
+     * Stock of a product left to take, or null if the engine does not know it.
+     */
+    public Integer getStock(Long productId) {
+        int value = await(partitionOf(productId).get(new long[]{productId}))[0];
+        return value == LongIntMap.MISSING ? null : value;
+    }
+
+    /**
+     * Stock of a product whose row has just been created.
+     */
+    public void putStock(Long productId, int stock) {
+        await(partitionOf(productId).put(productId, stock));
+    }
+
+    public void removeProduct(Long productId) {
+        await(partitionOf(productId).remove(productId));
+    }
+
+    /**
+     * Write-behind: stores the committed stock changed since the last flush and the partition's
+     * checkpoint in one transaction, then drops the journal segments that are no longer needed.
+     */
+    public synchronized void flush() {
+        if (!running) {
+            return;
+        }
+        for (int p = 0; p < partitions.length; p++) {
+            InventoryPartition partition = partitions[p];
+            InventoryPartition.Snapshot snapshot = await(partition.takeDirty());
+            if (snapshot.seq() == flushedSeq[p]) {
+                continue;
+            }
+            int partitionNo = p;
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    productRepository.overwriteStock(snapshot.productIds(), snapshot.stocks());
+                    checkpointRepository.save(
+                            new InventoryCheckpoint(partitionNo, snapshot.seq(), snapshot.replayFrom()));
+                });
+            } catch (RuntimeException e) {
+                partition.markDirty(snapshot.productIds());
+                log.warn("Write-behind of inventory partition {} failed, retrying on the next flush: {}",
+                        p, e.getMessage());
+                continue;
+            }
+            flushedSeq[p] = snapshot.seq();
+            partition.deleteJournalThrough(snapshot.replayFrom() - 1);
+            log.debug("Inventory partition {} flushed {} products up to sequence {}",
+                    p, snapshot.productIds().length, snapshot.seq());
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        if (!productRepository.findStripedProductIds().isEmpty()) {
+            throw new IllegalStateException("The inventory engine cannot own the stock of striped products; "
+                    + "set their buckets to 0 before enabling it");
+        }
+        long started = System.currentTimeMillis();
+        LongIntMap stock = new LongIntMap(1024);
+        productRepository.forEachStock(stock::put);
+        Map<Integer, Long> checkpoints = recover(stock);
+
+        LongIntMap[] owned = new LongIntMap[partitionCount];
+        for (int p = 0; p < partitionCount; p++) {
+            owned[p] = new LongIntMap(stock.size() / partitionCount);
+        }
+        stock.forEach((productId, value) -> owned[indexOf(productId)].put(productId, value));
+
+        DistributionSummary batchSize = DistributionSummary.builder("inventory.engine.batch.size")
+                .description("Commands applied per journal sync")
+                .register(meterRegistry);
+        partitions = new InventoryPartition[partitionCount];
+        flushedSeq = new long[partitionCount];
+        for (int p = 0; p < partitionCount; p++) {
+            long seq = checkpoints.getOrDefault(p, 0L);
+            InventoryJournal journal = new InventoryJournal(journalDirectory, p, journalSegmentBytes, seq + 1);
+            partitions[p] = new InventoryPartition(p, owned[p], journal, seq, queueCapacity, maxBatch, timeoutMs, batchSize);
+            flushedSeq[p] = seq;
+            InventoryPartition partition = partitions[p];
+            Gauge.builder("inventory.engine.queue.depth", partition, InventoryPartition::queueDepth)
+                    .tag("partition", String.valueOf(p))
+                    .register(meterRegistry);
+            partition.start();
+        }
+        running = true;
+        log.info("Inventory engine started with {} products in {} partitions in {} ms",
+                stock.size(), partitionCount, System.currentTimeMillis() - started);
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        flush();
+        running = false;
+        for (InventoryPartition partition : partitions) {
+            try {
+                partition.stop();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        log.info("Inventory engine stopped");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Before the web server starts taking requests, after it has stopped
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    /**
+     * Replays the journal onto the loaded stock and commits the outcome with the new checkpoints,
+     * so the journal can be started afresh. SET and REMOVE records count when they are newer than
+     * their partition's checkpoint, a change when its COMMIT is. A change left open by a crash is
+     * kept if its transaction committed after all, which its stock movements tell.
+     * Records of products that are no longer in the table are dropped.
+     */
+    private Map<Integer, Long> recover(LongIntMap stock) {
+        Map<Integer, Long> checkpoints = checkpointRepository.findAll().stream()
+                .collect(Collectors.toMap(InventoryCheckpoint::getPartitionNo, InventoryCheckpoint::getSeq));
+        Map<Integer, Long> replayed = new HashMap<>(checkpoints);
+        Map<OpenChange, List<long[]>> open = new LinkedHashMap<>();
+        LongIntMap touched = new LongIntMap(1024);
+        boolean[] journaled = {false};
+        try {
+            InventoryJournal.replay(journalDirectory, (partition, seq, type, token, productId, value) -> {
+                journaled[0] = true;
+                boolean newer = seq > checkpoints.getOrDefault(partition, 0L);
+                if (newer) {
+                    replayed.merge(partition, seq, Math::max);
+                }
+                OpenChange change = new OpenChange(partition, token);
+                switch (type) {
+                    case InventoryJournal.DELTA ->
+                            open.computeIfAbsent(change, ignored -> new ArrayList<>()).add(new long[]{productId, value});
+                    case InventoryJournal.COMMIT -> {
+                        List<long[]> lines = open.remove(change);
+                        // Committed up to the checkpoint means the table already has it
+                        if (newer && lines != null) {
+                            apply(stock, touched, lines);
+                        }
+                    }
+                    case InventoryJournal.ABORT -> open.remove(change);
+                    default -> {
+                        int current = stock.get(productId);
+                        // A product is only removed from the engine after its row delete committed
+                        if (!newer || current == LongIntMap.MISSING || type == InventoryJournal.REMOVE) {
+                            return;
+                        }
+                        stock.put(productId, value);
+                        touched.put(productId, 0);
+                    }
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot replay the inventory journal in " + journalDirectory, e);
+        }
+
+        if (!open.isEmpty()) {
+            Set<Long> committed = new HashSet<>(movementRepository.findInventoryTokens(
+                    open.keySet().stream().map(OpenChange::token).collect(Collectors.toSet())));
+            open.forEach((change, lines) -> {
+                if (committed.contains(change.token())) {
+                    apply(stock, touched, lines);
+                }
+            });
+            log.info("Inventory journal: {} changes were open, {} of their transactions had committed",
+                    open.size(), committed.size());
+        }
+
+        if (journaled[0]) {
+            long[] productIds = new long[touched.size()];
+            int[] stocks = new int[touched.size()];
+            int[] next = {0};
+            touched.forEach((productId, ignored) -> {
+                productIds[next[0]] = productId;
+                stocks[next[0]++] = stock.get(productId);
+            });
+            transactionTemplate.executeWithoutResult(status -> {
+                productRepository.overwriteStock(productIds, stocks);
+                replayed.forEach((partition, seq) ->
+                        checkpointRepository.save(new InventoryCheckpoint(partition, seq, seq + 1)));
+            });
+            log.info("Inventory journal replayed: {} products recovered", productIds.length);
+        }
+        try {
+            InventoryJournal.deleteAll(journalDirectory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot clear the inventory journal in " + journalDirectory, e);
+        }
+        return replayed;
+    }
+
+    private record OpenChange(int partition, long token) {
+    }
+
+    private static void apply(LongIntMap stock, LongIntMap touched, List<long[]> lines) {
+        for (long[] line : lines) {
+            int current = stock.get(line[0]);
+            if (current != LongIntMap.MISSING) {
+                stock.put(line[0], current + (int) line[1]);
+                touched.put(line[0], 0);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface LineCommand {
+        CompletableFuture<int[]> apply(InventoryPartition partition, long token, long[] productIds, int[] quantities);
+    }
+
+    /**
+     * Splits the lines by partition, sends every partition its share at once and gathers the
+     * per-line results back in request order. Should a partition fail, the change is aborted in
+     * all of them, which takes back the lines that did go through.
+     */
+    private int[] dispatch(long token, List<StockUpdateRequest> stockUpdates, int sign, LineCommand command) {
+        Map<Integer, List<Integer>> byPartition = new HashMap<>();
+        for (int i = 0; i < stockUpdates.size(); i++) {
+            byPartition.computeIfAbsent(indexOf(stockUpdates.get(i).getProductId()), p -> new ArrayList<>()).add(i);
+        }
+        Map<List<Integer>, CompletableFuture<int[]>> pending = new HashMap<>();
+        byPartition.forEach((p, indices) -> {
+            long[] productIds = new long[indices.size()];
+            int[] quantities = new int[indices.size()];
+            for (int k = 0; k < indices.size(); k++) {
+                StockUpdateRequest update = stockUpdates.get(indices.get(k));
+                productIds[k] = update.getProductId();
+                quantities[k] = sign * update.getQuantity();
+            }
+            pending.put(indices, command.apply(requirePartitions()[p], token, productIds, quantities));
+        });
+
+        int[] results = new int[stockUpdates.size()];
+        RuntimeException failure = null;
+        for (Map.Entry<List<Integer>, CompletableFuture<int[]>> entry : pending.entrySet()) {
+            try {
+                int[] partial = await(entry.getValue());
+                for (int k = 0; k < partial.length; k++) {
+                    results[entry.getKey().get(k)] = partial[k];
+                }
+            } catch (RuntimeException e) {
+                failure = e;
+            }
+        }
+        if (failure != null) {
+            // Nothing tells the caller which lines went through; an abort queued behind them takes them back
+            settle(token, byPartition.keySet(), false);
+            throw failure;
+        }
+        return results;
+    }
+
+    private void settle(long token, Set<Integer> partitionNos, boolean committed) {
+        InventoryPartition[] all = requirePartitions();
+        for (int p : partitionNos) {
+            CompletableFuture<Void> outcome = committed ? all[p].commit(token) : all[p].abort(token);
+            outcome.whenComplete((ignored, error) -> {
+                if (error != null) {
+                    log.error("Could not {} inventory change {} in partition {}",
+                            committed ? "commit" : "abort", token, p, error);
+                }
+            });
+        }
+    }
+
+    private InventoryPartition partitionOf(long productId) {
+        return requirePartitions()[indexOf(productId)];
+    }
+
+    private InventoryPartition[] requirePartitions() {
+        if (!running) {
+            throw new InventoryUnavailableException("The inventory engine is not running");
+        }
+        return partitions;
+    }
+
+    private int indexOf(long productId) {
+        long hash = productId * 0x9E3779B97F4A7C15L;
+        return (int) Math.floorMod(hash ^ (hash >>> 32), (long) partitionCount);
+    }
+
+    private <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InventoryUnavailableException("Interrupted while waiting for the inventory engine");
+        } catch (TimeoutException e) {
+            throw new InventoryUnavailableException("The inventory engine did not answer within " + timeoutMs + " ms");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new InventoryUnavailableException("Inventory command failed: " + e.getCause().getMessage());
+        }
+    }
+}
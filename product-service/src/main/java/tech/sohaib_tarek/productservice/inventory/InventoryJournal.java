@@ -0,0 +1,173 @@
+package tech.sohaib_tarek.productservice.inventory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Append-only journal of one inventory partition, split into segment files named after the
+ * partition and the sequence number of their first record.
+ * <p>
+ * Records are fixed-size: sequence number, type, change token, product ID and value. They are
+ * buffered by {@link #append} and made durable together by {@link #sync}, once per batch of
+ * commands. A record cut short by a crash is ignored on replay; its command was never
+ * acknowledged. Owned by the partition's writer thread.
+ * <p>
+ * DELTA records are tentative: they belong to the database transaction identified by their token
+ * and only count once a COMMIT record with that token follows. An ABORT record, or no outcome
+ * at all and no movement with that token in the database, drops them.
+ */
+final class InventoryJournal implements AutoCloseable {
+
+    static final byte DELTA = 1;
+    static final byte SET = 2;
+    static final byte REMOVE = 3;
+    static final byte COMMIT = 4;
+    static final byte ABORT = 5;
+
+    private static final int RECORD_SIZE = Long.BYTES + 1 + Long.BYTES + Long.BYTES + Integer.BYTES;
+    private static final Pattern SEGMENT_NAME = Pattern.compile("inventory-(\\d+)-(\\d+)\\.journal");
+
+    private final Path directory;
+    private final int partition;
+    private final long maxSegmentBytes;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(RECORD_SIZE * 4096);
+
+    private FileChannel channel;
+    private long written;
+
+    InventoryJournal(Path directory, int partition, long maxSegmentBytes, long nextSeq) {
+        this.directory = directory;
+        this.partition = partition;
+        this.maxSegmentBytes = maxSegmentBytes;
+        openSegment(nextSeq);
+    }
+
+    void append(long seq, byte type, long token, long productId, int value) throws IOException {
+        if (buffer.remaining() < RECORD_SIZE) {
+            drain();
+        }
+        buffer.putLong(seq).put(type).putLong(token).putLong(productId).putInt(value);
+    }
+
+    /**
+     * Forces everything appended so far to disk, then starts a new segment if the current one
+     * is full. nextSeq is the sequence number the next record will get.
+     */
+    void sync(long nextSeq) throws IOException {
+        drain();
+        channel.force(false);
+        if (written >= maxSegmentBytes) {
+            channel.close();
+            openSegment(nextSeq);
+        }
+    }
+
+    /**
+     * Deletes the segments holding only records up to seq, which replay no longer needs.
+     */
+    void deleteThrough(long seq) throws IOException {
+        List<Segment> segments = segments(directory).stream()
+                .filter(segment -> segment.partition() == partition)
+                .toList();
+        // A segment ends right before the next one starts; the current segment is never deleted
+        for (int i = 0; i + 1 < segments.size(); i++) {
+            if (segments.get(i + 1).firstSeq() <= seq + 1) {
+                Files.deleteIfExists(segments.get(i).path());
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        drain();
+        channel.force(false);
+        channel.close();
+    }
+
+    /**
+     * Reads every complete record of every partition, segment by segment in sequence order.
+     */
+    static void replay(Path directory, RecordHandler handler) throws IOException {
+        ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+        for (Segment segment : segments(directory)) {
+            try (FileChannel in = FileChannel.open(segment.path(), StandardOpenOption.READ)) {
+                while (true) {
+                    record.clear();
+                    while (record.hasRemaining() && in.read(record) > 0) {
+                        // keep reading until the record is complete or the file ends
+                    }
+                    if (record.hasRemaining()) {
+                        break;
+                    }
+                    record.flip();
+                    handler.accept(segment.partition(), record.getLong(), record.get(), record.getLong(),
+                            record.getLong(), record.getInt());
+                }
+            }
+        }
+    }
+
+    /**
+     * Deletes all segments; used once their records have been folded into the database.
+     */
+    static void deleteAll(Path directory) throws IOException {
+        for (Segment segment : segments(directory)) {
+            Files.deleteIfExists(segment.path());
+        }
+    }
+
+    @FunctionalInterface
+    interface RecordHandler {
+        void accept(int partition, long seq, byte type, long token, long productId, int value);
+    }
+
+    private record Segment(Path path, int partition, long firstSeq) {
+    }
+
+    private static List<Segment> segments(Path directory) throws IOException {
+        List<Segment> segments = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return segments;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(path -> {
+                Matcher matcher = SEGMENT_NAME.matcher(path.getFileName().toString());
+                if (matcher.matches()) {
+                    segments.add(new Segment(path, Integer.parseInt(matcher.group(1)), Long.parseLong(matcher.group(2))));
+                }
+            });
+        }
+        segments.sort(Comparator.comparingInt(Segment::partition).thenComparingLong(Segment::firstSeq));
+        return segments;
+    }
+
+    private void openSegment(long firstSeq) {
+        try {
+            Files.createDirectories(directory);
+            Path path = directory.resolve(String.format("inventory-%d-%020d.journal", partition, firstSeq));
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            written = channel.size();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open inventory journal segment in " + directory, e);
+        }
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            written += channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,439 @@
+package tech.sohaib_tarek.productservice.inventory;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import tech.sohaib_tarek.productservice.exception.InventoryUnavailableException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One shard of the inventory: the stock of the products hashed to it, its journal and the
+ * single thread that owns both.
+ * <p>
+ * Commands enter through a bounded array queue. The writer thread takes whatever is queued,
+ * up to maxBatch commands, applies them to the map one after the other, syncs the journal
+ * once for the whole batch and only then completes the callers' futures. No decision is
+ * acknowledged before it is durable, and no locks are taken on the way.
+ * <p>
+ * Changes made for a database transaction are tentative and kept under the transaction's token
+ * until {@link #commit} or {@link #abort}. What a change takes leaves the stock at once, so the
+ * next command cannot promise it again; what it gives back is only added on commit, so nobody
+ * can spend stock that an abort would take away again. The write-behind only ever gets the
+ * committed stock, and the journal keeps every record of a change still open so that replay can
+ * settle it.
+ * <p>
+ * If the journal cannot be written the partition stops accepting commands: memory may hold
+ * changes the disk does not, and only a restart (replaying the journal) reconciles them.
+ */
+final class InventoryPartition implements Runnable {
+
+    private static final Logger log = LoggerFactory.getLogger(InventoryPartition.class);
+
+    static final int APPLIED = 1;
+    static final int INSUFFICIENT = 0;
+    static final int UNKNOWN = -1;
+
+    /**
+     * Committed stock of the products changed since the last write-behind flush, as of journal
+     * sequence seq. replayFrom is the first record replay still needs: the oldest one of a change
+     * whose transaction has not completed.
+     */
+    record Snapshot(long seq, long replayFrom, long[] productIds, int[] stocks) {
+    }
+
+    /**
+     * Lines of a change in this partition while its transaction is still open: negative deltas
+     * are already out of the stock, positive ones wait for the commit.
+     */
+    private static final class Pending {
+
+        private final long firstSeq;
+        private long[] productIds = new long[4];
+        private int[] deltas = new int[4];
+        private int size;
+
+        private Pending(long firstSeq) {
+            this.firstSeq = firstSeq;
+        }
+
+        private void add(long productId, int delta) {
+            if (size == productIds.length) {
+                productIds = Arrays.copyOf(productIds, size * 2);
+                deltas = Arrays.copyOf(deltas, size * 2);
+            }
+            productIds[size] = productId;
+            deltas[size++] = delta;
+        }
+    }
+
+    @FunctionalInterface
+    private interface Operation<T> {
+        T apply() throws IOException;
+    }
+
+    private final int id;
+    private final LongIntMap stock;
+    private final LongIntMap dirty = new LongIntMap(1024);
+    private final Map<Long, Pending> pending = new HashMap<>();
+    // Per product, the sum of the open changes' decrements already taken out of the stock
+    private final LongIntMap pendingDelta = new LongIntMap(1024);
+    private final InventoryJournal journal;
+    private final BlockingQueue<Runnable> queue;
+    private final int maxBatch;
+    private final long offerTimeoutMs;
+    private final DistributionSummary batchSize;
+    private final List<Runnable> completions = new ArrayList<>();
+    private final Thread thread;
+
+    private long seq;
+    private boolean journaled;
+    private volatile boolean running = true;
+    private volatile boolean failed;
+
+    InventoryPartition(int id, LongIntMap stock, InventoryJournal journal, long seq,
+                       int queueCapacity, int maxBatch, long offerTimeoutMs, DistributionSummary batchSize) {
+        this.id = id;
+        this.stock = stock;
+        this.journal = journal;
+        this.seq = seq;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.maxBatch = maxBatch;
+        this.offerTimeoutMs = offerTimeoutMs;
+        this.batchSize = batchSize;
+        this.thread = Thread.ofPlatform().name("inventory-" + id).unstarted(this);
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    /**
+     * Lets the writer finish what is already queued, then closes the journal.
+     */
+    void stop() throws InterruptedException {
+        running = false;
+        thread.join();
+    }
+
+    int queueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * Takes each quantity only if the product has that much left. Per line: APPLIED,
+     * INSUFFICIENT or UNKNOWN.
+     */
+    CompletableFuture<int[]> reduce(long token, long[] productIds, int[] quantities) {
+        return submit(() -> {
+            int[] results = new int[productIds.length];
+            for (int i = 0; i < productIds.length; i++) {
+                int current = stock.get(productIds[i]);
+                if (current == LongIntMap.MISSING) {
+                    results[i] = UNKNOWN;
+                } else if (current < quantities[i]) {
+                    results[i] = INSUFFICIENT;
+                } else {
+                    change(token, productIds[i], -quantities[i]);
+                    results[i] = APPLIED;
+                }
+            }
+            return results;
+        });
+    }
+
+    /**
+     * Adds each delta, which may be negative, without any guard; positive deltas only reach the
+     * stock on commit. Per line: APPLIED or UNKNOWN.
+     */
+    CompletableFuture<int[]> adjust(long token, long[] productIds, int[] deltas) {
+        return submit(() -> {
+            int[] results = new int[productIds.length];
+            for (int i = 0; i < productIds.length; i++) {
+                int current = stock.get(productIds[i]);
+                if (current == LongIntMap.MISSING) {
+                    results[i] = UNKNOWN;
+                } else {
+                    change(token, productIds[i], deltas[i]);
+                    results[i] = APPLIED;
+                }
+            }
+            return results;
+        });
+    }
+
+    /**
+     * Sets the stock to value as a change of the given transaction; the answer is the delta that
+     * took it there, taken against the stock of this very moment, or null for an unknown product.
+     * Like any other change, a raise only shows once committed.
+     */
+    CompletableFuture<Integer> assign(long token, long productId, int value) {
+        return submit(() -> {
+            int current = stock.get(productId);
+            if (current == LongIntMap.MISSING) {
+                return null;
+            }
+            if (value != current) {
+                change(token, productId, value - current);
+            }
+            return value - current;
+        });
+    }
+
+    /**
+     * Makes a transaction's changes final once the database committed it.
+     */
+    CompletableFuture<Void> commit(long token) {
+        return submit(() -> {
+            Pending change = pending.remove(token);
+            if (change == null) {
+                return null;
+            }
+            record(InventoryJournal.COMMIT, token, 0, 0);
+            for (int i = 0; i < change.size; i++) {
+                long productId = change.productIds[i];
+                int delta = change.deltas[i];
+                int current = stock.get(productId);
+                if (delta < 0) {
+                    addPending(productId, -delta);
+                } else if (current != LongIntMap.MISSING) {
+                    stock.put(productId, current + delta);
+                }
+                if (current != LongIntMap.MISSING) {
+                    dirty.put(productId, 0);
+                }
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Takes back a transaction's changes after it rolled back, or never reached the database;
+     * only its decrements ever reached the stock.
+     */
+    CompletableFuture<Void> abort(long token) {
+        return submit(() -> {
+            Pending change = pending.remove(token);
+            if (change == null) {
+                return null;
+            }
+            record(InventoryJournal.ABORT, token, 0, 0);
+            for (int i = change.size - 1; i >= 0; i--) {
+                long productId = change.productIds[i];
+                int delta = change.deltas[i];
+                if (delta >= 0) {
+                    continue;
+                }
+                addPending(productId, -delta);
+                int current = stock.get(productId);
+                if (current != LongIntMap.MISSING) {
+                    stock.put(productId, current - delta);
+                }
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Stock of a product that is new to the engine, committed right away.
+     */
+    CompletableFuture<Void> put(long productId, int value) {
+        return submit(() -> {
+            stock.put(productId, value);
+            record(InventoryJournal.SET, 0, productId, value);
+            dirty.put(productId, 0);
+            return null;
+        });
+    }
+
+    CompletableFuture<Void> remove(long productId) {
+        return submit(() -> {
+            stock.remove(productId);
+            record(InventoryJournal.REMOVE, 0, productId, 0);
+            // The row is gone, there is nothing left to write behind
+            dirty.remove(productId);
+            return null;
+        });
+    }
+
+    /**
+     * Stock left to take per product: the committed stock less what open changes took,
+     * LongIntMap.MISSING for unknown products.
+     */
+    CompletableFuture<int[]> get(long[] productIds) {
+        return submit(() -> {
+            int[] values = new int[productIds.length];
+            for (int i = 0; i < productIds.length; i++) {
+                values[i] = stock.get(productIds[i]);
+            }
+            return values;
+        });
+    }
+
+    CompletableFuture<Snapshot> takeDirty() {
+        return submit(() -> {
+            long[] productIds = new long[dirty.size()];
+            int[] stocks = new int[dirty.size()];
+            int[] next = {0};
+            dirty.forEach((productId, ignored) -> {
+                productIds[next[0]] = productId;
+                stocks[next[0]++] = stock.get(productId) - pendingOf(productId);
+            });
+            dirty.clear();
+            long replayFrom = seq + 1;
+            for (Pending change : pending.values()) {
+                replayFrom = Math.min(replayFrom, change.firstSeq);
+            }
+            return new Snapshot(seq, replayFrom, productIds, stocks);
+        });
+    }
+
+    /**
+     * Puts products back on the dirty list after their write-behind flush failed.
+     */
+    CompletableFuture<Void> markDirty(long[] productIds) {
+        return submit(() -> {
+            for (long productId : productIds) {
+                if (stock.get(productId) != LongIntMap.MISSING) {
+                    dirty.put(productId, 0);
+                }
+            }
+            return null;
+        });
+    }
+
+    CompletableFuture<Void> deleteJournalThrough(long flushedSeq) {
+        return submit(() -> {
+            journal.deleteThrough(flushedSeq);
+            return null;
+        });
+    }
+
+    @Override
+    public void run() {
+        List<Runnable> batch = new ArrayList<>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            Runnable first;
+            try {
+                first = queue.poll(100, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                continue;
+            }
+            if (first == null) {
+                continue;
+            }
+            batch.add(first);
+            queue.drainTo(batch, maxBatch - 1);
+            for (Runnable command : batch) {
+                command.run();
+            }
+            batchSize.record(batch.size());
+            batch.clear();
+            commit();
+        }
+        try {
+            journal.close();
+        } catch (IOException e) {
+            log.error("Failed to close the journal of inventory partition {}", id, e);
+        }
+    }
+
+    private <T> CompletableFuture<T> submit(Operation<T> operation) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        Runnable command = () -> {
+            if (failed) {
+                future.completeExceptionally(unavailable());
+                return;
+            }
+            try {
+                T result = operation.apply();
+                completions.add(() -> {
+                    if (failed) {
+                        future.completeExceptionally(unavailable());
+                    } else {
+                        future.complete(result);
+                    }
+                });
+            } catch (IOException e) {
+                fail(e);
+                completions.add(() -> future.completeExceptionally(unavailable()));
+            } catch (RuntimeException e) {
+                completions.add(() -> future.completeExceptionally(e));
+            }
+        };
+        try {
+            if (!running || failed || !queue.offer(command, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                future.completeExceptionally(unavailable());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.completeExceptionally(unavailable());
+        }
+        return future;
+    }
+
+    // Group commit: one fsync for every change of the batch, then all of its answers go out
+    private void commit() {
+        if (journaled) {
+            try {
+                journal.sync(seq + 1);
+            } catch (IOException e) {
+                fail(e);
+            }
+            journaled = false;
+        }
+        for (Runnable completion : completions) {
+            completion.run();
+        }
+        completions.clear();
+    }
+
+    // Dirty only once committed: until then the write-behind has nothing new to store
+    private void change(long token, long productId, int delta) throws IOException {
+        record(InventoryJournal.DELTA, token, productId, delta);
+        pending.computeIfAbsent(token, ignored -> new Pending(seq)).add(productId, delta);
+        if (delta < 0) {
+            stock.put(productId, stock.get(productId) + delta);
+            addPending(productId, delta);
+        }
+    }
+
+    private void addPending(long productId, int delta) {
+        int total = pendingOf(productId) + delta;
+        if (total == 0) {
+            pendingDelta.remove(productId);
+        } else {
+            pendingDelta.put(productId, total);
+        }
+    }
+
+    private int pendingOf(long productId) {
+        int total = pendingDelta.get(productId);
+        return total == LongIntMap.MISSING ? 0 : total;
+    }
+
+    private void record(byte type, long token, long productId, int value) throws IOException {
+        journal.append(++seq, type, token, productId, value);
+        journaled = true;
+    }
+
+    private void fail(IOException e) {
+        if (!failed) {
+            failed = true;
+            log.error("Inventory partition {} stopped: its journal cannot be written", id, e);
+        }
+    }
+
+    private InventoryUnavailableException unavailable() {
+        return new InventoryUnavailableException("Inventory partition " + id + " is not accepting commands");
+    }
+}
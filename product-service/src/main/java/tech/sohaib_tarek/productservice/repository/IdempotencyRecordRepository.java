@@ -0,0 +1,40 @@
+package tech.sohaib_tarek.productservice.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import tech.sohaib_tarek.productservice.entity.IdempotencyRecord;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    /**
+     * Takes over a key whose record expired, or whose request was abandoned while in progress.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE IdempotencyRecord r SET r.status = tech.sohaib_tarek.productservice.enums.IdempotencyStatus.IN_PROGRESS, " +
+            "r.requestHash = :requestHash, r.lockedAt = :now, r.expiresAt = :expiresAt, " +
+            "r.responseStatus = null, r.responseBody = null " +
+            "WHERE r.recordId = :recordId AND (r.expiresAt < :now OR " +
+            "(r.status = tech.sohaib_tarek.productservice.enums.IdempotencyStatus.IN_PROGRESS AND r.lockedAt < :staleBefore))")
+    int reclaim(@Param("recordId") String recordId,
+                @Param("requestHash") String requestHash,
+                @Param("now") LocalDateTime now,
+                @Param("staleBefore") LocalDateTime staleBefore,
+                @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.status = tech.sohaib_tarek.productservice.enums.IdempotencyStatus.COMPLETED, " +
+            "r.responseStatus = :responseStatus, r.responseBody = :responseBody WHERE r.recordId = :recordId")
+    int complete(@Param("recordId") String recordId,
+                 @Param("responseStatus") int responseStatus,
+                 @Param("responseBody") String responseBody);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
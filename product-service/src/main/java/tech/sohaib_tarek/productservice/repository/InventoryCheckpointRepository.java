@@ -0,0 +1,9 @@
+package tech.sohaib_tarek.productservice.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import tech.sohaib_tarek.productservice.entity.InventoryCheckpoint;
+
+@Repository
+public interface InventoryCheckpointRepository extends JpaRepository<InventoryCheckpoint, Integer> {
+}
@@ -0,0 +1,11 @@
+package tech.sohaib_tarek.productservice.repository;
+
+import java.util.Collection;
+
+/**
+ * Appends product change feed entries in a single JDBC batch, inside the caller's transaction.
+ */
+public interface ProductChangeLog {
+
+    void appendChanges(Collection<Long> productIds);
+}
@@ -0,0 +1,33 @@
+package tech.sohaib_tarek.productservice.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+public class ProductChangeLogImpl implements ProductChangeLog {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO product_changes (product_id, changed_at) VALUES (?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ProductChangeLogImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void appendChanges(Collection<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return;
+        }
+        // Application clock, like every other timestamp here, so feed readers can compare it to serverTime
+        Timestamp changedAt = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, productIds, productIds.size(),
+                (ps, productId) -> {
+                    ps.setLong(1, productId);
+                    ps.setTimestamp(2, changedAt);
+                });
+    }
+}
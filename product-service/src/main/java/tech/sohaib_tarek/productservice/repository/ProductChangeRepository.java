@@ -0,0 +1,28 @@
+package tech.sohaib_tarek.productservice.repository;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import tech.sohaib_tarek.productservice.entity.ProductChange;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ProductChangeRepository extends JpaRepository<ProductChange, Long>, ProductChangeLog {
+
+    List<ProductChange> findByVersionGreaterThanOrderByVersionAsc(Long version, Limit limit);
+
+    @Query("SELECT MAX(c.version) FROM ProductChange c")
+    Long findLatestVersion();
+
+    @Query("SELECT MIN(c.version) FROM ProductChange c")
+    Long findOldestVersion();
+
+    @Modifying
+    @Query("DELETE FROM ProductChange c WHERE c.changedAt < :cutoff AND c.version < :keepVersion")
+    int deleteChangedBefore(@Param("cutoff") LocalDateTime cutoff, @Param("keepVersion") Long keepVersion);
+}
@@ -1,16 +1,35 @@
 package tech.sohaib_tarek.productservice.repository;
 
 import tech.sohaib_tarek.productservice.entity.Product;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductStockRepository {
 
     List<Product> findByNameContainingIgnoreCase(String name);
 
     List<Product> findByStockGreaterThan(Integer stock);
+
+    /**
+     * Keyset scrolling: the position carries the last seen sort values, so each page
+     * is a range seek on the matching index rather than an OFFSET scan.
+     */
+    Window<Product> findBy(ScrollPosition position, Sort sort, Limit limit);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.productId = :productId")
+    Optional<Product> findByIdForUpdate(@Param("productId") Long productId);
 }
 
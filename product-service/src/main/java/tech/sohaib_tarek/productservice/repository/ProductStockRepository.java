@@ -0,0 +1,48 @@
+package tech.sohaib_tarek.productservice.repository;
+
+import tech.sohaib_tarek.productservice.dto.StockUpdateRequest;
+
+import java.util.List;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Set-based stock mutations executed as a single JDBC batch.
+ * Each returned element is the number of rows touched by the matching update (0 or 1).
+ * <p>
+ * Lines of striped products are applied to one of their stock buckets instead of the product row.
+ */
+public interface ProductStockRepository {
+
+    int[] decrementStock(List<StockUpdateRequest> stockUpdates);
+
+    int[] incrementStock(List<StockUpdateRequest> stockUpdates);
+
+    /**
+     * Locks the buckets of a striped product and returns their total stock.
+     */
+    int lockBucketStock(Long productId);
+
+    /**
+     * Replaces the buckets of a product with the given number of buckets sharing total evenly.
+     * With zero buckets the product's bucket rows are only removed.
+     */
+    void redistributeBucketStock(Long productId, int buckets, int total);
+
+    /**
+     * Evens out the buckets of a striped product when some of them ran low while others did not.
+     * Returns whether anything was moved.
+     */
+    boolean rebalanceBuckets(Long productId);
+
+    List<Long> findStripedProductIds();
+
+    /**
+     * Streams the stock of every unstriped product, used to load the inventory engine.
+     */
+    void forEachStock(ObjIntConsumer<Long> consumer);
+
+    /**
+     * Sets absolute stock values in one batch; written behind by the inventory engine.
+     */
+    void overwriteStock(long[] productIds, int[] stocks);
+}
@@ -0,0 +1,283 @@
+package tech.sohaib_tarek.productservice.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import tech.sohaib_tarek.productservice.dto.StockUpdateRequest;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.ObjIntConsumer;
+import java.util.stream.Collectors;
+
+public class ProductStockRepositoryImpl implements ProductStockRepository {
+
+    // Guarded decrement: the row is only touched when enough stock is left, so concurrent
+    // checkouts can never oversell and no read-modify-write happens in the application
+    private static final String DECREMENT_SQL =
+            "UPDATE products SET stock = stock - ? WHERE product_id = ? AND stock >= ? AND stock_buckets = 0";
+
+    private static final String INCREMENT_SQL =
+            "UPDATE products SET stock = stock + ? WHERE product_id = ? AND stock_buckets = 0";
+
+    private static final String STRIPES_SQL =
+            "SELECT product_id, stock_buckets FROM products WHERE stock_buckets > 0 AND product_id IN (:productIds)";
+
+    private static final String BUCKETS_SQL =
+            "SELECT bucket_no, stock FROM product_stock_buckets WHERE product_id = ? ORDER BY bucket_no";
+
+    private static final String LOCK_BUCKETS_SQL = BUCKETS_SQL + " FOR UPDATE";
+
+    private static final String BUCKET_DECREMENT_SQL =
+            "UPDATE product_stock_buckets SET stock = stock - ? WHERE product_id = ? AND bucket_no = ? AND stock >= ?";
+
+    private static final String BUCKET_INCREMENT_SQL =
+            "UPDATE product_stock_buckets SET stock = stock + ? WHERE product_id = ? AND bucket_no = ?";
+
+    private static final String SET_BUCKET_SQL =
+            "UPDATE product_stock_buckets SET stock = ? WHERE product_id = ? AND bucket_no = ?";
+
+    private static final String DELETE_BUCKETS_SQL = "DELETE FROM product_stock_buckets WHERE product_id = ?";
+
+    private static final String INSERT_BUCKET_SQL =
+            "INSERT INTO product_stock_buckets (product_id, bucket_no, stock) VALUES (?, ?, ?)";
+
+    private static final String STRIPED_PRODUCTS_SQL = "SELECT product_id FROM products WHERE stock_buckets > 0";
+
+    private static final String ALL_STOCK_SQL = "SELECT product_id, stock FROM products WHERE stock_buckets = 0";
+
+    private static final String OVERWRITE_SQL =
+            "UPDATE products SET stock = ? WHERE product_id = ? AND stock_buckets = 0";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public ProductStockRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    @Override
+    public int[] decrementStock(List<StockUpdateRequest> stockUpdates) {
+        return applyStockUpdates(stockUpdates, true);
+    }
+
+    @Override
+    public int[] incrementStock(List<StockUpdateRequest> stockUpdates) {
+        return applyStockUpdates(stockUpdates, false);
+    }
+
+    @Override
+    public int lockBucketStock(Long productId) {
+        return lockBuckets(productId).values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    @Override
+    public void redistributeBucketStock(Long productId, int buckets, int total) {
+        jdbcTemplate.update(DELETE_BUCKETS_SQL, productId);
+        if (buckets == 0) {
+            return;
+        }
+        List<int[]> rows = new ArrayList<>(buckets);
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            rows.add(new int[]{bucket, share(total, buckets, bucket)});
+        }
+        jdbcTemplate.batchUpdate(INSERT_BUCKET_SQL, rows, rows.size(), (ps, row) -> {
+            ps.setLong(1, productId);
+            ps.setInt(2, row[0]);
+            ps.setInt(3, row[1]);
+        });
+    }
+
+    @Override
+    public boolean rebalanceBuckets(Long productId) {
+        Map<Integer, Integer> buckets = lockBuckets(productId);
+        if (buckets.size() < 2) {
+            return false;
+        }
+        int total = buckets.values().stream().mapToInt(Integer::intValue).sum();
+        int lowest = buckets.values().stream().mapToInt(Integer::intValue).min().orElse(0);
+        // Only worth the locks once a bucket holds less than half of its fair share
+        if (lowest * 2 >= total / buckets.size()) {
+            return false;
+        }
+        List<Object[]> rows = new ArrayList<>(buckets.size());
+        for (int bucket = 0; bucket < buckets.size(); bucket++) {
+            rows.add(new Object[]{share(total, buckets.size(), bucket), productId, bucket});
+        }
+        jdbcTemplate.batchUpdate(SET_BUCKET_SQL, rows);
+        return true;
+    }
+
+    @Override
+    public List<Long> findStripedProductIds() {
+        return jdbcTemplate.queryForList(STRIPED_PRODUCTS_SQL, Long.class);
+    }
+
+    @Override
+    public void forEachStock(ObjIntConsumer<Long> consumer) {
+        jdbcTemplate.query(ALL_STOCK_SQL, rs -> {
+            consumer.accept(rs.getLong("product_id"), rs.getInt("stock"));
+        });
+    }
+
+    @Override
+    public void overwriteStock(long[] productIds, int[] stocks) {
+        if (productIds.length == 0) {
+            return;
+        }
+        List<Integer> indices = new ArrayList<>(productIds.length);
+        for (int i = 0; i < productIds.length; i++) {
+            indices.add(i);
+        }
+        jdbcTemplate.batchUpdate(OVERWRITE_SQL, indices, indices.size(), (ps, i) -> {
+            ps.setInt(1, stocks[i]);
+            ps.setLong(2, productIds[i]);
+        });
+    }
+
+    /**
+     * Unstriped lines go to the product rows in one batch, striped lines to a bucket each. A line that
+     * matched no row is retried once if its product was striped or unstriped in the meantime.
+     */
+    private int[] applyStockUpdates(List<StockUpdateRequest> stockUpdates, boolean decrement) {
+        int[] updated = new int[stockUpdates.size()];
+        List<Integer> all = new ArrayList<>(stockUpdates.size());
+        for (int i = 0; i < stockUpdates.size(); i++) {
+            all.add(i);
+        }
+        Map<Long, Integer> stripes = findStripes(stockUpdates, all);
+        apply(stockUpdates, all, stripes, decrement, updated);
+
+        List<Integer> missed = all.stream().filter(i -> updated[i] == 0).collect(Collectors.toList());
+        if (!missed.isEmpty()) {
+            Map<Long, Integer> current = findStripes(stockUpdates, missed);
+            List<Integer> switched = missed.stream()
+                    .filter(i -> {
+                        Long productId = stockUpdates.get(i).getProductId();
+                        return !Objects.equals(stripes.get(productId), current.get(productId));
+                    })
+                    .collect(Collectors.toList());
+            apply(stockUpdates, switched, current, decrement, updated);
+        }
+        return updated;
+    }
+
+    private void apply(List<StockUpdateRequest> stockUpdates, List<Integer> indices, Map<Long, Integer> stripes,
+                       boolean decrement, int[] updated) {
+        List<Integer> plain = new ArrayList<>();
+        for (int i : indices) {
+            StockUpdateRequest update = stockUpdates.get(i);
+            Integer buckets = stripes.get(update.getProductId());
+            if (buckets == null) {
+                plain.add(i);
+            } else if (decrement) {
+                updated[i] = decrementBuckets(update.getProductId(), update.getQuantity(), buckets);
+            } else {
+                updated[i] = jdbcTemplate.update(BUCKET_INCREMENT_SQL,
+                        update.getQuantity(), update.getProductId(), bucketFor(buckets));
+            }
+        }
+        if (plain.isEmpty()) {
+            return;
+        }
+
+        int[] rows = flatten(jdbcTemplate.batchUpdate(decrement ? DECREMENT_SQL : INCREMENT_SQL, plain, plain.size(),
+                (ps, i) -> {
+                    StockUpdateRequest update = stockUpdates.get(i);
+                    ps.setInt(1, update.getQuantity());
+                    ps.setLong(2, update.getProductId());
+                    if (decrement) {
+                        ps.setInt(3, update.getQuantity());
+                    }
+                }));
+        for (int k = 0; k < rows.length; k++) {
+            updated[plain.get(k)] = rows[k];
+        }
+    }
+
+    /**
+     * Takes the quantity from the caller's own bucket, or from a sibling that looked like it could
+     * cover it. Only buckets expected to succeed are updated, since a failed guarded update still
+     * locks its row. When no single bucket is enough, the quantity is collected from several.
+     */
+    private int decrementBuckets(Long productId, int quantity, int buckets) {
+        Map<Integer, Integer> seen = new HashMap<>();
+        jdbcTemplate.query(BUCKETS_SQL, rs -> {
+            seen.put(rs.getInt("bucket_no"), rs.getInt("stock"));
+        }, productId);
+
+        int start = bucketFor(buckets);
+        for (int k = 0; k < buckets; k++) {
+            int bucket = (start + k) % buckets;
+            if (seen.getOrDefault(bucket, 0) >= quantity
+                    && jdbcTemplate.update(BUCKET_DECREMENT_SQL, quantity, productId, bucket, quantity) == 1) {
+                return 1;
+            }
+        }
+        return drainBuckets(productId, quantity);
+    }
+
+    private int drainBuckets(Long productId, int quantity) {
+        Map<Integer, Integer> buckets = lockBuckets(productId);
+        if (buckets.values().stream().mapToInt(Integer::intValue).sum() < quantity) {
+            return 0;
+        }
+        int remaining = quantity;
+        List<Object[]> rows = new ArrayList<>();
+        for (Map.Entry<Integer, Integer> bucket : buckets.entrySet().stream()
+                .sorted(Map.Entry.<Integer, Integer>comparingByValue(Comparator.reverseOrder()))
+                .collect(Collectors.toList())) {
+            int taken = Math.min(remaining, bucket.getValue());
+            rows.add(new Object[]{bucket.getValue() - taken, productId, bucket.getKey()});
+            remaining -= taken;
+            if (remaining == 0) {
+                break;
+            }
+        }
+        jdbcTemplate.batchUpdate(SET_BUCKET_SQL, rows);
+        return 1;
+    }
+
+    // Bucket rows are locked in bucket order, the same order every multi-bucket operation uses
+    private Map<Integer, Integer> lockBuckets(Long productId) {
+        Map<Integer, Integer> buckets = new HashMap<>();
+        jdbcTemplate.query(LOCK_BUCKETS_SQL, rs -> {
+            buckets.put(rs.getInt("bucket_no"), rs.getInt("stock"));
+        }, productId);
+        return buckets;
+    }
+
+    private Map<Long, Integer> findStripes(List<StockUpdateRequest> stockUpdates, List<Integer> indices) {
+        Map<Long, Integer> stripes = new HashMap<>();
+        if (indices.isEmpty()) {
+            return stripes;
+        }
+        List<Long> productIds = indices.stream()
+                .map(i -> stockUpdates.get(i).getProductId())
+                .distinct()
+                .collect(Collectors.toList());
+        namedJdbcTemplate.query(STRIPES_SQL, new MapSqlParameterSource("productIds", productIds), rs -> {
+            stripes.put(rs.getLong("product_id"), rs.getInt("stock_buckets"));
+        });
+        return stripes;
+    }
+
+    // Requests handled by the same thread keep hitting the same bucket, different threads spread out
+    private int bucketFor(int buckets) {
+        long hash = Thread.currentThread().threadId() * 0x9E3779B97F4A7C15L;
+        return (int) Math.floorMod(hash ^ (hash >>> 32), (long) buckets);
+    }
+
+    private int share(int total, int buckets, int bucket) {
+        return total / buckets + (bucket < total % buckets ? 1 : 0);
+    }
+
+    private int[] flatten(int[][] batchResults) {
+        return batchResults.length == 0 ? new int[0] : batchResults[0];
+    }
+}
@@ -0,0 +1,27 @@
+package tech.sohaib_tarek.productservice.repository;
+
+import tech.sohaib_tarek.productservice.dto.StockUpdateRequest;
+import tech.sohaib_tarek.productservice.enums.StockMovementReason;
+
+import java.util.List;
+
+/**
+ * Appends stock movements in a single JDBC batch, inside the caller's transaction.
+ */
+public interface StockMovementLog {
+
+    /**
+     * One movement per line; sign is -1 for lines that took stock and 1 for lines that gave it back.
+     */
+    void appendMovements(List<StockUpdateRequest> lines, int sign, StockMovementReason reason, String orderRef);
+
+    /**
+     * Same, for lines the inventory engine applied as the change identified by inventoryToken.
+     */
+    void appendMovements(List<StockUpdateRequest> lines, int sign, StockMovementReason reason, String orderRef,
+                         Long inventoryToken);
+
+    void appendMovement(Long productId, int delta, StockMovementReason reason, String orderRef);
+
+    void appendMovement(Long productId, int delta, StockMovementReason reason, String orderRef, Long inventoryToken);
+}
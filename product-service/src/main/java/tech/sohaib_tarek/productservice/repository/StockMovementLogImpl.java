@@ -0,0 +1,63 @@
+package tech.sohaib_tarek.productservice.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import tech.sohaib_tarek.productservice.dto.StockUpdateRequest;
+import tech.sohaib_tarek.productservice.enums.StockMovementReason;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class StockMovementLogImpl implements StockMovementLog {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO stock_movements (product_id, delta, reason, order_ref, created_at, inventory_token) " +
+                    "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public StockMovementLogImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void appendMovements(List<StockUpdateRequest> lines, int sign, StockMovementReason reason, String orderRef) {
+        appendMovements(lines, sign, reason, orderRef, null);
+    }
+
+    @Override
+    public void appendMovements(List<StockUpdateRequest> lines, int sign, StockMovementReason reason, String orderRef,
+                                Long inventoryToken) {
+        if (lines.isEmpty()) {
+            return;
+        }
+        Timestamp createdAt = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, lines, lines.size(), (ps, line) -> {
+            ps.setLong(1, line.getProductId());
+            ps.setInt(2, sign * line.getQuantity());
+            ps.setString(3, reason.name());
+            ps.setString(4, orderRef);
+            ps.setTimestamp(5, createdAt);
+            ps.setObject(6, inventoryToken, Types.BIGINT);
+        });
+    }
+
+    @Override
+    public void appendMovement(Long productId, int delta, StockMovementReason reason, String orderRef) {
+        appendMovement(productId, delta, reason, orderRef, null);
+    }
+
+    @Override
+    public void appendMovement(Long productId, int delta, StockMovementReason reason, String orderRef,
+                               Long inventoryToken) {
+        jdbcTemplate.update(INSERT_SQL, ps -> {
+            ps.setLong(1, productId);
+            ps.setInt(2, delta);
+            ps.setString(3, reason.name());
+            ps.setString(4, orderRef);
+            ps.setTimestamp(5, Timestamp.valueOf(LocalDateTime.now()));
+            ps.setObject(6, inventoryToken, Types.BIGINT);
+        });
+    }
+}
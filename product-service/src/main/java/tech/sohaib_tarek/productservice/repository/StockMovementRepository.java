@@ -0,0 +1,45 @@
+package tech.sohaib_tarek.productservice.repository;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import tech.sohaib_tarek.productservice.entity.StockMovement;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface StockMovementRepository extends JpaRepository<StockMovement, Long>, StockMovementLog {
+
+    interface MovementTotal {
+        Long getDelta();
+
+        Long getMovements();
+    }
+
+    /**
+     * Net delta and number of movements of a product in (from, to].
+     */
+    @Query("SELECT COALESCE(SUM(m.delta), 0) AS delta, COUNT(m) AS movements FROM StockMovement m " +
+            "WHERE m.productId = :productId AND m.createdAt > :from AND m.createdAt <= :to")
+    MovementTotal sumMovements(@Param("productId") Long productId,
+                               @Param("from") LocalDateTime from,
+                               @Param("to") LocalDateTime to);
+
+    @Query("SELECT m FROM StockMovement m " +
+            "WHERE m.productId = :productId AND m.createdAt > :from AND m.createdAt <= :to " +
+            "ORDER BY m.createdAt, m.id")
+    List<StockMovement> findMovements(@Param("productId") Long productId,
+                                      @Param("from") LocalDateTime from,
+                                      @Param("to") LocalDateTime to,
+                                      Limit limit);
+
+    /**
+     * The given inventory engine tokens whose transaction committed, i.e. that have a movement.
+     */
+    @Query("SELECT DISTINCT m.inventoryToken FROM StockMovement m WHERE m.inventoryToken IN :tokens")
+    List<Long> findInventoryTokens(@Param("tokens") Collection<Long> tokens);
+}
@@ -0,0 +1,34 @@
+package tech.sohaib_tarek.productservice.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import tech.sohaib_tarek.productservice.entity.StockReservation;
+import tech.sohaib_tarek.productservice.enums.ReservationStatus;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, String> {
+
+    @Query("SELECT r.reservationId FROM StockReservation r " +
+            "WHERE r.status = :status AND r.expiresAt < :now ORDER BY r.expiresAt")
+    List<String> findIdsByStatusAndExpiresAtBefore(@Param("status") ReservationStatus status,
+                                                   @Param("now") LocalDateTime now,
+                                                   Pageable pageable);
+
+    /**
+     * Compare-and-set status change; returns 0 when another caller already moved the reservation.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE StockReservation r SET r.status = :target " +
+            "WHERE r.reservationId = :reservationId AND r.status IN :expected")
+    int transition(@Param("reservationId") String reservationId,
+                   @Param("expected") Collection<ReservationStatus> expected,
+                   @Param("target") ReservationStatus target);
+}
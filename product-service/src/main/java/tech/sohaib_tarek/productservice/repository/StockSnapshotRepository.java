@@ -0,0 +1,19 @@
+package tech.sohaib_tarek.productservice.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import tech.sohaib_tarek.productservice.entity.StockSnapshot;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface StockSnapshotRepository extends JpaRepository<StockSnapshot, Long>, StockSnapshotWriter {
+
+    Optional<StockSnapshot> findFirstByProductIdAndTakenAtLessThanEqualOrderByTakenAtDesc(Long productId,
+                                                                                          LocalDateTime at);
+
+    @Query("SELECT MAX(s.takenAt) FROM StockSnapshot s")
+    LocalDateTime findLatestTakenAt();
+}
@@ -0,0 +1,22 @@
+package tech.sohaib_tarek.productservice.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Set-based snapshot runs, each a single INSERT ... SELECT.
+ */
+public interface StockSnapshotWriter {
+
+    /**
+     * First run: snapshots every product as of cutoff, from its current stock minus the
+     * movements recorded after cutoff. Only exact while nothing writes stock behind the journal,
+     * so it must not run with the inventory engine enabled.
+     */
+    int snapshotAll(LocalDateTime cutoff);
+
+    /**
+     * Later runs: snapshots the products that moved in (previous, cutoff], from their latest
+     * snapshot plus those movements.
+     */
+    int snapshotMoved(LocalDateTime previous, LocalDateTime cutoff);
+}
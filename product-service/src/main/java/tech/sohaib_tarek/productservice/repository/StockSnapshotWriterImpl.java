@@ -0,0 +1,44 @@
+package tech.sohaib_tarek.productservice.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+public class StockSnapshotWriterImpl implements StockSnapshotWriter {
+
+    private static final String SNAPSHOT_ALL_SQL =
+            "INSERT INTO stock_snapshots (product_id, taken_at, stock) " +
+            "SELECT p.product_id, ?, p.stock " +
+            "+ COALESCE((SELECT SUM(b.stock) FROM product_stock_buckets b WHERE b.product_id = p.product_id), 0) " +
+            "- COALESCE((SELECT SUM(m.delta) FROM stock_movements m WHERE m.product_id = p.product_id AND m.created_at > ?), 0) " +
+            "FROM products p";
+
+    // A product that moved since the previous run had all earlier movements folded into its latest snapshot
+    private static final String SNAPSHOT_MOVED_SQL =
+            "INSERT INTO stock_snapshots (product_id, taken_at, stock) " +
+            "SELECT m.product_id, ?, COALESCE(MAX(s.stock), 0) + SUM(m.delta) " +
+            "FROM stock_movements m " +
+            "LEFT JOIN stock_snapshots s ON s.product_id = m.product_id " +
+            "AND s.taken_at = (SELECT MAX(l.taken_at) FROM stock_snapshots l WHERE l.product_id = m.product_id) " +
+            "WHERE m.created_at > ? AND m.created_at <= ? " +
+            "GROUP BY m.product_id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public StockSnapshotWriterImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public int snapshotAll(LocalDateTime cutoff) {
+        Timestamp takenAt = Timestamp.valueOf(cutoff);
+        return jdbcTemplate.update(SNAPSHOT_ALL_SQL, takenAt, takenAt);
+    }
+
+    @Override
+    public int snapshotMoved(LocalDateTime previous, LocalDateTime cutoff) {
+        Timestamp takenAt = Timestamp.valueOf(cutoff);
+        return jdbcTemplate.update(SNAPSHOT_MOVED_SQL, takenAt, Timestamp.valueOf(previous), takenAt);
+    }
+}
@@ -0,0 +1,36 @@
+package tech.sohaib_tarek.productservice.scheduler;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import tech.sohaib_tarek.productservice.inventory.InventoryEngine;
+
+/**
+ * Writes the stock changed in the inventory engine back to the products table. Every partition's
+ * changes go out in one batch, so the table sees one write per product per interval however many
+ * orders touched it. Does nothing while the engine is disabled.
+ */
+@Component
+public class InventoryWriteBehindJob {
+
+    private static final Logger log = LoggerFactory.getLogger(InventoryWriteBehindJob.class);
+
+    private final InventoryEngine inventoryEngine;
+
+    public InventoryWriteBehindJob(InventoryEngine inventoryEngine) {
+        this.inventoryEngine = inventoryEngine;
+    }
+
+    @Scheduled(fixedDelayString = "${product.inventory.engine.flush-interval-ms:200}")
+    public void flush() {
+        if (!inventoryEngine.isEnabled()) {
+            return;
+        }
+        try {
+            inventoryEngine.flush();
+        } catch (RuntimeException e) {
+            log.warn("Inventory write-behind failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package tech.sohaib_tarek.productservice.scheduler;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import tech.sohaib_tarek.productservice.service.ProductChangeService;
+
+/**
+ * Prunes product change feed entries older than the retention period.
+ */
+@Component
+public class ProductChangeCleanupJob {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductChangeCleanupJob.class);
+
+    private final ProductChangeService productChangeService;
+
+    public ProductChangeCleanupJob(ProductChangeService productChangeService) {
+        this.productChangeService = productChangeService;
+    }
+
+    @Scheduled(fixedDelayString = "${product.changes.cleanup-interval-ms:3600000}")
+    public void deleteExpiredChanges() {
+        int deleted = productChangeService.deleteExpired();
+        if (deleted > 0) {
+            log.info("Deleted {} expired product changes", deleted);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package tech.sohaib_tarek.productservice.scheduler;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import tech.sohaib_tarek.productservice.service.ProductService;
+
+/**
+ * Evens out the stock buckets of striped products, so buyers rarely have to fall back to a
+ * sibling bucket or collect a quantity from several. Each product is rebalanced in its own
+ * short transaction.
+ */
+@Component
+public class StockBucketRebalanceJob {
+
+    private static final Logger log = LoggerFactory.getLogger(StockBucketRebalanceJob.class);
+
+    private final ProductService productService;
+
+    public StockBucketRebalanceJob(ProductService productService) {
+        this.productService = productService;
+    }
+
+    @Scheduled(fixedDelayString = "${product.striping.rebalance-interval-ms:5000}")
+    public void rebalanceBuckets() {
+        for (Long productId : productService.getStripedProductIds()) {
+            try {
+                if (productService.rebalanceStockBuckets(productId)) {
+                    log.debug("Rebalanced stock buckets of product {}", productId);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Failed to rebalance stock buckets of product {}: {}", productId, e.getMessage());
+            }
+        }
+    }
+}
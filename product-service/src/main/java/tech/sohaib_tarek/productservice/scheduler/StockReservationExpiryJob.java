@@ -0,0 +1,55 @@
+package tech.sohaib_tarek.productservice.scheduler;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import tech.sohaib_tarek.productservice.service.StockReservationService;
+
+import java.util.List;
+
+/**
+ * Gives back the stock of reservations that were neither confirmed nor released in time.
+ * Each pass reads a bounded page of overdue IDs through the (status, expires_at) index
+ * and expires them one transaction at a time.
+ */
+@Component
+public class StockReservationExpiryJob {
+
+    private static final Logger log = LoggerFactory.getLogger(StockReservationExpiryJob.class);
+
+    private final StockReservationService reservationService;
+
+    @Value("${stock.reservation.expiry-batch-size:100}")
+    private int batchSize;
+
+    public StockReservationExpiryJob(StockReservationService reservationService) {
+        this.reservationService = reservationService;
+    }
+
+    @Scheduled(fixedDelayString = "${stock.reservation.expiry-interval-ms:30000}")
+    public void releaseExpiredReservations() {
+        int expired = 0;
+        List<String> reservationIds;
+        int expiredInPage;
+        do {
+            reservationIds = reservationService.findExpiredReservationIds(batchSize);
+            expiredInPage = 0;
+            for (String reservationId : reservationIds) {
+                try {
+                    if (reservationService.expire(reservationId)) {
+                        expiredInPage++;
+                    }
+                } catch (Exception e) {
+                    log.error("Failed to expire reservation {}: {}", reservationId, e.getMessage());
+                }
+            }
+            expired += expiredInPage;
+        } while (reservationIds.size() == batchSize && expiredInPage > 0);
+
+        if (expired > 0) {
+            log.info("Expired {} stock reservations", expired);
+        }
+    }
+}
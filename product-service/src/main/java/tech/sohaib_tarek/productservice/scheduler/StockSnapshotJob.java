@@ -0,0 +1,24 @@
+package tech.sohaib_tarek.productservice.scheduler;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import tech.sohaib_tarek.productservice.service.StockJournalService;
+
+/**
+ * Compacts the stock movement journal into snapshots, so a point-in-time stock query only
+ * replays the movements of one interval.
+ */
+@Component
+public class StockSnapshotJob {
+
+    private final StockJournalService stockJournalService;
+
+    public StockSnapshotJob(StockJournalService stockJournalService) {
+        this.stockJournalService = stockJournalService;
+    }
+
+    @Scheduled(fixedDelayString = "${stock.journal.snapshot-interval-ms:3600000}")
+    public void takeSnapshot() {
+        stockJournalService.takeSnapshot();
+    }
+}
@@ -0,0 +1,287 @@
+package tech.sohaib_tarek.productservice.search;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import tech.sohaib_tarek.productservice.entity.Product;
+import tech.sohaib_tarek.productservice.event.ProductChangedEvent;
+import tech.sohaib_tarek.productservice.repository.ProductRepository;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over product name and description.
+ *
+ * Terms are case-folded and accent-stripped. The term dictionary is sorted, so a query
+ * term matches every indexed term it is a prefix of with a single range lookup.
+ * Scores are tf-idf style: name hits weigh more than description hits and exact term
+ * hits weigh more than prefix hits. Every query term must match (AND semantics).
+ */
+@Component
+public class ProductSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductSearchIndex.class);
+
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    private static final float NAME_WEIGHT = 3.0f;
+    private static final float DESCRIPTION_WEIGHT = 1.0f;
+    private static final float PREFIX_MATCH_FACTOR = 0.5f;
+    private static final int BOOTSTRAP_BATCH_SIZE = 1000;
+
+    private final ProductRepository productRepository;
+
+    // term -> (productId -> field-weighted term frequency)
+    private NavigableMap<String, Map<Long, Float>> postings = new TreeMap<>();
+    // productId -> indexed terms, used to remove a product's postings on update/delete
+    private Map<Long, Set<String>> documentTerms = new HashMap<>();
+    // Latest change per product seen while a rebuild reads the table, replayed onto the rebuilt index
+    private Map<Long, ProductChangedEvent> changesDuringRebuild;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public ProductSearchIndex(ProductRepository productRepository) {
+        this.productRepository = productRepository;
+    }
+
+    /**
+     * Builds a fresh index from the products table and swaps it in. Changes committed while the
+     * table is read are applied to the live index as usual and replayed onto the fresh one before
+     * the swap, so a row read before its update cannot win over the update.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild = new HashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        NavigableMap<String, Map<Long, Float>> freshPostings = new TreeMap<>();
+        Map<Long, Set<String>> freshDocumentTerms = new HashMap<>();
+        int indexed = 0;
+        try {
+            ScrollPosition position = ScrollPosition.keyset();
+            Window<Product> window;
+            do {
+                window = productRepository.findBy(position, Sort.by("productId"), Limit.of(BOOTSTRAP_BATCH_SIZE));
+                for (Product product : window) {
+                    add(freshPostings, freshDocumentTerms, product.getProductId(),
+                            termWeights(product.getName(), product.getDescription()));
+                    indexed++;
+                }
+                if (!window.isEmpty()) {
+                    position = window.positionAt(window.size() - 1);
+                }
+            } while (window.hasNext());
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                changesDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (ProductChangedEvent change : changesDuringRebuild.values()) {
+                apply(freshPostings, freshDocumentTerms, change);
+            }
+            changesDuringRebuild = null;
+            postings = freshPostings;
+            documentTerms = freshDocumentTerms;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Product search index built with {} products and {} terms in {} ms",
+                indexed, termCount(), System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        Map<String, Float> termWeights = event.getType() == ProductChangedEvent.Type.DELETED
+                ? null
+                : termWeights(event.getName(), event.getDescription());
+
+        lock.writeLock().lock();
+        try {
+            remove(postings, documentTerms, event.getProductId());
+            if (termWeights != null) {
+                add(postings, documentTerms, event.getProductId(), termWeights);
+            }
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.put(event.getProductId(), event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void index(Long productId, String name, String description) {
+        onProductChanged(new ProductChangedEvent(ProductChangedEvent.Type.UPDATED, productId, name, description));
+    }
+
+    public void remove(Long productId) {
+        onProductChanged(ProductChangedEvent.deleted(productId));
+    }
+
+    /**
+     * Returns the IDs of the best matching products, highest score first.
+     */
+    public List<Long> search(String query, int limit) {
+        List<String> queryTerms = tokenize(query);
+        if (queryTerms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Float> scores = null;
+            for (String queryTerm : new LinkedHashSet<>(queryTerms)) {
+                Map<Long, Float> termScores = scoreTerm(queryTerm);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    scores.keySet().retainAll(termScores.keySet());
+                    for (Map.Entry<Long, Float> entry : scores.entrySet()) {
+                        entry.setValue(entry.getValue() + termScores.get(entry.getKey()));
+                    }
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+            return topK(scores, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documentTerms.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD))
+                .replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        List<String> terms = new ArrayList<>();
+        for (String term : NON_ALPHANUMERIC.split(folded)) {
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    private Map<Long, Float> scoreTerm(String queryTerm) {
+        Map<Long, Float> scores = new HashMap<>();
+        int documentCount = Math.max(1, documentTerms.size());
+        // Every indexed term starting with queryTerm, e.g. "lap" -> "laptop", "lapel"
+        for (Map.Entry<String, Map<Long, Float>> entry
+                : postings.subMap(queryTerm, true, queryTerm + Character.MAX_VALUE, false).entrySet()) {
+            Map<Long, Float> documents = entry.getValue();
+            float idf = (float) Math.log(1.0 + (double) documentCount / documents.size());
+            float matchFactor = entry.getKey().equals(queryTerm) ? 1.0f : PREFIX_MATCH_FACTOR;
+            for (Map.Entry<Long, Float> posting : documents.entrySet()) {
+                // A document keeps the best matching expansion of the query term
+                scores.merge(posting.getKey(), posting.getValue() * idf * matchFactor, Math::max);
+            }
+        }
+        return scores;
+    }
+
+    private List<Long> topK(Map<Long, Float> scores, int limit) {
+        PriorityQueue<Map.Entry<Long, Float>> best = new PriorityQueue<>(limit + 1, Map.Entry.comparingByValue());
+        for (Map.Entry<Long, Float> entry : scores.entrySet()) {
+            best.offer(entry);
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+        List<Long> productIds = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            productIds.add(best.poll().getKey());
+        }
+        Collections.reverse(productIds);
+        return productIds;
+    }
+
+    private static Map<String, Float> termWeights(String name, String description) {
+        Map<String, Float> termWeights = new HashMap<>();
+        for (String term : tokenize(name)) {
+            termWeights.merge(term, NAME_WEIGHT, Float::sum);
+        }
+        for (String term : tokenize(description)) {
+            termWeights.merge(term, DESCRIPTION_WEIGHT, Float::sum);
+        }
+        return termWeights;
+    }
+
+    private static void apply(NavigableMap<String, Map<Long, Float>> postings, Map<Long, Set<String>> documentTerms,
+                              ProductChangedEvent change) {
+        remove(postings, documentTerms, change.getProductId());
+        if (change.getType() != ProductChangedEvent.Type.DELETED) {
+            add(postings, documentTerms, change.getProductId(),
+                    termWeights(change.getName(), change.getDescription()));
+        }
+    }
+
+    // The product must have no postings left from an earlier version
+    private static void add(NavigableMap<String, Map<Long, Float>> postings, Map<Long, Set<String>> documentTerms,
+                            Long productId, Map<String, Float> termWeights) {
+        termWeights.forEach((term, weight) ->
+                postings.computeIfAbsent(term, key -> new HashMap<>()).put(productId, weight));
+        documentTerms.put(productId, termWeights.keySet());
+    }
+
+    private static void remove(NavigableMap<String, Map<Long, Float>> postings, Map<Long, Set<String>> documentTerms,
+                               Long productId) {
+        Set<String> terms = documentTerms.remove(productId);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            Map<Long, Float> documents = postings.get(term);
+            if (documents != null) {
+                documents.remove(productId);
+                if (documents.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    private int termCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package tech.sohaib_tarek.productservice.service;
+
+import tech.sohaib_tarek.productservice.dto.ProductChangeFeedResponse;
+
+public interface ProductChangeService {
+
+    /**
+     * Returns the changes with a version above since, oldest first, each carrying the product's
+     * current state.
+     */
+    ProductChangeFeedResponse getChangesSince(Long since, Integer limit);
+
+    int deleteExpired();
+}
@@ -1,8 +1,10 @@
 package tech.sohaib_tarek.productservice.service;
 
+import tech.sohaib_tarek.productservice.dto.ProductPageResponse;
 import tech.sohaib_tarek.productservice.dto.ProductRequest;
 import tech.sohaib_tarek.productservice.dto.ProductResponse;
 import tech.sohaib_tarek.productservice.dto.StockUpdateRequest;
+import tech.sohaib_tarek.productservice.enums.StockMovementReason;
 
 import java.util.List;
 
@@ -14,14 +16,41 @@ public interface ProductService {
 
     List<ProductResponse> getAllProducts();
 
+    ProductPageResponse getProductsPage(String cursor, Integer size, String sort, String direction);
+
+    List<ProductResponse> getProductsByIds(List<Long> productIds);
+
+    List<ProductResponse> searchProducts(String query, Integer limit);
+
     ProductResponse updateProduct(Long productId, ProductRequest request);
 
     void deleteProduct(Long productId);
 
     boolean checkStock(Long productId, Integer quantity);
 
-    void reduceStock(List<StockUpdateRequest> stockUpdates);
+    /**
+     * Every stock mutation records one stock movement per applied line, with the given reason and
+     * order reference (a reservation, stock operation or idempotency key; may be null).
+     */
+    void reduceStock(List<StockUpdateRequest> stockUpdates, StockMovementReason reason, String orderRef);
+
+    /**
+     * Applies the guarded decrement to every line and returns the lines that could not be served.
+     * Nothing is rolled back here; callers decide whether a partial result is acceptable.
+     */
+    List<StockUpdateRequest> reduceAvailableStock(List<StockUpdateRequest> stockUpdates,
+                                                  StockMovementReason reason, String orderRef);
+
+    void restoreStock(List<StockUpdateRequest> stockUpdates, StockMovementReason reason, String orderRef);
+
+    /**
+     * Splits the stock of a hot product across the given number of bucket rows, or moves it back
+     * into the product row when buckets is 0. The reported stock stays the same.
+     */
+    ProductResponse configureStockStriping(Long productId, int buckets);
+
+    List<Long> getStripedProductIds();
 
-    void restoreStock(List<StockUpdateRequest> stockUpdates);
+    boolean rebalanceStockBuckets(Long productId);
 }
 
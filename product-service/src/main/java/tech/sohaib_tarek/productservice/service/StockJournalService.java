@@ -0,0 +1,27 @@
+package tech.sohaib_tarek.productservice.service;
+
+import tech.sohaib_tarek.productservice.dto.StockAsOfResponse;
+import tech.sohaib_tarek.productservice.dto.StockMovementResponse;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface StockJournalService {
+
+    /**
+     * Stock of a product at the given time: its latest snapshot at or before that time plus the
+     * movements recorded after the snapshot.
+     */
+    StockAsOfResponse getStockAsOf(Long productId, LocalDateTime at);
+
+    /**
+     * Movements of a product in (from, to], oldest first.
+     */
+    List<StockMovementResponse> getMovements(Long productId, LocalDateTime from, LocalDateTime to, Integer limit);
+
+    /**
+     * Folds the movements recorded since the previous run into new snapshots; returns the number
+     * of products snapshotted.
+     */
+    int takeSnapshot();
+}
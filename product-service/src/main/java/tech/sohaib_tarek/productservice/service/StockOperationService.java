@@ -0,0 +1,11 @@
+package tech.sohaib_tarek.productservice.service;
+
+import tech.sohaib_tarek.productservice.dto.StockOperationRequest;
+import tech.sohaib_tarek.productservice.dto.StockOperationResult;
+
+import java.util.List;
+
+public interface StockOperationService {
+
+    List<StockOperationResult> apply(List<StockOperationRequest> operations);
+}
@@ -0,0 +1,38 @@
+package tech.sohaib_tarek.productservice.service;
+
+import tech.sohaib_tarek.productservice.dto.CartReservationResponse;
+import tech.sohaib_tarek.productservice.dto.StockReservationRequest;
+import tech.sohaib_tarek.productservice.dto.StockReservationResponse;
+
+import java.util.List;
+
+public interface StockReservationService {
+
+    StockReservationResponse reserve(StockReservationRequest request);
+
+    CartReservationResponse reserveCart(StockReservationRequest request);
+
+    /**
+     * Keeps the held stock deducted for good; confirming twice is a no-op. A reservation that
+     * already expired gave its stock back, so confirming it takes the stock again: if any line
+     * no longer has enough, the confirm fails as a whole and the reservation stays EXPIRED.
+     */
+    StockReservationResponse confirm(String reservationId);
+
+    /**
+     * Gives the held stock back, also for a CONFIRMED reservation whose order is cancelled.
+     * Releasing a reservation that was already released or expired is a no-op.
+     */
+    StockReservationResponse release(String reservationId);
+
+    /**
+     * Releases all reservations of one order together. What they still hold is netted per
+     * product first, so stock an order edit gave back is simply not restored instead of being
+     * taken again: the release cannot run out of stock halfway.
+     */
+    void releaseAll(List<String> reservationIds);
+
+    List<String> findExpiredReservationIds(int limit);
+
+    boolean expire(String reservationId);
+}
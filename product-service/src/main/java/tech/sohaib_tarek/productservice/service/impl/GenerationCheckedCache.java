@@ -0,0 +1,74 @@
+package tech.sohaib_tarek.productservice.service.impl;
+
+import org.springframework.cache.Cache;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Product cache whose puts cannot undo a newer eviction.
+ * <p>
+ * Puts and evictions are deferred until the surrounding transaction commits, so a rolled-back
+ * write never leaves the cache out of sync. That alone lets a reader that loaded a row before a
+ * writer committed put it after the writer's eviction, serving the old stock until the TTL. So
+ * every eviction bumps a generation, a reader takes the generation before it loads, and a put
+ * whose generation moved on meanwhile is evicted again. Keys share generations by stripe, which
+ * only ever costs a skipped put.
+ */
+final class GenerationCheckedCache {
+
+    private static final int STRIPES = 1024;
+
+    private final Cache cache;
+    private final AtomicLongArray generations = new AtomicLongArray(STRIPES);
+
+    GenerationCheckedCache(Cache cache) {
+        this.cache = cache;
+    }
+
+    <T> T get(Object key, Class<T> type) {
+        return cache.get(key, type);
+    }
+
+    /**
+     * Generation to pass to put; take it before loading the value.
+     */
+    long generation(Object key) {
+        return generations.get(stripe(key));
+    }
+
+    void put(Object key, Object value, long generation) {
+        afterCommit(() -> {
+            cache.put(key, value);
+            if (generations.get(stripe(key)) != generation) {
+                cache.evict(key);
+            }
+        });
+    }
+
+    void evict(Object key) {
+        afterCommit(() -> {
+            generations.incrementAndGet(stripe(key));
+            cache.evict(key);
+        });
+    }
+
+    private static int stripe(Object key) {
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,132 @@
+package tech.sohaib_tarek.productservice.service.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tech.sohaib_tarek.productservice.dto.ProductChangeFeedResponse;
+import tech.sohaib_tarek.productservice.dto.ProductChangeResponse;
+import tech.sohaib_tarek.productservice.dto.ProductResponse;
+import tech.sohaib_tarek.productservice.entity.Product;
+import tech.sohaib_tarek.productservice.entity.ProductChange;
+import tech.sohaib_tarek.productservice.inventory.InventoryEngine;
+import tech.sohaib_tarek.productservice.repository.ProductChangeRepository;
+import tech.sohaib_tarek.productservice.repository.ProductRepository;
+import tech.sohaib_tarek.productservice.service.ProductChangeService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Product change feed. Entries are appended by ProductServiceImpl in the transaction of every
+ * product write and stock mutation, and pruned after the retention period. The newest entry is
+ * always kept, so the oldest remaining version tells a reader whether it fell behind the pruning.
+ * Stock is read like everywhere else in the service: from the inventory engine when it is
+ * enabled, since the table only catches up with it on the next write-behind flush.
+ */
+@Service
+@Transactional
+public class ProductChangeServiceImpl implements ProductChangeService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductChangeServiceImpl.class);
+
+    private final ProductChangeRepository changeRepository;
+    private final ProductRepository productRepository;
+    private final InventoryEngine inventoryEngine;
+
+    @Value("${product.changes.default-limit:500}")
+    private int defaultLimit;
+
+    @Value("${product.changes.max-limit:1000}")
+    private int maxLimit;
+
+    @Value("${product.changes.retention-hours:24}")
+    private long retentionHours;
+
+    public ProductChangeServiceImpl(ProductChangeRepository changeRepository, ProductRepository productRepository,
+                                    InventoryEngine inventoryEngine) {
+        this.changeRepository = changeRepository;
+        this.productRepository = productRepository;
+        this.inventoryEngine = inventoryEngine;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ProductChangeFeedResponse getChangesSince(Long since, Integer limit) {
+        long from = since == null ? 0 : Math.max(0, since);
+        int pageLimit = limit == null ? defaultLimit : Math.max(1, Math.min(limit, maxLimit));
+        LocalDateTime serverTime = LocalDateTime.now();
+        log.debug("Fetching product changes since version {} (limit: {})", from, pageLimit);
+
+        Long oldest = changeRepository.findOldestVersion();
+        if (from > 0 && oldest != null && from < oldest - 1) {
+            log.info("Product changes since version {} were already pruned (oldest: {})", from, oldest);
+            return ProductChangeFeedResponse.builder()
+                    .changes(List.of())
+                    .latestVersion(changeRepository.findLatestVersion())
+                    .resetRequired(true)
+                    .serverTime(serverTime)
+                    .build();
+        }
+
+        List<ProductChange> changes = changeRepository.findByVersionGreaterThanOrderByVersionAsc(from, Limit.of(pageLimit));
+        Map<Long, Product> products = productRepository.findAllById(
+                        changes.stream().map(ProductChange::getProductId).distinct().collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toMap(Product::getProductId, Function.identity()));
+
+        List<ProductChangeResponse> responses = changes.stream()
+                .map(change -> ProductChangeResponse.builder()
+                        .version(change.getVersion())
+                        .productId(change.getProductId())
+                        .changedAt(change.getChangedAt())
+                        .product(mapToResponse(products.get(change.getProductId())))
+                        .build())
+                .collect(Collectors.toList());
+
+        return ProductChangeFeedResponse.builder()
+                .changes(responses)
+                .latestVersion(changeRepository.findLatestVersion())
+                .hasMore(changes.size() == pageLimit)
+                .resetRequired(false)
+                .serverTime(serverTime)
+                .build();
+    }
+
+    @Override
+    public int deleteExpired() {
+        Long latest = changeRepository.findLatestVersion();
+        if (latest == null) {
+            return 0;
+        }
+        return changeRepository.deleteChangedBefore(LocalDateTime.now().minusHours(retentionHours), latest);
+    }
+
+    private ProductResponse mapToResponse(Product product) {
+        if (product == null) {
+            return null;
+        }
+        return ProductResponse.builder()
+                .productId(product.getProductId())
+                .name(product.getName())
+                .description(product.getDescription())
+                .price(product.getPrice())
+                .stock(availableStock(product))
+                .build();
+    }
+
+    private int availableStock(Product product) {
+        if (inventoryEngine.isEnabled()) {
+            Integer stock = inventoryEngine.getStock(product.getProductId());
+            if (stock != null) {
+                return stock;
+            }
+        }
+        return product.getAvailableStock();
+    }
+}
@@ -1,19 +1,52 @@
 package tech.sohaib_tarek.productservice.service.impl;
 
+import tech.sohaib_tarek.productservice.config.CacheConfig;
+import tech.sohaib_tarek.productservice.dto.ProductPageResponse;
 import tech.sohaib_tarek.productservice.dto.ProductRequest;
 import tech.sohaib_tarek.productservice.dto.ProductResponse;
 import tech.sohaib_tarek.productservice.dto.StockUpdateRequest;
 import tech.sohaib_tarek.productservice.entity.Product;
+import tech.sohaib_tarek.productservice.enums.ProductSortField;
+import tech.sohaib_tarek.productservice.enums.StockMovementReason;
+import tech.sohaib_tarek.productservice.event.ProductChangedEvent;
 import tech.sohaib_tarek.productservice.exception.InsufficientStockException;
+import tech.sohaib_tarek.productservice.exception.InvalidBatchRequestException;
+import tech.sohaib_tarek.productservice.exception.InvalidPageRequestException;
+import tech.sohaib_tarek.productservice.exception.InvalidStockStripingException;
 import tech.sohaib_tarek.productservice.exception.ProductNotFoundException;
+import tech.sohaib_tarek.productservice.inventory.InventoryEngine;
+import tech.sohaib_tarek.productservice.repository.ProductChangeRepository;
 import tech.sohaib_tarek.productservice.repository.ProductRepository;
+import tech.sohaib_tarek.productservice.repository.StockMovementRepository;
+import tech.sohaib_tarek.productservice.search.ProductSearchIndex;
 import tech.sohaib_tarek.productservice.service.ProductService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -23,9 +56,50 @@ public class ProductServiceImpl implements ProductService {
     private static final Logger log = LoggerFactory.getLogger(ProductServiceImpl.class);
 
     private final ProductRepository productRepository;
+    // Every write appends to the change feed in the same transaction, so the feed never misses a commit
+    private final ProductChangeRepository changeRepository;
+    // Likewise every stock mutation appends its movements, so the journal adds up to the stock
+    private final StockMovementRepository movementRepository;
 
-    public ProductServiceImpl(ProductRepository productRepository) {
+    // Reads hit the cache directly; puts and evictions wait for the commit, and a put that
+    // loaded before a committed eviction does not stay
+    private final GenerationCheckedCache productCache;
+
+    @Value("${product.pagination.default-size:20}")
+    private int defaultPageSize;
+
+    @Value("${product.pagination.max-size:100}")
+    private int maxPageSize;
+
+    private final ProductSearchIndex searchIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    // When enabled it owns stock: the table is only written behind, so stock is read from and changed in it
+    private final InventoryEngine inventoryEngine;
+
+    @Value("${product.batch.max-size:500}")
+    private int maxBatchSize;
+
+    @Value("${product.search.default-limit:20}")
+    private int defaultSearchLimit;
+
+    @Value("${product.search.max-limit:100}")
+    private int maxSearchLimit;
+
+    @Value("${product.striping.max-buckets:64}")
+    private int maxStockBuckets;
+
+    public ProductServiceImpl(ProductRepository productRepository, ProductChangeRepository changeRepository,
+                              StockMovementRepository movementRepository, CacheManager cacheManager,
+                              ProductSearchIndex searchIndex, ApplicationEventPublisher eventPublisher,
+                              InventoryEngine inventoryEngine) {
         this.productRepository = productRepository;
+        this.changeRepository = changeRepository;
+        this.movementRepository = movementRepository;
+        this.searchIndex = searchIndex;
+        this.eventPublisher = eventPublisher;
+        this.inventoryEngine = inventoryEngine;
+        this.productCache = new GenerationCheckedCache(
+                Objects.requireNonNull(cacheManager.getCache(CacheConfig.PRODUCT_CACHE)));
     }
 
     @Override
@@ -39,6 +113,16 @@ public class ProductServiceImpl implements ProductService {
                 .build();
 
         Product savedProduct = productRepository.save(product);
+        changeRepository.appendChanges(List.of(savedProduct.getProductId()));
+        if (savedProduct.getStock() != 0) {
+            movementRepository.appendMovement(savedProduct.getProductId(), savedProduct.getStock(),
+                    StockMovementReason.INITIAL_STOCK, null);
+        }
+        eventPublisher.publishEvent(new ProductChangedEvent(ProductChangedEvent.Type.CREATED,
+                savedProduct.getProductId(), savedProduct.getName(), savedProduct.getDescription()));
+        if (inventoryEngine.isEnabled()) {
+            afterCommit(() -> inventoryEngine.putStock(savedProduct.getProductId(), savedProduct.getStock()));
+        }
         log.info("Product created with ID: {}", savedProduct.getProductId());
         return mapToResponse(savedProduct);
     }
@@ -47,9 +131,7 @@ public class ProductServiceImpl implements ProductService {
     @Transactional(readOnly = true)
     public ProductResponse getProductById(Long productId) {
         log.info("Fetching product with ID: {}", productId);
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new ProductNotFoundException("Product not found with ID: " + productId));
-        return mapToResponse(product);
+        return getCachedProduct(productId);
     }
 
     @Override
@@ -61,18 +143,126 @@ public class ProductServiceImpl implements ProductService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public ProductPageResponse getProductsPage(String cursor, Integer size, String sort, String direction) {
+        ProductSortField sortField = ProductSortField.fromParam(sort)
+                .orElseThrow(() -> new InvalidPageRequestException(
+                        "Unsupported sort field: " + sort + ". Allowed values: id, price, name"));
+        Sort.Direction sortDirection = Sort.Direction.fromOptionalString(direction)
+                .orElseThrow(() -> new InvalidPageRequestException(
+                        "Unsupported sort direction: " + direction + ". Allowed values: asc, desc"));
+        int pageSize = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+        log.info("Fetching products page (sort: {} {}, size: {})", sortField, sortDirection, pageSize);
+
+        Sort order = sortField == ProductSortField.ID
+                ? Sort.by(sortDirection, "productId")
+                : Sort.by(sortDirection, sortField.getProperty()).and(Sort.by(sortDirection, "productId"));
+        ScrollPosition position = cursor == null || cursor.isBlank()
+                ? ScrollPosition.keyset()
+                : decodeCursor(cursor, sortField, sortDirection);
+
+        Window<Product> window = productRepository.findBy(position, order, Limit.of(pageSize));
+        List<Product> products = window.getContent();
+        String nextCursor = window.hasNext() && !products.isEmpty()
+                ? encodeCursor(products.get(products.size() - 1), sortField, sortDirection)
+                : null;
+
+        return ProductPageResponse.builder()
+                .items(products.stream().map(this::mapToResponse).collect(Collectors.toList()))
+                .nextCursor(nextCursor)
+                .hasNext(nextCursor != null)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProductResponse> getProductsByIds(List<Long> productIds) {
+        log.info("Fetching {} products by ID", productIds.size());
+        if (productIds.size() > maxBatchSize) {
+            throw new InvalidBatchRequestException(
+                    "At most " + maxBatchSize + " product IDs can be fetched at once, got " + productIds.size());
+        }
+        List<ProductResponse> responses = new ArrayList<>();
+        Map<Long, Long> misses = new LinkedHashMap<>();
+        for (Long productId : new LinkedHashSet<>(productIds)) {
+            ProductResponse cached = productCache.get(productId, ProductResponse.class);
+            if (cached != null) {
+                responses.add(cached);
+            } else {
+                misses.put(productId, productCache.generation(productId));
+            }
+        }
+
+        if (!misses.isEmpty()) {
+            for (Product product : productRepository.findAllById(misses.keySet())) {
+                ProductResponse response = mapToResponse(product);
+                productCache.put(product.getProductId(), response, misses.get(product.getProductId()));
+                responses.add(response);
+            }
+        }
+        return responses;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProductResponse> searchProducts(String query, Integer limit) {
+        int resultLimit = limit == null ? defaultSearchLimit : Math.max(1, Math.min(limit, maxSearchLimit));
+        log.info("Searching products for '{}' (limit: {})", query, resultLimit);
+        List<Long> rankedIds = searchIndex.search(query, resultLimit);
+        if (rankedIds.isEmpty()) {
+            return List.of();
+        }
+
+        // Keep the relevance order of the index; products deleted in the meantime are skipped
+        Map<Long, ProductResponse> products = getProductsByIds(rankedIds).stream()
+                .collect(Collectors.toMap(ProductResponse::getProductId, Function.identity()));
+        return rankedIds.stream()
+                .map(products::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
     @Override
     public ProductResponse updateProduct(Long productId, ProductRequest request) {
         log.info("Updating product with ID: {}", productId);
-        Product product = productRepository.findById(productId)
+        // Locked so that no stock update slips in between reading the old stock and recording the difference
+        Product product = productRepository.findByIdForUpdate(productId)
                 .orElseThrow(() -> new ProductNotFoundException("Product not found with ID: " + productId));
 
         product.setName(request.getName());
         product.setDescription(request.getDescription());
         product.setPrice(request.getPrice());
-        product.setStock(request.getStock());
+        Long inventoryToken = null;
+        int stockDelta;
+        if (inventoryEngine.isEnabled()) {
+            // Orders do not take the row lock here; the engine measures the difference as it applies it
+            inventoryToken = inventoryChange(List.of(productId));
+            Integer applied = inventoryEngine.setStock(inventoryToken, productId, request.getStock());
+            if (applied == null) {
+                throw new ProductNotFoundException("Product not found with ID: " + productId);
+            }
+            stockDelta = applied;
+        } else {
+            stockDelta = request.getStock() - product.getAvailableStock();
+            if (product.isStockStriped()) {
+                // The new stock is spread over the existing buckets; the row itself keeps none
+                productRepository.redistributeBucketStock(productId, product.getStockBuckets(), request.getStock());
+                product.setBucketStock(request.getStock());
+            } else {
+                product.setStock(request.getStock());
+            }
+        }
 
         Product updatedProduct = productRepository.save(product);
+        productCache.evict(productId);
+        changeRepository.appendChanges(List.of(productId));
+        if (stockDelta != 0) {
+            movementRepository.appendMovement(productId, stockDelta, StockMovementReason.MANUAL_ADJUSTMENT, null,
+                    inventoryToken);
+        }
+        eventPublisher.publishEvent(new ProductChangedEvent(ProductChangedEvent.Type.UPDATED,
+                productId, updatedProduct.getName(), updatedProduct.getDescription()));
         log.info("Product updated successfully: {}", productId);
         return mapToResponse(updatedProduct);
     }
@@ -80,10 +270,19 @@ public class ProductServiceImpl implements ProductService {
     @Override
     public void deleteProduct(Long productId) {
         log.info("Deleting product with ID: {}", productId);
-        if (!productRepository.existsById(productId)) {
-            throw new ProductNotFoundException("Product not found with ID: " + productId);
-        }
+        Product product = productRepository.findByIdForUpdate(productId)
+                .orElseThrow(() -> new ProductNotFoundException("Product not found with ID: " + productId));
+        int remainingStock = availableStock(product);
         productRepository.deleteById(productId);
+        productCache.evict(productId);
+        changeRepository.appendChanges(List.of(productId));
+        if (remainingStock != 0) {
+            movementRepository.appendMovement(productId, -remainingStock, StockMovementReason.PRODUCT_DELETED, null);
+        }
+        eventPublisher.publishEvent(ProductChangedEvent.deleted(productId));
+        if (inventoryEngine.isEnabled()) {
+            afterCommit(() -> inventoryEngine.removeProduct(productId));
+        }
         log.info("Product deleted successfully: {}", productId);
     }
 
@@ -91,49 +290,290 @@ public class ProductServiceImpl implements ProductService {
     @Transactional(readOnly = true)
     public boolean checkStock(Long productId, Integer quantity) {
         log.info("Checking stock for product ID: {} with quantity: {}", productId, quantity);
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new ProductNotFoundException("Product not found with ID: " + productId));
-        return product.getStock() >= quantity;
+        if (inventoryEngine.isEnabled()) {
+            Integer stock = inventoryEngine.getStock(productId);
+            if (stock == null) {
+                throw new ProductNotFoundException("Product not found with ID: " + productId);
+            }
+            return stock >= quantity;
+        }
+        return getCachedProduct(productId).getStock() >= quantity;
     }
 
     @Override
-    public void reduceStock(List<StockUpdateRequest> stockUpdates) {
+    public void reduceStock(List<StockUpdateRequest> stockUpdates, StockMovementReason reason, String orderRef) {
         log.info("Reducing stock for {} products", stockUpdates.size());
-        for (StockUpdateRequest request : stockUpdates) {
-            Product product = productRepository.findById(request.getProductId())
-                    .orElseThrow(() -> new ProductNotFoundException("Product not found with ID: " + request.getProductId()));
+        List<StockUpdateRequest> rejected = reduceAvailableStock(stockUpdates, reason, orderRef);
 
-            if (product.getStock() < request.getQuantity()) {
-                throw new InsufficientStockException("Insufficient stock for product: " + product.getName());
-            }
-
-            product.setStock(product.getStock() - request.getQuantity());
-            productRepository.save(product);
+        if (!rejected.isEmpty()) {
+            // Throwing rolls back the whole batch, so either every line is reserved or none is
+            throw stockFailure(rejected);
         }
         log.info("Stock reduced successfully");
     }
 
     @Override
-    public void restoreStock(List<StockUpdateRequest> stockUpdates) {
+    public List<StockUpdateRequest> reduceAvailableStock(List<StockUpdateRequest> stockUpdates,
+                                                         StockMovementReason reason, String orderRef) {
+        if (stockUpdates.isEmpty()) {
+            return List.of();
+        }
+        if (inventoryEngine.isEnabled()) {
+            return reduceInEngine(stockUpdates, reason, orderRef);
+        }
+
+        int[] updated = productRepository.decrementStock(stockUpdates);
+        evictAll(stockUpdates);
+        List<StockUpdateRequest> rejected = new ArrayList<>();
+        List<StockUpdateRequest> applied = new ArrayList<>();
+        Set<Long> changed = new LinkedHashSet<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                rejected.add(stockUpdates.get(i));
+            } else {
+                applied.add(stockUpdates.get(i));
+                changed.add(stockUpdates.get(i).getProductId());
+            }
+        }
+        changeRepository.appendChanges(changed);
+        movementRepository.appendMovements(applied, -1, reason, orderRef);
+        return rejected;
+    }
+
+    @Override
+    public void restoreStock(List<StockUpdateRequest> stockUpdates, StockMovementReason reason, String orderRef) {
         log.info("Restoring stock for {} products", stockUpdates.size());
-        for (StockUpdateRequest request : stockUpdates) {
-            Product product = productRepository.findById(request.getProductId())
-                    .orElseThrow(() -> new ProductNotFoundException("Product not found with ID: " + request.getProductId()));
+        if (stockUpdates.isEmpty()) {
+            return;
+        }
+        if (inventoryEngine.isEnabled()) {
+            restoreInEngine(stockUpdates, reason, orderRef);
+            return;
+        }
 
-            product.setStock(product.getStock() + request.getQuantity());
-            productRepository.save(product);
+        int[] updated = productRepository.incrementStock(stockUpdates);
+        evictAll(stockUpdates);
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                throw new ProductNotFoundException("Product not found with ID: " + stockUpdates.get(i).getProductId());
+            }
         }
+        changeRepository.appendChanges(stockUpdates.stream()
+                .map(StockUpdateRequest::getProductId)
+                .collect(Collectors.toCollection(LinkedHashSet::new)));
+        movementRepository.appendMovements(stockUpdates, 1, reason, orderRef);
         log.info("Stock restored successfully");
     }
 
+    @Override
+    public ProductResponse configureStockStriping(Long productId, int buckets) {
+        if (buckets < 0 || buckets == 1 || buckets > maxStockBuckets) {
+            throw new InvalidStockStripingException(
+                    "Bucket count must be 0 (unstriped) or between 2 and " + maxStockBuckets + ", got " + buckets);
+        }
+        if (inventoryEngine.isEnabled()) {
+            throw new InvalidStockStripingException("Stock striping is not available while the inventory engine owns stock");
+        }
+        log.info("Setting stock striping of product {} to {} buckets", productId, buckets);
+        // The product row lock keeps plain stock updates out; the bucket locks keep striped ones out
+        Product product = productRepository.findByIdForUpdate(productId)
+                .orElseThrow(() -> new ProductNotFoundException("Product not found with ID: " + productId));
+        int total = product.isStockStriped() ? productRepository.lockBucketStock(productId) : product.getStock();
+
+        productRepository.redistributeBucketStock(productId, buckets, total);
+        product.setStock(buckets > 0 ? 0 : total);
+        product.setStockBuckets(buckets);
+        product.setBucketStock(total);
+        Product savedProduct = productRepository.save(product);
+        productCache.evict(productId);
+        changeRepository.appendChanges(List.of(productId));
+        log.info("Product {} now keeps its stock of {} in {} buckets", productId, total, buckets);
+        return mapToResponse(savedProduct);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Long> getStripedProductIds() {
+        return productRepository.findStripedProductIds();
+    }
+
+    @Override
+    public boolean rebalanceStockBuckets(Long productId) {
+        return productRepository.rebalanceBuckets(productId);
+    }
+
+    /**
+     * Engine decisions happen outside the database transaction, so they stay tentative until it
+     * completes. The movements carry the change's token, which is how a replay after a crash
+     * tells whether the transaction committed.
+     */
+    private List<StockUpdateRequest> reduceInEngine(List<StockUpdateRequest> stockUpdates,
+                                                    StockMovementReason reason, String orderRef) {
+        long inventoryToken = inventoryChange(productIds(stockUpdates));
+        List<StockUpdateRequest> rejected = inventoryEngine.reduce(inventoryToken, stockUpdates);
+        List<StockUpdateRequest> applied = withoutLines(stockUpdates, rejected);
+        evictAll(stockUpdates);
+        changeRepository.appendChanges(applied.stream()
+                .map(StockUpdateRequest::getProductId)
+                .collect(Collectors.toCollection(LinkedHashSet::new)));
+        movementRepository.appendMovements(applied, -1, reason, orderRef, inventoryToken);
+        return rejected;
+    }
+
+    private void restoreInEngine(List<StockUpdateRequest> stockUpdates, StockMovementReason reason, String orderRef) {
+        long inventoryToken = inventoryChange(productIds(stockUpdates));
+        List<StockUpdateRequest> unknown = inventoryEngine.restore(inventoryToken, stockUpdates);
+        List<StockUpdateRequest> restored = withoutLines(stockUpdates, unknown);
+        evictAll(stockUpdates);
+        if (!unknown.isEmpty()) {
+            throw new ProductNotFoundException("Product not found with ID: " + unknown.get(0).getProductId());
+        }
+        changeRepository.appendChanges(restored.stream()
+                .map(StockUpdateRequest::getProductId)
+                .collect(Collectors.toCollection(LinkedHashSet::new)));
+        movementRepository.appendMovements(restored, 1, reason, orderRef, inventoryToken);
+        log.info("Stock restored successfully");
+    }
+
+    private static List<Long> productIds(List<StockUpdateRequest> lines) {
+        return lines.stream().map(StockUpdateRequest::getProductId).collect(Collectors.toList());
+    }
+
+    // Lines are compared by identity: the same product and quantity may appear twice with different outcomes
+    private List<StockUpdateRequest> withoutLines(List<StockUpdateRequest> lines, List<StockUpdateRequest> excluded) {
+        Set<StockUpdateRequest> skip = Collections.newSetFromMap(new IdentityHashMap<>());
+        skip.addAll(excluded);
+        return lines.stream().filter(line -> !skip.contains(line)).collect(Collectors.toList());
+    }
+
+    private void afterCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                runInventoryAction(action);
+            }
+        });
+    }
+
+    /**
+     * Opens an engine change that commits or aborts with the current transaction. Registered
+     * before the engine is called, so a change that fails half-way is aborted as well.
+     */
+    private long inventoryChange(List<Long> productIds) {
+        long token = inventoryEngine.newToken();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                runInventoryAction(() -> inventoryEngine.complete(token, productIds, status == STATUS_COMMITTED));
+            }
+        });
+        return token;
+    }
+
+    // The database outcome is final by now; a failed engine update must not be reported as a failed request
+    private void runInventoryAction(Runnable action) {
+        try {
+            action.run();
+        } catch (RuntimeException e) {
+            log.error("Inventory engine update after transaction completion failed", e);
+        }
+    }
+
+    private ProductResponse getCachedProduct(Long productId) {
+        ProductResponse cached = productCache.get(productId, ProductResponse.class);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = productCache.generation(productId);
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new ProductNotFoundException("Product not found with ID: " + productId));
+        ProductResponse response = mapToResponse(product);
+        productCache.put(productId, response, generation);
+        return response;
+    }
+
+    /**
+     * Cursor = base64url("sortField|direction|productId|sortValue"). The sort settings are
+     * embedded so a cursor cannot be replayed against a different ordering.
+     */
+    private String encodeCursor(Product last, ProductSortField sortField, Sort.Direction direction) {
+        String sortValue = switch (sortField) {
+            case ID -> "";
+            case PRICE -> last.getPrice().toPlainString();
+            case NAME -> last.getName();
+        };
+        String raw = sortField.name() + "|" + direction.name() + "|" + last.getProductId() + "|" + sortValue;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private ScrollPosition decodeCursor(String cursor, ProductSortField sortField, Sort.Direction direction) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 4);
+            if (parts.length != 4 || !parts[0].equals(sortField.name()) || !parts[1].equals(direction.name())) {
+                throw new InvalidPageRequestException("Cursor does not match the requested sort order");
+            }
+
+            Map<String, Object> keys = new LinkedHashMap<>();
+            switch (sortField) {
+                case PRICE -> keys.put("price", new BigDecimal(parts[3]));
+                case NAME -> keys.put("name", parts[3]);
+                default -> {
+                }
+            }
+            keys.put("productId", Long.valueOf(parts[2]));
+            return ScrollPosition.forward(keys);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidPageRequestException("Invalid cursor: " + cursor);
+        }
+    }
+
+    private void evictAll(List<StockUpdateRequest> stockUpdates) {
+        stockUpdates.forEach(update -> productCache.evict(update.getProductId()));
+    }
+
+    /**
+     * Builds the failure report for the lines whose guarded update matched no row:
+     * either the product does not exist or it does not have enough stock left.
+     */
+    private RuntimeException stockFailure(List<StockUpdateRequest> rejected) {
+        Map<Long, Product> products = productRepository.findAllById(
+                        rejected.stream().map(StockUpdateRequest::getProductId).distinct().collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toMap(Product::getProductId, Function.identity()));
+
+        List<String> failures = new ArrayList<>();
+        for (StockUpdateRequest request : rejected) {
+            Product product = products.get(request.getProductId());
+            if (product == null) {
+                return new ProductNotFoundException("Product not found with ID: " + request.getProductId());
+            }
+            failures.add(String.format("%s (ID: %d, requested: %d, available: %d)",
+                    product.getName(), product.getProductId(), request.getQuantity(), availableStock(product)));
+        }
+        log.warn("Stock reservation rejected for {} lines: {}", failures.size(), failures);
+        return new InsufficientStockException("Insufficient stock for products: " + String.join(", ", failures));
+    }
+
     private ProductResponse mapToResponse(Product product) {
         return ProductResponse.builder()
                 .productId(product.getProductId())
                 .name(product.getName())
                 .description(product.getDescription())
                 .price(product.getPrice())
-                .stock(product.getStock())
+                .stock(availableStock(product))
                 .build();
     }
+
+    // The table lags behind the inventory engine by up to one write-behind interval
+    private int availableStock(Product product) {
+        if (inventoryEngine.isEnabled()) {
+            Integer stock = inventoryEngine.getStock(product.getProductId());
+            if (stock != null) {
+                return stock;
+            }
+        }
+        return product.getAvailableStock();
+    }
 }
 
@@ -0,0 +1,123 @@
+package tech.sohaib_tarek.productservice.service.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tech.sohaib_tarek.productservice.dto.StockAsOfResponse;
+import tech.sohaib_tarek.productservice.dto.StockMovementResponse;
+import tech.sohaib_tarek.productservice.entity.StockMovement;
+import tech.sohaib_tarek.productservice.entity.StockSnapshot;
+import tech.sohaib_tarek.productservice.inventory.InventoryEngine;
+import tech.sohaib_tarek.productservice.repository.StockMovementRepository;
+import tech.sohaib_tarek.productservice.repository.StockSnapshotRepository;
+import tech.sohaib_tarek.productservice.service.StockJournalService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Stock movement journal. Movements are appended by ProductServiceImpl in the transaction of
+ * every stock mutation; this service folds them into periodic snapshots and answers point-in-time
+ * questions from the latest snapshot plus the tail of movements after it.
+ * <p>
+ * Snapshots are taken settle-seconds in the past, so that movements stamped before a snapshot
+ * but committed a little later are still folded into it. History starts with the first
+ * snapshot run: earlier times are answered from the movements alone. The first run reads the
+ * products' current stock, which trails the inventory engine until its next flush, so it is not
+ * taken while the engine is enabled.
+ */
+@Service
+@Transactional
+public class StockJournalServiceImpl implements StockJournalService {
+
+    private static final Logger log = LoggerFactory.getLogger(StockJournalServiceImpl.class);
+
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final StockMovementRepository movementRepository;
+    private final StockSnapshotRepository snapshotRepository;
+    private final InventoryEngine inventoryEngine;
+
+    @Value("${stock.journal.settle-seconds:60}")
+    private long settleSeconds;
+
+    @Value("${stock.journal.default-limit:500}")
+    private int defaultLimit;
+
+    @Value("${stock.journal.max-limit:1000}")
+    private int maxLimit;
+
+    public StockJournalServiceImpl(StockMovementRepository movementRepository,
+                                   StockSnapshotRepository snapshotRepository,
+                                   InventoryEngine inventoryEngine) {
+        this.movementRepository = movementRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.inventoryEngine = inventoryEngine;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public StockAsOfResponse getStockAsOf(Long productId, LocalDateTime at) {
+        LocalDateTime asOf = at == null ? LocalDateTime.now() : at;
+        log.info("Computing stock of product {} as of {}", productId, asOf);
+        StockSnapshot snapshot = snapshotRepository
+                .findFirstByProductIdAndTakenAtLessThanEqualOrderByTakenAtDesc(productId, asOf)
+                .orElse(null);
+        LocalDateTime from = snapshot != null ? snapshot.getTakenAt() : BEGINNING;
+        StockMovementRepository.MovementTotal tail = movementRepository.sumMovements(productId, from, asOf);
+
+        return StockAsOfResponse.builder()
+                .productId(productId)
+                .at(asOf)
+                .stock((snapshot != null ? snapshot.getStock() : 0) + tail.getDelta().intValue())
+                .snapshotAt(snapshot != null ? snapshot.getTakenAt() : null)
+                .movementsReplayed(tail.getMovements())
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<StockMovementResponse> getMovements(Long productId, LocalDateTime from, LocalDateTime to,
+                                                    Integer limit) {
+        int pageLimit = limit == null ? defaultLimit : Math.max(1, Math.min(limit, maxLimit));
+        return movementRepository.findMovements(productId, from == null ? BEGINNING : from,
+                        to == null ? LocalDateTime.now() : to, Limit.of(pageLimit))
+                .stream()
+                .map(this::mapToResponse)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public int takeSnapshot() {
+        LocalDateTime cutoff = LocalDateTime.now().minusSeconds(settleSeconds);
+        LocalDateTime previous = snapshotRepository.findLatestTakenAt();
+        if (previous != null && !cutoff.isAfter(previous)) {
+            return 0;
+        }
+        if (previous == null && inventoryEngine.isEnabled()) {
+            log.warn("First stock snapshot not taken: product stock trails the inventory engine, " +
+                    "take it once with product.inventory.engine.enabled=false");
+            return 0;
+        }
+        int snapshotted = previous == null
+                ? snapshotRepository.snapshotAll(cutoff)
+                : snapshotRepository.snapshotMoved(previous, cutoff);
+        log.info("Stock snapshot as of {} written for {} products", cutoff, snapshotted);
+        return snapshotted;
+    }
+
+    private StockMovementResponse mapToResponse(StockMovement movement) {
+        return StockMovementResponse.builder()
+                .id(movement.getId())
+                .productId(movement.getProductId())
+                .delta(movement.getDelta())
+                .reason(movement.getReason())
+                .orderRef(movement.getOrderRef())
+                .createdAt(movement.getCreatedAt())
+                .build();
+    }
+}
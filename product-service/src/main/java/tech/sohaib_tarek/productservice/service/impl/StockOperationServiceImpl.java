@@ -0,0 +1,120 @@
+package tech.sohaib_tarek.productservice.service.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tech.sohaib_tarek.productservice.dto.StockOperationRequest;
+import tech.sohaib_tarek.productservice.dto.StockOperationResult;
+import tech.sohaib_tarek.productservice.entity.AppliedStockOperation;
+import tech.sohaib_tarek.productservice.enums.StockMovementReason;
+import tech.sohaib_tarek.productservice.enums.StockOperationStatus;
+import tech.sohaib_tarek.productservice.exception.InsufficientStockException;
+import tech.sohaib_tarek.productservice.exception.InvalidReservationStateException;
+import tech.sohaib_tarek.productservice.exception.ProductNotFoundException;
+import tech.sohaib_tarek.productservice.exception.ReservationNotFoundException;
+import tech.sohaib_tarek.productservice.repository.AppliedStockOperationRepository;
+import tech.sohaib_tarek.productservice.service.ProductService;
+import tech.sohaib_tarek.productservice.service.StockOperationService;
+import tech.sohaib_tarek.productservice.service.StockReservationService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Applies stock operations relayed from the order outbox. Every operation runs in its own
+ * transaction together with its {@link AppliedStockOperation} marker, so a batch can partly
+ * succeed and a redelivered operation is reported as DUPLICATE instead of being applied twice.
+ */
+@Service
+public class StockOperationServiceImpl implements StockOperationService {
+
+    private static final Logger log = LoggerFactory.getLogger(StockOperationServiceImpl.class);
+
+    private final AppliedStockOperationRepository appliedOperationRepository;
+    private final ProductService productService;
+    private final StockReservationService reservationService;
+    private final TransactionTemplate transactionTemplate;
+
+    public StockOperationServiceImpl(AppliedStockOperationRepository appliedOperationRepository,
+                                     ProductService productService, StockReservationService reservationService,
+                                     PlatformTransactionManager transactionManager) {
+        this.appliedOperationRepository = appliedOperationRepository;
+        this.productService = productService;
+        this.reservationService = reservationService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public List<StockOperationResult> apply(List<StockOperationRequest> operations) {
+        List<StockOperationResult> results = new ArrayList<>(operations.size());
+        for (StockOperationRequest operation : operations) {
+            results.add(applyOne(operation));
+        }
+        return results;
+    }
+
+    private StockOperationResult applyOne(StockOperationRequest operation) {
+        String invalid = validate(operation);
+        if (invalid != null) {
+            return result(operation, StockOperationStatus.REJECTED, invalid);
+        }
+
+        try {
+            return transactionTemplate.execute(status -> {
+                if (appliedOperationRepository.existsById(operation.getOperationId())) {
+                    return result(operation, StockOperationStatus.DUPLICATE, null);
+                }
+                // Flushed first so a concurrent delivery of the same ID blocks on the key and then fails
+                appliedOperationRepository.saveAndFlush(new AppliedStockOperation(
+                        operation.getOperationId(), operation.getType(), LocalDateTime.now()));
+
+                switch (operation.getType()) {
+                    case RESTORE_STOCK -> productService.restoreStock(operation.getItems(),
+                            StockMovementReason.ORDER_RESTORE, operation.getOperationId());
+                    case CONFIRM_RESERVATION -> reservationService.confirm(operation.getReservationId());
+                    case RELEASE_RESERVATION -> reservationService.release(operation.getReservationId());
+                    case RELEASE_RESERVATIONS -> reservationService.releaseAll(operation.getReservationIds());
+                }
+                log.info("Applied stock operation {} ({})", operation.getOperationId(), operation.getType());
+                return result(operation, StockOperationStatus.APPLIED, null);
+            });
+        } catch (DataIntegrityViolationException e) {
+            log.info("Stock operation {} was applied concurrently", operation.getOperationId());
+            return result(operation, StockOperationStatus.DUPLICATE, null);
+        } catch (ProductNotFoundException | ReservationNotFoundException
+                 | InvalidReservationStateException | InsufficientStockException e) {
+            log.warn("Rejected stock operation {} ({}): {}",
+                    operation.getOperationId(), operation.getType(), e.getMessage());
+            return result(operation, StockOperationStatus.REJECTED, e.getMessage());
+        }
+    }
+
+    private String validate(StockOperationRequest operation) {
+        if (operation.getOperationId() == null || operation.getOperationId().isBlank() || operation.getType() == null) {
+            return "operationId and type are required";
+        }
+        if (operation.getOperationId().length() > 36) {
+            return "operationId must be at most 36 characters";
+        }
+        return switch (operation.getType()) {
+            case RESTORE_STOCK -> operation.getItems() == null || operation.getItems().isEmpty()
+                    ? "RESTORE_STOCK requires at least one item" : null;
+            case CONFIRM_RESERVATION, RELEASE_RESERVATION -> operation.getReservationId() == null
+                    ? operation.getType() + " requires a reservationId" : null;
+            case RELEASE_RESERVATIONS -> operation.getReservationIds() == null || operation.getReservationIds().isEmpty()
+                    ? "RELEASE_RESERVATIONS requires at least one reservationId" : null;
+        };
+    }
+
+    private StockOperationResult result(StockOperationRequest operation, StockOperationStatus status, String message) {
+        return StockOperationResult.builder()
+                .operationId(operation.getOperationId())
+                .status(status)
+                .message(message)
+                .build();
+    }
+}
@@ -0,0 +1,340 @@
+package tech.sohaib_tarek.productservice.service.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import tech.sohaib_tarek.productservice.dto.CartLineResult;
+import tech.sohaib_tarek.productservice.dto.CartReservationResponse;
+import tech.sohaib_tarek.productservice.dto.StockReservationRequest;
+import tech.sohaib_tarek.productservice.dto.StockReservationResponse;
+import tech.sohaib_tarek.productservice.dto.StockUpdateRequest;
+import tech.sohaib_tarek.productservice.entity.Product;
+import tech.sohaib_tarek.productservice.entity.ReservationItem;
+import tech.sohaib_tarek.productservice.entity.StockReservation;
+import tech.sohaib_tarek.productservice.enums.CartLineStatus;
+import tech.sohaib_tarek.productservice.enums.ReservationStatus;
+import tech.sohaib_tarek.productservice.enums.StockMovementReason;
+import tech.sohaib_tarek.productservice.exception.InvalidReservationStateException;
+import tech.sohaib_tarek.productservice.exception.ReservationNotFoundException;
+import tech.sohaib_tarek.productservice.repository.ProductRepository;
+import tech.sohaib_tarek.productservice.repository.StockReservationRepository;
+import tech.sohaib_tarek.productservice.service.ProductService;
+import tech.sohaib_tarek.productservice.service.StockReservationService;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@Transactional
+public class StockReservationServiceImpl implements StockReservationService {
+
+    private static final Logger log = LoggerFactory.getLogger(StockReservationServiceImpl.class);
+
+    private final StockReservationRepository reservationRepository;
+    private final ProductRepository productRepository;
+    private final ProductService productService;
+
+    @Value("${stock.reservation.ttl-seconds:900}")
+    private long ttlSeconds;
+
+    public StockReservationServiceImpl(StockReservationRepository reservationRepository,
+                                       ProductRepository productRepository, ProductService productService) {
+        this.reservationRepository = reservationRepository;
+        this.productRepository = productRepository;
+        this.productService = productService;
+    }
+
+    @Override
+    public StockReservationResponse reserve(StockReservationRequest request) {
+        log.info("Reserving stock for {} products", request.getItems().size());
+
+        // Deducts every line or throws, so a reservation only exists when all its stock is held
+        String reservationId = UUID.randomUUID().toString();
+        productService.reduceStock(request.getItems(), StockMovementReason.RESERVATION_HOLD, reservationId);
+
+        StockReservation savedReservation = saveReservation(reservationId, request.getItems());
+        return mapToResponse(savedReservation);
+    }
+
+    @Override
+    public CartReservationResponse reserveCart(StockReservationRequest request) {
+        List<StockUpdateRequest> items = request.getItems();
+        log.info("Pricing and reserving cart with {} lines", items.size());
+
+        // Prices come straight from the database, never from the catalog cache
+        Map<Long, Product> products = productRepository.findAllById(
+                        items.stream().map(StockUpdateRequest::getProductId).distinct().collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toMap(Product::getProductId, Function.identity()));
+
+        // For an order edit only the net change per product moves stock; for a new order that is the whole cart
+        List<StockUpdateRequest> adjustments = netAdjustments(items, request.getPreviousItems());
+        List<StockUpdateRequest> deductions = adjustments.stream()
+                .filter(adjustment -> adjustment.getQuantity() > 0)
+                .collect(Collectors.toList());
+
+        boolean allFound = items.stream().allMatch(item -> products.containsKey(item.getProductId()));
+        String reservationId = UUID.randomUUID().toString();
+        Set<Long> rejected = new HashSet<>();
+        if (allFound) {
+            productService.reduceAvailableStock(deductions, StockMovementReason.RESERVATION_HOLD, reservationId)
+                    .forEach(line -> rejected.add(line.getProductId()));
+        } else {
+            // A missing product fails the cart anyway; report stock from what was read instead of locking rows
+            deductions.stream()
+                    .filter(deduction -> products.containsKey(deduction.getProductId()))
+                    .filter(deduction -> products.get(deduction.getProductId()).getAvailableStock() < deduction.getQuantity())
+                    .forEach(deduction -> rejected.add(deduction.getProductId()));
+        }
+        boolean reserved = allFound && rejected.isEmpty();
+
+        BigDecimal totalPrice = BigDecimal.ZERO;
+        List<CartLineResult> lines = new ArrayList<>(items.size());
+        for (StockUpdateRequest item : items) {
+            Product product = products.get(item.getProductId());
+            if (product == null) {
+                lines.add(CartLineResult.builder()
+                        .productId(item.getProductId())
+                        .quantity(item.getQuantity())
+                        .status(CartLineStatus.NOT_FOUND)
+                        .build());
+                continue;
+            }
+
+            CartLineStatus status;
+            if (rejected.contains(item.getProductId())) {
+                status = CartLineStatus.INSUFFICIENT_STOCK;
+            } else {
+                status = reserved ? CartLineStatus.RESERVED : CartLineStatus.AVAILABLE;
+            }
+            totalPrice = totalPrice.add(product.getPrice().multiply(BigDecimal.valueOf(item.getQuantity())));
+            lines.add(CartLineResult.builder()
+                    .productId(product.getProductId())
+                    .name(product.getName())
+                    .quantity(item.getQuantity())
+                    .unitPrice(product.getPrice())
+                    .availableStock(product.getAvailableStock())
+                    .status(status)
+                    .build());
+        }
+
+        if (!reserved) {
+            // All or nothing: undo the lines that were decremented, but still answer with the per-line report
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            log.info("Cart reservation rejected: {}", lines.stream()
+                    .filter(line -> line.getStatus() != CartLineStatus.AVAILABLE)
+                    .map(line -> line.getProductId() + "=" + line.getStatus())
+                    .collect(Collectors.toList()));
+            return CartReservationResponse.builder()
+                    .reserved(false)
+                    .totalPrice(totalPrice)
+                    .lines(lines)
+                    .build();
+        }
+
+        StockReservation savedReservation = saveReservation(reservationId, adjustments);
+        return CartReservationResponse.builder()
+                .reserved(true)
+                .reservationId(savedReservation.getReservationId())
+                .expiresAt(savedReservation.getExpiresAt())
+                .totalPrice(totalPrice)
+                .lines(lines)
+                .build();
+    }
+
+    /**
+     * Signed per-product difference between the new and the previous items: positive quantities
+     * are taken now, negative ones are handed back when the reservation is confirmed. Products
+     * whose quantity did not change are left out.
+     */
+    private List<StockUpdateRequest> netAdjustments(List<StockUpdateRequest> items,
+                                                    List<StockUpdateRequest> previousItems) {
+        Map<Long, Integer> deltas = new LinkedHashMap<>();
+        for (StockUpdateRequest item : items) {
+            deltas.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+        if (previousItems != null) {
+            for (StockUpdateRequest item : previousItems) {
+                deltas.merge(item.getProductId(), -item.getQuantity(), Integer::sum);
+            }
+        }
+        return deltas.entrySet().stream()
+                .filter(delta -> delta.getValue() != 0)
+                .map(delta -> StockUpdateRequest.builder()
+                        .productId(delta.getKey())
+                        .quantity(delta.getValue())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    private StockReservation saveReservation(String reservationId, List<StockUpdateRequest> items) {
+        LocalDateTime now = LocalDateTime.now();
+        StockReservation reservation = StockReservation.builder()
+                .reservationId(reservationId)
+                .status(ReservationStatus.RESERVED)
+                .createdAt(now)
+                .expiresAt(now.plusSeconds(ttlSeconds))
+                .items(items.stream()
+                        .map(item -> new ReservationItem(item.getProductId(), item.getQuantity()))
+                        .collect(Collectors.toList()))
+                .build();
+
+        StockReservation savedReservation = reservationRepository.save(reservation);
+        log.info("Stock reserved with reservation ID: {} (expires at {})",
+                savedReservation.getReservationId(), savedReservation.getExpiresAt());
+        return savedReservation;
+    }
+
+    @Override
+    public StockReservationResponse confirm(String reservationId) {
+        log.info("Confirming reservation: {}", reservationId);
+        StockReservation reservation = findReservation(reservationId);
+        if (reservation.getStatus() == ReservationStatus.CONFIRMED) {
+            return mapToResponse(reservation);
+        }
+
+        // A hold the expiry job has not reached yet still owns its stock, so a late confirm is fine
+        int updated = reservationRepository.transition(reservationId,
+                EnumSet.of(ReservationStatus.RESERVED), ReservationStatus.CONFIRMED);
+        if (updated == 0 && reservationRepository.transition(reservationId,
+                EnumSet.of(ReservationStatus.EXPIRED), ReservationStatus.CONFIRMED) == 1) {
+            // The stock already went back when the hold expired: take it again, or fail and roll back as a whole
+            productService.reduceStock(heldStock(reservation), StockMovementReason.RESERVATION_HOLD, reservationId);
+            updated = 1;
+        }
+        if (updated == 0) {
+            throw new InvalidReservationStateException(
+                    "Reservation " + reservationId + " can no longer be confirmed (status: "
+                            + findReservation(reservationId).getStatus() + ")");
+        }
+        // Quantities an order edit gave up only go back once the edit is confirmed
+        productService.restoreStock(returnedStock(reservation), StockMovementReason.RESERVATION_RETURN, reservationId);
+        log.info("Reservation confirmed: {}", reservationId);
+        return mapToResponse(findReservation(reservationId));
+    }
+
+    @Override
+    public StockReservationResponse release(String reservationId) {
+        releaseAll(List.of(reservationId));
+        return mapToResponse(findReservation(reservationId));
+    }
+
+    @Override
+    public void releaseAll(List<String> reservationIds) {
+        log.info("Releasing reservations: {}", reservationIds);
+        Map<Long, Integer> net = new LinkedHashMap<>();
+        for (String reservationId : reservationIds) {
+            StockReservation reservation = findReservation(reservationId);
+
+            // Releasing twice, or releasing an expired hold, is a no-op: the stock is already back
+            ReservationStatus current = reservation.getStatus();
+            if ((current != ReservationStatus.RESERVED && current != ReservationStatus.CONFIRMED)
+                    || reservationRepository.transition(reservationId, EnumSet.of(current), ReservationStatus.RELEASED) == 0) {
+                continue;
+            }
+            // A confirmed order edit already gave its negative lines back, an unconfirmed one has not
+            List<StockUpdateRequest> held = current == ReservationStatus.CONFIRMED
+                    ? toStockUpdates(reservation) : heldStock(reservation);
+            for (StockUpdateRequest item : held) {
+                net.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+            }
+        }
+
+        String orderRef = reservationIds.get(0);
+        List<StockUpdateRequest> restored = new ArrayList<>();
+        List<StockUpdateRequest> takenBack = new ArrayList<>();
+        net.forEach((productId, quantity) -> {
+            if (quantity > 0) {
+                restored.add(StockUpdateRequest.builder()
+                        .productId(productId)
+                        .quantity(quantity)
+                        .build());
+            } else if (quantity < 0) {
+                takenBack.add(StockUpdateRequest.builder()
+                        .productId(productId)
+                        .quantity(-quantity)
+                        .build());
+            }
+        });
+        productService.restoreStock(restored, StockMovementReason.RESERVATION_RELEASE, orderRef);
+        if (!takenBack.isEmpty()) {
+            // Only when reservations of one order are released apart; what is already sold again stays sold
+            List<StockUpdateRequest> shortfall = productService.reduceAvailableStock(takenBack,
+                    StockMovementReason.RESERVATION_RELEASE, orderRef);
+            if (!shortfall.isEmpty()) {
+                log.warn("Stock returned by reservations {} was already sold again: {}", reservationIds, shortfall);
+            }
+        }
+        log.info("Reservations released and stock restored: {}", reservationIds);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<String> findExpiredReservationIds(int limit) {
+        return reservationRepository.findIdsByStatusAndExpiresAtBefore(
+                ReservationStatus.RESERVED, LocalDateTime.now(), PageRequest.of(0, limit));
+    }
+
+    @Override
+    public boolean expire(String reservationId) {
+        StockReservation reservation = findReservation(reservationId);
+        int updated = reservationRepository.transition(reservationId,
+                EnumSet.of(ReservationStatus.RESERVED), ReservationStatus.EXPIRED);
+        if (updated == 0) {
+            return false;
+        }
+        productService.restoreStock(heldStock(reservation), StockMovementReason.RESERVATION_EXPIRY, reservationId);
+        log.info("Reservation expired and stock restored: {}", reservationId);
+        return true;
+    }
+
+    private StockReservation findReservation(String reservationId) {
+        return reservationRepository.findById(reservationId)
+                .orElseThrow(() -> new ReservationNotFoundException("Reservation not found with ID: " + reservationId));
+    }
+
+    private List<StockUpdateRequest> heldStock(StockReservation reservation) {
+        return reservation.getItems().stream()
+                .filter(item -> item.getQuantity() > 0)
+                .map(item -> StockUpdateRequest.builder()
+                        .productId(item.getProductId())
+                        .quantity(item.getQuantity())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    private List<StockUpdateRequest> returnedStock(StockReservation reservation) {
+        return reservation.getItems().stream()
+                .filter(item -> item.getQuantity() < 0)
+                .map(item -> StockUpdateRequest.builder()
+                        .productId(item.getProductId())
+                        .quantity(-item.getQuantity())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    private List<StockUpdateRequest> toStockUpdates(StockReservation reservation) {
+        return reservation.getItems().stream()
+                .map(item -> StockUpdateRequest.builder()
+                        .productId(item.getProductId())
+                        .quantity(item.getQuantity())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    private StockReservationResponse mapToResponse(StockReservation reservation) {
+        return StockReservationResponse.builder()
+                .reservationId(reservation.getReservationId())
+                .status(reservation.getStatus())
+                .expiresAt(reservation.getExpiresAt())
+                .items(toStockUpdates(reservation))
+                .build();
+    }
+}
@@ -0,0 +1,190 @@
+package tech.sohaib_tarek.productservice;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import tech.sohaib_tarek.productservice.controller.ProductController;
+import tech.sohaib_tarek.productservice.dto.StockUpdateRequest;
+import tech.sohaib_tarek.productservice.entity.Product;
+import tech.sohaib_tarek.productservice.enums.IdempotencyStatus;
+import tech.sohaib_tarek.productservice.exception.IdempotencyKeyInUseException;
+import tech.sohaib_tarek.productservice.exception.IdempotencyKeyReusedException;
+import tech.sohaib_tarek.productservice.repository.IdempotencyRecordRepository;
+import tech.sohaib_tarek.productservice.repository.ProductRepository;
+import tech.sohaib_tarek.productservice.service.IdempotencyStore;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A key runs its operation once: repeats get the stored response, a repeat that arrives while the
+ * first request is still running is turned away, and a key is never reused for another body.
+ * A retried stock reduction takes the stock once, and reduce and restore keep separate keys.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:idempotency;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "eureka.client.enabled=false"
+})
+class IdempotencyStoreTest {
+
+    private static final String SCOPE = "test";
+    private static final Map<String, Object> REQUEST = Map.of("productId", 1, "quantity", 2);
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    @Autowired
+    private IdempotencyRecordRepository recordRepository;
+
+    @Autowired
+    private ProductController productController;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final AtomicInteger runs = new AtomicInteger();
+
+    @BeforeEach
+    void clearRecords() {
+        recordRepository.deleteAll();
+    }
+
+    @Test
+    void repeatReplaysTheStoredResponse() {
+        ResponseEntity<String> first = idempotencyStore.execute(SCOPE, "key-1", REQUEST, String.class, this::create);
+        ResponseEntity<String> repeat = idempotencyStore.execute(SCOPE, "key-1", REQUEST, String.class, this::create);
+
+        assertEquals(1, runs.get());
+        assertNull(first.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER));
+        assertEquals("true", repeat.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER));
+        assertEquals(201, repeat.getStatusCode().value());
+        assertEquals(first.getBody(), repeat.getBody());
+        assertEquals(IdempotencyStatus.COMPLETED, recordRepository.findById(SCOPE + ":key-1").orElseThrow().getStatus());
+    }
+
+    @Test
+    void repeatOnAnotherInstanceReplaysFromTheDatabase() {
+        ResponseEntity<String> first = idempotencyStore.execute(SCOPE, "key-1", REQUEST, String.class, this::create);
+
+        ResponseEntity<String> repeat = otherInstance().execute(SCOPE, "key-1", REQUEST, String.class, this::create);
+
+        assertEquals(1, runs.get());
+        assertEquals("true", repeat.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER));
+        assertEquals(first.getBody(), repeat.getBody());
+    }
+
+    @Test
+    void repeatWhileTheFirstIsStillRunningIsRejected() {
+        ResponseEntity<String> first = idempotencyStore.execute(SCOPE, "key-1", REQUEST, String.class, () -> {
+            assertThrows(IdempotencyKeyInUseException.class, () ->
+                    otherInstance().execute(SCOPE, "key-1", REQUEST, String.class, this::create));
+            return create();
+        });
+
+        assertEquals(1, runs.get());
+        assertEquals(201, first.getStatusCode().value());
+    }
+
+    @Test
+    void keyReusedForADifferentBodyIsRejected() {
+        idempotencyStore.execute(SCOPE, "key-1", REQUEST, String.class, this::create);
+        Map<String, Object> otherRequest = Map.of("productId", 1, "quantity", 3);
+
+        assertThrows(IdempotencyKeyReusedException.class, () ->
+                idempotencyStore.execute(SCOPE, "key-1", otherRequest, String.class, this::create));
+        assertThrows(IdempotencyKeyReusedException.class, () ->
+                otherInstance().execute(SCOPE, "key-1", otherRequest, String.class, this::create));
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void failedOperationReleasesTheKey() {
+        assertThrows(IllegalStateException.class, () ->
+                idempotencyStore.execute(SCOPE, "key-1", REQUEST, String.class, () -> {
+                    throw new IllegalStateException("product-service unavailable");
+                }));
+        assertTrue(recordRepository.findById(SCOPE + ":key-1").isEmpty());
+
+        idempotencyStore.execute(SCOPE, "key-1", REQUEST, String.class, this::create);
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void requestWithoutKeyAlwaysRuns() {
+        idempotencyStore.execute(SCOPE, null, REQUEST, String.class, this::create);
+        idempotencyStore.execute(SCOPE, " ", REQUEST, String.class, this::create);
+
+        assertEquals(2, runs.get());
+        assertEquals(0, recordRepository.count());
+    }
+
+    @Test
+    void retriedStockReductionTakesTheStockOnce() {
+        Long productId = createProduct(5);
+        List<StockUpdateRequest> lines = List.of(new StockUpdateRequest(productId, 2));
+
+        productController.reduceStock("key-1", lines);
+        ResponseEntity<Void> retry = productController.reduceStock("key-1", lines);
+
+        assertEquals("true", retry.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER));
+        assertEquals(3, stockOf(productId));
+    }
+
+    @Test
+    void restoreUnderTheKeyOfAReductionIsNotAReplay() {
+        Long productId = createProduct(5);
+        List<StockUpdateRequest> lines = List.of(new StockUpdateRequest(productId, 2));
+
+        productController.reduceStock("key-1", lines);
+        ResponseEntity<Void> restore = productController.restoreStock("key-1", lines);
+
+        assertNull(restore.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER));
+        assertEquals(5, stockOf(productId));
+    }
+
+    private Long createProduct(int stock) {
+        return productRepository.saveAndFlush(Product.builder()
+                .name("product")
+                .price(BigDecimal.TEN)
+                .stock(stock)
+                .build()).getProductId();
+    }
+
+    private int stockOf(Long productId) {
+        return productRepository.findById(productId).orElseThrow().getStock();
+    }
+
+    private ResponseEntity<String> create() {
+        return ResponseEntity.status(201).body("created-" + runs.incrementAndGet());
+    }
+
+    // Same database, empty response cache: behaves like the store of a second instance
+    private IdempotencyStore otherInstance() {
+        IdempotencyStore store = new IdempotencyStore(recordRepository, objectMapper, transactionManager, 100, 600);
+        ReflectionTestUtils.setField(store, "ttlHours", 24L);
+        ReflectionTestUtils.setField(store, "inProgressTimeoutSeconds", 60L);
+        return store;
+    }
+}
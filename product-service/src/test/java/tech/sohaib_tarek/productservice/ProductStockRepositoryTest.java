@@ -0,0 +1,229 @@
+package tech.sohaib_tarek.productservice;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.annotation.Transactional;
+import tech.sohaib_tarek.productservice.dto.StockUpdateRequest;
+import tech.sohaib_tarek.productservice.entity.Product;
+import tech.sohaib_tarek.productservice.repository.ProductRepository;
+import tech.sohaib_tarek.productservice.repository.ProductStockRepositoryImpl;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The guarded stock updates are what keeps concurrent orders from overselling: a line only
+ * takes stock when enough is left, and a rejected line leaves the others of the batch alone.
+ * Striped products keep the same guarantee across their buckets.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:productstock;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "eureka.client.enabled=false"
+})
+@Transactional
+class ProductStockRepositoryTest {
+
+    private static final long MISSING_PRODUCT = 999_999L;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void decrementRejectsOnlyTheLinesWithoutEnoughStock() {
+        Long first = createProduct(5);
+        Long second = createProduct(2);
+
+        int[] updated = productRepository.decrementStock(List.of(
+                line(first, 3), line(second, 3), line(first, 2), line(MISSING_PRODUCT, 1)));
+
+        assertArrayEquals(new int[]{1, 0, 1, 0}, updated);
+        assertEquals(0, stockOf(first));
+        assertEquals(2, stockOf(second));
+    }
+
+    @Test
+    void decrementNeverTakesMoreThanIsLeftForRepeatedProduct() {
+        Long product = createProduct(5);
+
+        int[] updated = productRepository.decrementStock(List.of(line(product, 3), line(product, 3)));
+
+        assertArrayEquals(new int[]{1, 0}, updated);
+        assertEquals(2, stockOf(product));
+    }
+
+    @Test
+    void incrementReportsUnknownProducts() {
+        Long product = createProduct(1);
+
+        int[] updated = productRepository.incrementStock(List.of(line(product, 4), line(MISSING_PRODUCT, 1)));
+
+        assertArrayEquals(new int[]{1, 0}, updated);
+        assertEquals(5, stockOf(product));
+    }
+
+    @Test
+    void decrementTakesFromSeveralBucketsWhenNoSingleOneIsEnough() {
+        Long product = createProduct(9);
+        stripe(product, 3);
+
+        int[] updated = productRepository.decrementStock(List.of(line(product, 7), line(product, 3)));
+
+        assertArrayEquals(new int[]{1, 0}, updated);
+        assertEquals(2, bucketSum(product));
+        assertEquals(0, stockOf(product));
+    }
+
+    @Test
+    void incrementOfStripedProductGoesToABucket() {
+        Long product = createProduct(4);
+        stripe(product, 2);
+
+        int[] updated = productRepository.incrementStock(List.of(line(product, 5)));
+
+        assertArrayEquals(new int[]{1}, updated);
+        assertEquals(9, bucketSum(product));
+        assertEquals(0, stockOf(product));
+    }
+
+    @Test
+    void lineIsRetriedWhenTheProductIsStripedMeanwhile() {
+        Long product = createProduct(10);
+        // Stripes the product right after the repository looked up which products are striped
+        ProductStockRepositoryImpl repository = new ProductStockRepositoryImpl(
+                new StripingSwitch(dataSource, () -> stripe(product, 2)));
+
+        int[] updated = repository.decrementStock(List.of(line(product, 4)));
+
+        assertArrayEquals(new int[]{1}, updated);
+        assertEquals(6, bucketSum(product));
+        assertEquals(0, stockOf(product));
+    }
+
+    @Test
+    void lineIsRetriedWhenTheProductIsUnstripedMeanwhile() {
+        Long product = createProduct(10);
+        stripe(product, 2);
+        ProductStockRepositoryImpl repository = new ProductStockRepositoryImpl(
+                new StripingSwitch(dataSource, () -> unstripe(product)));
+
+        int[] updated = repository.decrementStock(List.of(line(product, 4)));
+
+        assertArrayEquals(new int[]{1}, updated);
+        assertEquals(6, stockOf(product));
+    }
+
+    @Test
+    void rebalanceEvensOutSkewedBucketsOnly() {
+        Long product = createProduct(11);
+        stripe(product, 3);
+        assertEquals(List.of(4, 4, 3), bucketStocks(product));
+        assertFalse(productRepository.rebalanceBuckets(product));
+
+        jdbcTemplate.update("UPDATE product_stock_buckets SET stock = 0 WHERE product_id = ? AND bucket_no = 0", product);
+        jdbcTemplate.update("UPDATE product_stock_buckets SET stock = 8 WHERE product_id = ? AND bucket_no = 1", product);
+        assertTrue(productRepository.rebalanceBuckets(product));
+
+        assertEquals(List.of(4, 4, 3), bucketStocks(product));
+        assertEquals(List.of(product), productRepository.findStripedProductIds());
+    }
+
+    @Test
+    void availableStockOfStripedProductIsTheBucketSum() {
+        Long product = createProduct(7);
+        stripe(product, 2);
+        productRepository.decrementStock(List.of(line(product, 2)));
+        entityManager.clear();
+
+        Product striped = productRepository.findById(product).orElseThrow();
+
+        assertTrue(striped.isStockStriped());
+        assertEquals(0, striped.getStock());
+        assertEquals(5, striped.getAvailableStock());
+    }
+
+    private Long createProduct(int stock) {
+        return productRepository.saveAndFlush(Product.builder()
+                .name("product")
+                .price(BigDecimal.TEN)
+                .stock(stock)
+                .build()).getProductId();
+    }
+
+    private int stockOf(Long productId) {
+        return jdbcTemplate.queryForObject("SELECT stock FROM products WHERE product_id = ?", Integer.class, productId);
+    }
+
+    // Same row layout configureStockStriping produces: the stock moves into evenly filled buckets
+    private void stripe(Long productId, int buckets) {
+        int total = stockOf(productId);
+        productRepository.redistributeBucketStock(productId, buckets, total);
+        jdbcTemplate.update("UPDATE products SET stock = 0, stock_buckets = ? WHERE product_id = ?", buckets, productId);
+    }
+
+    private void unstripe(Long productId) {
+        int total = bucketSum(productId);
+        productRepository.redistributeBucketStock(productId, 0, total);
+        jdbcTemplate.update("UPDATE products SET stock = ?, stock_buckets = 0 WHERE product_id = ?", total, productId);
+    }
+
+    private int bucketSum(Long productId) {
+        return bucketStocks(productId).stream().mapToInt(Integer::intValue).sum();
+    }
+
+    private List<Integer> bucketStocks(Long productId) {
+        return jdbcTemplate.queryForList(
+                "SELECT stock FROM product_stock_buckets WHERE product_id = ? ORDER BY bucket_no", Integer.class, productId);
+    }
+
+    private static StockUpdateRequest line(Long productId, int quantity) {
+        return new StockUpdateRequest(productId, quantity);
+    }
+
+    /**
+     * Runs a change once, right after the first query made through the named-parameter template,
+     * which is the repository's lookup of the striped products.
+     */
+    private static class StripingSwitch extends JdbcTemplate {
+
+        private Runnable change;
+
+        StripingSwitch(DataSource dataSource, Runnable change) {
+            super(dataSource);
+            this.change = change;
+        }
+
+        @Override
+        public void query(PreparedStatementCreator psc, RowCallbackHandler rch) {
+            super.query(psc, rch);
+            if (change != null) {
+                Runnable pending = change;
+                change = null;
+                pending.run();
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package tech.sohaib_tarek.productservice;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Transactional;
+import tech.sohaib_tarek.productservice.dto.StockAsOfResponse;
+import tech.sohaib_tarek.productservice.entity.Product;
+import tech.sohaib_tarek.productservice.enums.StockMovementReason;
+import tech.sohaib_tarek.productservice.inventory.InventoryEngine;
+import tech.sohaib_tarek.productservice.repository.ProductRepository;
+import tech.sohaib_tarek.productservice.repository.StockSnapshotRepository;
+import tech.sohaib_tarek.productservice.service.StockJournalService;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Snapshots compact the movement journal: the first run folds the current stock back to the
+ * cutoff, later runs add the movements since to the products that moved, and a point-in-time
+ * query is the latest snapshot plus the movements after it.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:stockjournal;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "eureka.client.enabled=false"
+})
+@Transactional
+class StockJournalServiceTest {
+
+    private static final LocalDateTime CUTOFF = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    @Autowired
+    private StockJournalService stockJournalService;
+
+    @Autowired
+    private StockSnapshotRepository snapshotRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private InventoryEngine inventoryEngine;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void firstRunTakesBackTheMovementsAfterTheCutoff() {
+        Long moved = createProduct(7);
+        movement(moved, 10, CUTOFF.minusHours(2));
+        movement(moved, -3, CUTOFF.plusHours(1));
+        Long striped = createProduct(0);
+        productRepository.redistributeBucketStock(striped, 2, 4);
+
+        assertEquals(2, snapshotRepository.snapshotAll(CUTOFF));
+
+        assertEquals(List.of(10), snapshotsOf(moved));
+        assertEquals(List.of(4), snapshotsOf(striped));
+    }
+
+    @Test
+    void laterRunsOnlySnapshotTheProductsThatMoved() {
+        Long moved = createProduct(7);
+        movement(moved, 10, CUTOFF.minusHours(2));
+        movement(moved, -3, CUTOFF.plusHours(1));
+        movement(moved, -1, CUTOFF.plusHours(3));
+        Long idle = createProduct(5);
+        snapshotRepository.snapshotAll(CUTOFF);
+
+        assertEquals(1, snapshotRepository.snapshotMoved(CUTOFF, CUTOFF.plusHours(2)));
+
+        assertEquals(List.of(10, 7), snapshotsOf(moved));
+        assertEquals(List.of(5), snapshotsOf(idle));
+    }
+
+    @Test
+    void stockAsOfIsTheLatestSnapshotPlusTheMovementsAfterIt() {
+        Long product = createProduct(7);
+        movement(product, 10, CUTOFF.minusHours(2));
+        movement(product, -3, CUTOFF.plusHours(1));
+        snapshotRepository.snapshotAll(CUTOFF);
+
+        StockAsOfResponse later = stockJournalService.getStockAsOf(product, CUTOFF.plusHours(2));
+        assertEquals(7, later.getStock());
+        assertEquals(CUTOFF, later.getSnapshotAt());
+        assertEquals(1L, later.getMovementsReplayed());
+
+        // Before the first snapshot there is nothing to start from but the movements
+        StockAsOfResponse earlier = stockJournalService.getStockAsOf(product, CUTOFF.minusHours(1));
+        assertEquals(10, earlier.getStock());
+        assertNull(earlier.getSnapshotAt());
+        assertEquals(0, stockJournalService.getStockAsOf(product, CUTOFF.minusHours(3)).getStock());
+    }
+
+    @Test
+    void firstSnapshotIsNotTakenWhileTheEngineWritesStockBehind() {
+        createProduct(7);
+        ReflectionTestUtils.setField(inventoryEngine, "enabled", true);
+        try {
+            assertEquals(0, stockJournalService.takeSnapshot());
+        } finally {
+            ReflectionTestUtils.setField(inventoryEngine, "enabled", false);
+        }
+        assertEquals(0, snapshotRepository.count());
+
+        assertEquals(1, stockJournalService.takeSnapshot());
+    }
+
+    private Long createProduct(int stock) {
+        return productRepository.saveAndFlush(Product.builder()
+                .name("product")
+                .price(BigDecimal.TEN)
+                .stock(stock)
+                .build()).getProductId();
+    }
+
+    private void movement(Long productId, int delta, LocalDateTime createdAt) {
+        jdbcTemplate.update("INSERT INTO stock_movements (product_id, delta, reason, created_at) VALUES (?, ?, ?, ?)",
+                productId, delta, StockMovementReason.MANUAL_ADJUSTMENT.name(), Timestamp.valueOf(createdAt));
+    }
+
+    private List<Integer> snapshotsOf(Long productId) {
+        return jdbcTemplate.queryForList(
+                "SELECT stock FROM stock_snapshots WHERE product_id = ? ORDER BY taken_at", Integer.class, productId);
+    }
+}
@@ -0,0 +1,246 @@
+package tech.sohaib_tarek.productservice;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import tech.sohaib_tarek.productservice.dto.CartReservationResponse;
+import tech.sohaib_tarek.productservice.dto.StockReservationRequest;
+import tech.sohaib_tarek.productservice.dto.StockUpdateRequest;
+import tech.sohaib_tarek.productservice.entity.Product;
+import tech.sohaib_tarek.productservice.enums.ReservationStatus;
+import tech.sohaib_tarek.productservice.exception.InsufficientStockException;
+import tech.sohaib_tarek.productservice.repository.ProductRepository;
+import tech.sohaib_tarek.productservice.repository.StockReservationRepository;
+import tech.sohaib_tarek.productservice.service.StockReservationService;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Every transition of the reservation state machine, checked against the stock it moves,
+ * including order edits that reserve only the per-product difference and the release of all of
+ * an order's reservations at once.
+ * Not transactional: each service call commits or rolls back on its own, as in production.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:reservations;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "eureka.client.enabled=false",
+        "stock.reservation.expiry-interval-ms=3600000"
+})
+class StockReservationServiceTest {
+
+    @Autowired
+    private StockReservationService reservationService;
+
+    @Autowired
+    private StockReservationRepository reservationRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private Long productId;
+
+    @BeforeEach
+    void createProduct() {
+        reservationRepository.deleteAll();
+        productRepository.deleteAll();
+        productId = createProduct(10);
+    }
+
+    @Test
+    void releaseGivesHeldStockBackOnce() {
+        String reservationId = reserve(3);
+        assertEquals(7, stock());
+        assertEquals(ReservationStatus.RESERVED, status(reservationId));
+
+        reservationService.release(reservationId);
+        reservationService.release(reservationId);
+
+        assertEquals(10, stock());
+        assertEquals(ReservationStatus.RELEASED, status(reservationId));
+    }
+
+    @Test
+    void confirmKeepsStockAndReleasingTheConfirmedOrderReturnsIt() {
+        String reservationId = reserve(3);
+
+        reservationService.confirm(reservationId);
+        reservationService.confirm(reservationId);
+        assertEquals(7, stock());
+        assertEquals(ReservationStatus.CONFIRMED, status(reservationId));
+
+        reservationService.release(reservationId);
+        assertEquals(10, stock());
+        assertEquals(ReservationStatus.RELEASED, status(reservationId));
+    }
+
+    @Test
+    void expiryReturnsStockAndLaterReleaseIsNoOp() {
+        String reservationId = reserve(3);
+
+        assertTrue(reservationService.expire(reservationId));
+        assertEquals(10, stock());
+        assertEquals(ReservationStatus.EXPIRED, status(reservationId));
+
+        assertFalse(reservationService.expire(reservationId));
+        reservationService.release(reservationId);
+        assertEquals(10, stock());
+        assertEquals(ReservationStatus.EXPIRED, status(reservationId));
+    }
+
+    @Test
+    void confirmedReservationDoesNotExpire() {
+        String reservationId = reserve(3);
+        reservationService.confirm(reservationId);
+
+        assertFalse(reservationService.expire(reservationId));
+        assertEquals(7, stock());
+        assertEquals(ReservationStatus.CONFIRMED, status(reservationId));
+    }
+
+    @Test
+    void confirmAfterExpiryTakesTheStockAgain() {
+        String reservationId = reserve(3);
+        reservationService.expire(reservationId);
+
+        reservationService.confirm(reservationId);
+
+        assertEquals(7, stock());
+        assertEquals(ReservationStatus.CONFIRMED, status(reservationId));
+    }
+
+    @Test
+    void confirmAfterExpiryFailsWhenTheStockIsGone() {
+        String reservationId = reserve(3);
+        reservationService.expire(reservationId);
+        reserve(9);
+
+        assertThrows(InsufficientStockException.class, () -> reservationService.confirm(reservationId));
+
+        assertEquals(1, stock());
+        assertEquals(ReservationStatus.EXPIRED, status(reservationId));
+    }
+
+    @Test
+    void orderEditTakesIncreasesNowAndReturnsDecreasesOnConfirm() {
+        Long removed = createProduct(10);
+        Long added = createProduct(10);
+
+        CartReservationResponse edit = reservationService.reserveCart(new StockReservationRequest(
+                List.of(line(productId, 5), line(added, 1)),
+                List.of(line(productId, 2), line(removed, 3))));
+
+        assertTrue(edit.isReserved());
+        assertEquals(7, stock(productId));
+        assertEquals(9, stock(added));
+        // The removed line keeps its stock until the edit is confirmed
+        assertEquals(10, stock(removed));
+
+        reservationService.confirm(edit.getReservationId());
+        assertEquals(7, stock(productId));
+        assertEquals(9, stock(added));
+        assertEquals(13, stock(removed));
+    }
+
+    @Test
+    void releasingAnUnconfirmedEditOnlyReturnsWhatItTook() {
+        Long removed = createProduct(10);
+
+        CartReservationResponse edit = reservationService.reserveCart(new StockReservationRequest(
+                List.of(line(productId, 4)),
+                List.of(line(productId, 1), line(removed, 2))));
+        assertEquals(7, stock(productId));
+
+        reservationService.release(edit.getReservationId());
+        assertEquals(10, stock(productId));
+        assertEquals(10, stock(removed));
+    }
+
+    @Test
+    void orderEditNetsRepeatedLinesPerProduct() {
+        CartReservationResponse unchanged = reservationService.reserveCart(new StockReservationRequest(
+                List.of(line(productId, 1), line(productId, 1)),
+                List.of(line(productId, 2))));
+        assertTrue(unchanged.isReserved());
+        assertEquals(10, stock(productId));
+
+        CartReservationResponse decrease = reservationService.reserveCart(new StockReservationRequest(
+                List.of(line(productId, 1), line(productId, 1)),
+                List.of(line(productId, 4))));
+        assertTrue(decrease.isReserved());
+        assertEquals(10, stock(productId));
+
+        reservationService.confirm(decrease.getReservationId());
+        assertEquals(12, stock(productId));
+    }
+
+    @Test
+    void releasingAllReservationsOfAnEditedOrderNetsThemPerProduct() {
+        String order = reserve(5);
+        reservationService.confirm(order);
+        CartReservationResponse edit = reservationService.reserveCart(new StockReservationRequest(
+                List.of(line(productId, 2)),
+                List.of(line(productId, 5))));
+        reservationService.confirm(edit.getReservationId());
+        // Everything the edit gave back is sold again
+        reservationService.confirm(reserve(8));
+        assertEquals(0, stock());
+
+        // The edit's release alone would have to take 3 back from an empty stock
+        reservationService.releaseAll(List.of(edit.getReservationId(), order));
+        reservationService.releaseAll(List.of(edit.getReservationId(), order));
+
+        assertEquals(2, stock());
+        assertEquals(ReservationStatus.RELEASED, status(order));
+        assertEquals(ReservationStatus.RELEASED, status(edit.getReservationId()));
+    }
+
+    @Test
+    void orderEditIsRejectedWhenTheIncreaseIsNotAvailable() {
+        CartReservationResponse edit = reservationService.reserveCart(new StockReservationRequest(
+                List.of(line(productId, 13)),
+                List.of(line(productId, 2))));
+
+        assertFalse(edit.isReserved());
+        assertEquals(10, stock(productId));
+    }
+
+    private Long createProduct(int stock) {
+        return productRepository.save(Product.builder()
+                .name("product")
+                .price(BigDecimal.TEN)
+                .stock(stock)
+                .build()).getProductId();
+    }
+
+    private static StockUpdateRequest line(Long productId, int quantity) {
+        return new StockUpdateRequest(productId, quantity);
+    }
+
+    private String reserve(int quantity) {
+        return reservationService.reserve(new StockReservationRequest(
+                List.of(line(productId, quantity)))).getReservationId();
+    }
+
+    private int stock() {
+        return stock(productId);
+    }
+
+    private int stock(Long id) {
+        return productRepository.findById(id).orElseThrow().getStock();
+    }
+
+    private ReservationStatus status(String reservationId) {
+        return reservationRepository.findById(reservationId).orElseThrow().getStatus();
+    }
+}
@@ -0,0 +1,236 @@
+package tech.sohaib_tarek.productservice.inventory;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import tech.sohaib_tarek.productservice.dto.StockUpdateRequest;
+import tech.sohaib_tarek.productservice.entity.Product;
+import tech.sohaib_tarek.productservice.enums.StockMovementReason;
+import tech.sohaib_tarek.productservice.exception.InventoryUnavailableException;
+import tech.sohaib_tarek.productservice.repository.InventoryCheckpointRepository;
+import tech.sohaib_tarek.productservice.repository.ProductRepository;
+import tech.sohaib_tarek.productservice.repository.StockMovementRepository;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * The engine against the products table: only committed changes are written behind, and after
+ * a crash the journal replayed on top of the last checkpoint keeps exactly the changes whose
+ * transaction committed. Each test runs its own engines; the application's one stays disabled.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:inventoryengine;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "eureka.client.enabled=false"
+})
+class InventoryEngineTest {
+
+    @TempDir
+    private Path journalDirectory;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private InventoryCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private StockMovementRepository movementRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<InventoryEngine> engines = new ArrayList<>();
+
+    @BeforeEach
+    void clearTables() {
+        checkpointRepository.deleteAll();
+        movementRepository.deleteAll();
+        productRepository.deleteAll();
+    }
+
+    @AfterEach
+    void stopEngines() {
+        engines.forEach(this::crash);
+    }
+
+    @Test
+    void onlyCommittedChangesAreWrittenBehind() {
+        Long product = createProduct(10);
+        InventoryEngine engine = startEngine(1 << 20);
+
+        long committed = engine.newToken();
+        engine.reduce(committed, List.of(line(product, 3)));
+        engine.complete(committed, List.of(product), true);
+        long open = engine.newToken();
+        engine.reduce(open, List.of(line(product, 2)));
+        engine.flush();
+
+        assertEquals(5, engine.getStock(product));
+        assertEquals(7, stockOf(product));
+
+        engine.complete(open, List.of(product), false);
+        engine.flush();
+
+        assertEquals(7, engine.getStock(product));
+        assertEquals(7, stockOf(product));
+    }
+
+    @Test
+    void replayKeepsOpenChangesWhoseTransactionCommitted() {
+        Long committed = createProduct(10);
+        Long rolledBack = createProduct(10);
+        InventoryEngine engine = startEngine(1 << 20);
+
+        long committedToken = engine.newToken();
+        engine.reduce(committedToken, List.of(line(committed, 3)));
+        movementRepository.appendMovements(List.of(line(committed, 3)), -1,
+                StockMovementReason.DIRECT_REDUCTION, null, committedToken);
+        engine.reduce(engine.newToken(), List.of(line(rolledBack, 4)));
+        // Neither outcome reaches the engine
+        crash(engine);
+
+        InventoryEngine restarted = startEngine(1 << 20);
+
+        assertEquals(7, stockOf(committed));
+        assertEquals(10, stockOf(rolledBack));
+        assertEquals(7, restarted.getStock(committed));
+        assertEquals(10, restarted.getStock(rolledBack));
+    }
+
+    @Test
+    void replayStartsFromTheCheckpointAndTheOldestOpenChange() {
+        Long product = createProduct(10);
+        // A new journal segment after every batch, so the flush really deletes some
+        InventoryEngine engine = startEngine(1);
+
+        long first = engine.newToken();
+        engine.reduce(first, List.of(line(product, 3)));
+        engine.complete(first, List.of(product), true);
+        long spanning = engine.newToken();
+        engine.reduce(spanning, List.of(line(product, 1)));
+        movementRepository.appendMovements(List.of(line(product, 1)), -1,
+                StockMovementReason.DIRECT_REDUCTION, null, spanning);
+        engine.flush();
+        assertEquals(7, stockOf(product));
+
+        long second = engine.newToken();
+        engine.reduce(second, List.of(line(product, 2)));
+        engine.complete(second, List.of(product), true);
+        engine.reduce(engine.newToken(), List.of(line(product, 1)));
+        crash(engine);
+
+        InventoryEngine restarted = startEngine(1);
+
+        assertEquals(4, stockOf(product));
+        assertEquals(4, restarted.getStock(product));
+    }
+
+    @Test
+    void setStockKeepsWhatConcurrentOrdersTook() {
+        Long product = createProduct(10);
+        InventoryEngine engine = startEngine(1 << 20);
+
+        long order = engine.newToken();
+        engine.reduce(order, List.of(line(product, 3)));
+        long update = engine.newToken();
+        assertEquals(13, engine.setStock(update, product, 20));
+        engine.complete(update, List.of(product), true);
+        engine.complete(order, List.of(product), false);
+        engine.flush();
+
+        assertEquals(23, engine.getStock(product));
+        assertEquals(23, stockOf(product));
+    }
+
+    @Test
+    void halfFailedDispatchTakesBackTheLinesThatWentThrough() throws InterruptedException {
+        InventoryEngine engine = startEngine(1 << 20);
+        Long healthy = null;
+        Long failing = null;
+        while (healthy == null || failing == null) {
+            Long product = createProduct(10);
+            engine.putStock(product, 10);
+            if (partitionNo(engine, product) == 0) {
+                healthy = product;
+            } else {
+                failing = product;
+            }
+        }
+        partitions(engine)[partitionNo(engine, failing)].stop();
+
+        List<StockUpdateRequest> lines = List.of(line(healthy, 4), line(failing, 1));
+        assertThrows(InventoryUnavailableException.class, () -> engine.reduce(engine.newToken(), lines));
+
+        assertEquals(10, engine.getStock(healthy));
+    }
+
+    private InventoryEngine startEngine(long journalSegmentBytes) {
+        InventoryEngine engine = new InventoryEngine(productRepository, checkpointRepository, movementRepository,
+                transactionManager, new SimpleMeterRegistry(), journalDirectory.toString());
+        ReflectionTestUtils.setField(engine, "enabled", true);
+        ReflectionTestUtils.setField(engine, "partitionCount", 2);
+        ReflectionTestUtils.setField(engine, "queueCapacity", 64);
+        ReflectionTestUtils.setField(engine, "maxBatch", 16);
+        ReflectionTestUtils.setField(engine, "timeoutMs", 2000L);
+        ReflectionTestUtils.setField(engine, "journalSegmentBytes", journalSegmentBytes);
+        engine.start();
+        engines.add(engine);
+        return engine;
+    }
+
+    // Stops the writers without the final flush, leaving only what the journal holds
+    private void crash(InventoryEngine engine) {
+        for (InventoryPartition partition : partitions(engine)) {
+            try {
+                partition.stop();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        ReflectionTestUtils.setField(engine, "running", false);
+    }
+
+    private static InventoryPartition[] partitions(InventoryEngine engine) {
+        return (InventoryPartition[]) ReflectionTestUtils.getField(engine, "partitions");
+    }
+
+    private static int partitionNo(InventoryEngine engine, Long productId) {
+        return ReflectionTestUtils.invokeMethod(engine, "indexOf", productId.longValue());
+    }
+
+    private Long createProduct(int stock) {
+        return productRepository.save(Product.builder()
+                .name("product")
+                .price(BigDecimal.TEN)
+                .stock(stock)
+                .build()).getProductId();
+    }
+
+    private int stockOf(Long productId) {
+        return jdbcTemplate.queryForObject("SELECT stock FROM products WHERE product_id = ?", Integer.class, productId);
+    }
+
+    private static StockUpdateRequest line(Long productId, int quantity) {
+        return new StockUpdateRequest(productId, quantity);
+    }
+}
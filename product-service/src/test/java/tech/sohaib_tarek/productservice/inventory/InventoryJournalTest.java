@@ -0,0 +1,93 @@
+package tech.sohaib_tarek.productservice.inventory;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * What replay gets back from the journal: every synced record in order, nothing of a record a
+ * crash cut short, and nothing from the segments a checkpoint made obsolete.
+ */
+class InventoryJournalTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void replayReturnsTheRecordsOfEveryPartitionInOrder() throws IOException {
+        try (InventoryJournal first = new InventoryJournal(directory, 0, 1 << 20, 1);
+             InventoryJournal second = new InventoryJournal(directory, 1, 1 << 20, 1)) {
+            first.append(1, InventoryJournal.SET, 0, 10, 5);
+            first.append(2, InventoryJournal.DELTA, 77, 10, -2);
+            second.append(1, InventoryJournal.REMOVE, 0, 11, 0);
+            first.append(3, InventoryJournal.COMMIT, 77, 0, 0);
+            first.sync(4);
+            second.sync(2);
+        }
+
+        assertEquals(List.of("0:1:2:0:10:5", "0:2:1:77:10:-2", "0:3:4:77:0:0", "1:1:3:0:11:0"), replay());
+    }
+
+    @Test
+    void recordCutShortByACrashIsIgnored() throws IOException {
+        try (InventoryJournal journal = new InventoryJournal(directory, 0, 1 << 20, 1)) {
+            journal.append(1, InventoryJournal.DELTA, 5, 10, -1);
+            journal.sync(2);
+        }
+        Files.write(segments().get(0), new byte[]{0, 0, 0, 0, 0, 0, 0, 2, InventoryJournal.DELTA},
+                StandardOpenOption.APPEND);
+
+        assertEquals(List.of("0:1:1:5:10:-1"), replay());
+    }
+
+    @Test
+    void deleteThroughDropsOnlySegmentsReplayNoLongerNeeds() throws IOException {
+        // A one-byte limit starts a new segment after every sync
+        try (InventoryJournal journal = new InventoryJournal(directory, 0, 1, 1)) {
+            for (long seq = 1; seq <= 3; seq++) {
+                journal.append(seq, InventoryJournal.DELTA, 9, 10, -1);
+                journal.sync(seq + 1);
+            }
+            assertEquals(4, segments().size());
+
+            journal.deleteThrough(2);
+        }
+
+        assertEquals(2, segments().size());
+        assertEquals(List.of("0:3:1:9:10:-1"), replay());
+    }
+
+    @Test
+    void deleteAllLeavesNothingToReplay() throws IOException {
+        try (InventoryJournal journal = new InventoryJournal(directory, 0, 1 << 20, 1)) {
+            journal.append(1, InventoryJournal.SET, 0, 10, 5);
+            journal.sync(2);
+        }
+
+        InventoryJournal.deleteAll(directory);
+
+        assertEquals(List.of(), replay());
+    }
+
+    private List<String> replay() throws IOException {
+        List<String> records = new ArrayList<>();
+        InventoryJournal.replay(directory, (partition, seq, type, token, productId, value) ->
+                records.add(partition + ":" + seq + ":" + type + ":" + token + ":" + productId + ":" + value));
+        return records;
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+}
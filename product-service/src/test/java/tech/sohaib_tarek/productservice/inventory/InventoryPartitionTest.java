@@ -0,0 +1,165 @@
+package tech.sohaib_tarek.productservice.inventory;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * One partition on its own: guarded reductions, tentative changes that only reach the
+ * write-behind once committed, stock given back that cannot be spent before its commit, and
+ * commands that queue up while the writer is busy being applied as one batch.
+ */
+class InventoryPartitionTest {
+
+    private static final long PRODUCT = 10;
+    private static final long OTHER_PRODUCT = 11;
+    private static final long UNKNOWN_PRODUCT = 12;
+
+    @TempDir
+    private Path directory;
+
+    private DistributionSummary batchSize;
+    private InventoryPartition partition;
+
+    @BeforeEach
+    void createPartition() {
+        LongIntMap stock = new LongIntMap(16);
+        stock.put(PRODUCT, 10);
+        stock.put(OTHER_PRODUCT, 2);
+        batchSize = DistributionSummary.builder("inventory.engine.batch.size").register(new SimpleMeterRegistry());
+        partition = new InventoryPartition(0, stock, new InventoryJournal(directory, 0, 1 << 20, 1), 0,
+                64, 16, 1000, batchSize);
+    }
+
+    @AfterEach
+    void stopPartition() throws InterruptedException {
+        partition.stop();
+    }
+
+    @Test
+    void reduceTakesOnlyWhatIsLeft() {
+        partition.start();
+
+        int[] results = partition.reduce(1, new long[]{PRODUCT, OTHER_PRODUCT, UNKNOWN_PRODUCT, PRODUCT},
+                new int[]{4, 3, 1, 6}).join();
+
+        assertArrayEquals(new int[]{InventoryPartition.APPLIED, InventoryPartition.INSUFFICIENT,
+                InventoryPartition.UNKNOWN, InventoryPartition.APPLIED}, results);
+        assertArrayEquals(new int[]{0, 2, LongIntMap.MISSING}, stock(PRODUCT, OTHER_PRODUCT, UNKNOWN_PRODUCT));
+    }
+
+    @Test
+    void openChangeHoldsBackWhatItTookButIsNotWrittenBehind() {
+        partition.start();
+        partition.reduce(1, new long[]{PRODUCT}, new int[]{3}).join();
+        partition.commit(1).join();
+        partition.reduce(2, new long[]{PRODUCT}, new int[]{2}).join();
+        partition.adjust(2, new long[]{PRODUCT}, new int[]{4}).join();
+
+        InventoryPartition.Snapshot snapshot = partition.takeDirty().join();
+
+        assertArrayEquals(new int[]{5}, stock(PRODUCT));
+        assertArrayEquals(new long[]{PRODUCT}, snapshot.productIds());
+        assertArrayEquals(new int[]{7}, snapshot.stocks());
+        // DELTA 1, COMMIT 2, then the open change holds 3 and 4
+        assertEquals(4, snapshot.seq());
+        assertEquals(3, snapshot.replayFrom());
+    }
+
+    @Test
+    void commitMakesTheChangeDirtyAndReleasesTheJournal() {
+        partition.start();
+        partition.reduce(1, new long[]{PRODUCT, OTHER_PRODUCT}, new int[]{1, 1}).join();
+        assertEquals(0, partition.takeDirty().join().productIds().length);
+
+        partition.commit(1).join();
+        InventoryPartition.Snapshot snapshot = partition.takeDirty().join();
+
+        assertEquals(2, snapshot.productIds().length);
+        assertEquals(snapshot.seq() + 1, snapshot.replayFrom());
+    }
+
+    @Test
+    void abortTakesBackEveryLineOfTheChange() {
+        partition.start();
+        partition.reduce(1, new long[]{PRODUCT, PRODUCT}, new int[]{4, 5}).join();
+        partition.adjust(1, new long[]{OTHER_PRODUCT}, new int[]{3}).join();
+
+        partition.abort(1).join();
+        partition.abort(1).join();
+
+        assertArrayEquals(new int[]{10, 2}, stock(PRODUCT, OTHER_PRODUCT));
+        assertEquals(0, partition.takeDirty().join().productIds().length);
+    }
+
+    @Test
+    void restoredStockCannotBeSpentBeforeItsCommit() {
+        partition.start();
+        partition.adjust(1, new long[]{OTHER_PRODUCT}, new int[]{3}).join();
+
+        int[] results = partition.reduce(2, new long[]{OTHER_PRODUCT}, new int[]{5}).join();
+        partition.abort(1).join();
+
+        assertArrayEquals(new int[]{InventoryPartition.INSUFFICIENT}, results);
+        assertArrayEquals(new int[]{2}, stock(OTHER_PRODUCT));
+    }
+
+    @Test
+    void restoredStockCanBeSpentOnceCommitted() {
+        partition.start();
+        partition.adjust(1, new long[]{OTHER_PRODUCT}, new int[]{3}).join();
+        partition.commit(1).join();
+
+        int[] results = partition.reduce(2, new long[]{OTHER_PRODUCT}, new int[]{5}).join();
+        partition.commit(2).join();
+
+        assertArrayEquals(new int[]{InventoryPartition.APPLIED}, results);
+        assertArrayEquals(new int[]{0}, stock(OTHER_PRODUCT));
+        assertArrayEquals(new int[]{0}, partition.takeDirty().join().stocks());
+    }
+
+    @Test
+    void assignAppliesTheDifferenceToTheStockOfThatMoment() {
+        partition.start();
+        partition.reduce(1, new long[]{PRODUCT}, new int[]{3}).join();
+
+        assertEquals(13, partition.assign(2, PRODUCT, 20).join());
+        assertNull(partition.assign(2, UNKNOWN_PRODUCT, 20).join());
+        assertArrayEquals(new int[]{7}, stock(PRODUCT));
+        partition.commit(2).join();
+        partition.abort(1).join();
+
+        assertArrayEquals(new int[]{23}, stock(PRODUCT));
+    }
+
+    @Test
+    void queuedCommandsAreAppliedAsOneBatch() {
+        List<CompletableFuture<int[]>> pending = new ArrayList<>();
+        for (int token = 1; token <= 5; token++) {
+            pending.add(partition.reduce(token, new long[]{PRODUCT}, new int[]{1}));
+        }
+
+        partition.start();
+        pending.forEach(CompletableFuture::join);
+
+        assertEquals(1, batchSize.count());
+        assertEquals(5, batchSize.totalAmount());
+        assertArrayEquals(new int[]{5}, stock(PRODUCT));
+    }
+
+    private int[] stock(long... productIds) {
+        return partition.get(productIds).join();
+    }
+}
@@ -0,0 +1,78 @@
+package tech.sohaib_tarek.productservice.inventory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The map behind every partition: values survive growth, and deletion never cuts a probe chain
+ * short, even when most keys collide.
+ */
+class LongIntMapTest {
+
+    @Test
+    void putOverwritesAndMissingKeysAreReported() {
+        LongIntMap map = new LongIntMap(4);
+
+        map.put(7, 1);
+        map.put(7, 5);
+
+        assertEquals(5, map.get(7));
+        assertEquals(LongIntMap.MISSING, map.get(8));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    void growsFarBeyondItsExpectedSize() {
+        LongIntMap map = new LongIntMap(4);
+
+        for (long key = 1; key <= 10_000; key++) {
+            map.put(key * 31, (int) key);
+        }
+
+        assertEquals(10_000, map.size());
+        for (long key = 1; key <= 10_000; key++) {
+            assertEquals((int) key, map.get(key * 31));
+        }
+    }
+
+    @Test
+    void removeKeepsTheOtherKeysReachable() {
+        LongIntMap map = new LongIntMap(16);
+        for (long key = 0; key < 1_000; key++) {
+            map.put(key, (int) key);
+        }
+
+        for (long key = 0; key < 1_000; key += 2) {
+            map.remove(key);
+        }
+        map.remove(5_000);
+
+        assertEquals(500, map.size());
+        for (long key = 0; key < 1_000; key++) {
+            assertEquals(key % 2 == 0 ? LongIntMap.MISSING : (int) key, map.get(key));
+        }
+        map.put(4, 44);
+        assertEquals(44, map.get(4));
+        assertEquals(501, map.size());
+    }
+
+    @Test
+    void forEachVisitsEveryEntryAndClearEmptiesTheMap() {
+        LongIntMap map = new LongIntMap(8);
+        map.put(1, 10);
+        map.put(2, 20);
+        map.put(-3, 30);
+
+        Map<Long, Integer> seen = new HashMap<>();
+        map.forEach(seen::put);
+        map.clear();
+
+        assertEquals(Map.of(1L, 10, 2L, 20, -3L, 30), seen);
+        assertEquals(0, map.size());
+        assertEquals(LongIntMap.MISSING, map.get(1));
+    }
+}
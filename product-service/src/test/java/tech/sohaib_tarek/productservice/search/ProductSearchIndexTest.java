@@ -0,0 +1,114 @@
+package tech.sohaib_tarek.productservice.search;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import tech.sohaib_tarek.productservice.entity.Product;
+import tech.sohaib_tarek.productservice.event.ProductChangedEvent;
+import tech.sohaib_tarek.productservice.repository.ProductRepository;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Terms are folded before they are indexed, a query term also matches the terms it is a prefix
+ * of, and ranking favours name hits, exact hits and rare terms. Changes committed while the index
+ * is rebuilt are not overwritten by the rows the rebuild read before them.
+ */
+class ProductSearchIndexTest {
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final ProductSearchIndex index = new ProductSearchIndex(productRepository);
+
+    @Test
+    void termsAreCaseFoldedAndAccentStripped() {
+        assertEquals(List.of("creme", "brulee", "2x"), ProductSearchIndex.tokenize("Crème BRÛLÉE, 2x!"));
+        assertEquals(List.of(), ProductSearchIndex.tokenize("  -- "));
+    }
+
+    @Test
+    void queryTermMatchesTheTermsItIsAPrefixOf() {
+        index.index(1L, "Laptop stand", null);
+        index.index(2L, "Laptop sleeve", null);
+        index.index(3L, "Lapel pin", null);
+        index.index(4L, "Desk lamp", null);
+
+        List<Long> found = index.search("LAP", 10);
+
+        // The rarer expansion weighs more
+        assertEquals(3L, found.get(0));
+        assertEquals(Set.of(1L, 2L, 3L), Set.copyOf(found));
+        assertEquals(List.of(4L), index.search("lamp", 10));
+    }
+
+    @Test
+    void nameAndExactHitsRankFirst() {
+        index.index(1L, "Stand", "fits any laptop");
+        index.index(2L, "Laptop stand", null);
+        index.index(3L, "Pen", null);
+        index.index(4L, "Pencil", null);
+
+        assertEquals(List.of(2L, 1L), index.search("laptop", 10));
+        assertEquals(List.of(3L, 4L), index.search("pen", 10));
+        assertEquals(List.of(3L), index.search("pen", 1));
+    }
+
+    @Test
+    void everyQueryTermMustMatch() {
+        index.index(1L, "Laptop stand", null);
+        index.index(2L, "Laptop sleeve", null);
+
+        assertEquals(List.of(1L), index.search("laptop stand", 10));
+        assertEquals(List.of(), index.search("laptop pin", 10));
+    }
+
+    @Test
+    void committedChangesReplaceAndRemoveProducts() {
+        index.index(1L, "Laptop stand", null);
+        index.index(2L, "Desk lamp", null);
+
+        index.onProductChanged(new ProductChangedEvent(ProductChangedEvent.Type.UPDATED, 1L, "Monitor arm", null));
+        index.onProductChanged(ProductChangedEvent.deleted(2L));
+
+        assertEquals(List.of(), index.search("laptop", 10));
+        assertEquals(List.of(1L), index.search("monitor", 10));
+        assertEquals(List.of(), index.search("lamp", 10));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void rebuildKeepsTheChangesCommittedWhileItReadTheTable() {
+        index.index(9L, "Discontinued", null);
+        when(productRepository.findBy(any(), any(), any())).thenAnswer(invocation -> {
+            Window<Product> window = Window.from(List.of(product(1L, "Laptop stand"), product(2L, "Desk lamp")),
+                    ScrollPosition::offset, false);
+            // Both rows were read before these changes committed
+            index.onProductChanged(new ProductChangedEvent(ProductChangedEvent.Type.UPDATED, 1L, "Monitor arm", null));
+            index.onProductChanged(ProductChangedEvent.deleted(2L));
+            return window;
+        });
+
+        index.rebuild();
+
+        assertEquals(List.of(1L), index.search("monitor", 10));
+        assertEquals(List.of(), index.search("laptop", 10));
+        assertEquals(List.of(), index.search("lamp", 10));
+        assertEquals(List.of(), index.search("discontinued", 10));
+        assertEquals(1, index.size());
+    }
+
+    private static Product product(Long productId, String name) {
+        return Product.builder()
+                .productId(productId)
+                .name(name)
+                .price(BigDecimal.TEN)
+                .stock(1)
+                .build();
+    }
+}
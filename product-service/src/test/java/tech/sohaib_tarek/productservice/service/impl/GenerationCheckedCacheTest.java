@@ -0,0 +1,54 @@
+package tech.sohaib_tarek.productservice.service.impl;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * A value loaded before an eviction committed is never left in the cache, whichever of the put
+ * and the eviction lands first; without an eviction in between the put stays.
+ */
+class GenerationCheckedCacheTest {
+
+    private final GenerationCheckedCache cache = new GenerationCheckedCache(new ConcurrentMapCache("products"));
+
+    @Test
+    void putWithoutAnEvictionInBetweenStays() {
+        long generation = cache.generation(1L);
+
+        cache.put(1L, "stock=5", generation);
+
+        assertEquals("stock=5", cache.get(1L, String.class));
+    }
+
+    @Test
+    void putLandingAfterANewerEvictionIsDropped() {
+        long generation = cache.generation(1L);
+        cache.evict(1L);
+
+        cache.put(1L, "stock=5", generation);
+
+        assertNull(cache.get(1L, String.class));
+    }
+
+    @Test
+    void readerCommittingAfterTheWriterDoesNotRestoreTheOldStock() throws InterruptedException {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            long generation = cache.generation(1L);
+            cache.put(1L, "stock=5", generation);
+            // A writer commits and evicts while the reader's put waits for the reader's commit
+            Thread.ofVirtual().start(() -> cache.evict(1L)).join();
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+            assertNull(cache.get(1L, String.class));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}